@@ -699,6 +699,7 @@ public class InfoflowAndroidConfiguration extends InfoflowConfiguration {
 	private final AnalysisFileConfiguration analysisFileConfig = new AnalysisFileConfiguration();
 
 	private boolean mergeDexFiles = true;
+	private boolean pruneUnreachableClasses = false;
 
 	private boolean performConstantPropagation;
 	private static boolean createActivityEntryMethods = true;
@@ -726,6 +727,7 @@ public class InfoflowAndroidConfiguration extends InfoflowConfiguration {
 			this.analysisFileConfig.merge(androidConfig.analysisFileConfig);
 
 			this.mergeDexFiles = androidConfig.mergeDexFiles;
+			this.pruneUnreachableClasses = androidConfig.pruneUnreachableClasses;
 			this.createActivityEntryMethods = androidConfig.createActivityEntryMethods;
 		}
 	}
@@ -811,6 +813,34 @@ public class InfoflowAndroidConfiguration extends InfoflowConfiguration {
 		this.mergeDexFiles = mergeDexFiles;
 	}
 
+	/**
+	 * Gets whether FlowDroid shall run a fast reachability analysis on the raw dex
+	 * code before loading the app into Soot. Classes that are not reachable from
+	 * any entry point remain application classes, but are skipped when the app is
+	 * scanned as a whole, e.g., by the fast callback analyzer. Jimple bodies are
+	 * then only created for them if the callgraph reaches them.
+	 * 
+	 * @return True if FlowDroid shall only create bodies for reachable classes,
+	 *         otherwise false
+	 */
+	public boolean getPruneUnreachableClasses() {
+		return this.pruneUnreachableClasses;
+	}
+
+	/**
+	 * Sets whether FlowDroid shall run a fast reachability analysis on the raw dex
+	 * code before loading the app into Soot. Classes that are not reachable from
+	 * any entry point remain application classes, but are skipped when the app is
+	 * scanned as a whole, e.g., by the fast callback analyzer. Jimple bodies are
+	 * then only created for them if the callgraph reaches them.
+	 * 
+	 * @param pruneUnreachableClasses True if FlowDroid shall only create bodies for
+	 *                                reachable classes, otherwise false
+	 */
+	public void setPruneUnreachableClasses(boolean pruneUnreachableClasses) {
+		this.pruneUnreachableClasses = pruneUnreachableClasses;
+	}
+
 	/**
 	 * Gets if Flowdroid should create new Methods when creating the Activity Entry
 	 * point
@@ -841,6 +871,7 @@ public class InfoflowAndroidConfiguration extends InfoflowConfiguration {
 		result = prime * result + ((iccConfig == null) ? 0 : iccConfig.hashCode());
 		result = prime * result + (mergeDexFiles ? 1231 : 1237);
 		result = prime * result + (oneComponentAtATime ? 1231 : 1237);
+		result = prime * result + (pruneUnreachableClasses ? 1231 : 1237);
 		result = prime * result + ((sourceSinkConfig == null) ? 0 : sourceSinkConfig.hashCode());
 		return result;
 	}
@@ -873,6 +904,8 @@ public class InfoflowAndroidConfiguration extends InfoflowConfiguration {
 			return false;
 		if (oneComponentAtATime != other.oneComponentAtATime)
 			return false;
+		if (pruneUnreachableClasses != other.pruneUnreachableClasses)
+			return false;
 		if (sourceSinkConfig == null) {
 			if (other.sourceSinkConfig != null)
 				return false;
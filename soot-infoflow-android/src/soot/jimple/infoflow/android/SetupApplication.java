@@ -60,6 +60,7 @@ import soot.jimple.infoflow.android.callbacks.filters.UnreachableConstructorFilt
 import soot.jimple.infoflow.android.callbacks.xml.CollectedCallbacks;
 import soot.jimple.infoflow.android.callbacks.xml.CollectedCallbacksSerializer;
 import soot.jimple.infoflow.android.config.SootConfigForAndroid;
+import soot.jimple.infoflow.android.dex.DexReachabilityAnalysis;
 import soot.jimple.infoflow.android.data.AndroidMemoryManager;
 import soot.jimple.infoflow.android.data.AndroidMethod;
 import soot.jimple.infoflow.android.data.parsers.PermissionMethodParser;
@@ -73,6 +74,7 @@ import soot.jimple.infoflow.android.resources.ARSCFileParser;
 import soot.jimple.infoflow.android.resources.ARSCFileParser.AbstractResource;
 import soot.jimple.infoflow.android.resources.ARSCFileParser.StringResource;
 import soot.jimple.infoflow.android.resources.LayoutFileParser;
+import soot.jimple.infoflow.android.resources.LazyARSCFileParser;
 import soot.jimple.infoflow.android.resources.controls.AndroidLayoutControl;
 import soot.jimple.infoflow.android.results.xml.InfoflowResultsSerializer;
 import soot.jimple.infoflow.android.source.AccessPathBasedSourceSinkManager;
@@ -129,6 +131,7 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 	protected Set<SootClass> entrypoints = null;
 	protected MultiMap<SootMethod, Stmt> javascriptInterfaceStmts = new HashMultiMap<>();
 	protected Set<String> callbackClasses = null;
+	protected Set<String> unreachableClasses = null;
 	protected AndroidEntryPointCreator entryPointCreator = null;
 	protected IccInstrumenter iccInstrumenter = null;
 
@@ -203,7 +206,7 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 	 * @author Steven Arzt
 	 *
 	 */
-	private static class MultiRunResultAggregator implements ResultsAvailableHandler {
+	protected static class MultiRunResultAggregator implements ResultsAvailableHandler {
 
 		private final InfoflowResults aggregatedResults;
 		private InfoflowResults lastResults = null;
@@ -475,8 +478,8 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 
 		// Parse the resource file
 		long beforeARSC = System.nanoTime();
-		this.resources = new ARSCFileParser();
-		this.resources.parse(targetAPK);
+		LazyARSCFileParser lazyResources = LazyARSCFileParser.getInstance(targetAPK);
+		this.resources = lazyResources == null ? new ARSCFileParser() : lazyResources;
 		logger.info("ARSC file parsing took " + (System.nanoTime() - beforeARSC) / 1E9 + " seconds");
 
 		// To look for callbacks, we need to start somewhere. We use the Android
@@ -632,7 +635,7 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 				lfp == null ? null : lfp.getUserControlsByID());
 
 		sourceSinkManager.setAppPackageName(this.manifest.getPackageName());
-		sourceSinkManager.setResourcePackages(this.resources.getPackages());
+		sourceSinkManager.setResourceParser(this.resources);
 		return sourceSinkManager;
 	}
 
@@ -724,9 +727,7 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 		// source code. Note that the filters should know all components to
 		// filter out callbacks even if the respective component is only
 		// analyzed later.
-		AbstractCallbackAnalyzer jimpleClass = callbackClasses == null
-				? new DefaultCallbackAnalyzer(config, entryPointClasses, callbackMethods, callbackFile)
-				: new DefaultCallbackAnalyzer(config, entryPointClasses, callbackMethods, callbackClasses);
+		AbstractCallbackAnalyzer jimpleClass = createCallbackAnalyzer(entryPointClasses);
 		if (valueProvider != null)
 			jimpleClass.setValueProvider(valueProvider);
 		jimpleClass.addCallbackFilter(new AlienHostComponentFilter(entrypoints));
@@ -906,6 +907,20 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 		}
 	}
 
+	/**
+	 * Creates the analyzer that finds the callback methods in the app's code
+	 * 
+	 * @param entryPointClasses The classes for which to find callbacks
+	 * @return The callback analyzer
+	 * @throws IOException Thrown if the list of Android callbacks cannot be read
+	 */
+	protected AbstractCallbackAnalyzer createCallbackAnalyzer(Set<SootClass> entryPointClasses)
+			throws IOException {
+		return callbackClasses == null
+				? new DefaultCallbackAnalyzer(config, entryPointClasses, callbackMethods, callbackFile)
+				: new DefaultCallbackAnalyzer(config, entryPointClasses, callbackMethods, callbackClasses);
+	}
+
 	/**
 	 * Creates the memory watcher for aborting the callback analysis in case it runs
 	 * out of memory. This method also starts the watchdog thread. Derived classes
@@ -958,6 +973,15 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 		return newTag;
 	}
 
+	/**
+	 * Releases the buffer that holds the app's resource table. If resources are
+	 * looked up afterwards, the resource table is read again from the APK file.
+	 */
+	protected void releaseResources() {
+		if (resources instanceof LazyARSCFileParser)
+			((LazyARSCFileParser) resources).release();
+	}
+
 	/**
 	 * Releases the callgraph and all intermediate objects associated with it
 	 */
@@ -1083,9 +1107,11 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 
 		// Collect the callback interfaces implemented in the app's
 		// source code
-		AbstractCallbackAnalyzer jimpleClass = callbackClasses == null
+		FastCallbackAnalyzer jimpleClass = callbackClasses == null
 				? new FastCallbackAnalyzer(config, entryPointClasses, callbackFile)
 				: new FastCallbackAnalyzer(config, entryPointClasses, callbackClasses);
+		if (unreachableClasses != null)
+			jimpleClass.setUnreachableClasses(unreachableClasses);
 		if (valueProvider != null)
 			jimpleClass.setValueProvider(valueProvider);
 		jimpleClass.collectCallbackMethods();
@@ -1256,6 +1282,14 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 		Main.v().autoSetOptions();
 		configureCallgraph();
 
+		// Find the classes that we might actually need
+		unreachableClasses = null;
+		if (config.getPruneUnreachableClasses()) {
+			unreachableClasses = computeUnreachableClasses(apkFileLocation);
+			if (unreachableClasses != null)
+				logger.info("Found {} unreachable classes", unreachableClasses.size());
+		}
+
 		// Load whatever we need
 		logger.info("Loading dex files...");
 		Scene.v().loadNecessaryClasses();
@@ -1270,6 +1304,27 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 		patcher.patchLibraries();
 	}
 
+	/**
+	 * Runs a fast reachability analysis on the raw dex code of the app. The
+	 * analysis works on whole classes and runs in a single thread before Soot
+	 * loads the app.
+	 * 
+	 * @param apkFile The APK file to analyze
+	 * @return The names of all classes that are not reachable from any entry
+	 *         point, or <code>null</code> if the analysis failed
+	 */
+	protected Set<String> computeUnreachableClasses(File apkFile) {
+		try (ProcessManifest manifest = new ProcessManifest(apkFile)) {
+			DexReachabilityAnalysis reachability = new DexReachabilityAnalysis(apkFile,
+					manifest.getEntryPointClasses());
+			reachability.analyze();
+			return reachability.getUnreachableClasses();
+		} catch (IOException e) {
+			logger.error("Could not run the dex reachability analysis, loading all classes", e);
+			return null;
+		}
+	}
+
 	protected LibraryClassPatcher getLibraryClassPatcher() {
 		return new LibraryClassPatcher();
 	}
@@ -1570,6 +1625,7 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 		// We need at least one entry point
 		if (entrypoints == null || entrypoints.isEmpty()) {
 			logger.warn("No entry points");
+			releaseResources();
 			return null;
 		}
 
@@ -1590,6 +1646,7 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 		// We return the aggregated results
 		this.infoflow = null;
 		resultAggregator.clearLastResults();
+		releaseResources();
 		return resultAggregator.getAggregatedResults();
 	}
 
@@ -1833,13 +1890,12 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 		Set<SootClass> components = getComponentsToAnalyze(component);
 
 		// If we we already have an entry point creator, we make sure to clean up our
-		// leftovers from previous runs
+		// leftovers from previous runs. The entry point creator keeps the lifecycle
+		// methods of components that have not changed since the last run.
 		if (entryPointCreator == null)
 			entryPointCreator = createEntryPointCreator(components);
-		else {
-			entryPointCreator.removeGeneratedMethods(false);
+		else
 			entryPointCreator.reset();
-		}
 
 		MultiMap<SootClass, SootMethod> callbackMethodSigs = new HashMultiMap<>();
 		if (component == null) {
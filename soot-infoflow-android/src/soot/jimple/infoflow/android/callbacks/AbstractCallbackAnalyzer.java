@@ -24,6 +24,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 
 import org.slf4j.Logger;
@@ -86,7 +87,7 @@ import soot.util.MultiMap;
  */
 public abstract class AbstractCallbackAnalyzer {
 
-	private static final String SIG_CAR_CREATE = "<android.car.Car: android.car.Car createCar(android.content.Context,android.content.ServiceConnection)>";
+	static final String SIG_CAR_CREATE = "<android.car.Car: android.car.Car createCar(android.content.Context,android.content.ServiceConnection)>";
 
 	protected final Logger logger = LoggerFactory.getLogger(getClass());
 
@@ -201,6 +202,9 @@ public abstract class AbstractCallbackAnalyzer {
 
 	private MultiMap<SootMethod, Stmt> javaScriptInterfaces = new HashMultiMap<SootMethod, Stmt>();
 
+	private final Map<SootMethod, MethodCallbackFacts> callbackFacts = new ConcurrentHashMap<>();
+	private boolean prefilterStatements = true;
+
 	public AbstractCallbackAnalyzer(InfoflowAndroidConfiguration config, Set<SootClass> entryPointClasses)
 			throws IOException {
 		this(config, entryPointClasses, "AndroidCallbacks.txt");
@@ -281,6 +285,41 @@ public abstract class AbstractCallbackAnalyzer {
 			filter.reset();
 	}
 
+	/**
+	 * Gets the statements of the given method that are relevant for the callback
+	 * analysis. Every method body is only scanned once, unless it is replaced.
+	 *
+	 * @param method The method for which to get the relevant statements
+	 * @return The statements of the given method that are relevant for the
+	 *         callback analysis
+	 */
+	protected MethodCallbackFacts getCallbackFacts(SootMethod method) {
+		final Body body = method.retrieveActiveBody();
+		MethodCallbackFacts facts = callbackFacts.get(method);
+		if (facts != null && facts.getBody() == body)
+			return facts;
+		return callbackFacts.compute(method, (m, f) -> {
+			if (f != null && f.getBody() == body)
+				return f;
+			return prefilterStatements ? new MethodCallbackFacts(body, androidCallbacks)
+					: MethodCallbackFacts.allInvocations(body);
+		});
+	}
+
+	/**
+	 * Sets whether the statements of a method body shall be filtered before they
+	 * are checked for callback registrations and the like. If the filter is
+	 * disabled, all method calls are checked. This does not change the callbacks
+	 * that are found, but is slower.
+	 *
+	 * @param prefilterStatements True to only check the statements that may be
+	 *                            relevant for the callback analysis, false to check
+	 *                            all method calls
+	 */
+	public void setPrefilterStatements(boolean prefilterStatements) {
+		this.prefilterStatements = prefilterStatements;
+	}
+
 	/**
 	 * Analyzes the given method and looks for callback registrations
 	 *
@@ -297,8 +336,7 @@ public abstract class AbstractCallbackAnalyzer {
 
 		// Iterate over all statement and find callback registration methods
 		Set<SootClass> callbackClasses = new HashSet<SootClass>();
-		for (Unit u : method.retrieveActiveBody().getUnits()) {
-			Stmt stmt = (Stmt) u;
+		for (Stmt stmt : getCallbackFacts(method).getCallbackRegistrations()) {
 			// Callback registrations are always instance invoke expressions
 			if (stmt.containsInvokeExpr() && stmt.getInvokeExpr() instanceof InstanceInvokeExpr) {
 				InstanceInvokeExpr iinv = (InstanceInvokeExpr) stmt.getInvokeExpr();
@@ -416,8 +454,7 @@ public abstract class AbstractCallbackAnalyzer {
 
 		final FastHierarchy fastHierarchy = Scene.v().getFastHierarchy();
 		final RefType contextType = scContext.getType();
-		for (Unit u : method.getActiveBody().getUnits()) {
-			Stmt stmt = (Stmt) u;
+		for (Stmt stmt : getCallbackFacts(method).getReceiverRegistrations()) {
 			if (stmt.containsInvokeExpr()) {
 				final InvokeExpr iexpr = stmt.getInvokeExpr();
 				final SootMethodRef methodRef = iexpr.getMethodRef();
@@ -443,8 +480,7 @@ public abstract class AbstractCallbackAnalyzer {
 
 		final FastHierarchy fastHierarchy = Scene.v().getFastHierarchy();
 		final RefType webViewType = RefType.v("android.webkit.WebView");
-		for (Unit u : method.getActiveBody().getUnits()) {
-			Stmt stmt = (Stmt) u;
+		for (Stmt stmt : getCallbackFacts(method).getJavascriptInterfaces()) {
 			if (stmt.containsInvokeExpr()) {
 				final InvokeExpr iexpr = stmt.getInvokeExpr();
 				final SootMethodRef methodRef = iexpr.getMethodRef();
@@ -469,8 +505,7 @@ public abstract class AbstractCallbackAnalyzer {
 		if (!method.isConcrete() || !method.hasActiveBody())
 			return;
 
-		for (Unit u : method.getActiveBody().getUnits()) {
-			Stmt stmt = (Stmt) u;
+		for (Stmt stmt : getCallbackFacts(method).getServiceConnections()) {
 			if (stmt.containsInvokeExpr()) {
 				final InvokeExpr iexpr = stmt.getInvokeExpr();
 				final SootMethodRef methodRef = iexpr.getMethodRef();
@@ -520,8 +555,8 @@ public abstract class AbstractCallbackAnalyzer {
 		boolean isFragmentManager = false;
 		boolean isFragmentTransaction = false;
 		boolean isAddTransaction = false;
-		for (Unit u : method.getActiveBody().getUnits()) {
-			Stmt stmt = (Stmt) u;
+		final List<Stmt> fragmentTransactionCalls = getCallbackFacts(method).getFragmentTransactionCalls();
+		for (Stmt stmt : fragmentTransactionCalls) {
 			if (stmt.containsInvokeExpr()) {
 				final String methodName = stmt.getInvokeExpr().getMethod().getName();
 				if (methodName.equals("getFragmentManager") || methodName.equals("getSupportFragmentManager"))
@@ -542,8 +577,7 @@ public abstract class AbstractCallbackAnalyzer {
 		// now get the fragment class from the second argument of the add method
 		// from the transaction
 		if (isFragmentManager && isFragmentTransaction && isAddTransaction)
-			for (Unit u : method.getActiveBody().getUnits()) {
-				Stmt stmt = (Stmt) u;
+			for (Stmt stmt : fragmentTransactionCalls) {
 				if (stmt.containsInvokeExpr()) {
 					InvokeExpr invExpr = stmt.getInvokeExpr();
 					if (invExpr instanceof InstanceInvokeExpr) {
@@ -608,11 +642,8 @@ public abstract class AbstractCallbackAnalyzer {
 		if (!method.isConcrete())
 			return;
 
-		Body body = method.retrieveActiveBody();
-
 		// look for invocations of ViewPager.setAdapter
-		for (Unit u : body.getUnits()) {
-			Stmt stmt = (Stmt) u;
+		for (Stmt stmt : getCallbackFacts(method).getViewPagerAdapters()) {
 			if (!stmt.containsInvokeExpr())
 				continue;
 
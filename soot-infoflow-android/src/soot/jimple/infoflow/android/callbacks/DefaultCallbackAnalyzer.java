@@ -192,6 +192,22 @@ public class DefaultCallbackAnalyzer extends AbstractCallbackAnalyzer implements
 		ComponentReachableMethods rm = new ComponentReachableMethods(config, lifecycleElement, methods);
 		rm.update();
 
+		// Scan the bodies of the reachable methods for statements that are relevant
+		// for the callback analysis. Methods that are shared with components that
+		// have already been analyzed are not scanned again.
+		Set<SootMethod> reachableMethods = new HashSet<>();
+		QueueReader<MethodOrMethodContext> rdr = rm.listener();
+		while (rdr.hasNext()) {
+			SootMethod sm = rdr.next().method();
+			if (sm.isConcrete() && sm.hasActiveBody())
+				reachableMethods.add(sm);
+		}
+		reachableMethods.parallelStream().forEach(this::getCallbackFacts);
+
+		analyzeReachableMethods(lifecycleElement, rm);
+	}
+
+	private void analyzeReachableMethods(SootClass lifecycleElement, ComponentReachableMethods rm) {
 		// Scan for listeners in the class hierarchy
 		QueueReader<MethodOrMethodContext> reachableMethods = rm.listener();
 		while (reachableMethods.hasNext()) {
@@ -203,7 +219,7 @@ public class DefaultCallbackAnalyzer extends AbstractCallbackAnalyzer implements
 				filter.setReachableMethods(rm);
 
 			SootMethod method = reachableMethods.next().method();
-			if (method.isConcrete()) {
+			if (method.isConcrete() && !getCallbackFacts(method).isEmpty()) {
 				analyzeMethodForCallbackRegistrations(lifecycleElement, method);
 				analyzeMethodForDynamicBroadcastReceiver(method);
 				analyzeMethodForServiceConnection(method);
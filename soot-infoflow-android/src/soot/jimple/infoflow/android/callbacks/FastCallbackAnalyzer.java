@@ -1,6 +1,7 @@
 package soot.jimple.infoflow.android.callbacks;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.Set;
 
 import soot.Scene;
@@ -20,6 +21,8 @@ import soot.jimple.infoflow.android.InfoflowAndroidConfiguration;
  */
 public class FastCallbackAnalyzer extends AbstractCallbackAnalyzer {
 
+	private Set<String> unreachableClasses = Collections.emptySet();
+
 	public FastCallbackAnalyzer(InfoflowAndroidConfiguration config, Set<SootClass> entryPointClasses)
 			throws IOException {
 		super(config, entryPointClasses);
@@ -44,7 +47,7 @@ public class FastCallbackAnalyzer extends AbstractCallbackAnalyzer {
 		findClassLayoutMappings();
 
 		for (SootClass sc : Scene.v().getApplicationClasses()) {
-			if (sc.isConcrete()) {
+			if (sc.isConcrete() && !unreachableClasses.contains(sc.getName())) {
 				for (SootMethod sm : sc.getMethods()) {
 					if (sm.isConcrete()) {
 						analyzeMethodForCallbackRegistrations(null, sm);
@@ -64,7 +67,7 @@ public class FastCallbackAnalyzer extends AbstractCallbackAnalyzer {
 	 */
 	private void findClassLayoutMappings() {
 		for (SootClass sc : Scene.v().getApplicationClasses()) {
-			if (sc.isConcrete()) {
+			if (sc.isConcrete() && !unreachableClasses.contains(sc.getName())) {
 				for (SootMethod sm : sc.getMethods()) {
 					if (!sm.isConcrete())
 						continue;
@@ -95,4 +98,16 @@ public class FastCallbackAnalyzer extends AbstractCallbackAnalyzer {
 		// not supported
 	}
 
+	/**
+	 * Sets the classes that are not reachable from any entry point. The analyzer
+	 * does not create bodies for these classes when it scans the app for callback
+	 * registrations.
+	 *
+	 * @param unreachableClasses The names of the classes that are not reachable
+	 *                           from any entry point
+	 */
+	public void setUnreachableClasses(Set<String> unreachableClasses) {
+		this.unreachableClasses = unreachableClasses;
+	}
+
 }
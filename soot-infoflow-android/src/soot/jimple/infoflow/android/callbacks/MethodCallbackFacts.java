@@ -0,0 +1,190 @@
+package soot.jimple.infoflow.android.callbacks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import soot.Body;
+import soot.RefType;
+import soot.SootMethodRef;
+import soot.Type;
+import soot.Unit;
+import soot.jimple.InstanceInvokeExpr;
+import soot.jimple.InvokeExpr;
+import soot.jimple.Stmt;
+
+/**
+ * The statements of a single method that are relevant for the callback
+ * analysis. The method body is scanned once, and every statement that may
+ * register a callback, a broadcast receiver, a service connection, a fragment,
+ * a view pager adapter, or a JavaScript interface is recorded. The checks in
+ * this class are only syntactic. The callback analyzer performs the precise
+ * checks on the recorded statements later.
+ */
+public class MethodCallbackFacts {
+
+	private final Body body;
+
+	private List<Stmt> callbackRegistrations;
+	private List<Stmt> receiverRegistrations;
+	private List<Stmt> serviceConnections;
+	private List<Stmt> javascriptInterfaces;
+	private List<Stmt> fragmentTransactionCalls;
+	private List<Stmt> viewPagerAdapters;
+
+	/**
+	 * Scans the given method body for statements that are relevant for the
+	 * callback analysis
+	 *
+	 * @param body             The method body to scan
+	 * @param androidCallbacks The names of the Android callback interfaces
+	 */
+	public MethodCallbackFacts(Body body, Set<String> androidCallbacks) {
+		this.body = body;
+
+		for (Unit u : body.getUnits()) {
+			Stmt stmt = (Stmt) u;
+			if (!stmt.containsInvokeExpr())
+				continue;
+
+			final InvokeExpr iexpr = stmt.getInvokeExpr();
+			final SootMethodRef methodRef = iexpr.getMethodRef();
+			final String methodName = methodRef.getName();
+			final int argCount = iexpr.getArgCount();
+
+			if (iexpr instanceof InstanceInvokeExpr) {
+				for (int i = 0; i < argCount; i++) {
+					final Type type = methodRef.getParameterType(i);
+					if (type instanceof RefType && androidCallbacks.contains(type.toString())) {
+						callbackRegistrations = add(callbackRegistrations, stmt);
+						break;
+					}
+				}
+				if (argCount == 1 && methodName.equals("setAdapter"))
+					viewPagerAdapters = add(viewPagerAdapters, stmt);
+			}
+
+			switch (methodName) {
+			case "registerReceiver":
+				if (argCount > 0)
+					receiverRegistrations = add(receiverRegistrations, stmt);
+				break;
+			case "addJavascriptInterface":
+				if (argCount == 2)
+					javascriptInterfaces = add(javascriptInterfaces, stmt);
+				break;
+			case "createCar":
+				if (methodRef.getSignature().equals(AbstractCallbackAnalyzer.SIG_CAR_CREATE))
+					serviceConnections = add(serviceConnections, stmt);
+				break;
+			case "getFragmentManager":
+			case "getSupportFragmentManager":
+			case "beginTransaction":
+			case "add":
+			case "replace":
+			case "inflate":
+				fragmentTransactionCalls = add(fragmentTransactionCalls, stmt);
+				break;
+			}
+		}
+	}
+
+	private MethodCallbackFacts(Body body) {
+		this.body = body;
+	}
+
+	/**
+	 * Creates facts that contain all method calls in the given body, regardless of
+	 * whether they are relevant for the callback analysis
+	 *
+	 * @param body The method body to scan
+	 * @return The facts that contain all method calls in the given body
+	 */
+	static MethodCallbackFacts allInvocations(Body body) {
+		MethodCallbackFacts facts = new MethodCallbackFacts(body);
+		List<Stmt> invocations = new ArrayList<>();
+		for (Unit u : body.getUnits()) {
+			Stmt stmt = (Stmt) u;
+			if (stmt.containsInvokeExpr())
+				invocations.add(stmt);
+		}
+		if (!invocations.isEmpty()) {
+			facts.callbackRegistrations = invocations;
+			facts.receiverRegistrations = invocations;
+			facts.serviceConnections = invocations;
+			facts.javascriptInterfaces = invocations;
+			facts.fragmentTransactionCalls = invocations;
+			facts.viewPagerAdapters = invocations;
+		}
+		return facts;
+	}
+
+	private static List<Stmt> add(List<Stmt> list, Stmt stmt) {
+		if (list == null)
+			list = new ArrayList<>();
+		list.add(stmt);
+		return list;
+	}
+
+	private static List<Stmt> get(List<Stmt> list) {
+		return list == null ? Collections.emptyList() : list;
+	}
+
+	/**
+	 * Gets the body from which these facts were extracted
+	 *
+	 * @return The body from which these facts were extracted
+	 */
+	public Body getBody() {
+		return body;
+	}
+
+	/**
+	 * Gets the calls that pass an object to a parameter declared as one of the
+	 * Android callback interfaces
+	 *
+	 * @return The candidate callback registrations
+	 */
+	public List<Stmt> getCallbackRegistrations() {
+		return get(callbackRegistrations);
+	}
+
+	public List<Stmt> getReceiverRegistrations() {
+		return get(receiverRegistrations);
+	}
+
+	public List<Stmt> getServiceConnections() {
+		return get(serviceConnections);
+	}
+
+	public List<Stmt> getJavascriptInterfaces() {
+		return get(javascriptInterfaces);
+	}
+
+	/**
+	 * Gets the calls that obtain a fragment manager, begin a fragment
+	 * transaction, add or replace a fragment, or inflate a layout
+	 *
+	 * @return The calls that are relevant for detecting fragment transactions
+	 */
+	public List<Stmt> getFragmentTransactionCalls() {
+		return get(fragmentTransactionCalls);
+	}
+
+	public List<Stmt> getViewPagerAdapters() {
+		return get(viewPagerAdapters);
+	}
+
+	/**
+	 * Checks whether the method contains any statement that is relevant for the
+	 * callback analysis
+	 *
+	 * @return True if the method contains no relevant statements, otherwise false
+	 */
+	public boolean isEmpty() {
+		return callbackRegistrations == null && receiverRegistrations == null && serviceConnections == null
+				&& javascriptInterfaces == null && fragmentTransactionCalls == null && viewPagerAdapters == null;
+	}
+
+}
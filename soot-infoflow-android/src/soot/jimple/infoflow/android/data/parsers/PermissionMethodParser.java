@@ -23,8 +23,6 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,28 +38,28 @@ import soot.jimple.infoflow.sourcesSinks.definitions.SourceSinkType;
 /**
  * Parser for the permissions to method map of Adrienne Porter Felt.
  * 
+ * The lines are parsed by hand while they are read, without regular
+ * expressions and without keeping the file contents in memory. A method line
+ * has the form
+ * <code>&lt;className: returnType methodName(parameters)&gt; permissions -&gt; targets</code>,
+ * where the return type, the permissions, and the targets are optional. A
+ * field line has the form
+ * <code>&lt;className: fieldType fieldName&gt; -&gt; target</code>.
+ * 
  * @author Siegfried Rasthofer
  */
 public class PermissionMethodParser implements ISourceSinkDefinitionProvider {
 
 	private final Logger logger = LoggerFactory.getLogger(getClass());
 
-	private Map<String, AndroidMethod> methods = null;
-	private Map<String, SootFieldAndClass> fields = null;
+	private Map<String, AndroidMethod> methods = new HashMap<>(INITIAL_SET_SIZE);
+	private Map<String, SootFieldAndClass> fields = new HashMap<>(INITIAL_SET_SIZE);
 	private Set<ISourceSinkDefinition> sourceList = null;
 	private Set<ISourceSinkDefinition> sinkList = null;
 	private Set<ISourceSinkDefinition> neitherList = null;
 
 	private static final int INITIAL_SET_SIZE = 10000;
 
-	private List<String> data;
-	private final String regex = "^<(.+):\\s*(.+)\\s+(.+)\\s*\\((.*)\\)>\\s*(.*?)(\\s+->\\s+(.*))?$";
-	// private final String regexNoRet =
-	// "^<(.+):\\s(.+)\\s?(.+)\\s*\\((.*)\\)>\\s+(.*?)(\\s+->\\s+(.*))?+$";
-	private final String regexNoRet = "^<(.+):\\s*(.+)\\s*\\((.*)\\)>\\s*(.*?)?(\\s+->\\s+(.*))?$";
-
-	private final String fieldRegex = "^<(.+):\\s*(.+)\\s+([a-zA-Z_$][a-zA-Z_$0-9]*)\\s*>\\s*(.*?)(\\s+->\\s+(.*))?$";
-
 	public static PermissionMethodParser fromFile(File file) throws IOException {
 		PermissionMethodParser pmp = new PermissionMethodParser();
 		pmp.readFile(file);
@@ -75,17 +73,15 @@ public class PermissionMethodParser implements ISourceSinkDefinitionProvider {
 	}
 
 	public static PermissionMethodParser fromStringList(List<String> data) throws IOException {
-		PermissionMethodParser pmp = new PermissionMethodParser(data);
+		PermissionMethodParser pmp = new PermissionMethodParser();
+		for (String line : data)
+			pmp.parseLine(line);
 		return pmp;
 	}
 
 	private PermissionMethodParser() {
 	}
 
-	private PermissionMethodParser(List<String> data) {
-		this.data = data;
-	}
-
 	private void readFile(File file) throws IOException {
 		try (FileReader fr = new FileReader(file)) {
 			readReader(fr);
@@ -94,63 +90,190 @@ public class PermissionMethodParser implements ISourceSinkDefinitionProvider {
 
 	private void readReader(Reader r) throws IOException {
 		String line;
-		this.data = new ArrayList<String>();
 		BufferedReader br = new BufferedReader(r);
 		try {
 			while ((line = br.readLine()) != null)
-				this.data.add(line);
+				parseLine(line);
 		} finally {
 			br.close();
 		}
-
 	}
 
 	@Override
 	public Set<ISourceSinkDefinition> getSources() {
 		if (sourceList == null || sinkList == null)
-			parse();
+			createDefinitions();
 		return this.sourceList;
 	}
 
 	@Override
 	public Set<ISourceSinkDefinition> getSinks() {
 		if (sourceList == null || sinkList == null)
-			parse();
+			createDefinitions();
 		return this.sinkList;
 	}
 
-	private void parse() {
-		fields = new HashMap<>(INITIAL_SET_SIZE);
-		methods = new HashMap<>(INITIAL_SET_SIZE);
-		sourceList = new HashSet<>(INITIAL_SET_SIZE);
-		sinkList = new HashSet<>(INITIAL_SET_SIZE);
-		neitherList = new HashSet<>(INITIAL_SET_SIZE);
+	/**
+	 * Parses a single line of the definition file and records the method or field
+	 * that it defines
+	 * 
+	 * @param line The line to parse
+	 */
+	private void parseLine(String line) {
+		if (line.isEmpty() || line.startsWith("%"))
+			return;
+
+		// Every definition starts with the class name
+		int colonIdx = line.indexOf(':');
+		if (line.charAt(0) != '<' || colonIdx < 0) {
+			logger.warn(String.format("Line does not match: %s", line));
+			return;
+		}
+		String className = line.substring(1, colonIdx).trim();
+
+		// Method names may contain angle brackets, so we look for the parameter list
+		// first
+		int openIdx = line.indexOf('(', colonIdx);
+		int closeIdx = openIdx < 0 ? -1 : line.indexOf(")>", openIdx);
+		int fieldEndIdx = line.indexOf('>', colonIdx);
+		if (fieldEndIdx > 0 && (openIdx < 0 || fieldEndIdx < openIdx)
+				&& parseField(className, line.substring(colonIdx + 1, fieldEndIdx), line.substring(fieldEndIdx + 1)))
+			return;
+		if (closeIdx < 0 || className.isEmpty()) {
+			logger.warn(String.format("Line does not match: %s", line));
+			return;
+		}
+
+		// The return type is optional
+		String header = line.substring(colonIdx + 1, openIdx).trim();
+		int nameIdx = lastWhitespace(header);
+		String returnType = nameIdx < 0 ? "" : header.substring(0, nameIdx).trim();
+		String methodName = header.substring(nameIdx + 1).trim();
+		if (methodName.isEmpty()) {
+			logger.warn(String.format("Line does not match: %s", line));
+			return;
+		}
+
+		List<String> methodParameters = new ArrayList<String>();
+		String params = line.substring(openIdx + 1, closeIdx).trim();
+		if (!params.isEmpty())
+			for (String parameter : params.split(","))
+				methodParameters.add(parameter.trim());
+
+		// The permissions are followed by the targets
+		String rest = line.substring(closeIdx + 2).trim();
+		String permData = rest;
+		String classData = "";
+		int arrowIdx = rest.indexOf("->");
+		if (arrowIdx >= 0) {
+			permData = rest.substring(0, arrowIdx).trim();
+			classData = rest.substring(arrowIdx + 2).trim();
+		}
+		Set<String> permissions = null;
+		if (!permData.isEmpty()) {
+			permissions = new HashSet<String>();
+			for (String permission : splitAtWhitespace(permData))
+				permissions.add(permission);
+		}
 
-		Pattern p = Pattern.compile(regex);
-		Pattern pNoRet = Pattern.compile(regexNoRet);
-		Pattern fieldPattern = Pattern.compile(fieldRegex);
-
-		for (String line : this.data) {
-			if (line.isEmpty() || line.startsWith("%"))
-				continue;
-			// match field regex
-			Matcher fieldMatch = fieldPattern.matcher(line);
-			if (fieldMatch.find()) {
-				createField(fieldMatch);
-			} else {
-				// match method regex
-				Matcher m = p.matcher(line);
-				if (m.find()) {
-					createMethod(m);
-				} else {
-					Matcher mNoRet = pNoRet.matcher(line);
-					if (mNoRet.find()) {
-						createMethod(mNoRet);
-					} else
-						logger.warn(String.format("Line does not match: %s", line));
-				}
+		AndroidMethod am = new AndroidMethod(methodName, methodParameters, returnType, className, permissions);
+		if (!classData.isEmpty())
+			for (String target : splitAtWhitespace(classData)) {
+				// Throw away categories
+				if (target.indexOf('|') >= 0)
+					continue;
+
+				if (target.equals("_SOURCE_"))
+					am.setSourceSinkType(SourceSinkType.Source);
+				else if (target.equals("_SINK_"))
+					am.setSourceSinkType(SourceSinkType.Sink);
+				else if (target.equals("_NONE_"))
+					am.setSourceSinkType(SourceSinkType.Neither);
+				else if (target.equals("_BOTH_"))
+					am.setSourceSinkType(SourceSinkType.Both);
+				else
+					throw new RuntimeException("error in target definition: " + target);
 			}
+
+		AndroidMethod oldMethod = methods.get(am.getSignature());
+		if (oldMethod != null)
+			oldMethod.setSourceSinkType(oldMethod.getSourceSinkType().addType(am.getSourceSinkType()));
+		else
+			methods.put(am.getSignature(), am);
+	}
+
+	/**
+	 * Parses a field definition
+	 * 
+	 * @param className The name of the class that declares the field
+	 * @param signature The type and the name of the field
+	 * @param rest      The remainder of the line after the field signature
+	 * @return True if the given data describes a field, otherwise false
+	 */
+	private boolean parseField(String className, String signature, String rest) {
+		signature = signature.trim();
+		int nameIdx = lastWhitespace(signature);
+		if (className.isEmpty() || nameIdx < 0)
+			return false;
+		String fieldType = signature.substring(0, nameIdx).trim();
+		String fieldName = signature.substring(nameIdx + 1);
+		if (!isIdentifier(fieldName))
+			return false;
+
+		// SourceSinkType
+		String sourceSinkTypeString = rest.replace("->", "").replace("_", "").trim();
+		SourceSinkType sourceSinkType = SourceSinkType.fromString(sourceSinkTypeString);
+
+		SootFieldAndClass sootField = new SootFieldAndClass(fieldName, className, fieldType, sourceSinkType);
+		SootFieldAndClass oldField = fields.get(sootField.getSignature());
+		if (oldField != null)
+			oldField.setSourceSinkType(oldField.getSourceSinkType().addType(sootField.getSourceSinkType()));
+		else
+			fields.put(sootField.getSignature(), sootField);
+		return true;
+	}
+
+	private static List<String> splitAtWhitespace(String str) {
+		List<String> parts = new ArrayList<>();
+		int start = -1;
+		for (int i = 0; i < str.length(); i++) {
+			if (Character.isWhitespace(str.charAt(i))) {
+				if (start >= 0)
+					parts.add(str.substring(start, i));
+				start = -1;
+			} else if (start < 0)
+				start = i;
 		}
+		if (start >= 0)
+			parts.add(str.substring(start));
+		return parts;
+	}
+
+	private static int lastWhitespace(String str) {
+		for (int i = str.length() - 1; i >= 0; i--)
+			if (Character.isWhitespace(str.charAt(i)))
+				return i;
+		return -1;
+	}
+
+	private static boolean isIdentifier(String str) {
+		if (str.isEmpty())
+			return false;
+		char first = str.charAt(0);
+		if (!(Character.isLetter(first) || first == '_' || first == '$'))
+			return false;
+		for (int i = 1; i < str.length(); i++) {
+			char c = str.charAt(i);
+			if (!(Character.isLetterOrDigit(c) || c == '_' || c == '$'))
+				return false;
+		}
+		return true;
+	}
+
+	private void createDefinitions() {
+		sourceList = new HashSet<>(INITIAL_SET_SIZE);
+		sinkList = new HashSet<>(INITIAL_SET_SIZE);
+		neitherList = new HashSet<>(INITIAL_SET_SIZE);
 
 		// Create the source/sink definitions[for method]
 		for (AndroidMethod am : methods.values()) {
@@ -177,97 +300,10 @@ public class PermissionMethodParser implements ISourceSinkDefinitionProvider {
 		}
 	}
 
-	private AndroidMethod createMethod(Matcher m) {
-		AndroidMethod am = parseMethod(m, true);
-		AndroidMethod oldMethod = methods.get(am.getSignature());
-		if (oldMethod != null) {
-			oldMethod.setSourceSinkType(oldMethod.getSourceSinkType().addType(am.getSourceSinkType()));
-			return oldMethod;
-		} else {
-			methods.put(am.getSignature(), am);
-			return am;
-		}
-	}
-
-	private AndroidMethod parseMethod(Matcher m, boolean hasReturnType) {
-		assert (m.group(1) != null && m.group(2) != null && m.group(3) != null && m.group(4) != null);
-		AndroidMethod singleMethod;
-		int groupIdx = 1;
-
-		// class name
-		String className = m.group(groupIdx++).trim();
-
-		String returnType = "";
-		if (hasReturnType) {
-			// return type
-			returnType = m.group(groupIdx++).trim();
-		}
-
-		// method name
-		String methodName = m.group(groupIdx++).trim();
-
-		// method parameter
-		List<String> methodParameters = new ArrayList<String>();
-		String params = m.group(groupIdx++).trim();
-		if (!params.isEmpty())
-			for (String parameter : params.split(","))
-				methodParameters.add(parameter.trim());
-
-		// permissions
-		String classData = "";
-		String permData = "";
-		Set<String> permissions = null;
-		;
-		if (groupIdx < m.groupCount() && m.group(groupIdx) != null) {
-			permData = m.group(groupIdx);
-			if (permData.contains("->")) {
-				classData = permData.replace("->", "").trim();
-				permData = "";
-			}
-			groupIdx++;
-		}
-		if (!permData.isEmpty()) {
-			permissions = new HashSet<String>();
-			for (String permission : permData.split(" "))
-				permissions.add(permission);
-		}
-
-		// create method signature
-		singleMethod = new AndroidMethod(methodName, methodParameters, returnType, className, permissions);
-
-		if (classData.isEmpty())
-			if (m.group(groupIdx) != null) {
-				classData = m.group(groupIdx).replace("->", "").trim();
-				groupIdx++;
-			}
-		if (!classData.isEmpty())
-			for (String target : classData.split("\\s")) {
-				target = target.trim();
-
-				// Throw away categories
-				if (target.contains("|"))
-					target = target.substring(target.indexOf('|'));
-
-				if (!target.isEmpty() && !target.startsWith("|")) {
-					if (target.equals("_SOURCE_"))
-						singleMethod.setSourceSinkType(SourceSinkType.Source);
-					else if (target.equals("_SINK_"))
-						singleMethod.setSourceSinkType(SourceSinkType.Sink);
-					else if (target.equals("_NONE_"))
-						singleMethod.setSourceSinkType(SourceSinkType.Neither);
-					else if (target.equals("_BOTH_"))
-						singleMethod.setSourceSinkType(SourceSinkType.Both);
-					else
-						throw new RuntimeException("error in target definition: " + target);
-				}
-			}
-		return singleMethod;
-	}
-
 	@Override
 	public Set<ISourceSinkDefinition> getAllMethods() {
 		if (sourceList == null || sinkList == null)
-			parse();
+			createDefinitions();
 
 		Set<ISourceSinkDefinition> sourcesSinks = new HashSet<>(
 				sourceList.size() + sinkList.size() + neitherList.size());
@@ -277,40 +313,4 @@ public class PermissionMethodParser implements ISourceSinkDefinitionProvider {
 		return sourcesSinks;
 	}
 
-	private SootFieldAndClass createField(Matcher m) {
-		SootFieldAndClass sootField = parseField(m);
-		SootFieldAndClass oldField = fields.get(sootField.getSignature());
-		if (oldField != null) {
-			oldField.setSourceSinkType(oldField.getSourceSinkType().addType(sootField.getSourceSinkType()));
-			return oldField;
-		} else {
-			fields.put(sootField.getSignature(), sootField);
-			return sootField;
-		}
-	}
-
-	private SootFieldAndClass parseField(Matcher m) {
-		assert (m.group(1) != null && m.group(2) != null && m.group(3) != null && m.group(4) != null);
-		SootFieldAndClass sootFieldAndClass;
-		int groupIdx = 1;
-
-		// class name
-		String className = m.group(groupIdx++).trim();
-
-		// field type
-		String fieldType = m.group(groupIdx++).trim();
-
-		// field name
-		String fieldName = m.group(groupIdx++).trim();
-
-		// SourceSinkType
-		String sourceSinkTypeString = m.group(groupIdx).replace("->", "").replace("_", "").trim();
-		SourceSinkType sourceSinkType = SourceSinkType.fromString(sourceSinkTypeString);
-
-		// create Field signature
-		sootFieldAndClass = new SootFieldAndClass(fieldName, className, fieldType, sourceSinkType);
-
-		return sootFieldAndClass;
-	}
-
 }
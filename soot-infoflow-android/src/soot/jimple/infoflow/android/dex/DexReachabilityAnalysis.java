@@ -0,0 +1,219 @@
+package soot.jimple.infoflow.android.dex;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.android.tools.smali.dexlib2.iface.Annotation;
+import com.android.tools.smali.dexlib2.iface.ClassDef;
+import com.android.tools.smali.dexlib2.iface.DexFile;
+import com.android.tools.smali.dexlib2.iface.Method;
+import com.android.tools.smali.dexlib2.iface.MethodImplementation;
+import com.android.tools.smali.dexlib2.iface.instruction.Instruction;
+import com.android.tools.smali.dexlib2.iface.instruction.ReferenceInstruction;
+import com.android.tools.smali.dexlib2.iface.reference.FieldReference;
+import com.android.tools.smali.dexlib2.iface.reference.MethodReference;
+import com.android.tools.smali.dexlib2.iface.reference.Reference;
+import com.android.tools.smali.dexlib2.iface.reference.StringReference;
+import com.android.tools.smali.dexlib2.iface.reference.TypeReference;
+
+import soot.dexpler.DexFileProvider;
+import soot.dexpler.DexFileProvider.DexContainer;
+import soot.jimple.infoflow.android.entryPointCreators.AndroidEntryPointConstants;
+
+/**
+ * Fast, class-hierarchy based reachability analysis that works directly on the
+ * raw dex code of an app without creating any Jimple. Starting from the entry
+ * points declared in the manifest, it follows all type, method, and field
+ * references in the instructions of reachable classes. Classes that are never
+ * reached can be kept at Soot's signature level, i.e., no bodies are created for
+ * them.
+ *
+ * The analysis is deliberately conservative. All methods of a reachable class
+ * are considered reachable, because the Android framework may call any
+ * overridden method as a callback. Classes that may be instantiated by the
+ * framework from layout files (views and fragments), as well as classes whose
+ * names appear as string constants in reachable code (reflection), are also
+ * treated as reachable.
+ */
+public class DexReachabilityAnalysis {
+
+	private static final Logger logger = LoggerFactory.getLogger(DexReachabilityAnalysis.class);
+
+	/**
+	 * Framework classes whose subclasses can be instantiated from resource files
+	 * without any reference in the code
+	 */
+	private static final Set<String> INFLATABLE_BASE_CLASSES = new HashSet<>(Arrays.asList("android.view.View",
+			"android.preference.Preference", "androidx.preference.Preference", AndroidEntryPointConstants.FRAGMENTCLASS,
+			AndroidEntryPointConstants.SUPPORTFRAGMENTCLASS, AndroidEntryPointConstants.ANDROIDXFRAGMENTCLASS));
+
+	private final File apkFile;
+	private final Collection<String> entryPointClasses;
+
+	private final Map<String, ClassDef> classDefs = new HashMap<>();
+	private final Set<String> reachableClasses = new HashSet<>();
+
+	/**
+	 * Creates a new instance of the {@link DexReachabilityAnalysis} class
+	 *
+	 * @param apkFile           The APK file to analyze
+	 * @param entryPointClasses The names of the entry point classes declared in the
+	 *                          manifest
+	 */
+	public DexReachabilityAnalysis(File apkFile, Collection<String> entryPointClasses) {
+		this.apkFile = apkFile;
+		this.entryPointClasses = entryPointClasses;
+	}
+
+	/**
+	 * Runs the reachability analysis
+	 *
+	 * @throws IOException Thrown if the dex files could not be read from the APK
+	 */
+	public void analyze() throws IOException {
+		long beforeAnalysis = System.nanoTime();
+
+		// Index all classes in all dex files
+		List<DexContainer<? extends DexFile>> dexFiles = DexFileProvider.v().getDexFromSource(apkFile);
+		for (DexContainer<? extends DexFile> container : dexFiles) {
+			for (ClassDef cd : container.getBase().getClasses())
+				classDefs.putIfAbsent(cd.getType(), cd);
+		}
+
+		// Collect the initial seeds
+		Deque<String> worklist = new ArrayDeque<>();
+		for (String ep : entryPointClasses)
+			worklist.add(toDescriptor(ep));
+		for (ClassDef cd : classDefs.values()) {
+			if (isInflatable(cd))
+				worklist.add(cd.getType());
+		}
+
+		// Process the worklist
+		while (!worklist.isEmpty()) {
+			String type = stripArrays(worklist.poll());
+			ClassDef cd = classDefs.get(type);
+			if (cd == null || !reachableClasses.add(type))
+				continue;
+
+			if (cd.getSuperclass() != null)
+				worklist.add(cd.getSuperclass());
+			worklist.addAll(cd.getInterfaces());
+			for (Annotation a : cd.getAnnotations())
+				worklist.add(a.getType());
+
+			for (Method m : cd.getMethods()) {
+				MethodImplementation impl = m.getImplementation();
+				if (impl == null)
+					continue;
+				for (Instruction instr : impl.getInstructions()) {
+					if (instr instanceof ReferenceInstruction)
+						addReferencedTypes(((ReferenceInstruction) instr).getReference(), worklist);
+				}
+			}
+		}
+
+		logger.info(String.format("Dex reachability analysis found %d of %d classes reachable in %.2f seconds",
+				reachableClasses.size(), classDefs.size(), (System.nanoTime() - beforeAnalysis) / 1E9));
+	}
+
+	/**
+	 * Adds the types referenced by the given instruction operand to the worklist
+	 *
+	 * @param ref      The reference from the instruction
+	 * @param worklist The worklist
+	 */
+	private void addReferencedTypes(Reference ref, Deque<String> worklist) {
+		if (ref instanceof MethodReference)
+			worklist.add(((MethodReference) ref).getDefiningClass());
+		else if (ref instanceof FieldReference)
+			worklist.add(((FieldReference) ref).getDefiningClass());
+		else if (ref instanceof TypeReference)
+			worklist.add(((TypeReference) ref).getType());
+		else if (ref instanceof StringReference) {
+			// The string may be a class name that is used for reflection
+			String str = ((StringReference) ref).getString();
+			if (!str.isEmpty() && str.indexOf(' ') < 0) {
+				String desc = toDescriptor(str.replace('/', '.'));
+				if (classDefs.containsKey(desc))
+					worklist.add(desc);
+			}
+		}
+	}
+
+	/**
+	 * Checks whether the given class can be instantiated by the framework from a
+	 * resource file
+	 *
+	 * @param cd The class to check
+	 * @return True if the given class can be instantiated from a resource file
+	 */
+	private boolean isInflatable(ClassDef cd) {
+		Set<String> seen = new HashSet<>();
+		String superClass = cd.getSuperclass();
+		while (superClass != null && seen.add(superClass)) {
+			if (INFLATABLE_BASE_CLASSES.contains(toClassName(superClass)))
+				return true;
+			ClassDef superDef = classDefs.get(superClass);
+			superClass = superDef == null ? null : superDef.getSuperclass();
+		}
+		return false;
+	}
+
+	private static String stripArrays(String type) {
+		int idx = 0;
+		while (idx < type.length() && type.charAt(idx) == '[')
+			idx++;
+		return idx == 0 ? type : type.substring(idx);
+	}
+
+	private static String toDescriptor(String className) {
+		return "L" + className.replace('.', '/') + ";";
+	}
+
+	private static String toClassName(String descriptor) {
+		if (descriptor.startsWith("L") && descriptor.endsWith(";"))
+			return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+		return descriptor;
+	}
+
+	/**
+	 * Gets the names of all classes in the app that are reachable
+	 *
+	 * @return The names of all reachable classes
+	 */
+	public Set<String> getReachableClasses() {
+		Set<String> classes = new HashSet<>(reachableClasses.size());
+		for (String type : reachableClasses)
+			classes.add(toClassName(type));
+		return classes;
+	}
+
+	/**
+	 * Gets the names of all classes in the app that are not reachable and thus do
+	 * not need bodies
+	 *
+	 * @return The names of all unreachable classes
+	 */
+	public Set<String> getUnreachableClasses() {
+		Set<String> classes = new HashSet<>();
+		for (String type : classDefs.keySet()) {
+			if (!reachableClasses.contains(type))
+				classes.add(toClassName(type));
+		}
+		return classes;
+	}
+
+}
@@ -47,6 +47,7 @@ import soot.jimple.infoflow.android.entryPointCreators.components.AbstractCompon
 import soot.jimple.infoflow.android.entryPointCreators.components.ActivityEntryPointCreator;
 import soot.jimple.infoflow.android.entryPointCreators.components.BroadcastReceiverEntryPointCreator;
 import soot.jimple.infoflow.android.entryPointCreators.components.ComponentEntryPointCollection;
+import soot.jimple.infoflow.android.entryPointCreators.components.ComponentEntryPointInfo;
 import soot.jimple.infoflow.android.entryPointCreators.components.ContentProviderEntryPointCreator;
 import soot.jimple.infoflow.android.entryPointCreators.components.FragmentEntryPointCreator;
 import soot.jimple.infoflow.android.entryPointCreators.components.ServiceConnectionEntryPointCreator;
@@ -98,6 +99,13 @@ public class AndroidEntryPointCreator extends AbstractAndroidEntryPointCreator i
 	private MultiMap<SootClass, SootClass> fragmentClasses = null;
 	private final ComponentEntryPointCollection componentToInfo = new ComponentEntryPointCollection();
 
+	/**
+	 * The inputs from which the dummy main methods of the components have been
+	 * generated. If the inputs of a component do not change between two runs, we
+	 * can re-use its dummy main method.
+	 */
+	private final Map<SootClass, List<Object>> componentInputs = new HashMap<>();
+
 	private Collection<SootClass> components;
 
 	private MultiMap<SootMethod, Stmt> javascriptInterfaceStmts;
@@ -221,10 +229,23 @@ public class AndroidEntryPointCreator extends AbstractAndroidEntryPointCreator i
 
 		// We need to create methods for all fragments, because they can be used by
 		// multiple activities
+		Set<SootClass> generatedComponents = new HashSet<>();
+		int reusedComponents = 0;
 		Map<SootClass, SootMethod> fragmentToMainMethod = new HashMap<>();
 		for (SootClass parentActivity : fragmentClasses.keySet()) {
 			Set<SootClass> fragments = fragmentClasses.get(parentActivity);
 			for (SootClass fragment : fragments) {
+				if (!generatedComponents.add(fragment)) {
+					fragmentToMainMethod.put(fragment, componentToInfo.getEntryPoint(fragment));
+					continue;
+				}
+				List<Object> inputs = getComponentInputs(fragment, ComponentType.Fragment, null);
+				if (canReuseComponent(fragment, inputs)) {
+					fragmentToMainMethod.put(fragment, componentToInfo.getEntryPoint(fragment));
+					reusedComponents++;
+					continue;
+				}
+
 				FragmentEntryPointCreator entryPointCreator = new FragmentEntryPointCreator(fragment, applicationClass,
 						this.manifest);
 				entryPointCreator.setDummyClassName(mainMethod.getDeclaringClass().getName());
@@ -233,12 +254,19 @@ public class AndroidEntryPointCreator extends AbstractAndroidEntryPointCreator i
 				SootMethod fragmentMethod = entryPointCreator.createDummyMain();
 				fragmentToMainMethod.put(fragment, fragmentMethod);
 				componentToInfo.put(fragment, fragmentMethod);
+				componentInputs.put(fragment, inputs);
 			}
 		}
 
 		for (SootClass currentClass : components) {
 			currentClass.setApplicationClass();
 
+			// Fragments are invoked through the lifecycle methods of the activities that
+			// host them. We must not generate a second lifecycle method that would
+			// replace the one of the fragment.
+			if (!generatedComponents.add(currentClass))
+				continue;
+
 			// Get the callbacks and component type of the current component
 			ComponentType componentType = entryPointUtils.getComponentType(currentClass);
 
@@ -250,51 +278,64 @@ public class AndroidEntryPointCreator extends AbstractAndroidEntryPointCreator i
 			// Generate the lifecycles for the different kinds of Android
 			// classes
 			AbstractComponentEntryPointCreator componentCreator = null;
-			switch (componentType) {
-			case Activity:
-				Map<SootClass, SootMethod> curActivityToFragmentMethod = new HashMap<>();
-				if (fragmentClasses != null) {
-					Set<SootClass> fragments = fragmentClasses.get(currentClass);
-					if (fragments != null && !fragments.isEmpty()) {
-						for (SootClass fragment : fragments)
-							curActivityToFragmentMethod.put(fragment, fragmentToMainMethod.get(fragment));
-					}
+			Map<SootClass, SootMethod> curActivityToFragmentMethod = new HashMap<>();
+			if (componentType == ComponentType.Activity && fragmentClasses != null) {
+				Set<SootClass> fragments = fragmentClasses.get(currentClass);
+				if (fragments != null && !fragments.isEmpty()) {
+					for (SootClass fragment : fragments)
+						curActivityToFragmentMethod.put(fragment, fragmentToMainMethod.get(fragment));
+				}
+			}
+			List<Object> inputs = getComponentInputs(currentClass, componentType, curActivityToFragmentMethod);
+			boolean reuseComponent = canReuseComponent(currentClass, inputs);
+			if (reuseComponent)
+				reusedComponents++;
+			else {
+				switch (componentType) {
+				case Activity:
+					componentCreator = new ActivityEntryPointCreator(currentClass, applicationClass,
+							activityLifecycleCallbacks, callbackClassToField, curActivityToFragmentMethod,
+							this.manifest);
+					break;
+				case Service:
+				case GCMBaseIntentService:
+				case GCMListenerService:
+				case HostApduService:
+					componentCreator = new ServiceEntryPointCreator(currentClass, applicationClass, this.manifest);
+					break;
+				case ServiceConnection:
+					componentCreator = new ServiceConnectionEntryPointCreator(currentClass, applicationClass,
+							this.manifest);
+					break;
+				case BroadcastReceiver:
+					componentCreator = new BroadcastReceiverEntryPointCreator(currentClass, applicationClass,
+							this.manifest);
+					break;
+				case ContentProvider:
+					componentCreator = new ContentProviderEntryPointCreator(currentClass, applicationClass,
+							this.manifest);
+					break;
+				default:
+					componentCreator = null;
+					break;
 				}
-				componentCreator = new ActivityEntryPointCreator(currentClass, applicationClass,
-						activityLifecycleCallbacks, callbackClassToField, curActivityToFragmentMethod, this.manifest);
-				break;
-			case Service:
-			case GCMBaseIntentService:
-			case GCMListenerService:
-			case HostApduService:
-				componentCreator = new ServiceEntryPointCreator(currentClass, applicationClass, this.manifest);
-				break;
-			case ServiceConnection:
-				componentCreator = new ServiceConnectionEntryPointCreator(currentClass, applicationClass,
-						this.manifest);
-				break;
-			case BroadcastReceiver:
-				componentCreator = new BroadcastReceiverEntryPointCreator(currentClass, applicationClass,
-						this.manifest);
-				break;
-			case ContentProvider:
-				componentCreator = new ContentProviderEntryPointCreator(currentClass, applicationClass, this.manifest);
-				break;
-			default:
-				componentCreator = null;
-				break;
 			}
 
 			// We may skip the complete component
 			createIfStmt(afterComponentStmt);
 
 			// Create a call to the component's lifecycle method
-			if (componentCreator != null) {
+			SootMethod lifecycleMethod = null;
+			if (reuseComponent)
+				lifecycleMethod = componentToInfo.getEntryPoint(currentClass);
+			else if (componentCreator != null) {
 				componentCreator.setDummyClassName(mainMethod.getDeclaringClass().getName());
 				componentCreator.setCallbacks(callbackFunctions.get(currentClass));
-				SootMethod lifecycleMethod = componentCreator.createDummyMain();
+				lifecycleMethod = componentCreator.createDummyMain();
 				componentToInfo.put(currentClass, componentCreator.getComponentInfo());
-
+				componentInputs.put(currentClass, inputs);
+			}
+			if (lifecycleMethod != null) {
 				// dummyMain(component, intent)
 				if (shouldAddLifecycleCall(currentClass)) {
 					body.getUnits()
@@ -308,6 +349,13 @@ public class AndroidEntryPointCreator extends AbstractAndroidEntryPointCreator i
 			body.getUnits().add(afterComponentStmt);
 		}
 
+		// Get rid of the dummy main methods of components that we no longer analyze
+		for (SootClass sc : new ArrayList<>(componentInputs.keySet()))
+			if (!generatedComponents.contains(sc))
+				discardComponent(sc);
+		if (reusedComponents > 0)
+			logger.info("Re-used the lifecycle methods of {} unchanged components", reusedComponents);
+
 		// Add conditional calls to the application callback methods
 		if (applicationLocal != null) {
 			Unit beforeAppCallbacks = Jimple.v().newNopStmt();
@@ -394,6 +442,75 @@ public class AndroidEntryPointCreator extends AbstractAndroidEntryPointCreator i
 		return true;
 	}
 
+	/**
+	 * Gets the inputs from which the dummy main method of the given component is
+	 * generated
+	 * 
+	 * @param component       The component
+	 * @param componentType   The type of the component
+	 * @param fragmentMethods The dummy main methods of the fragments that are
+	 *                        hosted by the component, if the component is an
+	 *                        activity
+	 * @return The inputs for generating the dummy main method of the given
+	 *         component
+	 */
+	private List<Object> getComponentInputs(SootClass component, ComponentType componentType,
+			Map<SootClass, SootMethod> fragmentMethods) {
+		Set<SootMethod> callbacks = callbackFunctions.get(component);
+		List<Object> inputs = new ArrayList<>();
+		inputs.add(componentType);
+		inputs.add(mainMethod.getDeclaringClass().getName());
+		inputs.add(applicationClass);
+		inputs.add(callbacks == null ? Collections.emptySet() : new HashSet<>(callbacks));
+		if (componentType == ComponentType.Activity) {
+			inputs.add(fragmentMethods == null ? Collections.emptyMap() : new HashMap<>(fragmentMethods));
+			inputs.add(new HashMultiMap<>(activityLifecycleCallbacks));
+			inputs.add(new HashMap<>(callbackClassToField));
+		}
+		return inputs;
+	}
+
+	/**
+	 * Checks whether the dummy main method that we have generated for the given
+	 * component in a previous run can be re-used. If not, the old method is
+	 * removed.
+	 * 
+	 * @param component The component
+	 * @param inputs    The inputs for generating the dummy main method of the
+	 *                  component in the current run
+	 * @return True if the dummy main method from the previous run can be re-used,
+	 *         false if a new one must be generated
+	 */
+	private boolean canReuseComponent(SootClass component, List<Object> inputs) {
+		if (inputs.equals(componentInputs.get(component))) {
+			SootMethod lifecycleMethod = componentToInfo.getEntryPoint(component);
+			if (lifecycleMethod != null && lifecycleMethod.isDeclared())
+				return true;
+		}
+		discardComponent(component);
+		return false;
+	}
+
+	/**
+	 * Removes the dummy main method and the additional fields that we have
+	 * generated for the given component
+	 * 
+	 * @param component The component
+	 */
+	private void discardComponent(SootClass component) {
+		componentInputs.remove(component);
+		ComponentEntryPointInfo info = componentToInfo.remove(component);
+		if (info != null) {
+			SootMethod sm = info.getEntryPoint();
+			if (sm != null && sm.isDeclared())
+				sm.getDeclaringClass().removeMethod(sm);
+			for (SootField sf : info.getAdditionalFields()) {
+				if (sf.isDeclared())
+					sf.getDeclaringClass().removeField(sf);
+			}
+		}
+	}
+
 	/**
 	 * Find the application class and its callbacks
 	 */
@@ -441,8 +558,14 @@ public class AndroidEntryPointCreator extends AbstractAndroidEntryPointCreator i
 			}
 		}
 
-		// Create fields for the activity lifecycle classes
+		// Create fields for the activity lifecycle classes. We keep the fields from
+		// previous runs, because the lifecycle methods of the activities that we
+		// re-use refer to them.
 		for (SootClass callbackClass : activityLifecycleCallbacks.keySet()) {
+			SootField existingField = callbackClassToField.get(callbackClass);
+			if (existingField != null && existingField.isDeclared())
+				continue;
+
 			String baseName = callbackClass.getName();
 			if (baseName.contains("."))
 				baseName = baseName.substring(baseName.lastIndexOf(".") + 1);
@@ -608,10 +731,21 @@ public class AndroidEntryPointCreator extends AbstractAndroidEntryPointCreator i
 	public void reset() {
 		super.reset();
 
-		// Get rid of the generated component methods
+		// We keep the generated component methods and the fields they refer to. The
+		// next run checks which of them are still up to date.
+	}
+
+	/**
+	 * Removes the dummy main methods of all components and the fields that have
+	 * been generated for them
+	 */
+	private void discardAllComponents() {
 		for (SootMethod sm : getAdditionalMethods()) {
-			if (sm.isDeclared())
-				sm.getDeclaringClass().removeMethod(sm);
+			if (sm.isDeclared()) {
+				final SootClass declaringClass = sm.getDeclaringClass();
+				if (declaringClass.isInScene())
+					declaringClass.removeMethod(sm);
+			}
 		}
 		for (SootField sf : getAdditionalFields()) {
 			if (sf.isDeclared())
@@ -625,6 +759,7 @@ public class AndroidEntryPointCreator extends AbstractAndroidEntryPointCreator i
 		}
 
 		componentToInfo.clear();
+		componentInputs.clear();
 		callbackClassToField.clear();
 	}
 
@@ -653,13 +788,7 @@ public class AndroidEntryPointCreator extends AbstractAndroidEntryPointCreator i
 			mainClass.removeMethod(mainMethod);
 
 		// Remove the additional methods
-		for (SootMethod sm : getAdditionalMethods()) {
-			if (sm.isDeclared()) {
-				final SootClass declaringClass = sm.getDeclaringClass();
-				if (declaringClass.isInScene())
-					declaringClass.removeMethod(sm);
-			}
-		}
+		discardAllComponents();
 	}
 
 	public void setJavaScriptInterfaces(MultiMap<SootMethod, Stmt> javascriptInterfaceStmts) {
@@ -52,6 +52,10 @@ public class ComponentEntryPointCollection {
 		return info == null ? null : info.getEntryPoint();
 	}
 
+	public ComponentEntryPointInfo remove(SootClass component) {
+		return componentToEntryPointInfo.remove(component);
+	}
+
 	public void clear() {
 		componentToEntryPointInfo.clear();
 	}
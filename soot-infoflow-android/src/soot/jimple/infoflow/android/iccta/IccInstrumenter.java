@@ -71,12 +71,7 @@ public class IccInstrumenter implements PreAnalysisHandler {
 			redirectionCreator.undoInstrumentation();
 
 		logger.info("[IccTA] Lauching ICC Redirection Creation...");
-		for (IccLink link : iccLinks) {
-			if (link.fromU == null) {
-				continue;
-			}
-			redirectionCreator.redirectToDestination(link);
-		}
+		redirectionCreator.redirectToDestinations(iccLinks);
 
 		// Remove any potential leftovers from the last last instrumentation
 		undoInstrumentation();
@@ -1,9 +1,10 @@
 package soot.jimple.infoflow.android.iccta;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -67,6 +68,57 @@ public class IccRedirectionCreator {
 
 	}
 
+	/**
+	 * A link together with the redirector method that models it and the statement
+	 * that calls the redirector method
+	 */
+	private static class Redirection {
+
+		private final IccLink link;
+		private final SootMethod redirectMethod;
+		private final Stmt callStmt;
+
+		private Redirection(IccLink link, SootMethod redirectMethod, Stmt callStmt) {
+			this.link = link;
+			this.redirectMethod = redirectMethod;
+			this.callStmt = callStmt;
+		}
+
+	}
+
+	/**
+	 * The statements that shall be inserted into the body of a single source
+	 * method
+	 */
+	private static class SourceBodyInstrumentation {
+
+		private final Body body;
+		private final Map<Unit, List<Unit>> callsByIccStmt = new LinkedHashMap<>();
+		private Map<Unit, Unit> chooserAssignments = Collections.emptyMap();
+		private final List<Unit> newUnits = new ArrayList<>();
+
+		private SourceBodyInstrumentation(Body body) {
+			this.body = body;
+		}
+
+		/**
+		 * Inserts the new statements into the body. This method only changes the body
+		 * and does not access the scene.
+		 */
+		private void apply() {
+			final PatchingChain<Unit> units = body.getUnits();
+			for (Map.Entry<Unit, List<Unit>> entry : callsByIccStmt.entrySet()) {
+				units.insertAfter(entry.getValue(), entry.getKey());
+				newUnits.addAll(entry.getValue());
+			}
+			for (Map.Entry<Unit, Unit> entry : chooserAssignments.entrySet()) {
+				units.insertAfter(entry.getValue(), entry.getKey());
+				newUnits.add(entry.getValue());
+			}
+		}
+
+	}
+
 	private static int num = 0;
 
 	private final static Logger logger = LoggerFactory.getLogger(IccRedirectionCreator.class);
@@ -92,11 +144,7 @@ public class IccRedirectionCreator {
 	}
 
 	public void redirectToDestination(IccLink link) {
-		if (link.getDestinationC().isPhantom())
-			return;
-
-		// Do not instrument code into system methods
-		if (SystemClassHandler.v().isClassInSystemPackage(link.getFromSM().getDeclaringClass()))
+		if (!canRedirect(link))
 			return;
 
 		// 1) generate redirect method
@@ -109,6 +157,73 @@ public class IccRedirectionCreator {
 		insertRedirectMethodCallAfterIccMethod(link, redirectSM);
 	}
 
+	/**
+	 * Redirects all of the given links to their respective destinations. Other
+	 * than calling {@link #redirectToDestination(IccLink)} for each link, this
+	 * method instruments every source method only once. The redirector methods and
+	 * the calls to them are created sequentially, because this requires access to
+	 * the scene, which is not thread-safe. Afterwards, the new statements are
+	 * inserted into the source methods in parallel, because each of them only
+	 * requires changes to its own body.
+	 * 
+	 * @param links The links to redirect
+	 */
+	public void redirectToDestinations(Collection<IccLink> links) {
+		// Create the redirector methods and the calls to them
+		List<Redirection> redirections = new ArrayList<>();
+		Map<Body, SourceBodyInstrumentation> instrumentations = new LinkedHashMap<>();
+		for (IccLink link : links) {
+			if (link.getFromU() == null || !canRedirect(link))
+				continue;
+
+			SootMethod redirectSM = getRedirectMethod(link);
+			if (redirectSM == null)
+				continue;
+			List<Value> args = getRedirectCallArguments((Stmt) link.getFromU());
+			if (args == null)
+				continue;
+
+			Stmt callStmt = createRedirectCall(link, redirectSM, args);
+			redirections.add(new Redirection(link, redirectSM, callStmt));
+
+			Body body = link.getFromSM().retrieveActiveBody();
+			instrumentations.computeIfAbsent(body, SourceBodyInstrumentation::new).callsByIccStmt
+					.computeIfAbsent(link.getFromU(), k -> new ArrayList<>()).add(callStmt);
+		}
+		for (SourceBodyInstrumentation instrumentation : instrumentations.values())
+			instrumentation.chooserAssignments = createChooserAssignments(instrumentation.body);
+
+		// Modify the source methods
+		instrumentations.values().parallelStream().forEach(SourceBodyInstrumentation::apply);
+
+		// Record the new statements so that we can remove them again later
+		for (SourceBodyInstrumentation instrumentation : instrumentations.values())
+			instrumentedUnits.putAll(instrumentation.body, instrumentation.newUnits);
+		if (instrumentationCallback != null) {
+			for (Redirection redirection : redirections)
+				instrumentationCallback.onRedirectorCallInserted(redirection.link, redirection.callStmt,
+						redirection.redirectMethod);
+		}
+	}
+
+	/**
+	 * Checks whether the given link can be redirected to its destination
+	 * 
+	 * @param link The link to check
+	 * @return True if calls to the destination component can be injected for the
+	 *         given link, false otherwise
+	 */
+	protected boolean canRedirect(IccLink link) {
+		if (link.getDestinationC().isPhantom())
+			return false;
+
+		// Do not instrument code into system methods
+		if (SystemClassHandler.v().isClassInSystemPackage(link.getFromSM().getDeclaringClass()))
+			return false;
+
+		return true;
+	}
+
 	/**
 	 * Redirect ICC call at unit in sm to the right component
 	 * 
@@ -422,6 +537,32 @@ public class IccRedirectionCreator {
 		if (fromStmt == null || !fromStmt.containsInvokeExpr())
 			return;
 
+		List<Value> args = getRedirectCallArguments(fromStmt);
+		if (args == null || redirectMethod == null)
+			return;
+
+		final Body body = addICCRedirectCall(link, redirectMethod, args);
+
+		// remove the real ICC methods call stmt
+		// link.getFromSM().retrieveActiveBody().getUnits().remove(link.getFromU());
+		// Please refer to AndroidIPCManager.postProcess() for this removing
+		// process.
+
+		instrumentedUnits.putAll(body, instrumentCreateChooser(body));
+	}
+
+	/**
+	 * Gets the arguments that shall be passed to the redirector method for the
+	 * given ICC call
+	 * 
+	 * @param fromStmt The statement that performs the ICC call
+	 * @return The arguments for the redirector method, or <code>null</code> if the
+	 *         ICC call cannot be redirected
+	 */
+	protected List<Value> getRedirectCallArguments(Stmt fromStmt) {
+		if (fromStmt == null || !fromStmt.containsInvokeExpr())
+			return null;
+
 		SootMethod callee = fromStmt.getInvokeExpr().getMethod();
 
 		// specially deal with startActivityForResult since they have two
@@ -439,48 +580,83 @@ public class IccRedirectionCreator {
 		} else {
 			// specially deal with ICC methods with no parameter, i.e., PendingIntent.send()
 			if (fromStmt.getInvokeExpr().getArgCount() == 0) {
-				return;
+				return null;
 			}
 			Value arg0 = fromStmt.getInvokeExpr().getArg(0);
 			args.add(arg0);
 		}
+		return args;
+	}
 
-		if (redirectMethod == null) {
-			return;
-		}
-
-		final Body body = addICCRedirectCall(link, redirectMethod, args);
-
+	/**
+	 * Models calls to Intent.createChooser() as simple assignments of the original
+	 * intent
+	 * 
+	 * @param body The body to instrument
+	 * @return The statements that have been inserted into the body
+	 */
+	protected List<Unit> instrumentCreateChooser(Body body) {
+		Map<Unit, Unit> assignments = createChooserAssignments(body);
 		final PatchingChain<Unit> units = body.getUnits();
-		// remove the real ICC methods call stmt
-		// link.getFromSM().retrieveActiveBody().getUnits().remove(link.getFromU());
-		// Please refer to AndroidIPCManager.postProcess() for this removing
-		// process.
+		for (Map.Entry<Unit, Unit> entry : assignments.entrySet())
+			units.insertAfter(entry.getValue(), entry.getKey());
+		return new ArrayList<>(assignments.values());
+	}
 
+	/**
+	 * Creates the assignments that model the calls to Intent.createChooser() in the
+	 * given body. The assignments are not yet inserted into the body.
+	 * 
+	 * @param body The body in which to look for calls to Intent.createChooser()
+	 * @return A mapping from the calls to Intent.createChooser() to the assignments
+	 *         that shall be inserted after them
+	 */
+	protected Map<Unit, Unit> createChooserAssignments(Body body) {
 		NumberedString subsig = Scene.v().getSubSigNumberer()
 				.find("android.content.Intent createChooser(android.content.Intent,java.lang.CharSequence)");
 		SootClass clazz = Scene.v().getSootClassUnsafe("android.content.Intent");
-		if (subsig != null && clazz != null) {
-			// especially for createChooser method
-			for (Iterator<Unit> iter = units.snapshotIterator(); iter.hasNext();) {
-				Stmt stmt = (Stmt) iter.next();
-				if (stmt.containsInvokeExpr()) {
-					InvokeExpr expr = stmt.getInvokeExpr();
-					SootMethodRef mr = expr.getMethodRef();
-					if (mr.getDeclaringClass().equals(clazz) && mr.getSubSignature().equals(subsig)) {
-						List<ValueBox> vbs = stmt.getUseAndDefBoxes();
-						Unit assignU = Jimple.v().newAssignStmt(vbs.get(0).getValue(), vbs.get(1).getValue());
-						copyTags(stmt, assignU);
-						assignU.addTag(SimulatedCodeElementTag.TAG);
-						units.insertAfter(assignU, stmt);
-						instrumentedUnits.put(body, assignU);
-					}
+		if (subsig == null || clazz == null)
+			return Collections.emptyMap();
+
+		Map<Unit, Unit> assignments = new LinkedHashMap<>();
+		for (Unit u : body.getUnits()) {
+			Stmt stmt = (Stmt) u;
+			if (stmt.containsInvokeExpr()) {
+				InvokeExpr expr = stmt.getInvokeExpr();
+				SootMethodRef mr = expr.getMethodRef();
+				if (mr.getDeclaringClass().equals(clazz) && mr.getSubSignature().equals(subsig)) {
+					List<ValueBox> vbs = stmt.getUseAndDefBoxes();
+					Unit assignU = Jimple.v().newAssignStmt(vbs.get(0).getValue(), vbs.get(1).getValue());
+					copyTags(stmt, assignU);
+					assignU.addTag(SimulatedCodeElementTag.TAG);
+					assignments.put(stmt, assignU);
 				}
 			}
 		}
+		return assignments;
 	}
 
 	protected Body addICCRedirectCall(IccLink link, SootMethod redirectMethod, List<Value> args) {
+		Stmt redirectCallU = createRedirectCall(link, redirectMethod, args);
+		final Body body = link.getFromSM().retrieveActiveBody();
+		body.getUnits().insertAfter(redirectCallU, link.getFromU());
+		instrumentedUnits.put(body, redirectCallU);
+		if (instrumentationCallback != null) {
+			instrumentationCallback.onRedirectorCallInserted(link, redirectCallU, redirectMethod);
+		}
+		return body;
+	}
+
+	/**
+	 * Creates the statement that calls the given redirector method in place of the
+	 * ICC call of the given link
+	 * 
+	 * @param link           The inter-component link
+	 * @param redirectMethod The redirector method to call
+	 * @param args           The arguments for the redirector method
+	 * @return The new call statement. It is not yet part of any body.
+	 */
+	protected Stmt createRedirectCall(IccLink link, SootMethod redirectMethod, List<Value> args) {
 		Stmt redirectCallU;
 		Jimple jimp = Jimple.v();
 		if (link.getFromU() instanceof AssignStmt)
@@ -489,16 +665,9 @@ public class IccRedirectionCreator {
 		else
 			redirectCallU = jimp.newInvokeStmt(Jimple.v().newStaticInvokeExpr(redirectMethod.makeRef(), args));
 
-		final Body body = link.getFromSM().retrieveActiveBody();
-
 		copyTags(link.getFromU(), redirectCallU);
 		redirectCallU.addTag(SimulatedCodeElementTag.TAG);
-		body.getUnits().insertAfter(redirectCallU, link.getFromU());
-		instrumentedUnits.put(body, redirectCallU);
-		if (instrumentationCallback != null) {
-			instrumentationCallback.onRedirectorCallInserted(link, redirectCallU, redirectMethod);
-		}
-		return body;
+		return redirectCallU;
 	}
 
 	/**
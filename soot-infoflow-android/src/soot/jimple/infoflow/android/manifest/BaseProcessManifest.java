@@ -21,6 +21,7 @@ import soot.jimple.infoflow.android.manifest.binary.BinaryAndroidApplication;
 import soot.jimple.infoflow.android.manifest.containers.EagerComponentContainer;
 import soot.jimple.infoflow.android.manifest.containers.EmptyComponentContainer;
 import soot.jimple.infoflow.android.resources.ARSCFileParser;
+import soot.jimple.infoflow.android.resources.LazyARSCFileParser;
 
 /**
  * This class provides easy access to all data of an AppManifest.<br />
@@ -118,7 +119,7 @@ public abstract class BaseProcessManifest<A extends IActivity, S extends IServic
 	 *      {@link BaseProcessManifest#BaseProcessManifest(InputStream,ARSCFileParser)}
 	 */
 	public BaseProcessManifest(File apkFile) throws IOException {
-		this(apkFile, ARSCFileParser.getInstance(apkFile));
+		this(apkFile, LazyARSCFileParser.getInstance(apkFile));
 	}
 
 	/**
@@ -14,6 +14,8 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -23,6 +25,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -2124,6 +2127,44 @@ public class ARSCFileParser extends AbstractResourceParser {
 		readResourceHeader(stream);
 	}
 
+	/**
+	 * Parses the resource table in the given buffer. The buffer must be positioned
+	 * at the start of the resource table. The data is read directly from the
+	 * buffer without copying it.
+	 * 
+	 * @param data The buffer containing the resource table
+	 * @throws IOException Thrown if the resource table cannot be read
+	 */
+	public void parse(ByteBuffer data) throws IOException {
+		ByteBuffer remainingData = sliceResourceTable(data);
+		if (remainingData != null)
+			readResourceTable(remainingData);
+	}
+
+	/**
+	 * Reads the header of the resource table at the current position of the given
+	 * buffer and returns the data following the header
+	 * 
+	 * @param data The buffer containing the resource table
+	 * @return The contents of the resource table after its header, or null if the
+	 *         table does not contain any packages
+	 * @throws IOException Thrown if the resource table cannot be read
+	 */
+	protected ByteBuffer sliceResourceTable(ByteBuffer data) throws IOException {
+		final int start = data.position();
+		ResTable_Header resourceHeader = new ResTable_Header();
+		readChunkHeader(resourceHeader.header, data, start);
+		resourceHeader.packageCount = readUInt32(data, start + 8);
+		logger.debug("Package Groups ({})", resourceHeader.packageCount);
+
+		// Do we have any packages to read?
+		int remainingSize = Math.min(resourceHeader.header.size, data.limit() - start)
+				- resourceHeader.header.headerSize;
+		if (remainingSize <= 0)
+			return null;
+		return data.slice(start + resourceHeader.header.headerSize, remainingSize);
+	}
+
 	private void readResourceHeader(InputStream stream) throws IOException {
 		final int BLOCK_SIZE = 2048;
 
@@ -2151,6 +2192,16 @@ public class ARSCFileParser extends AbstractResourceParser {
 			System.arraycopy(block, 0, remainingData, totalBytesRead, bytesRead);
 			totalBytesRead += bytesRead;
 		}
+		readResourceTable(ByteBuffer.wrap(remainingData));
+	}
+
+	/**
+	 * Reads the packages and the global string pool of the resource table
+	 * 
+	 * @param remainingData The contents of the resource table after its header
+	 * @throws IOException Thrown if the resource table cannot be read
+	 */
+	private void readResourceTable(ByteBuffer remainingData) throws IOException {
 		int offset = 0;
 		int beforeBlock = 0;
 
@@ -2158,7 +2209,7 @@ public class ARSCFileParser extends AbstractResourceParser {
 		int packageCtr = 0;
 		Map<Integer, String> keyStrings = new HashMap<>();
 		Map<Integer, String> typeStrings = new HashMap<>();
-		while (offset < remainingData.length - 1) {
+		while (offset < remainingData.limit() - 1) {
 			beforeBlock = offset;
 			ResChunk_Header nextChunkHeader = new ResChunk_Header();
 			offset = readChunkHeader(nextChunkHeader, remainingData, offset);
@@ -2304,65 +2355,10 @@ public class ARSCFileParser extends AbstractResourceParser {
 								continue;
 							}
 							entryOffset += beforeInnerBlock + typeTable.entriesStart;
-							ResTable_Entry entry = readEntryTable(remainingData, entryOffset);
-							entryOffset += entry.size;
-
-							AbstractResource res;
-
-							// If this is a simple entry, the data structure is
-							// followed by RES_VALUE
-							if (entry.flagsComplex) {
-								ComplexResource cmpRes = new ComplexResource(resType.typeName);
-								res = cmpRes;
-
-								for (int j = 0; j < ((ResTable_Map_Entry) entry).count; j++) {
-									ResTable_Map map = new ResTable_Map();
-									entryOffset = readComplexValue(map, remainingData, entryOffset);
-
-									final String mapName = Integer.toString(map.name);
-									AbstractResource value = parseValue(map.value);
-
-									// If we are dealing with an array, we put it into a special array container
-									if (resType.typeName != null && resType.typeName.equals("array")
-											&& value instanceof StringResource) {
-
-										AbstractResource existingResource = cmpRes.value.get(mapName);
-										if (existingResource == null) {
-											existingResource = new ArrayResource();
-											cmpRes.value.put(mapName, existingResource);
-										}
-
-										// We silently ignore inconsistencies at thze moment
-										if (existingResource instanceof ArrayResource)
-											((ArrayResource) existingResource).add(value);
-									} else {
-										cmpRes.value.put(mapName, value);
-									}
-								}
-							} else {
-								Res_Value val = new Res_Value();
-								entryOffset = readValue(val, remainingData, entryOffset);
-								res = parseValue(val);
-								if (res == null) {
-									logger.error(
-											String.format("Could not parse resource %s of type 0x%x, skipping entry",
-													keyStrings.get(entry.key), val.dataType));
-									continue;
-								}
-							}
-
-							// Create the data object. For finding the correct ID, we
-							// must check whether the entry is really new - if so, it
-							// gets a new ID, otherwise, we reuse the old one
-							if (keyStrings.containsKey(entry.key)) {
-								res.resourceName = keyStrings.get(entry.key);
-							} else {
-								res.resourceName = "<INVALID RESOURCE>";
-							}
-
-							if (res.resourceID <= 0) {
-								res.resourceID = (packageTable.id << 24) + (typeTable.id << 16) + resourceIdx;
-							}
+							AbstractResource res = readResource(remainingData, entryOffset, resType.typeName,
+									keyStrings::get, (packageTable.id << 24) + (typeTable.id << 16) + resourceIdx);
+							if (res == null)
+								continue;
 							config.resources.add(res);
 						}
 					}
@@ -2388,10 +2384,81 @@ public class ARSCFileParser extends AbstractResourceParser {
 
 			// Skip the block
 			offset = beforeBlock + nextChunkHeader.size;
-			remainingSize -= nextChunkHeader.size;
 		}
 	}
 
+
+	/**
+	 * Reads the resource entry at the given offset
+	 * 
+	 * @param data        The data array containing the entry
+	 * @param entryOffset The offset of the <code>ResTable_entry</code> structure
+	 * @param typeName    The name of the resource type, e.g., "string"
+	 * @param keyStrings  Function for resolving indices into the key string pool
+	 *                    of the package
+	 * @param resourceID  The ID of the resource
+	 * @return The resource, or null if the entry could not be parsed
+	 * @throws IOException Thrown if the entry cannot be read
+	 */
+	protected AbstractResource readResource(ByteBuffer data, int entryOffset, String typeName,
+			IntFunction<String> keyStrings, int resourceID) throws IOException {
+		ResTable_Entry entry = readEntryTable(data, entryOffset);
+		entryOffset += entry.size;
+
+		AbstractResource res;
+
+		// If this is a simple entry, the data structure is
+		// followed by RES_VALUE
+		if (entry.flagsComplex) {
+			ComplexResource cmpRes = new ComplexResource(typeName);
+			res = cmpRes;
+
+			for (int j = 0; j < ((ResTable_Map_Entry) entry).count; j++) {
+				ResTable_Map map = new ResTable_Map();
+				entryOffset = readComplexValue(map, data, entryOffset);
+
+				final String mapName = Integer.toString(map.name);
+				AbstractResource value = parseValue(map.value);
+
+				// If we are dealing with an array, we put it into a special array container
+				if (typeName != null && typeName.equals("array") && value instanceof StringResource) {
+
+					AbstractResource existingResource = cmpRes.value.get(mapName);
+					if (existingResource == null) {
+						existingResource = new ArrayResource();
+						cmpRes.value.put(mapName, existingResource);
+					}
+
+					// We silently ignore inconsistencies at thze moment
+					if (existingResource instanceof ArrayResource)
+						((ArrayResource) existingResource).add(value);
+				} else {
+					cmpRes.value.put(mapName, value);
+				}
+			}
+		} else {
+			Res_Value val = new Res_Value();
+			entryOffset = readValue(val, data, entryOffset);
+			res = parseValue(val);
+			if (res == null) {
+				logger.error(String.format("Could not parse resource %s of type 0x%x, skipping entry",
+						keyStrings.apply(entry.key), val.dataType));
+				return null;
+			}
+		}
+
+		// Create the data object. For finding the correct ID, we
+		// must check whether the entry is really new - if so, it
+		// gets a new ID, otherwise, we reuse the old one
+		String resourceName = keyStrings.apply(entry.key);
+		res.resourceName = resourceName != null ? resourceName : "<INVALID RESOURCE>";
+
+		if (res.resourceID <= 0) {
+			res.resourceID = resourceID;
+		}
+		return res;
+	}
+
 	/**
 	 * Checks whether the given complex map entry is one of the well-known
 	 * attributes.
@@ -2418,7 +2485,17 @@ public class ARSCFileParser extends AbstractResourceParser {
 				* RADIX_MULTS[(complex >> COMPLEX_RADIX_SHIFT) & COMPLEX_RADIX_MASK];
 	}
 
-	private AbstractResource parseValue(Res_Value val) {
+	/**
+	 * Gets the string with the given index from the global string pool
+	 * 
+	 * @param idx The index of the string
+	 * @return The string with the given index, or null if no such string exists
+	 */
+	protected String getGlobalString(int idx) {
+		return stringTable.get(idx);
+	}
+
+	protected AbstractResource parseValue(Res_Value val) {
 		AbstractResource res;
 		switch (val.dataType) {
 		case TYPE_NULL:
@@ -2431,7 +2508,7 @@ public class ARSCFileParser extends AbstractResourceParser {
 			res = new AttributeResource(val.data);
 			break;
 		case TYPE_STRING:
-			res = new StringResource(stringTable.get(val.data));
+			res = new StringResource(getGlobalString(val.data));
 			break;
 		case TYPE_INT_DEC:
 		case TYPE_INT_HEX:
@@ -2468,14 +2545,14 @@ public class ARSCFileParser extends AbstractResourceParser {
 		return res;
 	}
 
-	private int readComplexValue(ResTable_Map map, byte[] remainingData, int offset) throws IOException {
+	protected int readComplexValue(ResTable_Map map, ByteBuffer remainingData, int offset) throws IOException {
 		map.name = readUInt32(remainingData, offset);
 		offset += 4;
 
 		return readValue(map.value, remainingData, offset);
 	}
 
-	private int readValue(Res_Value val, byte[] remainingData, int offset) throws IOException {
+	protected int readValue(Res_Value val, ByteBuffer remainingData, int offset) throws IOException {
 		int initialOffset = offset;
 
 		val.size = readUInt16(remainingData, offset);
@@ -2500,7 +2577,7 @@ public class ARSCFileParser extends AbstractResourceParser {
 		return offset;
 	}
 
-	private ResTable_Entry readEntryTable(byte[] data, int offset) throws IOException {
+	protected ResTable_Entry readEntryTable(ByteBuffer data, int offset) throws IOException {
 		// The exact type of entry depends on the size
 		int size = readUInt16(data, offset);
 		offset += 2;
@@ -2552,7 +2629,7 @@ public class ARSCFileParser extends AbstractResourceParser {
 	 * @return
 	 * @throws IOException
 	 */
-	private int readTypeTable(ResTable_Type typeTable, byte[] data, int offset) throws IOException {
+	protected int readTypeTable(ResTable_Type typeTable, ByteBuffer data, int offset) throws IOException {
 		typeTable.id = readUInt8(data, offset);
 		if (typeTable.id == 0) {
 			raiseFormatViolationIssue("File format violation in type table: id is zero", offset);
@@ -2580,7 +2657,7 @@ public class ARSCFileParser extends AbstractResourceParser {
 		return readConfigTable(typeTable.config, data, offset);
 	}
 
-	private int readConfigTable(ResTable_Config config, byte[] data, int offset) throws IOException {
+	protected int readConfigTable(ResTable_Config config, ByteBuffer data, int offset) throws IOException {
 		config.size = readUInt32(data, offset);
 		offset += 4;
 
@@ -2590,12 +2667,12 @@ public class ARSCFileParser extends AbstractResourceParser {
 		config.mnc = readUInt16(data, offset);
 		offset += 2;
 
-		config.language[0] = (char) data[offset];
-		config.language[1] = (char) data[offset + 1];
+		config.language[0] = (char) data.get(offset);
+		config.language[1] = (char) data.get(offset + 1);
 		offset += 2;
 
-		config.country[0] = (char) data[offset];
-		config.country[1] = (char) data[offset + 1];
+		config.country[0] = (char) data.get(offset);
+		config.country[1] = (char) data.get(offset + 1);
 		offset += 2;
 
 		config.orientation = readUInt8(data, offset);
@@ -2643,13 +2720,13 @@ public class ARSCFileParser extends AbstractResourceParser {
 			return offset;
 
 		for (int i = 0; i < 4; i++)
-			config.localeScript[i] = (char) data[offset + i];
+			config.localeScript[i] = (char) data.get(offset + i);
 		offset += 4;
 		if (config.size <= 40)
 			return offset;
 
 		for (int i = 0; i < 8; i++)
-			config.localeVariant[i] = (char) data[offset + i];
+			config.localeVariant[i] = (char) data.get(offset + i);
 		offset += 8;
 		if (config.size <= 48)
 			return offset;
@@ -2659,7 +2736,7 @@ public class ARSCFileParser extends AbstractResourceParser {
 		int remainingSize = config.size - 48;
 		if (remainingSize > 0) {
 			byte[] remainingBytes = new byte[remainingSize];
-			System.arraycopy(data, offset, remainingBytes, 0, remainingSize);
+			data.get(offset, remainingBytes);
 			BigInteger remainingData = new BigInteger(1, remainingBytes);
 			if (!(remainingData.equals(BigInteger.ZERO))) {
 				logger.debug("Excessive {} non-null bytes in ResTable_Config ignored", remainingSize);
@@ -2683,7 +2760,8 @@ public class ARSCFileParser extends AbstractResourceParser {
 	 * @return
 	 * @throws IOException
 	 */
-	private int readTypeSpecTable(ResTable_TypeSpec typeSpecTable, byte[] data, int offset) throws IOException {
+	protected int readTypeSpecTable(ResTable_TypeSpec typeSpecTable, ByteBuffer data, int offset)
+			throws IOException {
 		typeSpecTable.id = readUInt8(data, offset);
 		if (typeSpecTable.id == 0) {
 			raiseFormatViolationIssue("File format violation in type spec table: id is zero", offset);
@@ -2706,26 +2784,39 @@ public class ARSCFileParser extends AbstractResourceParser {
 		return offset;
 	}
 
-	private int readStringTable(byte[] remainingData, int offset, int blockStart, ResStringPool_Header stringPoolHeader,
-			Map<Integer, String> stringList) throws IOException {
+	private int readStringTable(ByteBuffer remainingData, int offset, int blockStart,
+			ResStringPool_Header stringPoolHeader, Map<Integer, String> stringList) throws IOException {
 		// Read the strings
-		for (int i = 0; i < stringPoolHeader.stringCount; i++) {
-			int stringIdx = readUInt32(remainingData, offset);
-			offset += 4;
+		for (int i = 0; i < stringPoolHeader.stringCount; i++)
+			stringList.put(i, readPoolString(remainingData, offset, blockStart, stringPoolHeader, i));
+		return offset + stringPoolHeader.stringCount * 4;
+	}
 
-			// Offset begins at block start
-			stringIdx += stringPoolHeader.stringsStart + blockStart;
-			String str = "";
-			if (stringPoolHeader.flagsUTF8)
-				str = readStringUTF8(remainingData, stringIdx).trim();
-			else
-				str = readString(remainingData, stringIdx).trim();
-			stringList.put(i, str);
-		}
-		return offset;
+	/**
+	 * Reads a single string from a string pool
+	 * 
+	 * @param data             The data array containing the string pool
+	 * @param indexOffset      The offset of the string index array, i.e., the
+	 *                         first byte after the string pool header
+	 * @param blockStart       The offset of the string pool block
+	 * @param stringPoolHeader The header of the string pool
+	 * @param idx              The index of the string to read
+	 * @return The string with the given index
+	 * @throws IOException Thrown if the string cannot be read
+	 */
+	protected String readPoolString(ByteBuffer data, int indexOffset, int blockStart,
+			ResStringPool_Header stringPoolHeader, int idx) throws IOException {
+		int stringIdx = readUInt32(data, indexOffset + idx * 4);
+
+		// Offset begins at block start
+		stringIdx += stringPoolHeader.stringsStart + blockStart;
+		if (stringPoolHeader.flagsUTF8)
+			return readStringUTF8(data, stringIdx).trim();
+		else
+			return readString(data, stringIdx).trim();
 	}
 
-	private int parsePackageTable(ResTable_Package packageTable, byte[] data, int offset) throws IOException {
+	protected int parsePackageTable(ResTable_Package packageTable, ByteBuffer data, int offset) throws IOException {
 		packageTable.id = readUInt32(data, offset);
 		offset += 4;
 
@@ -2753,27 +2844,41 @@ public class ARSCFileParser extends AbstractResourceParser {
 		return offset;
 	}
 
-	private String readString(byte[] remainingData, int stringIdx) throws IOException {
+	private String readString(ByteBuffer remainingData, int stringIdx) throws IOException {
 		int strLen = readUInt16(remainingData, stringIdx);
 		if (strLen == 0)
 			return "";
 		stringIdx += 2;
-		byte[] str = new byte[strLen * 2];
-		System.arraycopy(remainingData, stringIdx, str, 0, strLen * 2);
-		return new String(remainingData, stringIdx, strLen * 2, StandardCharsets.UTF_16LE);
+		return decodeString(remainingData, stringIdx, strLen * 2, StandardCharsets.UTF_16LE);
 	}
 
-	private String readStringUTF8(byte[] remainingData, int stringIdx) throws IOException {
+	private String readStringUTF8(ByteBuffer remainingData, int stringIdx) throws IOException {
 		// skip the length, will usually be 0x1A1A
 		// int strLen = readUInt16(remainingData, stringIdx);
 		// the length here is somehow weird
 		int strLen = readUInt8(remainingData, stringIdx + 1);
 		stringIdx += 2;
-		String str = new String(remainingData, stringIdx, strLen, StandardCharsets.UTF_8);
-		return str;
+		return decodeString(remainingData, stringIdx, strLen, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Decodes a string from the given buffer. Heap buffers are decoded in place.
+	 * 
+	 * @param data    The buffer containing the string
+	 * @param offset  The offset of the first byte of the string
+	 * @param length  The length of the string in bytes
+	 * @param charset The encoding of the string
+	 * @return The decoded string
+	 */
+	private static String decodeString(ByteBuffer data, int offset, int length, Charset charset) {
+		if (data.hasArray())
+			return new String(data.array(), data.arrayOffset() + offset, length, charset);
+		byte[] str = new byte[length];
+		data.get(offset, str);
+		return new String(str, charset);
 	}
 
-	private int parseStringPoolHeader(ResStringPool_Header stringPoolHeader, byte[] data, int offset)
+	protected int parseStringPoolHeader(ResStringPool_Header stringPoolHeader, ByteBuffer data, int offset)
 			throws IOException {
 		stringPoolHeader.stringCount = readUInt32(data, offset);
 		stringPoolHeader.styleCount = readUInt32(data, offset + 4);
@@ -2798,7 +2903,7 @@ public class ARSCFileParser extends AbstractResourceParser {
 	private void readChunkHeader(InputStream stream, ResChunk_Header nextChunkHeader) throws IOException {
 		byte[] header = new byte[8];
 		stream.read(header);
-		readChunkHeader(nextChunkHeader, header, 0);
+		readChunkHeader(nextChunkHeader, ByteBuffer.wrap(header), 0);
 	}
 
 	/**
@@ -2810,7 +2915,7 @@ public class ARSCFileParser extends AbstractResourceParser {
 	 * @param offset          The offset from which to start reading
 	 * @throws IOException Thrown if an error occurs during read
 	 */
-	private int readChunkHeader(ResChunk_Header nextChunkHeader, byte[] data, int offset) throws IOException {
+	protected int readChunkHeader(ResChunk_Header nextChunkHeader, ByteBuffer data, int offset) throws IOException {
 		nextChunkHeader.type = readUInt16(data, offset);
 		offset += 2;
 
@@ -2823,28 +2928,28 @@ public class ARSCFileParser extends AbstractResourceParser {
 		return offset;
 	}
 
-	private int readUInt8(byte[] uint16, int offset) throws IOException {
-		int b0 = uint16[0 + offset] & 0x000000FF;
+	protected int readUInt8(ByteBuffer uint16, int offset) throws IOException {
+		int b0 = uint16.get(0 + offset) & 0x000000FF;
 		return b0;
 	}
 
-	private int readUInt16(byte[] uint16, int offset) throws IOException {
-		int b0 = uint16[0 + offset] & 0x000000FF;
-		int b1 = uint16[1 + offset] & 0x000000FF;
+	protected int readUInt16(ByteBuffer uint16, int offset) throws IOException {
+		int b0 = uint16.get(0 + offset) & 0x000000FF;
+		int b1 = uint16.get(1 + offset) & 0x000000FF;
 		return (b1 << 8) + b0;
 	}
 
 	private int readUInt32(InputStream stream) throws IOException {
 		byte[] uint32 = new byte[4];
 		stream.read(uint32);
-		return readUInt32(uint32, 0);
+		return readUInt32(ByteBuffer.wrap(uint32), 0);
 	}
 
-	private int readUInt32(byte[] uint32, int offset) throws IOException {
-		int b0 = uint32[0 + offset] & 0x000000FF;
-		int b1 = uint32[1 + offset] & 0x000000FF;
-		int b2 = uint32[2 + offset] & 0x000000FF;
-		int b3 = uint32[3 + offset] & 0x000000FF;
+	protected int readUInt32(ByteBuffer uint32, int offset) throws IOException {
+		int b0 = uint32.get(0 + offset) & 0x000000FF;
+		int b1 = uint32.get(1 + offset) & 0x000000FF;
+		int b2 = uint32.get(2 + offset) & 0x000000FF;
+		int b3 = uint32.get(3 + offset) & 0x000000FF;
 		return (Math.abs(b3) << 24) + (Math.abs(b2) << 16) + (Math.abs(b1) << 8) + Math.abs(b0);
 	}
 
@@ -2959,6 +3064,28 @@ public class ARSCFileParser extends AbstractResourceParser {
 		return null;
 	}
 
+	/**
+	 * Gets the resource with the given name and type from the package with the
+	 * given name
+	 *
+	 * @param packageName  The name of the package in which to look for the
+	 *                     resource
+	 * @param type         The type of the resource to retrieve, e.g., "string"
+	 * @param resourceName The name of the resource to retrieve
+	 * @return The resource with the given name and type if such a resource exists
+	 *         in the given package, null otherwise
+	 */
+	public AbstractResource findResourceByName(String packageName, String type, String resourceName) {
+		for (ResPackage resPackage : this.packages) {
+			if (!resPackage.getPackageName().equals(packageName))
+				continue;
+			ResType resType = resPackage.getResourceType(type);
+			if (resType != null)
+				return resType.getFirstResource(resourceName);
+		}
+		return null;
+	}
+
 	/**
 	 * Convenience method for loading a string resource with a given name
 	 * 
@@ -3018,7 +3145,7 @@ public class ARSCFileParser extends AbstractResourceParser {
 	 */
 	public void addAll(ARSCFileParser otherParser) {
 		// Merge the packages
-		for (ResPackage pkg : otherParser.packages) {
+		for (ResPackage pkg : otherParser.getPackages()) {
 			ResPackage existingPackage = getPackage(pkg.packageId, pkg.packageName);
 			if (existingPackage == null)
 				packages.add(pkg);
@@ -3027,7 +3154,7 @@ public class ARSCFileParser extends AbstractResourceParser {
 		}
 
 		// Merge the string table
-		stringTable.putAll(otherParser.stringTable);
+		stringTable.putAll(otherParser.getGlobalStringPool());
 	}
 
 	protected void raiseFormatViolationIssue(String message, int offset) {
@@ -0,0 +1,781 @@
+package soot.jimple.infoflow.android.resources;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import soot.jimple.infoflow.android.axml.ApkHandler;
+
+/**
+ * Lazy variant of the {@link ARSCFileParser}. When the resource table is
+ * opened, only the offsets of the string pools, packages, and type chunks are
+ * indexed. Strings and resource entries are decoded when they are looked up,
+ * and decoded strings are cached. If the resource table is stored without
+ * compression inside the APK file, which is the normal case, the file is
+ * memory-mapped and the table is never copied onto the heap.
+ *
+ * The methods {@link #findResource(int)}, {@link #findAllResources(int)}, and
+ * {@link #findResourceByName(String, String)} are answered from the index.
+ * Methods that expose the complete resource model, e.g.,
+ * {@link #getPackages()}, parse the full table once on first use.
+ *
+ * Like in the base class, further resource tables can be added with the
+ * <code>parse</code> methods and {@link #addAll(ARSCFileParser)}. This parses
+ * the own table completely first. From then on, all lookups are answered from
+ * the complete resource model, since the index only covers the own table.
+ *
+ * Once the resources are no longer needed, {@link #release()} drops the
+ * buffer that holds the resource table.
+ */
+public class LazyARSCFileParser extends ARSCFileParser {
+
+	private static final String RESOURCE_TABLE_NAME = "resources.arsc";
+
+	/**
+	 * String pool that decodes its strings on demand
+	 */
+	private class LazyStringPool {
+
+		private final int blockStart;
+		private final int indexOffset;
+		private final ResStringPool_Header header = new ResStringPool_Header();
+		private final Map<Integer, String> strings = new ConcurrentHashMap<>();
+
+		private LazyStringPool(int blockStart, String errorMessage) throws IOException {
+			ResChunk_Header chunkHeader = new ResChunk_Header();
+			int offset = readChunkHeader(chunkHeader, table, blockStart);
+			if (chunkHeader.type != RES_STRING_POOL_TYPE)
+				throw new RuntimeException(errorMessage);
+			header.header = chunkHeader;
+			this.indexOffset = parseStringPoolHeader(header, table, offset);
+			this.blockStart = blockStart;
+		}
+
+		private String get(int idx) {
+			if (idx < 0 || idx >= header.stringCount)
+				return null;
+			return strings.computeIfAbsent(idx, i -> {
+				try {
+					return readPoolString(table, indexOffset, blockStart, header, i);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		}
+
+		private int size() {
+			return header.stringCount;
+		}
+
+	}
+
+	/**
+	 * Location and layout of a single <code>ResTable_type</code> chunk, i.e., the
+	 * entries of one type in one configuration
+	 */
+	private static class TypeChunk {
+
+		private final int entryIndexOffset;
+		private final int entriesOffset;
+		private final int entryCount;
+		private final boolean sparse;
+
+		private TypeChunk(int entryIndexOffset, int entriesOffset, int entryCount, boolean sparse) {
+			this.entryIndexOffset = entryIndexOffset;
+			this.entriesOffset = entriesOffset;
+			this.entryCount = entryCount;
+			this.sparse = sparse;
+		}
+
+	}
+
+	/**
+	 * Index of a resource type inside a package
+	 */
+	private static class LazyType {
+
+		private final int id;
+		private final String typeName;
+		private final List<TypeChunk> chunks = new ArrayList<>();
+
+		/**
+		 * Mapping from key string indices to entry indices, built on demand
+		 */
+		private volatile Map<Integer, Integer> keyToEntry;
+
+		private LazyType(int id, String typeName) {
+			this.id = id;
+			this.typeName = typeName;
+		}
+
+	}
+
+	/**
+	 * Index of a resource package
+	 */
+	private static class LazyPackage {
+
+		private final int id;
+		private final String name;
+		private final LazyStringPool keyStrings;
+		private final Map<Integer, LazyType> types = new HashMap<>();
+
+		/**
+		 * Mapping from key names to key string indices, built on demand
+		 */
+		private volatile Map<String, Integer> keyIndex;
+
+		private LazyPackage(int id, String name, LazyStringPool keyStrings) {
+			this.id = id;
+			this.name = name;
+			this.keyStrings = keyStrings;
+		}
+
+		private LazyType getType(String typeName) {
+			for (LazyType tp : types.values())
+				if (tp.typeName != null && tp.typeName.equals(typeName))
+					return tp;
+			return null;
+		}
+
+	}
+
+	private final File apkFile;
+	private ByteBuffer data;
+	private ByteBuffer table;
+	private LazyStringPool globalStrings;
+	private final List<LazyPackage> lazyPackages = new ArrayList<>();
+	private boolean fullyParsed = false;
+
+	/**
+	 * True if the resource table has been released and must be opened again
+	 * before the next lookup from the index
+	 */
+	private volatile boolean released = false;
+
+	/**
+	 * False once other resource tables have been added to the resource model, so
+	 * that the index no longer covers all resources
+	 */
+	private volatile boolean useIndex = true;
+
+	/**
+	 * Creates a new instance of the {@link LazyARSCFileParser} class and indexes
+	 * the resource table in the given buffer
+	 *
+	 * @param data The buffer containing the resource table, positioned at the
+	 *             start of the table
+	 * @throws IOException Thrown if the resource table cannot be read
+	 */
+	public LazyARSCFileParser(ByteBuffer data) throws IOException {
+		this(data, null);
+	}
+
+	/**
+	 * Creates a new instance of the {@link LazyARSCFileParser} class and indexes
+	 * the resource table in the given buffer
+	 *
+	 * @param data    The buffer containing the resource table, positioned at the
+	 *                start of the table
+	 * @param apkFile The APK file from which the resource table can be read again
+	 *                after it has been released, or <code>null</code> if the
+	 *                table cannot be read again
+	 * @throws IOException Thrown if the resource table cannot be read
+	 */
+	private LazyARSCFileParser(ByteBuffer data, File apkFile) throws IOException {
+		this.apkFile = apkFile;
+		openResourceTable(data);
+	}
+
+	/**
+	 * Indexes the resource table in the given buffer
+	 *
+	 * @param data The buffer containing the resource table, positioned at the
+	 *             start of the table
+	 * @throws IOException Thrown if the resource table cannot be read
+	 */
+	private void openResourceTable(ByteBuffer data) throws IOException {
+		this.data = data.slice();
+		this.table = sliceResourceTable(this.data);
+		if (table != null)
+			indexResourceTable();
+	}
+
+	/**
+	 * Releases the buffer that holds the resource table together with the index
+	 * and the decoded strings. If the table is mapped from the APK file, this
+	 * allows the mapping to be dropped. If the table has already been parsed
+	 * completely, all further lookups are answered from the complete resource
+	 * model. Otherwise, the table is read again from the APK file on the next
+	 * lookup. This method must not be called while other threads are looking up
+	 * resources.
+	 */
+	public synchronized void release() {
+		if (released)
+			return;
+		if (fullyParsed)
+			useIndex = false;
+		released = true;
+		data = null;
+		table = null;
+		globalStrings = null;
+		lazyPackages.clear();
+	}
+
+	/**
+	 * Opens the resource table again if it has been released
+	 */
+	private void ensureOpen() {
+		if (!released)
+			return;
+		synchronized (this) {
+			if (!released)
+				return;
+			if (apkFile == null)
+				throw new IllegalStateException("The resource table has been released");
+			try {
+				ByteBuffer data = readResourceTable(apkFile);
+				if (data == null)
+					throw new IllegalStateException(
+							String.format("The resource table of %s is no longer available", apkFile));
+				openResourceTable(data);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			released = false;
+		}
+	}
+
+	/**
+	 * Indexes the global string pool, the packages, and the type chunks of the
+	 * resource table
+	 *
+	 * @throws IOException Thrown if the resource table cannot be read
+	 */
+	private void indexResourceTable() throws IOException {
+		int offset = 0;
+		while (offset < table.limit() - 1) {
+			final int beforeBlock = offset;
+			ResChunk_Header nextChunkHeader = new ResChunk_Header();
+			offset = readChunkHeader(nextChunkHeader, table, offset);
+			if (nextChunkHeader.type == RES_STRING_POOL_TYPE) {
+				globalStrings = new LazyStringPool(beforeBlock, "Unexpected block type for global string pool");
+			} else if (nextChunkHeader.type == RES_TABLE_PACKAGE_TYPE) {
+				ResTable_Package packageTable = new ResTable_Package();
+				packageTable.header = nextChunkHeader;
+				parsePackageTable(packageTable, table, offset);
+				indexPackage(packageTable, beforeBlock);
+			}
+
+			// Skip the block
+			if (nextChunkHeader.size <= 0)
+				break;
+			offset = beforeBlock + nextChunkHeader.size;
+		}
+	}
+
+	/**
+	 * Indexes the type chunks of the given package
+	 *
+	 * @param packageTable The header of the package
+	 * @param beforeBlock  The offset of the package chunk
+	 * @throws IOException Thrown if the package cannot be read
+	 */
+	private void indexPackage(ResTable_Package packageTable, int beforeBlock) throws IOException {
+		LazyStringPool typeStrings = new LazyStringPool(beforeBlock + packageTable.typeStrings,
+				"Unexpected block type for package type strings");
+		LazyStringPool keyStrings = new LazyStringPool(beforeBlock + packageTable.keyStrings,
+				"Unexpected block type for package key strings");
+		LazyPackage pkg = new LazyPackage(packageTable.id, packageTable.name, keyStrings);
+		lazyPackages.add(pkg);
+
+		final int endOfRecord = beforeBlock + packageTable.header.size;
+		int offset = keyStrings.blockStart + keyStrings.header.header.size;
+		while (offset < endOfRecord) {
+			final int beforeInnerBlock = offset;
+			ResChunk_Header innerHeader = new ResChunk_Header();
+			offset = readChunkHeader(innerHeader, table, offset);
+			if (innerHeader.type == RES_TABLE_TYPE_SPEC_TYPE) {
+				ResTable_TypeSpec typeSpecTable = new ResTable_TypeSpec();
+				typeSpecTable.header = innerHeader;
+				readTypeSpecTable(typeSpecTable, table, offset);
+				pkg.types.putIfAbsent(typeSpecTable.id,
+						new LazyType(typeSpecTable.id, typeStrings.get(typeSpecTable.id - 1)));
+			} else if (innerHeader.type == RES_TABLE_TYPE_TYPE) {
+				ResTable_Type typeTable = new ResTable_Type();
+				typeTable.header = innerHeader;
+				offset = readTypeTable(typeTable, table, offset);
+
+				LazyType tp = pkg.types.get(typeTable.id);
+				if (tp == null)
+					throw new RuntimeException("Reference to undeclared type found");
+				if ((typeTable.flags & FLAG_OFFSET16) == FLAG_OFFSET16)
+					throw new RuntimeException("Unsupported resource type entry: FLAG_OFFSET16");
+				tp.chunks.add(new TypeChunk(offset, beforeInnerBlock + typeTable.entriesStart, typeTable.entryCount,
+						(typeTable.flags & FLAG_SPARSE) == FLAG_SPARSE));
+			}
+			if (innerHeader.size <= 0)
+				break;
+			offset = beforeInnerBlock + innerHeader.size;
+		}
+	}
+
+	/**
+	 * Gets the offset of the entry with the given index in the given type chunk
+	 *
+	 * @param chunk      The type chunk
+	 * @param entryIndex The index of the entry inside the type
+	 * @return The offset of the <code>ResTable_entry</code> structure, or -1 if
+	 *         the chunk does not define the entry
+	 * @throws IOException Thrown if the chunk cannot be read
+	 */
+	private int getEntryOffset(TypeChunk chunk, int entryIndex) throws IOException {
+		if (chunk.sparse) {
+			// Sparse entries are sorted by their index
+			int low = 0;
+			int high = chunk.entryCount - 1;
+			while (low <= high) {
+				int mid = (low + high) >>> 1;
+				int idx = readUInt16(table, chunk.entryIndexOffset + mid * 4);
+				if (idx < entryIndex)
+					low = mid + 1;
+				else if (idx > entryIndex)
+					high = mid - 1;
+				else
+					return chunk.entriesOffset + readUInt16(table, chunk.entryIndexOffset + mid * 4 + 2) * 4;
+			}
+			return -1;
+		}
+
+		if (entryIndex >= chunk.entryCount)
+			return -1;
+		int entryOffset = readUInt32(table, chunk.entryIndexOffset + entryIndex * 4);
+		if (entryOffset == 0xFFFFFFFF)
+			return -1;
+		return chunk.entriesOffset + entryOffset;
+	}
+
+	/**
+	 * Decodes the resource with the given index in the given type chunk
+	 *
+	 * @param pkg        The package that contains the resource
+	 * @param tp         The type of the resource
+	 * @param chunk      The type chunk from which to read the resource
+	 * @param entryIndex The index of the entry inside the type
+	 * @return The resource, or null if the chunk does not contain a valid entry
+	 *         for the given index
+	 */
+	private AbstractResource readResource(LazyPackage pkg, LazyType tp, TypeChunk chunk, int entryIndex) {
+		try {
+			int entryOffset = getEntryOffset(chunk, entryIndex);
+			if (entryOffset < 0)
+				return null;
+			return readResource(table, entryOffset, tp.typeName, pkg.keyStrings::get,
+					(pkg.id << 24) + (tp.id << 16) + entryIndex);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private LazyType findType(ResourceId id) {
+		for (LazyPackage pkg : lazyPackages)
+			if (pkg.id == id.getPackageId())
+				return pkg.types.get(id.getTypeId());
+		return null;
+	}
+
+	private LazyPackage findPackage(ResourceId id) {
+		for (LazyPackage pkg : lazyPackages)
+			if (pkg.id == id.getPackageId())
+				return pkg;
+		return null;
+	}
+
+	@Override
+	public AbstractResource findResource(int resourceId) {
+		if (!useIndex)
+			return super.findResource(resourceId);
+		ensureOpen();
+
+		ResourceId id = parseResourceId(resourceId);
+		LazyPackage pkg = findPackage(id);
+		LazyType tp = findType(id);
+		if (tp == null)
+			return null;
+		for (TypeChunk chunk : tp.chunks) {
+			AbstractResource res = readResource(pkg, tp, chunk, id.getItemIndex());
+			if (res != null)
+				return res;
+		}
+		return null;
+	}
+
+	@Override
+	public List<AbstractResource> findAllResources(int resourceId) {
+		if (!useIndex)
+			return super.findAllResources(resourceId);
+		ensureOpen();
+
+		List<AbstractResource> resourceList = new ArrayList<>();
+		ResourceId id = parseResourceId(resourceId);
+		LazyPackage pkg = findPackage(id);
+		LazyType tp = findType(id);
+		if (tp != null) {
+			for (TypeChunk chunk : tp.chunks) {
+				AbstractResource res = readResource(pkg, tp, chunk, id.getItemIndex());
+				if (res != null)
+					resourceList.add(res);
+			}
+		}
+		return resourceList;
+	}
+
+	@Override
+	public AbstractResource findResourceByName(String type, String resourceName) {
+		if (!useIndex)
+			return super.findResourceByName(type, resourceName);
+		ensureOpen();
+
+		for (LazyPackage pkg : lazyPackages) {
+			AbstractResource res = findResourceByName(pkg, type, resourceName);
+			if (res != null)
+				return res;
+		}
+		return null;
+	}
+
+	@Override
+	public AbstractResource findResourceByName(String packageName, String type, String resourceName) {
+		if (!useIndex)
+			return super.findResourceByName(packageName, type, resourceName);
+		ensureOpen();
+
+		for (LazyPackage pkg : lazyPackages)
+			if (pkg.name.equals(packageName) && pkg.getType(type) != null)
+				return findResourceByName(pkg, type, resourceName);
+		return null;
+	}
+
+	/**
+	 * Gets the resource with the given name and type from the given package
+	 *
+	 * @param pkg          The package in which to look for the resource
+	 * @param type         The type of the resource to retrieve, e.g., "string"
+	 * @param resourceName The name of the resource to retrieve
+	 * @return The resource with the given name and type if such a resource exists
+	 *         in the given package, null otherwise
+	 */
+	private AbstractResource findResourceByName(LazyPackage pkg, String type, String resourceName) {
+		LazyType tp = pkg.getType(type);
+		if (tp == null)
+			return null;
+		return findResourceByName(pkg, tp, resourceName);
+	}
+
+	/**
+	 * Gets the resource with the given name from the given type
+	 *
+	 * @param pkg          The package that contains the type
+	 * @param tp           The type in which to look for the resource
+	 * @param resourceName The name of the resource to retrieve
+	 * @return The resource with the given name if such a resource exists in the
+	 *         given type, null otherwise
+	 */
+	private AbstractResource findResourceByName(LazyPackage pkg, LazyType tp, String resourceName) {
+		Integer keyIdx = getKeyIndex(pkg).get(resourceName);
+		if (keyIdx == null)
+			return null;
+		Integer entryIdx = getKeyToEntry(tp).get(keyIdx);
+		if (entryIdx == null)
+			return null;
+		for (TypeChunk chunk : tp.chunks) {
+			AbstractResource res = readResource(pkg, tp, chunk, entryIdx);
+			if (res != null)
+				return res;
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the mapping from key names to key string indices for the given package
+	 *
+	 * @param pkg The package
+	 * @return The mapping from key names to key string indices
+	 */
+	private Map<String, Integer> getKeyIndex(LazyPackage pkg) {
+		Map<String, Integer> keyIndex = pkg.keyIndex;
+		if (keyIndex == null) {
+			keyIndex = new HashMap<>(pkg.keyStrings.size() * 2);
+			for (int i = 0; i < pkg.keyStrings.size(); i++)
+				keyIndex.putIfAbsent(pkg.keyStrings.get(i), i);
+			pkg.keyIndex = keyIndex;
+		}
+		return keyIndex;
+	}
+
+	/**
+	 * Gets the mapping from key string indices to entry indices for the given
+	 * type. Only the key field of each entry is read, the values are not decoded.
+	 *
+	 * @param tp The type
+	 * @return The mapping from key string indices to entry indices
+	 */
+	private Map<Integer, Integer> getKeyToEntry(LazyType tp) {
+		Map<Integer, Integer> keyToEntry = tp.keyToEntry;
+		if (keyToEntry == null) {
+			keyToEntry = new HashMap<>();
+			try {
+				for (TypeChunk chunk : tp.chunks) {
+					for (int i = 0; i < chunk.entryCount; i++) {
+						int entryIdx;
+						int entryOffset;
+						if (chunk.sparse) {
+							entryIdx = readUInt16(table, chunk.entryIndexOffset + i * 4);
+							entryOffset = chunk.entriesOffset
+									+ readUInt16(table, chunk.entryIndexOffset + i * 4 + 2) * 4;
+						} else {
+							entryIdx = i;
+							entryOffset = getEntryOffset(chunk, i);
+							if (entryOffset < 0)
+								continue;
+						}
+
+						// The key is the last field of the ResTable_entry header
+						keyToEntry.putIfAbsent(readUInt32(table, entryOffset + 4), entryIdx);
+					}
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			tp.keyToEntry = keyToEntry;
+		}
+		return keyToEntry;
+	}
+
+	@Override
+	protected String getGlobalString(int idx) {
+		if (!useIndex)
+			return super.getGlobalString(idx);
+		ensureOpen();
+		if (globalStrings == null)
+			return super.getGlobalString(idx);
+		return globalStrings.get(idx);
+	}
+
+	/**
+	 * Parses the complete resource table into the data model of the base class,
+	 * unless this has already been done
+	 */
+	private synchronized void ensureFullyParsed() {
+		if (fullyParsed)
+			return;
+		ensureOpen();
+		fullyParsed = true;
+		try {
+			super.parse(data.duplicate());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public Map<Integer, String> getGlobalStringPool() {
+		ensureFullyParsed();
+		return super.getGlobalStringPool();
+	}
+
+	@Override
+	public List<ResPackage> getPackages() {
+		ensureFullyParsed();
+		return super.getPackages();
+	}
+
+	@Override
+	public ResPackage getPackage(int pkgID, String pkgName) {
+		ensureFullyParsed();
+		return super.getPackage(pkgID, pkgName);
+	}
+
+	@Override
+	public ResType findResourceType(int resourceId) {
+		ensureFullyParsed();
+		return super.findResourceType(resourceId);
+	}
+
+	@Override
+	public List<AbstractResource> findResourcesByType(String type) {
+		ensureFullyParsed();
+		return super.findResourcesByType(type);
+	}
+
+	/**
+	 * Parses the own resource table completely and stops using the index, so that
+	 * other resource tables can be added to the resource model
+	 */
+	private synchronized void disableIndex() {
+		ensureFullyParsed();
+		useIndex = false;
+	}
+
+	@Override
+	public void addAll(ARSCFileParser otherParser) {
+		disableIndex();
+		super.addAll(otherParser);
+	}
+
+	@Override
+	public void parse(File apkFile) throws IOException {
+		disableIndex();
+		super.parse(apkFile);
+	}
+
+	@Override
+	public void parse(InputStream stream) throws IOException {
+		disableIndex();
+		super.parse(stream);
+	}
+
+	@Override
+	public void parse(ByteBuffer data) throws IOException {
+		disableIndex();
+		super.parse(data);
+	}
+
+	/**
+	 * Creates a new instance of the {@link LazyARSCFileParser} class for the
+	 * Android resource database in the given APK file. If the database is stored
+	 * without compression, it is mapped into memory directly from the APK file.
+	 *
+	 * @param apkFile The APK file in which to parse the resource database
+	 * @return The new {@link LazyARSCFileParser} instance, or <code>null</code>
+	 *         if the APK file does not contain a resource database
+	 * @throws IOException Thrown if the APK file cannot be read
+	 */
+	public static LazyARSCFileParser getInstance(File apkFile) throws IOException {
+		ByteBuffer data = readResourceTable(apkFile);
+		if (data == null)
+			return null;
+		return new LazyARSCFileParser(data, apkFile);
+	}
+
+	/**
+	 * Reads the Android resource database from the given APK file. If the database
+	 * is stored without compression, it is mapped into memory directly from the
+	 * APK file.
+	 *
+	 * @param apkFile The APK file from which to read the resource database
+	 * @return The resource database, or <code>null</code> if the APK file does
+	 *         not contain a resource database
+	 * @throws IOException Thrown if the APK file cannot be read
+	 */
+	private static ByteBuffer readResourceTable(File apkFile) throws IOException {
+		ByteBuffer data = mapStoredEntry(apkFile, RESOURCE_TABLE_NAME);
+		if (data == null) {
+			// The entry is compressed, so we need to inflate it
+			try (ApkHandler handler = new ApkHandler(apkFile);
+					InputStream is = handler.getInputStream(RESOURCE_TABLE_NAME)) {
+				if (is == null)
+					return null;
+				data = ByteBuffer.wrap(is.readAllBytes());
+			}
+		}
+		return data;
+	}
+
+	/**
+	 * Maps the given entry of the given ZIP file into memory if the entry is
+	 * stored without compression
+	 *
+	 * @param zipFile   The ZIP file
+	 * @param entryName The name of the entry to map
+	 * @return The contents of the entry, or <code>null</code> if the entry does
+	 *         not exist or is compressed
+	 * @throws IOException Thrown if the ZIP file cannot be read
+	 */
+	private static ByteBuffer mapStoredEntry(File zipFile, String entryName) throws IOException {
+		final int EOCD_SIGNATURE = 0x06054b50;
+		final int CENTRAL_DIRECTORY_SIGNATURE = 0x02014b50;
+		final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+		final int EOCD_SIZE = 22;
+
+		try (FileChannel channel = FileChannel.open(zipFile.toPath(), StandardOpenOption.READ)) {
+			final long fileSize = channel.size();
+			if (fileSize < EOCD_SIZE)
+				return null;
+
+			// Find the end of central directory record. It is followed by a comment of
+			// at most 64 KB.
+			int tailSize = (int) Math.min(fileSize, EOCD_SIZE + 0xFFFF);
+			ByteBuffer tail = channel.map(FileChannel.MapMode.READ_ONLY, fileSize - tailSize, tailSize)
+					.order(ByteOrder.LITTLE_ENDIAN);
+			int eocd = -1;
+			for (int i = tailSize - EOCD_SIZE; i >= 0; i--) {
+				if (tail.getInt(i) == EOCD_SIGNATURE) {
+					eocd = i;
+					break;
+				}
+			}
+			if (eocd < 0)
+				return null;
+			final int entryCount = tail.getShort(eocd + 10) & 0xFFFF;
+			final long cdSize = tail.getInt(eocd + 12) & 0xFFFFFFFFL;
+			final long cdOffset = tail.getInt(eocd + 16) & 0xFFFFFFFFL;
+			if (cdOffset + cdSize > fileSize)
+				return null;
+
+			// Find the entry in the central directory
+			ByteBuffer cd = channel.map(FileChannel.MapMode.READ_ONLY, cdOffset, cdSize)
+					.order(ByteOrder.LITTLE_ENDIAN);
+			byte[] name = entryName.getBytes(StandardCharsets.UTF_8);
+			int pos = 0;
+			for (int i = 0; i < entryCount && pos + 46 <= cdSize; i++) {
+				if (cd.getInt(pos) != CENTRAL_DIRECTORY_SIGNATURE)
+					return null;
+				final int method = cd.getShort(pos + 10) & 0xFFFF;
+				final long compressedSize = cd.getInt(pos + 20) & 0xFFFFFFFFL;
+				final long size = cd.getInt(pos + 24) & 0xFFFFFFFFL;
+				final int nameLength = cd.getShort(pos + 28) & 0xFFFF;
+				final int extraLength = cd.getShort(pos + 30) & 0xFFFF;
+				final int commentLength = cd.getShort(pos + 32) & 0xFFFF;
+				final long localHeaderOffset = cd.getInt(pos + 42) & 0xFFFFFFFFL;
+
+				if (nameLength == name.length && nameMatches(cd, pos + 46, name)) {
+					// We can only map entries that are stored without compression
+					if (method != 0 || compressedSize != size)
+						return null;
+
+					ByteBuffer localHeader = ByteBuffer.allocate(30).order(ByteOrder.LITTLE_ENDIAN);
+					channel.read(localHeader, localHeaderOffset);
+					if (localHeader.getInt(0) != LOCAL_HEADER_SIGNATURE)
+						return null;
+					long dataOffset = localHeaderOffset + 30 + (localHeader.getShort(26) & 0xFFFF)
+							+ (localHeader.getShort(28) & 0xFFFF);
+					if (dataOffset + size > fileSize)
+						return null;
+					return channel.map(FileChannel.MapMode.READ_ONLY, dataOffset, size);
+				}
+				pos += 46 + nameLength + extraLength + commentLength;
+			}
+		}
+		return null;
+	}
+
+	private static boolean nameMatches(ByteBuffer buffer, int offset, byte[] name) {
+		for (int i = 0; i < name.length; i++)
+			if (buffer.get(offset + i) != name[i])
+				return false;
+		return true;
+	}
+
+}
@@ -10,20 +10,25 @@
  ******************************************************************************/
 package soot.jimple.infoflow.android.source;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import soot.Local;
+import soot.MethodOrMethodContext;
 import soot.Scene;
 import soot.SootClass;
 import soot.SootField;
@@ -60,6 +65,7 @@ import soot.jimple.toolkits.ide.icfg.BiDiInterproceduralCFG;
 import soot.jimple.toolkits.scalar.ConstantPropagatorAndFolder;
 import soot.tagkit.IntegerConstantValueTag;
 import soot.tagkit.Tag;
+import soot.util.queue.QueueReader;
 
 /**
  * SourceManager implementation for AndroidSources
@@ -79,8 +85,10 @@ public class AndroidSourceSinkManager extends BaseSourceSinkManager
 
 	protected final Map<Integer, AndroidLayoutControl> layoutControls;
 	protected List<ARSCFileParser.ResPackage> resourcePackages;
+	protected ARSCFileParser resourceParser;
 	protected String appPackageName = "";
-	protected final Set<SootMethod> analyzedLayoutMethods = new HashSet<SootMethod>();
+	protected final Set<SootMethod> analyzedLayoutMethods = ConcurrentHashMap.newKeySet();
+	protected volatile Map<Stmt, AndroidLayoutControl> callSiteToLayoutControl = null;
 	protected SootClass[] iccBaseClasses = null;
 	protected AndroidEntryPointUtils entryPointUtils = new AndroidEntryPointUtils();
 
@@ -126,6 +134,10 @@ public class AndroidSourceSinkManager extends BaseSourceSinkManager
 		this.smActivityFindViewById = Scene.v().grabMethod(Activity_FindViewById);
 		this.smViewFindViewById = Scene.v().grabMethod(View_FindViewById);
 
+		// The call graph may have changed, so we need to resolve the layout
+		// controls again
+		this.callSiteToLayoutControl = null;
+
 		// For ICC methods (e.g., startService), the classes name of these
 		// methods may change through user's definition. We match all the
 		// ICC methods through their base class name.
@@ -149,6 +161,15 @@ public class AndroidSourceSinkManager extends BaseSourceSinkManager
 	 * @return The specified resource if available, otherwise null
 	 */
 	private AbstractResource findResource(String resName, String resID, String packageName) {
+		// If we have a resource parser, we let it resolve the resource on demand
+		if (this.resourceParser != null) {
+			// If we don't have any package specification, we pick the app's
+			// default package
+			if (packageName == null || packageName.isEmpty())
+				packageName = this.appPackageName;
+			return this.resourceParser.findResourceByName(packageName, resID, resName);
+		}
+
 		// Find the correct package
 		for (ARSCFileParser.ResPackage pkg : this.resourcePackages) {
 			// If we don't have any package specification, we pick the app's
@@ -201,7 +222,7 @@ public class AndroidSourceSinkManager extends BaseSourceSinkManager
 					InvokeExpr inv = (InvokeExpr) assign.getRightOp();
 					if (inv.getMethod().getName().equals("getIdentifier")
 							&& inv.getMethod().getDeclaringClass().getName().equals("android.content.res.Resources")
-							&& this.resourcePackages != null) {
+							&& (this.resourceParser != null || this.resourcePackages != null)) {
 						// The right side of the assignment is a call into the
 						// well-known
 						// Android API method for resource handling
@@ -266,6 +287,18 @@ public class AndroidSourceSinkManager extends BaseSourceSinkManager
 		this.resourcePackages = resourcePackages;
 	}
 
+	/**
+	 * Sets the resource parser to be used for finding sensitive layout controls as
+	 * sources. Resources are then looked up on demand instead of searching through
+	 * the resource packages.
+	 *
+	 * @param resourceParser The resource parser to be used for looking up layout
+	 *                       controls
+	 */
+	public void setResourceParser(ARSCFileParser resourceParser) {
+		this.resourceParser = resourceParser;
+	}
+
 	/**
 	 * Sets the name of the app's base package
 	 *
@@ -313,7 +346,9 @@ public class AndroidSourceSinkManager extends BaseSourceSinkManager
 	}
 
 	/**
-	 * Gets the layout control that is referenced at the given call site
+	 * Gets the layout control that is referenced at the given call site. The
+	 * layout controls for all calls to <code>findViewById()</code> in the
+	 * reachable methods are resolved once when this method is first called.
 	 * 
 	 * @param sCallSite A call to <code>findViewById()</code> or a similar method
 	 * @param cfg       The bidirectional control flow graph
@@ -326,12 +361,108 @@ public class AndroidSourceSinkManager extends BaseSourceSinkManager
 		if (this.layoutControls == null)
 			return null;
 
-		// Perform a constant propagation inside this method exactly
-		// once
+		Map<Stmt, AndroidLayoutControl> controls = getCallSiteToLayoutControl(cfg);
+		if (controls.containsKey(sCallSite))
+			return controls.get(sCallSite);
+
+		// The call site was not part of the pre-analysis
 		SootMethod uiMethod = cfg.getMethodOf(sCallSite);
 		if (analyzedLayoutMethods.add(uiMethod))
 			ConstantPropagatorAndFolder.v().transform(uiMethod.getActiveBody());
+		return resolveLayoutControl(sCallSite, uiMethod, cfg);
+	}
+
+	/**
+	 * Gets the mapping from calls to <code>findViewById()</code> to the layout
+	 * controls they access. The mapping is computed on the first call.
+	 * 
+	 * @param cfg The bidirectional control flow graph
+	 * @return The immutable mapping from call sites to layout controls
+	 */
+	private Map<Stmt, AndroidLayoutControl> getCallSiteToLayoutControl(IInfoflowCFG cfg) {
+		Map<Stmt, AndroidLayoutControl> controls = callSiteToLayoutControl;
+		if (controls == null) {
+			synchronized (this) {
+				controls = callSiteToLayoutControl;
+				if (controls == null) {
+					controls = computeLayoutControls(cfg);
+					callSiteToLayoutControl = controls;
+				}
+			}
+		}
+		return controls;
+	}
 
+	/**
+	 * Resolves the layout controls for all calls to <code>findViewById()</code>
+	 * in the reachable methods. The methods are processed in parallel.
+	 * 
+	 * @param cfg The bidirectional control flow graph
+	 * @return The immutable mapping from call sites to layout controls. Call sites
+	 *         for which no layout control could be found are mapped to
+	 *         <code>null</code>.
+	 */
+	protected Map<Stmt, AndroidLayoutControl> computeLayoutControls(IInfoflowCFG cfg) {
+		long beforeResolution = System.nanoTime();
+		List<SootMethod> methods = new ArrayList<>();
+		QueueReader<MethodOrMethodContext> rdr = Scene.v().getReachableMethods().listener();
+		while (rdr.hasNext()) {
+			SootMethod sm = rdr.next().method();
+			if (sm.isConcrete() && sm.hasActiveBody())
+				methods.add(sm);
+		}
+
+		Map<Stmt, AndroidLayoutControl> controls = new HashMap<>();
+		methods.parallelStream().map(sm -> resolveLayoutControls(sm, cfg)).collect(Collectors.toList())
+				.forEach(controls::putAll);
+		logger.info(String.format("Resolved layout controls for %d call sites in %.2f seconds", controls.size(),
+				(System.nanoTime() - beforeResolution) / 1E9));
+		return Collections.unmodifiableMap(controls);
+	}
+
+	/**
+	 * Resolves the layout controls for all calls to <code>findViewById()</code>
+	 * in the given method
+	 * 
+	 * @param sm  The method in which to resolve the layout controls
+	 * @param cfg The bidirectional control flow graph
+	 * @return The mapping from call sites in the given method to layout controls
+	 */
+	private Map<Stmt, AndroidLayoutControl> resolveLayoutControls(SootMethod sm, IInfoflowCFG cfg) {
+		List<Stmt> callSites = null;
+		for (Unit u : sm.getActiveBody().getUnits()) {
+			Stmt stmt = (Stmt) u;
+			if (stmt instanceof AssignStmt && stmt.containsInvokeExpr()
+					&& stmt.getInvokeExpr().getMethodRef().getName().equals("findViewById")
+					&& isResourceCallSite(stmt, cfg)) {
+				if (callSites == null)
+					callSites = new ArrayList<>();
+				callSites.add(stmt);
+			}
+		}
+		if (callSites == null)
+			return Collections.emptyMap();
+
+		// Perform a constant propagation inside this method exactly once
+		if (analyzedLayoutMethods.add(sm))
+			ConstantPropagatorAndFolder.v().transform(sm.getActiveBody());
+
+		Map<Stmt, AndroidLayoutControl> controls = new HashMap<>();
+		for (Stmt callSite : callSites)
+			controls.put(callSite, resolveLayoutControl(callSite, sm, cfg));
+		return controls;
+	}
+
+	/**
+	 * Finds the layout control that is referenced at the given call site
+	 * 
+	 * @param sCallSite A call to <code>findViewById()</code> or a similar method
+	 * @param uiMethod  The method that contains the call site
+	 * @param cfg       The bidirectional control flow graph
+	 * @return The layout control that is being accessed at the given statement, or
+	 *         <code>null</code> if no such control could be found
+	 */
+	private AndroidLayoutControl resolveLayoutControl(Stmt sCallSite, SootMethod uiMethod, IInfoflowCFG cfg) {
 		// If we match specific controls, we need to get the ID of
 		// control and look up the respective data object
 		InvokeExpr iexpr = sCallSite.getInvokeExpr();
@@ -343,18 +474,15 @@ public class AndroidSourceSinkManager extends BaseSourceSinkManager
 		Integer id = valueProvider.getValue(uiMethod, sCallSite, iexpr.getArg(0), Integer.class);
 		if (id == null && iexpr.getArg(0) instanceof Local) {
 			id = findLastResIDAssignment(sCallSite, (Local) iexpr.getArg(0), cfg,
-					new HashSet<Stmt>(cfg.getMethodOf(sCallSite).getActiveBody().getUnits().size()));
+					new HashSet<Stmt>(uiMethod.getActiveBody().getUnits().size()));
 		}
 		if (id == null) {
 			logger.debug("Could not find assignment to local " + ((Local) iexpr.getArg(0)).getName() + " in method "
-					+ cfg.getMethodOf(sCallSite).getSignature());
+					+ uiMethod.getSignature());
 			return null;
 		}
 
-		AndroidLayoutControl control = this.layoutControls.get(id);
-		if (control == null)
-			return null;
-		return control;
+		return this.layoutControls.get(id);
 	}
 
 	private boolean isResourceCall(SootMethod callee) {
@@ -374,6 +502,34 @@ public class AndroidSourceSinkManager extends BaseSourceSinkManager
 		if (!(sCallSite instanceof AssignStmt))
 			return null;
 
+		if (isResourceCallSite(sCallSite, cfg)) {
+			// If we match all controls, we don't care about the specific
+			// control we're dealing with
+			if (sourceSinkConfig.getLayoutMatchingMode() == LayoutMatchingMode.MatchAll) {
+				return MethodSourceSinkDefinition.createReturnSource(CallType.MethodCall);
+			}
+
+			AndroidLayoutControl control = getLayoutControl(sCallSite, cfg);
+			if (control != null) {
+				if (sourceSinkConfig.getLayoutMatchingMode() == LayoutMatchingMode.MatchSensitiveOnly
+						&& control.isSensitive()) {
+					return control.getSourceDefinition();
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Checks whether the given statement calls one of the well-known resource
+	 * handling methods, i.e., <code>findViewById()</code>
+	 * 
+	 * @param sCallSite The call site to check
+	 * @param cfg       The bidirectional control flow graph
+	 * @return True if the given statement calls a resource handling method,
+	 *         otherwise false
+	 */
+	private boolean isResourceCallSite(Stmt sCallSite, IInfoflowCFG cfg) {
 		InvokeExpr ie = sCallSite.getInvokeExpr();
 		SootMethod callee = ie.getMethod();
 
@@ -395,23 +551,7 @@ public class AndroidSourceSinkManager extends BaseSourceSinkManager
 					&& callee.getSubSignature().equals(smActivityFindViewById.getSubSignature()))
 				isResourceCall = true;
 		}
-
-		if (isResourceCall) {
-			// If we match all controls, we don't care about the specific
-			// control we're dealing with
-			if (sourceSinkConfig.getLayoutMatchingMode() == LayoutMatchingMode.MatchAll) {
-				return MethodSourceSinkDefinition.createReturnSource(CallType.MethodCall);
-			}
-
-			AndroidLayoutControl control = getLayoutControl(sCallSite, cfg);
-			if (control != null) {
-				if (sourceSinkConfig.getLayoutMatchingMode() == LayoutMatchingMode.MatchSensitiveOnly
-						&& control.isSensitive()) {
-					return control.getSourceDefinition();
-				}
-			}
-		}
-		return null;
+		return isResourceCall;
 	}
 
 	@Override
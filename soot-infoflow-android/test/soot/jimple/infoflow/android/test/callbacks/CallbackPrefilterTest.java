@@ -0,0 +1,78 @@
+package soot.jimple.infoflow.android.test.callbacks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import heros.solver.Pair;
+import soot.SootClass;
+import soot.jimple.infoflow.android.SetupApplication;
+import soot.jimple.infoflow.android.callbacks.AbstractCallbackAnalyzer;
+import soot.jimple.infoflow.android.callbacks.AndroidCallbackDefinition;
+import soot.jimple.infoflow.android.test.BaseJUnitTests;
+
+/**
+ * Checks that filtering the statements before the callback analysis does not
+ * change the callbacks that are found
+ */
+public class CallbackPrefilterTest extends BaseJUnitTests {
+
+	private static final String APK_FILE = "testAPKs/9458cfb51c90130938abcef7173c3f6d44a02720.apk";
+
+	private static File getAndroidJars() {
+		String androidJars = System.getenv("ANDROID_JARS");
+		if (androidJars == null)
+			androidJars = System.getProperty("ANDROID_JARS");
+		if (androidJars == null)
+			throw new RuntimeException("Android JAR dir not set");
+		return new File(androidJars);
+	}
+
+	/**
+	 * Computes the callbacks of the test APK
+	 * 
+	 * @param prefilter True to filter the statements before the callback analysis,
+	 *                  false to check all method calls
+	 * @return The textual descriptions of the callbacks that were found
+	 */
+	private static Set<String> collectCallbacks(boolean prefilter) {
+		final List<AbstractCallbackAnalyzer> analyzers = new ArrayList<>();
+		SetupApplication setupApplication = new SetupApplication(getAndroidJars(),
+				new File(getInfoflowAndroidRoot(), APK_FILE)) {
+
+			@Override
+			protected AbstractCallbackAnalyzer createCallbackAnalyzer(Set<SootClass> entryPointClasses)
+					throws IOException {
+				AbstractCallbackAnalyzer analyzer = super.createCallbackAnalyzer(entryPointClasses);
+				analyzer.setPrefilterStatements(prefilter);
+				analyzers.add(analyzer);
+				return analyzer;
+			}
+
+		};
+		setupApplication.constructCallgraph();
+
+		Set<String> callbacks = new TreeSet<>();
+		for (AbstractCallbackAnalyzer analyzer : analyzers) {
+			for (Pair<SootClass, AndroidCallbackDefinition> callback : analyzer.getCallbackMethods())
+				callbacks.add(callback.getO1().getName() + " -> " + callback.getO2().getTargetMethod().getSignature());
+		}
+		return callbacks;
+	}
+
+	@Test
+	public void prefilterTest() {
+		Set<String> expected = collectCallbacks(false);
+		assertFalse(expected.isEmpty());
+		assertEquals(expected, collectCallbacks(true));
+	}
+
+}
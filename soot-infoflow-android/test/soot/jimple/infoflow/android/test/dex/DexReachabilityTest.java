@@ -0,0 +1,122 @@
+package soot.jimple.infoflow.android.test.dex;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import soot.Scene;
+import soot.SootClass;
+import soot.jimple.infoflow.android.SetupApplication;
+import soot.jimple.infoflow.android.dex.DexReachabilityAnalysis;
+import soot.jimple.infoflow.android.manifest.ProcessManifest;
+import soot.jimple.infoflow.android.test.BaseJUnitTests;
+import soot.jimple.infoflow.results.InfoflowResults;
+import soot.jimple.infoflow.results.ResultSinkInfo;
+import soot.jimple.infoflow.results.ResultSourceInfo;
+import soot.jimple.infoflow.taintWrappers.EasyTaintWrapper;
+
+public class DexReachabilityTest extends BaseJUnitTests {
+
+	private static final String APK_FILE = "testAPKs/9458cfb51c90130938abcef7173c3f6d44a02720.apk";
+
+	private static File getAndroidJars() {
+		String androidJars = System.getenv("ANDROID_JARS");
+		if (androidJars == null)
+			androidJars = System.getProperty("ANDROID_JARS");
+		if (androidJars == null)
+			throw new RuntimeException("Android JAR dir not set");
+		return new File(androidJars);
+	}
+
+	/**
+	 * Analyzes the test APK, optionally pruning unreachable classes
+	 * 
+	 * @param prune True to prune the classes that are not reachable in the dex
+	 *              code, otherwise false
+	 * @return The data flows that were found
+	 */
+	private static InfoflowResults analyzeAPKFile(boolean prune) throws IOException {
+		File rootDir = getInfoflowAndroidRoot();
+		SetupApplication setupApplication = new SetupApplication(getAndroidJars(), new File(rootDir, APK_FILE));
+
+		File taintWrapperFile = new File("EasyTaintWrapperSource.txt");
+		if (!taintWrapperFile.exists())
+			taintWrapperFile = new File("../soot-infoflow/EasyTaintWrapperSource.txt");
+		setupApplication.setTaintWrapper(new EasyTaintWrapper(taintWrapperFile));
+		setupApplication.getConfig().setPruneUnreachableClasses(prune);
+		return setupApplication.runInfoflow(new File(rootDir, "SourcesAndSinks.txt"));
+	}
+
+	@Test
+	public void reachabilityTest() throws IOException {
+		File apkFile = new File(getInfoflowAndroidRoot(), APK_FILE);
+		Set<String> entryPoints;
+		try (ProcessManifest manifest = new ProcessManifest(apkFile)) {
+			entryPoints = manifest.getEntryPointClasses();
+		}
+		DexReachabilityAnalysis reachability = new DexReachabilityAnalysis(apkFile, entryPoints);
+		reachability.analyze();
+
+		// Every class is either reachable or unreachable, but not both
+		Set<String> reachable = reachability.getReachableClasses();
+		Set<String> unreachable = reachability.getUnreachableClasses();
+		assertFalse(reachable.isEmpty());
+		Set<String> both = new HashSet<>(reachable);
+		both.retainAll(unreachable);
+		assertTrue(both.isEmpty());
+
+		for (String ep : entryPoints)
+			assertFalse(unreachable.contains(ep));
+	}
+
+	/**
+	 * Describes the given data flows independently of the Soot instance in which
+	 * they were computed
+	 * 
+	 * @param results The data flows to describe
+	 * @return The textual descriptions of the data flows
+	 */
+	private static Set<String> describeFlows(InfoflowResults results) {
+		Set<String> flows = new TreeSet<>();
+		if (results == null || results.isEmpty())
+			return flows;
+		for (ResultSinkInfo sinkInfo : results.getResults().keySet()) {
+			for (ResultSourceInfo sourceInfo : results.getResults().get(sinkInfo))
+				flows.add(sourceInfo.getStmt() + " -> " + sinkInfo.getStmt());
+		}
+		return flows;
+	}
+
+	@Test
+	public void pruneTest() throws IOException {
+		InfoflowResults expected = analyzeAPKFile(false);
+		assertNotNull(expected);
+
+		// Pruning must not change the data flows
+		InfoflowResults actual = analyzeAPKFile(true);
+		assertNotNull(actual);
+		assertEquals(describeFlows(expected), describeFlows(actual));
+
+		// The unreachable classes must remain application classes
+		File apkFile = new File(getInfoflowAndroidRoot(), APK_FILE);
+		try (ProcessManifest manifest = new ProcessManifest(apkFile)) {
+			DexReachabilityAnalysis reachability = new DexReachabilityAnalysis(apkFile,
+					manifest.getEntryPointClasses());
+			reachability.analyze();
+			for (String className : reachability.getUnreachableClasses()) {
+				SootClass sc = Scene.v().getSootClassUnsafe(className, false);
+				assertTrue(sc == null || sc.isApplicationClass());
+			}
+		}
+	}
+
+}
@@ -0,0 +1,116 @@
+package soot.jimple.infoflow.android.test.entryPointCreators;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import soot.SootClass;
+import soot.SootMethod;
+import soot.jimple.infoflow.android.SetupApplication;
+import soot.jimple.infoflow.android.entryPointCreators.AndroidEntryPointCreator;
+import soot.jimple.infoflow.android.entryPointCreators.AndroidEntryPointUtils;
+import soot.jimple.infoflow.android.entryPointCreators.AndroidEntryPointUtils.ComponentType;
+import soot.jimple.infoflow.android.entryPointCreators.components.ComponentEntryPointCollection;
+import soot.jimple.infoflow.android.test.BaseJUnitTests;
+import soot.util.HashMultiMap;
+import soot.util.MultiMap;
+
+/**
+ * Tests that the entry point creator re-uses the lifecycle methods of
+ * components that have not changed between two runs
+ */
+public class ComponentReuseTest extends BaseJUnitTests {
+
+	private static final String APK_FILE = "testAPKs/9458cfb51c90130938abcef7173c3f6d44a02720.apk";
+
+	/**
+	 * Variant of FlowDroid that gives access to its entry point creator
+	 */
+	private static class EntryPointSetupApplication extends SetupApplication {
+
+		public EntryPointSetupApplication(File androidJar, File apkFile) {
+			super(androidJar, apkFile);
+		}
+
+		public AndroidEntryPointCreator getEntryPointCreator() {
+			return entryPointCreator;
+		}
+
+	}
+
+	private static File getAndroidJars() {
+		String androidJars = System.getenv("ANDROID_JARS");
+		if (androidJars == null)
+			androidJars = System.getProperty("ANDROID_JARS");
+		if (androidJars == null)
+			throw new RuntimeException("Android JAR dir not set");
+		return new File(androidJars);
+	}
+
+	private static Set<SootMethod> getDeclaredLifecycleMethods(ComponentEntryPointCollection entryPoints) {
+		Set<SootMethod> methods = new HashSet<>();
+		for (SootMethod sm : entryPoints.getLifecycleMethods()) {
+			assertTrue(sm.isDeclared());
+			methods.add(sm);
+		}
+		return methods;
+	}
+
+	@Test
+	public void reuseTest() {
+		EntryPointSetupApplication app = new EntryPointSetupApplication(getAndroidJars(),
+				new File(getInfoflowAndroidRoot(), APK_FILE));
+		app.constructCallgraph();
+
+		AndroidEntryPointCreator creator = app.getEntryPointCreator();
+		assertNotNull(creator);
+		Set<SootMethod> initialMethods = getDeclaredLifecycleMethods(creator.getComponentToEntryPointInfo());
+		assertFalse(initialMethods.isEmpty());
+
+		// Nothing has changed, so all lifecycle methods must be re-used
+		creator.reset();
+		creator.createDummyMain();
+		assertEquals(initialMethods, getDeclaredLifecycleMethods(creator.getComponentToEntryPointInfo()));
+
+		// Take away the callbacks of one component. Fragments are part of the
+		// lifecycle methods of their activities, so we pick a different component.
+		AndroidEntryPointUtils entryPointUtils = new AndroidEntryPointUtils();
+		SootClass changedComponent = null;
+		for (SootClass sc : creator.getCallbackFunctions().keySet()) {
+			if (entryPointUtils.getComponentType(sc) != ComponentType.Fragment
+					&& creator.getComponentToEntryPointInfo().getEntryPoint(sc) != null) {
+				changedComponent = sc;
+				break;
+			}
+		}
+		assertNotNull(changedComponent);
+		SootMethod oldMethod = creator.getComponentToEntryPointInfo().getEntryPoint(changedComponent);
+
+		MultiMap<SootClass, SootMethod> callbacks = new HashMultiMap<>(creator.getCallbackFunctions());
+		callbacks.remove(changedComponent);
+		creator.setCallbackFunctions(callbacks);
+		creator.reset();
+		creator.createDummyMain();
+
+		// Only the changed component gets a new lifecycle method, and the old one
+		// is removed
+		SootMethod newMethod = creator.getComponentToEntryPointInfo().getEntryPoint(changedComponent);
+		assertNotNull(newMethod);
+		assertNotSame(oldMethod, newMethod);
+		assertFalse(oldMethod.isDeclared());
+
+		Set<SootMethod> expectedMethods = new HashSet<>(initialMethods);
+		expectedMethods.remove(oldMethod);
+		expectedMethods.add(newMethod);
+		assertEquals(expectedMethods, getDeclaredLifecycleMethods(creator.getComponentToEntryPointInfo()));
+	}
+
+}
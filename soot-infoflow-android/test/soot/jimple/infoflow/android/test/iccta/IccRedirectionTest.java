@@ -0,0 +1,147 @@
+package soot.jimple.infoflow.android.test.iccta;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import soot.Scene;
+import soot.SootClass;
+import soot.SootMethod;
+import soot.Unit;
+import soot.jimple.infoflow.android.SetupApplication;
+import soot.jimple.infoflow.android.iccta.IccInstrumenter;
+import soot.jimple.infoflow.android.iccta.IccLink;
+import soot.jimple.infoflow.android.iccta.IccRedirectionCreator;
+import soot.jimple.infoflow.android.test.BaseJUnitTests;
+
+/**
+ * Checks that redirecting all ICC links at once instruments the app in the same
+ * way as redirecting the links one by one
+ */
+public class IccRedirectionTest extends BaseJUnitTests {
+
+	private static final String APK_FILE = "InterComponentCommunication/ActivityCommunication5.apk";
+	private static final String ICC_MODEL = "iccta_testdata_ic3_results/edu.mit.icc_intent_component_name_1.txt";
+
+	private static File getAndroidJars() {
+		String androidJars = System.getenv("ANDROID_JARS");
+		if (androidJars == null)
+			androidJars = System.getProperty("ANDROID_JARS");
+		if (androidJars == null)
+			throw new RuntimeException("Android JAR dir not set");
+		return new File(androidJars);
+	}
+
+	private static File getDroidBenchDir() {
+		String droidBenchDir = System.getenv("DROIDBENCH");
+		if (droidBenchDir == null)
+			droidBenchDir = System.getProperty("DROIDBENCH");
+		if (droidBenchDir == null) {
+			File droidBenchFile = new File("DroidBench/apk");
+			if (!droidBenchFile.exists())
+				droidBenchFile = new File("../DroidBench/apk");
+			if (droidBenchFile.exists())
+				droidBenchDir = droidBenchFile.getAbsolutePath();
+		}
+		if (droidBenchDir == null)
+			throw new RuntimeException("DroidBench dir not set");
+		return new File(droidBenchDir);
+	}
+
+	/**
+	 * Describes the code of all application classes. The redirector methods are
+	 * numbered globally, so their numbers are removed. When redirecting the links
+	 * one by one, several calls after the same ICC statement end up in reverse
+	 * order, and calls to Intent.createChooser() are modeled once per link.
+	 * Therefore, we compare the distinct statements of each method.
+	 *
+	 * @return The textual description of the code of all application classes
+	 */
+	private static Map<String, Set<String>> describeCode() {
+		Map<String, Set<String>> code = new TreeMap<>();
+		for (Iterator<SootClass> it = Scene.v().getApplicationClasses().snapshotIterator(); it.hasNext();) {
+			SootClass sc = it.next();
+			for (SootMethod sm : new ArrayList<>(sc.getMethods())) {
+				if (!sm.hasActiveBody())
+					continue;
+				Set<String> stmts = new TreeSet<>();
+				for (Unit u : sm.getActiveBody().getUnits())
+					stmts.add(normalize(u.toString()));
+				code.put(normalize(sm.getSignature()), stmts);
+			}
+		}
+		return code;
+	}
+
+	private static String normalize(String code) {
+		return code.replaceAll("redirector\\d+", "redirector");
+	}
+
+	/**
+	 * Instruments the test app for inter-component communication
+	 *
+	 * @param oneByOne True to redirect the links one by one, false to redirect all
+	 *                 links at once
+	 * @return The textual description of the instrumented code
+	 */
+	private static Map<String, Set<String>> instrumentApp(boolean oneByOne) {
+		final Map<String, Set<String>> code = new TreeMap<>();
+		SetupApplication setupApplication = new SetupApplication(getAndroidJars(),
+				new File(getDroidBenchDir(), APK_FILE)) {
+
+			@Override
+			protected IccInstrumenter createIccInstrumenter() {
+				final SootClass dummyMainClass = entryPointCreator.getGeneratedMainMethod().getDeclaringClass();
+				return new IccInstrumenter(config.getIccConfig().getIccModel(), dummyMainClass,
+						entryPointCreator.getComponentToEntryPointInfo()) {
+
+					{
+						if (oneByOne)
+							redirectionCreator = new IccRedirectionCreator(dummyMainClass, componentToEntryPoint) {
+
+								@Override
+								public void redirectToDestinations(Collection<IccLink> links) {
+									for (IccLink link : links)
+										redirectToDestination(link);
+								}
+
+							};
+					}
+
+					@Override
+					public void onBeforeCallgraphConstruction() {
+						super.onBeforeCallgraphConstruction();
+						code.clear();
+						code.putAll(describeCode());
+					}
+
+				};
+			}
+
+		};
+		setupApplication.getConfig().getIccConfig()
+				.setIccModel(new File(getInfoflowAndroidRoot(), ICC_MODEL).getAbsolutePath());
+		setupApplication.constructCallgraph();
+		return code;
+	}
+
+	@Test(timeout = 300000)
+	public void redirectionTest() {
+		Map<String, Set<String>> expected = instrumentApp(true);
+		assertNotNull(expected);
+		assertTrue(expected.keySet().stream().anyMatch(m -> m.contains("redirector")));
+		assertEquals(expected, instrumentApp(false));
+	}
+
+}
@@ -0,0 +1,110 @@
+package soot.jimple.infoflow.android.test.resources;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.android.resources.ARSCFileParser;
+import soot.jimple.infoflow.android.resources.ARSCFileParser.AbstractResource;
+import soot.jimple.infoflow.android.resources.ARSCFileParser.ResPackage;
+import soot.jimple.infoflow.android.resources.ARSCFileParser.ResType;
+import soot.jimple.infoflow.android.resources.LazyARSCFileParser;
+
+public class LazyARSCFileParserTest {
+
+	private static final File APK_FILE = new File("testAPKs/FlowDroidAliasActivity.apk");
+	private static final File OTHER_APK_FILE = new File("testAPKs/ReturnParameterTest.apk");
+
+	/**
+	 * Checks that the lazy parser finds the same resources as the eager parser for
+	 * all resources in the given eager parser
+	 */
+	private static void checkLookups(ARSCFileParser expected, ARSCFileParser actual) {
+		boolean foundResource = false;
+		for (ResPackage resPackage : expected.getPackages()) {
+			for (ResType resType : resPackage.getDeclaredTypes()) {
+				for (AbstractResource res : resType.getAllResources()) {
+					foundResource = true;
+					int id = res.getResourceID();
+					assertEquals(expected.findResource(id), actual.findResource(id));
+					assertEquals(expected.findAllResources(id), actual.findAllResources(id));
+					assertEquals(expected.findResourceByName(resType.getTypeName(), res.getResourceName()),
+							actual.findResourceByName(resType.getTypeName(), res.getResourceName()));
+					assertEquals(
+							expected.findResourceByName(resPackage.getPackageName(), resType.getTypeName(),
+									res.getResourceName()),
+							actual.findResourceByName(resPackage.getPackageName(), resType.getTypeName(),
+									res.getResourceName()));
+				}
+			}
+		}
+		assertTrue(foundResource);
+	}
+
+	@Test
+	public void lookupTest() throws IOException {
+		ARSCFileParser eager = ARSCFileParser.getInstance(APK_FILE);
+		LazyARSCFileParser lazy = LazyARSCFileParser.getInstance(APK_FILE);
+
+		checkLookups(eager, lazy);
+		assertNull(lazy.findResource(0x7fff0000));
+		assertNull(lazy.findResourceByName("string", "doesNotExist"));
+	}
+
+	@Test
+	public void releaseTest() throws IOException {
+		ARSCFileParser eager = ARSCFileParser.getInstance(APK_FILE);
+		LazyARSCFileParser lazy = LazyARSCFileParser.getInstance(APK_FILE);
+
+		// Lookups after releasing the resource table must read it again
+		checkLookups(eager, lazy);
+		lazy.release();
+		checkLookups(eager, lazy);
+
+		// Once the complete resource model is available, it is used after the
+		// resource table has been released
+		assertEquals(eager.getPackages().size(), lazy.getPackages().size());
+		lazy.release();
+		checkLookups(eager, lazy);
+	}
+
+	@Test
+	public void fullModelTest() throws IOException {
+		ARSCFileParser eager = ARSCFileParser.getInstance(APK_FILE);
+		LazyARSCFileParser lazy = LazyARSCFileParser.getInstance(APK_FILE);
+
+		// Looking up a resource first must not prevent us from switching to the
+		// complete resource model
+		checkLookups(eager, lazy);
+		assertEquals(eager.getPackages().size(), lazy.getPackages().size());
+		checkLookups(eager, lazy);
+	}
+
+	@Test
+	public void addAllTest() throws IOException {
+		ARSCFileParser eager = ARSCFileParser.getInstance(APK_FILE);
+		eager.addAll(ARSCFileParser.getInstance(OTHER_APK_FILE));
+
+		// Use the index before adding the other resources
+		LazyARSCFileParser lazy = LazyARSCFileParser.getInstance(APK_FILE);
+		checkLookups(ARSCFileParser.getInstance(APK_FILE), lazy);
+		lazy.addAll(ARSCFileParser.getInstance(OTHER_APK_FILE));
+		checkLookups(eager, lazy);
+	}
+
+	@Test
+	public void parseTest() throws IOException {
+		ARSCFileParser eager = ARSCFileParser.getInstance(APK_FILE);
+		eager.parse(OTHER_APK_FILE);
+
+		LazyARSCFileParser lazy = LazyARSCFileParser.getInstance(APK_FILE);
+		lazy.parse(OTHER_APK_FILE);
+		checkLookups(eager, lazy);
+	}
+
+}
@@ -0,0 +1,93 @@
+package soot.jimple.infoflow.android.test.xmlParser;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import soot.jimple.infoflow.android.data.AndroidMethod;
+import soot.jimple.infoflow.android.data.parsers.PermissionMethodParser;
+import soot.jimple.infoflow.sourcesSinks.definitions.FieldSourceSinkDefinition;
+import soot.jimple.infoflow.sourcesSinks.definitions.ISourceSinkDefinition;
+import soot.jimple.infoflow.sourcesSinks.definitions.MethodSourceSinkDefinition;
+
+/**
+ * Tests for the parser of the text-based source and sink format
+ */
+public class PermissionMethodParserTest {
+
+	private static AndroidMethod getMethod(Set<ISourceSinkDefinition> defs, String signature) {
+		for (ISourceSinkDefinition def : defs) {
+			if (def instanceof MethodSourceSinkDefinition) {
+				AndroidMethod am = (AndroidMethod) ((MethodSourceSinkDefinition) def).getMethod();
+				if (am.getSignature().equals(signature))
+					return am;
+			}
+		}
+		return null;
+	}
+
+	@Test
+	public void parseMethods() throws IOException {
+		PermissionMethodParser parser = PermissionMethodParser.fromStringList(Arrays.asList(
+				"% comment line", "",
+				"<android.telephony.TelephonyManager: java.lang.String getDeviceId()> android.permission.READ_PHONE_STATE -> _SOURCE_",
+				"<android.telephony.SmsManager: void sendTextMessage(java.lang.String,java.lang.String,java.lang.String,android.app.PendingIntent,android.app.PendingIntent)> -> _SINK_|SMS_MMS",
+				"<java.net.URL: void <init>(java.lang.String)> -> _SINK_",
+				"<android.util.Log: int d(java.lang.String,java.lang.String)> -> _BOTH_"));
+
+		Set<ISourceSinkDefinition> sources = parser.getSources();
+		Set<ISourceSinkDefinition> sinks = parser.getSinks();
+		Assert.assertEquals(2, sources.size());
+		Assert.assertEquals(2, sinks.size());
+
+		AndroidMethod deviceId = getMethod(sources,
+				"<android.telephony.TelephonyManager: java.lang.String getDeviceId()>");
+		Assert.assertNotNull(deviceId);
+		Assert.assertEquals(Collections.singleton("android.permission.READ_PHONE_STATE"), deviceId.getPermissions());
+
+		// Categories are ignored
+		Assert.assertNull(getMethod(sinks,
+				"<android.telephony.SmsManager: void sendTextMessage(java.lang.String,java.lang.String,java.lang.String,android.app.PendingIntent,android.app.PendingIntent)>"));
+
+		AndroidMethod urlInit = getMethod(sinks, "<java.net.URL: void <init>(java.lang.String)>");
+		Assert.assertNotNull(urlInit);
+		Assert.assertEquals("<init>", urlInit.getMethodName());
+		Assert.assertEquals(Collections.singletonList("java.lang.String"), urlInit.getParameters());
+
+		Assert.assertNotNull(getMethod(sources, "<android.util.Log: int d(java.lang.String,java.lang.String)>"));
+		Assert.assertNotNull(getMethod(sinks, "<android.util.Log: int d(java.lang.String,java.lang.String)>"));
+	}
+
+	@Test
+	public void parseFields() throws IOException {
+		PermissionMethodParser parser = PermissionMethodParser
+				.fromStringList(Arrays.asList("<com.example.Data: java.lang.String secret> -> _SOURCE_",
+						"<com.example.Data: int counter> -> _SINK_"));
+
+		Set<ISourceSinkDefinition> sources = parser.getSources();
+		Assert.assertEquals(1, sources.size());
+		ISourceSinkDefinition source = sources.iterator().next();
+		Assert.assertTrue(source instanceof FieldSourceSinkDefinition);
+		Assert.assertEquals("<com.example.Data: java.lang.String secret>",
+				((FieldSourceSinkDefinition) source).getFieldSignature());
+
+		Set<ISourceSinkDefinition> sinks = parser.getSinks();
+		Assert.assertEquals(1, sinks.size());
+		Assert.assertEquals("<com.example.Data: int counter>",
+				((FieldSourceSinkDefinition) sinks.iterator().next()).getFieldSignature());
+	}
+
+	@Test
+	public void mergeDuplicateDefinitions() throws IOException {
+		PermissionMethodParser parser = PermissionMethodParser.fromStringList(
+				Arrays.asList("<android.location.Location: double getLatitude()> -> _SOURCE_",
+						"<android.location.Location: double getLatitude()> -> _SINK_"));
+		Assert.assertNotNull(getMethod(parser.getSources(), "<android.location.Location: double getLatitude()>"));
+		Assert.assertNotNull(getMethod(parser.getSinks(), "<android.location.Location: double getLatitude()>"));
+	}
+
+}
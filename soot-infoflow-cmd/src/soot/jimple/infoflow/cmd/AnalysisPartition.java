@@ -0,0 +1,101 @@
+package soot.jimple.infoflow.cmd;
+
+import soot.jimple.infoflow.sourcesSinks.definitions.ISourceSinkDefinition;
+
+/**
+ * A part of the data flow analysis of a single app when the analysis is
+ * distributed over multiple JVMs. A partition covers a subset of the entry
+ * point components and a subset of the sources. Both subsets are derived from
+ * the names of the components and sources, so that every process computes the
+ * same assignment independently.
+ */
+public class AnalysisPartition {
+
+	private final int componentIndex;
+	private final int componentCount;
+	private final int sourceGroup;
+	private final int sourceGroupCount;
+
+	/**
+	 * Creates a new analysis partition
+	 *
+	 * @param componentIndex   The index of the component partition
+	 * @param componentCount   The total number of component partitions
+	 * @param sourceGroup      The index of the source group
+	 * @param sourceGroupCount The total number of source groups
+	 */
+	public AnalysisPartition(int componentIndex, int componentCount, int sourceGroup, int sourceGroupCount) {
+		if (componentCount < 1 || componentIndex < 0 || componentIndex >= componentCount)
+			throw new IllegalArgumentException(
+					String.format("Invalid component partition %d of %d", componentIndex, componentCount));
+		if (sourceGroupCount < 1 || sourceGroup < 0 || sourceGroup >= sourceGroupCount)
+			throw new IllegalArgumentException(
+					String.format("Invalid source group %d of %d", sourceGroup, sourceGroupCount));
+		this.componentIndex = componentIndex;
+		this.componentCount = componentCount;
+		this.sourceGroup = sourceGroup;
+		this.sourceGroupCount = sourceGroupCount;
+	}
+
+	/**
+	 * Parses a partition from its textual representation as created by
+	 * {@link #toString()}
+	 *
+	 * @param partition The textual representation of the partition
+	 * @return The partition
+	 */
+	public static AnalysisPartition fromString(String partition) {
+		String[] parts = partition.split("[/:]");
+		if (parts.length != 4)
+			throw new IllegalArgumentException(String.format("Invalid partition specification: %s", partition));
+		return new AnalysisPartition(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]),
+				Integer.parseInt(parts[2]), Integer.parseInt(parts[3]));
+	}
+
+	/**
+	 * Checks whether the entry point component with the given class name belongs
+	 * to this partition
+	 *
+	 * @param className The name of the component class
+	 * @return True if the component shall be analyzed in this partition, false
+	 *         otherwise
+	 */
+	public boolean containsComponent(String className) {
+		return Math.floorMod(className.hashCode(), componentCount) == componentIndex;
+	}
+
+	/**
+	 * Checks whether the given source definition belongs to this partition. The
+	 * sources are assigned by the hash of their textual representation, which is
+	 * the same in every JVM for the same definition file.
+	 *
+	 * @param source The source definition
+	 * @return True if the source shall be considered in this partition, false
+	 *         otherwise
+	 */
+	public boolean containsSource(ISourceSinkDefinition source) {
+		return Math.floorMod(source.toString().hashCode(), sourceGroupCount) == sourceGroup;
+	}
+
+	public int getComponentIndex() {
+		return componentIndex;
+	}
+
+	public int getComponentCount() {
+		return componentCount;
+	}
+
+	public int getSourceGroup() {
+		return sourceGroup;
+	}
+
+	public int getSourceGroupCount() {
+		return sourceGroupCount;
+	}
+
+	@Override
+	public String toString() {
+		return componentIndex + "/" + componentCount + ":" + sourceGroup + "/" + sourceGroupCount;
+	}
+
+}
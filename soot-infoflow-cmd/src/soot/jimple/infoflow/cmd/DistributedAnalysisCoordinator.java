@@ -0,0 +1,293 @@
+package soot.jimple.infoflow.cmd;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.apache.commons.cli.Option;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.results.xml.InfoflowResultsReader;
+import soot.jimple.infoflow.results.xml.InfoflowResultsSerializer;
+import soot.jimple.infoflow.results.xml.SerializedInfoflowResults;
+
+/**
+ * Distributes the data flow analysis of a single app over multiple local JVMs.
+ * Every JVM analyzes one {@link AnalysisPartition} and writes its results into
+ * an XML file in a working directory. Once all JVMs have terminated, the
+ * partial results are merged. The merged results do not depend on the order in
+ * which the JVMs have finished.
+ */
+public class DistributedAnalysisCoordinator {
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	/**
+	 * The command-line option with which the coordinator tells a worker JVM which
+	 * partition to analyze
+	 */
+	public static final String WORKER_OPTION = "--distributedworker";
+
+	private final InfoflowConfiguration config;
+	private final String mainClass;
+	private final int componentPartitions;
+	private final int sourceGroups;
+	private final int maxProcesses;
+	private final Set<String> workerFileOptions = new HashSet<>();
+
+	/**
+	 * Creates a new instance of the {@link DistributedAnalysisCoordinator} class
+	 *
+	 * @param config              The data flow configuration
+	 * @param mainClass           The name of the class that is launched in every
+	 *                            worker JVM
+	 * @param componentPartitions The number of partitions into which to split the
+	 *                            entry point components
+	 * @param sourceGroups        The number of groups into which to split the
+	 *                            sources
+	 * @param maxProcesses        The maximum number of worker JVMs that run at the
+	 *                            same time
+	 */
+	public DistributedAnalysisCoordinator(InfoflowConfiguration config, String mainClass, int componentPartitions,
+			int sourceGroups, int maxProcesses) {
+		this.config = config;
+		this.mainClass = mainClass;
+		this.componentPartitions = Math.max(1, componentPartitions);
+		this.sourceGroups = Math.max(1, sourceGroups);
+		this.maxProcesses = Math.max(1, maxProcesses);
+	}
+
+	/**
+	 * Registers a command-line option whose value is a file that the analysis
+	 * writes. Every worker gets its own file for such an option, so that the
+	 * workers do not overwrite each other's files. The file of a worker is derived
+	 * from the original value, see {@link #getWorkerFile(String, File, String)}.
+	 *
+	 * @param option The option whose value is an output file
+	 */
+	public void addWorkerFileOption(Option option) {
+		if (option.getOpt() != null)
+			workerFileOptions.add("-" + option.getOpt());
+		if (option.getLongOpt() != null)
+			workerFileOptions.add("--" + option.getLongOpt());
+	}
+
+	/**
+	 * Analyzes the given app in multiple worker JVMs and merges their results
+	 *
+	 * @param apkFile    The app to analyze
+	 * @param args       The original command-line arguments. They are passed on
+	 *                   to every worker.
+	 * @param outputFile The file into which to write the merged results, or
+	 *                   <code>null</code> to only return them
+	 * @return The merged results of all partitions
+	 * @throws IOException Thrown if a worker could not be started, failed, or its
+	 *                     results could not be read or merged
+	 */
+	public SerializedInfoflowResults analyze(File apkFile, String[] args, File outputFile) throws IOException {
+		List<AnalysisPartition> partitions = new ArrayList<>(componentPartitions * sourceGroups);
+		for (int i = 0; i < componentPartitions; i++)
+			for (int j = 0; j < sourceGroups; j++)
+				partitions.add(new AnalysisPartition(i, componentPartitions, j, sourceGroups));
+		logger.info("Analyzing app {} in {} partitions with up to {} worker processes", apkFile.getName(),
+				partitions.size(), maxProcesses);
+
+		// Run the workers
+		File workDir = Files.createTempDirectory("flowdroid-partitions").toFile();
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(maxProcesses, partitions.size()));
+		try {
+			List<Future<File>> workers = new ArrayList<>(partitions.size());
+			for (AnalysisPartition partition : partitions)
+				workers.add(executor.submit(() -> runWorker(partition, apkFile, args, workDir)));
+
+			// Merge the results in the order of the partitions
+			SerializedInfoflowResults merged = new SerializedInfoflowResults();
+			InfoflowResultsReader reader = new InfoflowResultsReader();
+			for (int i = 0; i < partitions.size(); i++) {
+				File resultFile = workers.get(i).get();
+				if (!resultFile.exists())
+					throw new IOException(String.format("Worker for partition %s did not write its results to %s",
+							partitions.get(i), resultFile.getAbsolutePath()));
+				merged.addAll(reader.readResults(resultFile.getAbsolutePath()));
+			}
+			logger.info("Merged {} data flows from {} partitions", merged.getResultCount(), partitions.size());
+
+			if (outputFile != null)
+				new InfoflowResultsSerializer(config).serialize(merged, outputFile.getAbsolutePath());
+			return merged;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting for the worker processes", e);
+		} catch (ExecutionException e) {
+			throw new IOException("A worker process has failed", e.getCause());
+		} catch (XMLStreamException e) {
+			throw new IOException("Could not read or write partial data flow results", e);
+		} finally {
+			executor.shutdownNow();
+			deleteWorkDir(workDir);
+		}
+	}
+
+	/**
+	 * Deletes the working directory with the results and logs of the workers
+	 *
+	 * @param workDir The working directory to delete
+	 */
+	private void deleteWorkDir(File workDir) {
+		try (Stream<Path> files = Files.walk(workDir.toPath())) {
+			files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+		} catch (IOException e) {
+			logger.warn("Could not delete working directory {}", workDir.getAbsolutePath(), e);
+		}
+	}
+
+	/**
+	 * Runs the analysis of a single partition in a new JVM and waits for it to
+	 * terminate
+	 *
+	 * @param partition The partition to analyze
+	 * @param apkFile   The app to analyze
+	 * @param args      The original command-line arguments
+	 * @param workDir   The directory for the results and logs of the worker
+	 * @return The file into which the worker has written its results
+	 * @throws IOException          Thrown if the worker could not be started or
+	 *                              has failed
+	 * @throws InterruptedException Thrown if the coordinator was interrupted while
+	 *                              waiting for the worker
+	 */
+	private File runWorker(AnalysisPartition partition, File apkFile, String[] args, File workDir)
+			throws IOException, InterruptedException {
+		String name = getPartitionName(partition);
+		File resultFile = new File(workDir, name + ".xml");
+		File logFile = new File(workDir, name + ".log");
+
+		ProcessBuilder pb = new ProcessBuilder(getWorkerCommand(partition, apkFile, args, resultFile));
+		pb.redirectErrorStream(true);
+		pb.redirectOutput(logFile);
+		logger.info("Starting worker for partition {}, log file is {}", partition, logFile.getAbsolutePath());
+
+		Process process = pb.start();
+		try {
+			int exitCode = process.waitFor();
+			if (exitCode != 0)
+				throw new IOException(String.format("Worker for partition %s terminated with exit code %d, see %s",
+						partition, exitCode, logFile.getAbsolutePath()));
+		} finally {
+			process.destroy();
+		}
+		logger.info("Worker for partition {} has finished", partition);
+		return resultFile;
+	}
+
+	/**
+	 * Gets the name of the given partition that is used for the files of its
+	 * worker
+	 *
+	 * @param partition The partition
+	 * @return The name of the partition
+	 */
+	private static String getPartitionName(AnalysisPartition partition) {
+		return String.format("partition-%d-%d", partition.getComponentIndex(), partition.getSourceGroup());
+	}
+
+	/**
+	 * Creates the command line for a worker JVM. The worker runs with the same
+	 * class path and JVM options as the coordinator. The options for the worker
+	 * are placed before the original arguments, since the first occurrence of an
+	 * option takes precedence. The values of the options registered with
+	 * {@link #addWorkerFileOption(Option)} are replaced with files of the worker.
+	 *
+	 * @param partition  The partition to analyze
+	 * @param apkFile    The app to analyze
+	 * @param args       The original command-line arguments
+	 * @param resultFile The file into which the worker shall write its results
+	 * @return The command line for the worker JVM
+	 */
+	protected List<String> getWorkerCommand(AnalysisPartition partition, File apkFile, String[] args,
+			File resultFile) {
+		List<String> command = new ArrayList<>();
+		command.add(new File(new File(System.getProperty("java.home"), "bin"), "java").getAbsolutePath());
+		command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(mainClass);
+		command.add(WORKER_OPTION);
+		command.add(partition.toString());
+		command.add("--apkfile");
+		command.add(apkFile.getAbsolutePath());
+		command.add("--outputfile");
+		command.add(resultFile.getAbsolutePath());
+		command.addAll(getWorkerArguments(partition, apkFile, args));
+		return command;
+	}
+
+	/**
+	 * Gets the original command-line arguments, in which the values of the
+	 * options registered with {@link #addWorkerFileOption(Option)} are replaced
+	 * with files of the given partition
+	 *
+	 * @param partition The partition to analyze
+	 * @param apkFile   The app to analyze
+	 * @param args      The original command-line arguments
+	 * @return The command-line arguments for the worker
+	 */
+	private List<String> getWorkerArguments(AnalysisPartition partition, File apkFile, String[] args) {
+		final String name = getPartitionName(partition);
+		List<String> workerArgs = new ArrayList<>(Arrays.asList(args));
+		for (int i = 0; i < workerArgs.size(); i++) {
+			String arg = workerArgs.get(i);
+			int eqIdx = arg.indexOf('=');
+			if (eqIdx > 0 && workerFileOptions.contains(arg.substring(0, eqIdx)))
+				workerArgs.set(i, arg.substring(0, eqIdx + 1)
+						+ getWorkerFile(arg.substring(eqIdx + 1), apkFile, name).getAbsolutePath());
+			else if (workerFileOptions.contains(arg) && i + 1 < workerArgs.size()) {
+				i++;
+				workerArgs.set(i, getWorkerFile(workerArgs.get(i), apkFile, name).getAbsolutePath());
+			}
+		}
+		return workerArgs;
+	}
+
+	/**
+	 * Gets the file that a worker uses instead of the given file. If the given
+	 * file is a directory, the worker uses a file in this directory that is named
+	 * after the app and the partition. Otherwise, the name of the partition is
+	 * inserted before the extension of the file name.
+	 *
+	 * @param fileName The original file name
+	 * @param apkFile  The app to analyze
+	 * @param name     The name of the partition
+	 * @return The file for the worker
+	 */
+	static File getWorkerFile(String fileName, File apkFile, String name) {
+		File file = new File(fileName);
+		if (file.isDirectory())
+			return new File(file, apkFile.getName() + "." + name);
+
+		String baseName = file.getName();
+		int dotIdx = baseName.lastIndexOf('.');
+		if (dotIdx > 0)
+			baseName = baseName.substring(0, dotIdx) + "." + name + baseName.substring(dotIdx);
+		else
+			baseName = baseName + "." + name;
+		return new File(file.getAbsoluteFile().getParentFile(), baseName);
+	}
+
+}
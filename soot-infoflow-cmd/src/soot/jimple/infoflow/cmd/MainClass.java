@@ -38,6 +38,8 @@ import soot.jimple.infoflow.methodSummary.data.provider.LazySummaryProvider;
 import soot.jimple.infoflow.methodSummary.taintWrappers.ReportMissingSummaryWrapper;
 import soot.jimple.infoflow.methodSummary.taintWrappers.SummaryTaintWrapper;
 import soot.jimple.infoflow.methodSummary.taintWrappers.TaintWrapperFactory;
+import soot.jimple.infoflow.results.InfoflowResults;
+import soot.jimple.infoflow.results.PerformanceDataJsonWriter;
 import soot.jimple.infoflow.taintWrappers.EasyTaintWrapper;
 import soot.jimple.infoflow.taintWrappers.ITaintPropagationWrapper;
 import soot.jimple.infoflow.taintWrappers.TaintWrapperSet;
@@ -60,6 +62,18 @@ public class MainClass {
 
 	protected Set<String> filesToSkip = new HashSet<>();
 
+	/**
+	 * The partition to analyze if this process is a worker in a distributed
+	 * analysis, otherwise <code>null</code>
+	 */
+	protected AnalysisPartition workerPartition = null;
+
+	/**
+	 * The sampling interval of the method profiler if a profiling report is
+	 * requested on the command line
+	 */
+	private static final int DEFAULT_PROFILING_INTERVAL = 64;
+
 	// Files
 	private static final String OPTION_CONFIG_FILE = "c";
 	private static final String OPTION_APK_FILE = "a";
@@ -75,6 +89,11 @@ public class MainClass {
 	private static final String OPTION_CALLBACK_TIMEOUT = "ct";
 	private static final String OPTION_RESULT_TIMEOUT = "rt";
 
+	// Checkpoints
+	private static final String OPTION_CHECKPOINT_FILE = "ck";
+	private static final String OPTION_CHECKPOINT_INTERVAL = "ci";
+	private static final String OPTION_RESUME_CHECKPOINT = "rc";
+
 	// Optional features
 	private static final String OPTION_NO_STATIC_FLOWS = "ns";
 	private static final String OPTION_NO_CALLBACK_ANALYSIS = "nc";
@@ -88,23 +107,30 @@ public class MainClass {
 	// Taint wrapper
 	private static final String OPTION_TAINT_WRAPPER = "tw";
 	private static final String OPTION_TAINT_WRAPPER_FILE = "t";
+	private static final String OPTION_OPAQUE_SUMMARIES = "so";
 
 	// Individual settings
 	private static final String OPTION_ACCESS_PATH_LENGTH = "al";
 	private static final String OPTION_NO_THIS_CHAIN_REDUCTION = "nr";
+	private static final String OPTION_NO_ACCESS_PATH_NUMBERING = "nn";
 	private static final String OPTION_FLOW_INSENSITIVE_ALIASING = "af";
+	private static final String OPTION_ALIAS_QUERY_CACHING = "aq";
+	private static final String OPTION_MEMOIZE_FLOW_FUNCTIONS = "fm";
 	private static final String OPTION_COMPUTE_PATHS = "cp";
 	private static final String OPTION_ONE_SOURCE = "os";
 	private static final String OPTION_ONE_COMPONENT = "ot";
 	private static final String OPTION_SEQUENTIAL_PATHS = "sp";
 	private static final String OPTION_LOG_SOURCES_SINKS = "ls";
 	private static final String OPTION_MERGE_DEX_FILES = "d";
+	private static final String OPTION_PRUNE_UNREACHABLE_CLASSES = "pu";
 	private static final String OPTION_SINGLE_JOIN_POINT = "sa";
 	private static final String OPTION_MAX_CALLBACKS_COMPONENT = "mc";
 	private static final String OPTION_MAX_CALLBACKS_DEPTH = "md";
 	private static final String OPTION_PATH_SPECIFIC_RESULTS = "ps";
 	private static final String OPTION_MAX_THREAD_NUMBER = "mt";
 	private static final String OPTION_LENIENT_PARSING_MODE = "lp";
+	private static final String OPTION_MEMORY_DEGRADATION = "mg";
+	private static final String OPTION_PROFILING_REPORT = "pf";
 
 	// Inter-component communication
 	private static final String OPTION_ICC_MODEL = "im";
@@ -124,6 +150,7 @@ public class MainClass {
 	private static final String OPTION_STATIC_FLOW_TRACKING_MODE = "sf";
 	private static final String OPTION_DATA_FLOW_DIRECTION = "dir";
 	private static final String OPTION_GC_SLEEP_TIME = "st";
+	private static final String OPTION_GC_SPILL_DIRECTORY = "sd";
 
 	// Evaluation-specific options
 	private static final String OPTION_ANALYZE_FRAMEWORKS = "ff";
@@ -132,6 +159,12 @@ public class MainClass {
 	private static final String OPTION_CALLGRAPH_FILE = "cf";
 	private static final String OPTION_CALLGRAPH_ONLY = "x";
 
+	// Distributed analysis
+	private static final String OPTION_DISTRIBUTED_PARTITIONS = "dp";
+	private static final String OPTION_DISTRIBUTED_SOURCE_GROUPS = "dg";
+	private static final String OPTION_DISTRIBUTED_PROCESSES = "dj";
+	private static final String OPTION_DISTRIBUTED_WORKER = "dw";
+
 	protected MainClass() {
 		initializeCommandLineOptions();
 	}
@@ -161,6 +194,14 @@ public class MainClass {
 				"Timeout for the callback collection phase");
 		options.addOption(OPTION_RESULT_TIMEOUT, "resulttimeout", true, "Timeout for the result collection phase");
 
+		// Checkpoints
+		options.addOption(OPTION_CHECKPOINT_FILE, "checkpointfile", true,
+				"File into which to save the state of the data flow analysis. Must be a directory when analyzing multiple APKs");
+		options.addOption(OPTION_CHECKPOINT_INTERVAL, "checkpointinterval", true,
+				"Interval in seconds in which to save the state of the data flow analysis");
+		options.addOption(OPTION_RESUME_CHECKPOINT, "resumecheckpoint", false,
+				"Continue the data flow analysis from the state in the checkpoint file");
+
 		// Optional features
 		options.addOption(OPTION_NO_STATIC_FLOWS, "nostatic", false, "Do not track static data flows");
 		options.addOption(OPTION_NO_CALLBACK_ANALYSIS, "nocallbacks", false, "Do not analyze Android callbacks");
@@ -180,13 +221,21 @@ public class MainClass {
 		options.addOption(OPTION_TAINT_WRAPPER, "taintwrapper", true,
 				"Use the specified taint wrapper algorithm (NONE, EASY, STUBDROID, MULTI)");
 		options.addOption(OPTION_TAINT_WRAPPER_FILE, "taintwrapperfile", true, "Definition file for the taint wrapper");
+		options.addOption(OPTION_OPAQUE_SUMMARIES, "opaquesummaries", false,
+				"Do not load the code of library methods that are completely described by StubDroid summaries");
 
 		// Individual settings
 		options.addOption(OPTION_ACCESS_PATH_LENGTH, "aplength", true, "Maximum access path length");
 		options.addOption(OPTION_NO_THIS_CHAIN_REDUCTION, "nothischainreduction", false,
 				"Disable reduction of inner class chains");
+		options.addOption(OPTION_NO_ACCESS_PATH_NUMBERING, "noapnumbering", false,
+				"Do not number access paths, which saves memory, but makes comparing access paths slower");
 		options.addOption(OPTION_FLOW_INSENSITIVE_ALIASING, "aliasflowins", false,
 				"Use a flow-insensitive alias analysis");
+		options.addOption(OPTION_ALIAS_QUERY_CACHING, "aliasquerycaching", false,
+				"Reuse the results of intraprocedural alias searches for other taints of the same shape");
+		options.addOption(OPTION_MEMOIZE_FLOW_FUNCTIONS, "memoizeflowfunctions", false,
+				"Reuse the results of normal flow functions for taints of the same shape");
 		options.addOption(OPTION_COMPUTE_PATHS, "paths", false,
 				"Compute the taint propagation paths and not just source-to-sink connections. This is a shorthand notation for -pr fast.");
 		options.addOption(OPTION_LOG_SOURCES_SINKS, "logsourcesandsinks", false,
@@ -206,6 +255,12 @@ public class MainClass {
 				"Only analyze callback chains up to the given depth");
 		options.addOption(OPTION_MERGE_DEX_FILES, "mergedexfiles", false,
 				"Merge all dex files in the given APK file into one analysis target");
+		options.addOption(OPTION_PRUNE_UNREACHABLE_CLASSES, "pruneunreachableclasses", false,
+				"Do not create Jimple bodies for classes that are not reachable from any entry point in the dex code");
+		options.addOption(OPTION_MEMORY_DEGRADATION, "memorydegradation", true,
+				"Reduce the analysis precision in steps once the given fraction of the heap is in use, before aborting");
+		options.addOption(OPTION_PROFILING_REPORT, "profilingreport", true,
+				"Attribute the analysis work to methods, classes, and packages and write a JSON report to the given file");
 		options.addOption(OPTION_PATH_SPECIFIC_RESULTS, "pathspecificresults", false,
 				"Report different results for same source/sink pairs if they differ in their propagation paths");
 
@@ -242,6 +297,8 @@ public class MainClass {
 				"Specifies the direction of the infoflow analysis (FORWARDS, BACKWARDS)");
 		options.addOption(OPTION_GC_SLEEP_TIME, "gcsleeptime", true,
 				"Specifies the sleep time for path edge collectors in seconds");
+		options.addOption(OPTION_GC_SPILL_DIRECTORY, "gcspilldir", true,
+				"Directory into which the garbage-collecting solver moves path edges when memory runs low");
 
 		// Evaluation-specific options
 		options.addOption(OPTION_ANALYZE_FRAMEWORKS, "analyzeframeworks", false,
@@ -253,6 +310,17 @@ public class MainClass {
 		options.addOption(OPTION_CALLGRAPH_ONLY, "callgraphonly", false, "Only compute the callgraph and terminate");
 		options.addOption(OPTION_LENIENT_PARSING_MODE, "lenientparsing", false,
 				"Enables non-strict parsing, i.e. tries to continue rather than fail in case of a parsing error");
+
+		// Distributed analysis
+		options.addOption(OPTION_DISTRIBUTED_PARTITIONS, "distributedpartitions", true,
+				"Splits the entry point components of the app into the given number of partitions, "
+						+ "each of which is analyzed in a separate JVM");
+		options.addOption(OPTION_DISTRIBUTED_SOURCE_GROUPS, "distributedsourcegroups", true,
+				"Splits the sources into the given number of groups, each of which is analyzed in a separate JVM");
+		options.addOption(OPTION_DISTRIBUTED_PROCESSES, "distributedprocesses", true,
+				"The maximum number of JVMs that run at the same time in a distributed analysis");
+		options.addOption(OPTION_DISTRIBUTED_WORKER, "distributedworker", true,
+				"Internal option for the JVMs of a distributed analysis");
 	}
 
 	public static void main(String[] args) throws Exception {
@@ -289,6 +357,9 @@ public class MainClass {
 
 			// Parse the other options
 			parseCommandLineOptions(cmd, config);
+			String partition = cmd.getOptionValue(OPTION_DISTRIBUTED_WORKER);
+			if (partition != null && !partition.isEmpty())
+				workerPartition = AnalysisPartition.fromString(partition);
 
 			// We can analyze whole directories of apps. In that case, we must gather the
 			// target APKs.
@@ -325,6 +396,22 @@ public class MainClass {
 					outputFile.mkdirs();
 			}
 
+			// When analyzing multiple APKs, we need one checkpoint file per app
+			String checkpointFileStr = config.getSolverConfiguration().getCheckpointFile();
+			File checkpointDir = null;
+			if (checkpointFileStr != null && !checkpointFileStr.isEmpty() && apksToAnalyze.size() > 1) {
+				checkpointDir = new File(checkpointFileStr);
+				if (checkpointDir.isFile()) {
+					System.err.println("The checkpoint file must be a directory when analyzing multiple APKs");
+					return;
+				}
+				checkpointDir.mkdirs();
+			}
+
+			// If the analysis is distributed over multiple JVMs, this process only
+			// coordinates the workers
+			DistributedAnalysisCoordinator coordinator = createDistributedAnalysisCoordinator(cmd, config);
+
 			// Initialize the taint wrapper. We only do this once for all apps to cache
 			// summaries that we have already loaded.
 			ITaintPropagationWrapper taintWrapper = initializeTaintWrapper(cmd);
@@ -354,12 +441,35 @@ public class MainClass {
 					}
 				}
 
+				if (checkpointDir != null) {
+					File curCheckpointFile = new File(checkpointDir, apkFile.getName() + ".checkpoint");
+					config.getSolverConfiguration().setCheckpointFile(curCheckpointFile.getCanonicalPath());
+				}
+
+				if (coordinator != null) {
+					String curOutputFile = config.getAnalysisFileConfig().getOutputFile();
+					coordinator.analyze(apkFile, args,
+							curOutputFile == null || curOutputFile.isEmpty() ? null : new File(curOutputFile));
+					continue;
+				}
+
 				// Create the data flow analyzer
 				analyzer = createFlowDroidInstance(config);
 				analyzer.setTaintWrapper(taintWrapper);
 
 				// Start the data flow analysis
-				analyzer.runInfoflow();
+				InfoflowResults results = analyzer.runInfoflow();
+
+				String profilingReport = cmd.getOptionValue(OPTION_PROFILING_REPORT);
+				if (profilingReport != null && !profilingReport.isEmpty() && results != null
+						&& results.getPerformanceData() != null) {
+					File reportFile = new File(profilingReport);
+					if (apksToAnalyze.size() > 1) {
+						reportFile.mkdirs();
+						reportFile = new File(reportFile, apkFile.getName().replace(".apk", ".json"));
+					}
+					new PerformanceDataJsonWriter().write(results.getPerformanceData(), reportFile.toPath());
+				}
 
 				if (reportMissingSummaryWrapper != null) {
 					String file = cmd.getOptionValue(OPTION_MISSING_SUMMARIES_FILE);
@@ -374,9 +484,46 @@ public class MainClass {
 		} catch (Exception e) {
 			System.err.println(String.format("The data flow analysis has failed. Error message: %s", e.getMessage()));
 			e.printStackTrace();
+
+			// The coordinator of a distributed analysis must notice that the worker
+			// has failed
+			if (workerPartition != null)
+				throw e;
 		}
 	}
 
+	/**
+	 * Creates the coordinator that distributes the analysis of an app over
+	 * multiple JVMs if the command-line parameters request a distributed analysis
+	 * 
+	 * @param cmd    The command-line parameters
+	 * @param config The data flow configuration
+	 * @return The coordinator for the distributed analysis, or <code>null</code>
+	 *         if the analysis shall run in the current JVM
+	 */
+	protected DistributedAnalysisCoordinator createDistributedAnalysisCoordinator(CommandLine cmd,
+			InfoflowAndroidConfiguration config) {
+		if (workerPartition != null)
+			return null;
+
+		Integer partitions = getIntOption(cmd, OPTION_DISTRIBUTED_PARTITIONS);
+		Integer sourceGroups = getIntOption(cmd, OPTION_DISTRIBUTED_SOURCE_GROUPS);
+		if (partitions == null && sourceGroups == null)
+			return null;
+		int numPartitions = partitions == null ? 1 : partitions;
+		int numSourceGroups = sourceGroups == null ? 1 : sourceGroups;
+
+		Integer processes = getIntOption(cmd, OPTION_DISTRIBUTED_PROCESSES);
+		DistributedAnalysisCoordinator coordinator = new DistributedAnalysisCoordinator(config,
+				getClass().getName(), numPartitions, numSourceGroups,
+				processes == null ? numPartitions * numSourceGroups : processes);
+
+		// The workers must not write into the same checkpoint or profiling files
+		coordinator.addWorkerFileOption(options.getOption(OPTION_CHECKPOINT_FILE));
+		coordinator.addWorkerFileOption(options.getOption(OPTION_PROFILING_REPORT));
+		return coordinator;
+	}
+
 	/**
 	 * Creates an instance of the FlowDroid data flow solver tool for Android.
 	 * Derived classes can override this method to inject custom variants of
@@ -386,6 +533,8 @@ public class MainClass {
 	 * @return An instance of the data flow solver
 	 */
 	protected SetupApplication createFlowDroidInstance(final InfoflowAndroidConfiguration config) {
+		if (workerPartition != null)
+			return new PartitionedSetupApplication(config, workerPartition);
 		return new SetupApplication(config);
 	}
 
@@ -465,7 +614,10 @@ public class MainClass {
 				System.err.println("Must specify at least one definition file for StubDroid");
 				throw new AbortAnalysisException();
 			}
-			result = TaintWrapperFactory.createTaintWrapper(Arrays.asList(definitionFiles));
+			SummaryTaintWrapper definitionWrapper = TaintWrapperFactory
+					.createTaintWrapper(Arrays.asList(definitionFiles));
+			definitionWrapper.setOpaqueSummarizedMethods(cmd.hasOption(OPTION_OPAQUE_SUMMARIES));
+			result = definitionWrapper;
 			break;
 		case "multi":
 			// We need explicit definition files
@@ -491,6 +643,7 @@ public class MainClass {
 			SummaryTaintWrapper stubDroidWrapper = null;
 			if (extensionToFile.containsKey(".xml")) {
 				stubDroidWrapper = TaintWrapperFactory.createTaintWrapper(extensionToFile.get(".xml"));
+				stubDroidWrapper.setOpaqueSummarizedMethods(cmd.hasOption(OPTION_OPAQUE_SUMMARIES));
 				wrapperSet.addWrapper(stubDroidWrapper);
 			}
 			Set<String> easyDefinitions = extensionToFile.get(".txt");
@@ -519,11 +672,14 @@ public class MainClass {
 	}
 
 	private SummaryTaintWrapper createSummaryTaintWrapper(CommandLine cmd, LazySummaryProvider lazySummaryProvider) {
+		SummaryTaintWrapper wrapper;
 		if (cmd.hasOption(OPTION_MISSING_SUMMARIES_FILE)) {
 			reportMissingSummaryWrapper = new ReportMissingSummaryWrapper(lazySummaryProvider);
-			return reportMissingSummaryWrapper;
+			wrapper = reportMissingSummaryWrapper;
 		} else
-			return new SummaryTaintWrapper(lazySummaryProvider);
+			wrapper = new SummaryTaintWrapper(lazySummaryProvider);
+		wrapper.setOpaqueSummarizedMethods(cmd.hasOption(OPTION_OPAQUE_SUMMARIES));
+		return wrapper;
 	}
 
 	private static CallgraphAlgorithm parseCallgraphAlgorithm(String algo) {
@@ -744,6 +900,20 @@ public class MainClass {
 				config.getPathConfiguration().setPathReconstructionTimeout(timeout);
 		}
 
+		// Checkpoints
+		{
+			String checkpointFile = cmd.getOptionValue(OPTION_CHECKPOINT_FILE);
+			if (checkpointFile != null && !checkpointFile.isEmpty())
+				config.getSolverConfiguration().setCheckpointFile(checkpointFile);
+		}
+		{
+			Integer interval = getIntOption(cmd, OPTION_CHECKPOINT_INTERVAL);
+			if (interval != null)
+				config.getSolverConfiguration().setCheckpointInterval(interval);
+		}
+		if (cmd.hasOption(OPTION_RESUME_CHECKPOINT))
+			config.getSolverConfiguration().setResumeFromCheckpoint(true);
+
 		// Optional features
 		if (cmd.hasOption(OPTION_NO_STATIC_FLOWS))
 			config.setStaticFieldTrackingMode(StaticFieldTrackingMode.None);
@@ -767,8 +937,14 @@ public class MainClass {
 		}
 		if (cmd.hasOption(OPTION_NO_THIS_CHAIN_REDUCTION))
 			config.getAccessPathConfiguration().setUseThisChainReduction(false);
+		if (cmd.hasOption(OPTION_NO_ACCESS_PATH_NUMBERING))
+			config.getAccessPathConfiguration().setNumberAccessPaths(false);
 		if (cmd.hasOption(OPTION_FLOW_INSENSITIVE_ALIASING))
 			config.setFlowSensitiveAliasing(false);
+		if (cmd.hasOption(OPTION_ALIAS_QUERY_CACHING))
+			config.setAliasQueryCaching(true);
+		if (cmd.hasOption(OPTION_MEMOIZE_FLOW_FUNCTIONS))
+			config.getSolverConfiguration().setMemoizeNormalFlowFunctions(true);
 		if (cmd.hasOption(OPTION_COMPUTE_PATHS))
 			config.getPathConfiguration().setPathReconstructionMode(PathReconstructionMode.Fast);
 		if (cmd.hasOption(OPTION_ONE_SOURCE))
@@ -781,10 +957,19 @@ public class MainClass {
 			config.setLogSourcesAndSinks(true);
 		if (cmd.hasOption(OPTION_MERGE_DEX_FILES))
 			config.setMergeDexFiles(true);
+		if (cmd.hasOption(OPTION_PRUNE_UNREACHABLE_CLASSES))
+			config.setPruneUnreachableClasses(true);
 		if (cmd.hasOption(OPTION_PATH_SPECIFIC_RESULTS))
 			config.setPathAgnosticResults(false);
 		if (cmd.hasOption(OPTION_SINGLE_JOIN_POINT))
 			config.getSolverConfiguration().setSingleJoinPointAbstraction(true);
+		if (cmd.hasOption(OPTION_PROFILING_REPORT) && config.getMethodProfilingInterval() <= 0)
+			config.setMethodProfilingInterval(DEFAULT_PROFILING_INTERVAL);
+		{
+			String degradation = cmd.getOptionValue(OPTION_MEMORY_DEGRADATION);
+			if (degradation != null && !degradation.isEmpty())
+				config.setMemoryDegradationThreshold(Double.parseDouble(degradation));
+		}
 		{
 			Integer maxCallbacks = getIntOption(cmd, OPTION_MAX_CALLBACKS_COMPONENT);
 			if (maxCallbacks != null)
@@ -908,6 +1093,11 @@ public class MainClass {
 				config.getSolverConfiguration().setSleepTime(sleepTime);
 			}
 		}
+		{
+			String spillDirectory = cmd.getOptionValue(OPTION_GC_SPILL_DIRECTORY);
+			if (spillDirectory != null && !spillDirectory.isEmpty())
+				config.getSolverConfiguration().setSpillDirectory(spillDirectory);
+		}
 	}
 
 	private Integer getIntOption(CommandLine cmd, String option) {
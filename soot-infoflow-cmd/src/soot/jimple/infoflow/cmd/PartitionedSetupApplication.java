@@ -0,0 +1,97 @@
+package soot.jimple.infoflow.cmd;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import soot.SootClass;
+import soot.jimple.infoflow.android.InfoflowAndroidConfiguration;
+import soot.jimple.infoflow.android.SetupApplication;
+import soot.jimple.infoflow.results.InfoflowResults;
+import soot.jimple.infoflow.results.xml.InfoflowResultsSerializer;
+import soot.jimple.infoflow.sourcesSinks.definitions.FilteringSourceSinkDefinitionProvider;
+import soot.jimple.infoflow.sourcesSinks.definitions.ISourceSinkDefinition;
+import soot.jimple.infoflow.sourcesSinks.definitions.ISourceSinkDefinitionProvider;
+
+/**
+ * Variant of FlowDroid that only analyzes a single partition of an app. All
+ * components and sources that do not belong to the given partition are
+ * skipped, see {@link AnalysisPartition} for how they are assigned.
+ *
+ * Since components can only be skipped if they are analyzed independently, this
+ * class always enables the <code>oneComponentAtATime</code> option of the given
+ * configuration, regardless of its previous value.
+ */
+public class PartitionedSetupApplication extends SetupApplication {
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	private final AnalysisPartition partition;
+
+	/**
+	 * Creates a new instance of the {@link PartitionedSetupApplication} class
+	 *
+	 * @param config    The data flow configuration
+	 * @param partition The partition to analyze
+	 */
+	public PartitionedSetupApplication(InfoflowAndroidConfiguration config, AnalysisPartition partition) {
+		super(config);
+		this.partition = partition;
+
+		// We can only partition by component if we analyze the components
+		// independently
+		if (!config.getOneComponentAtATime()) {
+			logger.info("Analyzing one component at a time to analyze partition {}", partition);
+			config.setOneComponentAtATime(true);
+		}
+	}
+
+	@Override
+	public InfoflowResults runInfoflow(ISourceSinkDefinitionProvider sourcesAndSinks) {
+		if (partition.getSourceGroupCount() > 1) {
+			// Sinks are shared by all partitions, we only split up the sources
+			final Set<ISourceSinkDefinition> sinks = new HashSet<>(sourcesAndSinks.getSinks());
+			sourcesAndSinks = new FilteringSourceSinkDefinitionProvider(sourcesAndSinks,
+					def -> sinks.contains(def) || partition.containsSource(def));
+		}
+		InfoflowResults results = super.runInfoflow(sourcesAndSinks);
+
+		// The coordinator treats a missing result file as a failure, so we also
+		// write the file if there are no data flows
+		String resultsFile = config.getAnalysisFileConfig().getOutputFile();
+		if ((results == null || results.isEmpty()) && resultsFile != null && !resultsFile.isEmpty()) {
+			try {
+				new InfoflowResultsSerializer(config).serialize(results == null ? new InfoflowResults() : results,
+						resultsFile);
+			} catch (IOException | XMLStreamException e) {
+				throw new RuntimeException("Could not write data flow results to file", e);
+			}
+		}
+		return results;
+	}
+
+	@Override
+	protected void processEntryPoint(ISourceSinkDefinitionProvider sourcesAndSinks,
+			MultiRunResultAggregator resultAggregator, int numEntryPoints, SootClass entrypoint) {
+		if (entrypoint != null && !partition.containsComponent(entrypoint.getName())) {
+			logger.info("Skipping component {}, it is not part of partition {}", entrypoint.getName(), partition);
+			return;
+		}
+		super.processEntryPoint(sourcesAndSinks, resultAggregator, numEntryPoints, entrypoint);
+	}
+
+	/**
+	 * Gets the partition that is analyzed by this instance
+	 *
+	 * @return The partition that is analyzed by this instance
+	 */
+	public AnalysisPartition getPartition() {
+		return partition;
+	}
+
+}
@@ -0,0 +1,73 @@
+package soot.jimple.infoflow.cmd;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.data.SootMethodAndClass;
+import soot.jimple.infoflow.sourcesSinks.definitions.ISourceSinkDefinition;
+import soot.jimple.infoflow.sourcesSinks.definitions.MethodSourceSinkDefinition;
+
+public class AnalysisPartitionTest {
+
+	private static List<AnalysisPartition> createPartitions(int componentCount, int sourceGroupCount) {
+		List<AnalysisPartition> partitions = new ArrayList<>();
+		for (int i = 0; i < componentCount; i++)
+			for (int j = 0; j < sourceGroupCount; j++)
+				partitions.add(new AnalysisPartition(i, componentCount, j, sourceGroupCount));
+		return partitions;
+	}
+
+	@Test
+	public void componentCoverageTest() {
+		List<AnalysisPartition> partitions = createPartitions(3, 1);
+		for (int i = 0; i < 100; i++) {
+			String component = "com.example.app.Component" + i;
+
+			// Every component belongs to exactly one partition
+			int owners = 0;
+			for (AnalysisPartition partition : partitions)
+				if (partition.containsComponent(component))
+					owners++;
+			assertEquals(1, owners);
+		}
+	}
+
+	@Test
+	public void sourceCoverageTest() {
+		List<AnalysisPartition> partitions = createPartitions(2, 4);
+		for (int i = 0; i < 100; i++) {
+			ISourceSinkDefinition source = new MethodSourceSinkDefinition(new SootMethodAndClass("getData" + i,
+					"com.example.Source", "java.lang.String", Collections.emptyList()));
+
+			// Every source belongs to exactly one source group, which is part of one
+			// partition for every component partition
+			int owners = 0;
+			for (AnalysisPartition partition : partitions)
+				if (partition.containsSource(source))
+					owners++;
+			assertEquals(2, owners);
+		}
+	}
+
+	@Test
+	public void stringRoundTripTest() {
+		for (AnalysisPartition partition : createPartitions(3, 2)) {
+			AnalysisPartition parsed = AnalysisPartition.fromString(partition.toString());
+			assertEquals(partition.getComponentIndex(), parsed.getComponentIndex());
+			assertEquals(partition.getComponentCount(), parsed.getComponentCount());
+			assertEquals(partition.getSourceGroup(), parsed.getSourceGroup());
+			assertEquals(partition.getSourceGroupCount(), parsed.getSourceGroupCount());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidPartitionTest() {
+		AnalysisPartition.fromString("2/2:0/1");
+	}
+
+}
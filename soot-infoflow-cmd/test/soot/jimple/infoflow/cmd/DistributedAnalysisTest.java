@@ -0,0 +1,121 @@
+package soot.jimple.infoflow.cmd;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.android.InfoflowAndroidConfiguration;
+import soot.jimple.infoflow.results.xml.InfoflowResultsReader;
+import soot.jimple.infoflow.results.xml.SerializedInfoflowResults;
+
+public class DistributedAnalysisTest {
+
+	private static final File ANDROID_ROOT = new File("../soot-infoflow-android");
+	private static final File APK_FILE = new File(ANDROID_ROOT,
+			"testAPKs/9458cfb51c90130938abcef7173c3f6d44a02720.apk");
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	private static String getAndroidJars() {
+		String androidJars = System.getenv("ANDROID_JARS");
+		if (androidJars == null)
+			androidJars = System.getProperty("ANDROID_JARS");
+		if (androidJars == null)
+			throw new RuntimeException("Android JAR dir not set");
+		return androidJars;
+	}
+
+	@Test
+	public void workerArgumentsTest() throws Exception {
+		AnalysisPartition partition = new AnalysisPartition(1, 3, 0, 2);
+		File resultFile = tempFolder.newFile("partition.xml");
+		String[] args = new String[] { "-a", "original.apk", "-p", "platforms", "-o", "original.xml", "-dp", "3",
+				"-dg", "2" };
+
+		DistributedAnalysisCoordinator coordinator = new DistributedAnalysisCoordinator(new InfoflowConfiguration(),
+				MainClass.class.getName(), 3, 2, 1);
+		List<String> command = coordinator.getWorkerCommand(partition, APK_FILE, args, resultFile);
+
+		// The worker parses everything after the main class with the normal
+		// command-line options
+		int mainClassIdx = command.indexOf(MainClass.class.getName());
+		assertTrue(mainClassIdx > 0);
+		List<String> workerArgs = command.subList(mainClassIdx + 1, command.size());
+		CommandLine cmd = new DefaultParser().parse(new MainClass().options,
+				workerArgs.toArray(new String[workerArgs.size()]));
+
+		assertEquals(partition.toString(), AnalysisPartition.fromString(cmd.getOptionValue("dw")).toString());
+		assertEquals(APK_FILE.getAbsolutePath(), cmd.getOptionValue("a"));
+		assertEquals(resultFile.getAbsolutePath(), cmd.getOptionValue("o"));
+		assertEquals("platforms", cmd.getOptionValue("p"));
+	}
+
+	@Test
+	public void workerFilesTest() throws Exception {
+		File checkpointFile = new File(tempFolder.getRoot(), "analysis.checkpoint");
+		File reportDir = tempFolder.newFolder("reports");
+		String[] args = new String[] { "-a", "original.apk", "-p", "platforms", "-ck",
+				checkpointFile.getAbsolutePath(), "--profilingreport=" + reportDir.getAbsolutePath(), "-dp", "2" };
+
+		MainClass mainClass = new MainClass();
+		CommandLine originalCmd = new DefaultParser().parse(mainClass.options, args);
+		DistributedAnalysisCoordinator coordinator = mainClass.createDistributedAnalysisCoordinator(originalCmd,
+				new InfoflowAndroidConfiguration());
+
+		// Every worker must write its own checkpoint and profiling files
+		Set<String> checkpointFiles = new HashSet<>();
+		Set<String> reportFiles = new HashSet<>();
+		for (int i = 0; i < 2; i++) {
+			List<String> command = coordinator.getWorkerCommand(new AnalysisPartition(i, 2, 0, 1), APK_FILE, args,
+					tempFolder.newFile());
+			List<String> workerArgs = command.subList(command.indexOf(MainClass.class.getName()) + 1,
+					command.size());
+			CommandLine cmd = new DefaultParser().parse(mainClass.options,
+					workerArgs.toArray(new String[workerArgs.size()]));
+
+			File workerCheckpoint = new File(cmd.getOptionValue("ck"));
+			assertEquals(checkpointFile.getParentFile(), workerCheckpoint.getParentFile());
+			assertTrue(workerCheckpoint.getName().endsWith(".checkpoint"));
+			assertTrue(checkpointFiles.add(workerCheckpoint.getAbsolutePath()));
+
+			File workerReport = new File(cmd.getOptionValue("pf"));
+			assertEquals(reportDir, workerReport.getParentFile());
+			assertTrue(reportFiles.add(workerReport.getAbsolutePath()));
+		}
+		assertFalse(checkpointFiles.contains(checkpointFile.getAbsolutePath()));
+	}
+
+	@Test
+	public void mergedResultsTest() throws Exception {
+		File singleFile = new File(tempFolder.getRoot(), "single.xml");
+		File mergedFile = new File(tempFolder.getRoot(), "merged.xml");
+		String sourcesSinks = new File(ANDROID_ROOT, "SourcesAndSinks.txt").getAbsolutePath();
+
+		// The partitions are analyzed one component at a time, so the single run must
+		// do the same
+		new MainClass().run(new String[] { "-a", APK_FILE.getAbsolutePath(), "-p", getAndroidJars(), "-s",
+				sourcesSinks, "-o", singleFile.getAbsolutePath(), "-ot" });
+		new MainClass().run(new String[] { "-a", APK_FILE.getAbsolutePath(), "-p", getAndroidJars(), "-s",
+				sourcesSinks, "-o", mergedFile.getAbsolutePath(), "-dp", "2", "-dg", "2" });
+
+		InfoflowResultsReader reader = new InfoflowResultsReader();
+		SerializedInfoflowResults single = reader.readResults(singleFile.getAbsolutePath());
+		SerializedInfoflowResults merged = reader.readResults(mergedFile.getAbsolutePath());
+		assertFalse(single.isEmpty());
+		assertEquals(single.getResults(), merged.getResults());
+	}
+
+}
@@ -14,6 +14,9 @@ import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import heros.solver.Pair;
 import heros.solver.PathEdge;
 import soot.ArrayType;
@@ -84,6 +87,7 @@ import soot.jimple.infoflow.typing.TypeUtils;
 import soot.jimple.infoflow.util.ByReferenceBoolean;
 import soot.jimple.infoflow.util.SootMethodRepresentationParser;
 import soot.jimple.infoflow.util.SystemClassHandler;
+import soot.options.Options;
 import soot.util.ConcurrentHashMultiMap;
 import soot.util.MultiMap;
 
@@ -96,10 +100,13 @@ import soot.util.MultiMap;
  */
 public class SummaryTaintWrapper implements IReversibleTaintWrapper, ICollectionsSupport {
 
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
 	protected InfoflowManager manager;
 	private AtomicInteger wrapperHits = new AtomicInteger();
 	private AtomicInteger wrapperMisses = new AtomicInteger();
 	private boolean reportMissingSummaries = false;
+	private boolean opaqueSummarizedMethods = false;
 	protected ITaintPropagationWrapper fallbackWrapper = null;
 
 	protected IMethodSummaryProvider flows;
@@ -402,13 +409,44 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper, ICollection
 	}
 
 	class HierarchyInjector implements PreAnalysisHandler {
+
+		/**
+		 * The methods that are hidden from the callgraph construction
+		 */
+		private final List<SootMethod> opaqueMethods = new ArrayList<>();
+
+		/**
+		 * The value of Soot's allow_phantom_elms option before the callgraph
+		 * construction
+		 */
+		private boolean oldAllowPhantomElms = false;
+
 		@Override
 		public void onBeforeCallgraphConstruction() {
+			// Phantom methods are only allowed in non-phantom classes if Soot is configured
+			// accordingly
+			if (opaqueSummarizedMethods) {
+				oldAllowPhantomElms = Options.v().allow_phantom_elms();
+				Options.v().set_allow_phantom_elms(true);
+			}
+
 			// Inject the hierarchy
 			for (String className : flows.getAllClassesWithSummaries()) {
-				SootClass sc = Scene.v().forceResolve(className, SootClass.SIGNATURES);
-				if (!sc.isPhantom())
-					continue;
+				SootClass sc;
+				if (opaqueSummarizedMethods) {
+					// Classes that are not referenced by the program do not need to be loaded
+					sc = Scene.v().getSootClassUnsafe(className, false);
+					if (sc == null)
+						continue;
+					if (!sc.isPhantom()) {
+						hideSummarizedMethods(sc);
+						continue;
+					}
+				} else {
+					sc = Scene.v().forceResolve(className, SootClass.SIGNATURES);
+					if (!sc.isPhantom())
+						continue;
+				}
 
 				ClassMethodSummaries summaries = flows.getClassFlows(className);
 				if (summaries == null)
@@ -439,11 +477,53 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper, ICollection
 					}
 				}
 			}
+			if (opaqueSummarizedMethods)
+				logger.info("Treating {} summarized library methods as opaque", opaqueMethods.size());
+		}
+
+		/**
+		 * Hides the methods of the given class that are completely described by their
+		 * summaries from the callgraph construction. Soot only skips the body of a
+		 * concrete method if the method is a phantom, so the methods are marked as
+		 * phantoms until the callgraph has been built.
+		 * 
+		 * @param sc The class whose methods to hide
+		 */
+		private void hideSummarizedMethods(SootClass sc) {
+			ClassMethodSummaries cms = flows.getClassFlows(sc.getName());
+			if (cms == null || cms.getMethodSummaries() == null)
+				return;
+
+			MethodSummaries summaries = cms.getMethodSummaries();
+			for (SootMethod sm : sc.getMethods()) {
+				// Methods that already have a body have been created or patched by FlowDroid
+				if (!sm.isConcrete() || sm.hasActiveBody())
+					continue;
+
+				// If a method calls back into user code, we need its body in the callgraph
+				Set<MethodFlow> methodFlows = summaries.getFlowsForMethod(sm.getSubSignature());
+				if (methodFlows == null || methodFlows.isEmpty())
+					continue;
+				if (methodFlows.stream().anyMatch(f -> f.source().getGap() != null || f.sink().getGap() != null))
+					continue;
+
+				sm.setPhantom(true);
+				opaqueMethods.add(sm);
+			}
 		}
 
 		@Override
 		public void onAfterCallgraphConstruction() {
-			// NO-OP
+			if (!opaqueSummarizedMethods)
+				return;
+
+			// Restore the Soot model. The methods have not received a body during the
+			// callgraph construction, and the data flow analysis never descends into
+			// callees without a body, so they remain opaque.
+			for (SootMethod sm : opaqueMethods)
+				sm.setPhantom(false);
+			opaqueMethods.clear();
+			Options.v().set_allow_phantom_elms(oldAllowPhantomElms);
 		}
 	}
 
@@ -2165,6 +2245,35 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper, ICollection
 		this.reportMissingSummaries = report;
 	}
 
+	/**
+	 * Sets whether library methods that are completely described by their
+	 * summaries shall be treated as opaque methods without a body. Soot then
+	 * neither creates Jimple code for these methods nor follows them during
+	 * callgraph construction, which saves memory and time when the application
+	 * bundles large libraries. Methods whose summaries contain calls back into
+	 * user code (gaps) keep their bodies. Note that application methods that are
+	 * only reachable through an opaque library method are no longer part of the
+	 * callgraph. The Soot model and options are only changed while the callgraph
+	 * is built, and are restored afterwards.
+	 * 
+	 * @param opaqueSummarizedMethods True to treat summarized library methods as
+	 *                                opaque, false to load their bodies as usual
+	 */
+	public void setOpaqueSummarizedMethods(boolean opaqueSummarizedMethods) {
+		this.opaqueSummarizedMethods = opaqueSummarizedMethods;
+	}
+
+	/**
+	 * Gets whether library methods that are completely described by their
+	 * summaries are treated as opaque methods without a body
+	 * 
+	 * @return True if summarized library methods are treated as opaque, false
+	 *         otherwise
+	 */
+	public boolean getOpaqueSummarizedMethods() {
+		return opaqueSummarizedMethods;
+	}
+
 	/**
 	 * Sets the fallback taint wrapper to be used if there is no StubDroid summary
 	 * for a certain class
@@ -0,0 +1,111 @@
+package soot.jimple.infoflow.test.methodSummary.junit.forward;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+import soot.Scene;
+import soot.SootClass;
+import soot.SootMethod;
+import soot.Unit;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.methodSummary.taintWrappers.SummaryTaintWrapper;
+import soot.jimple.infoflow.methodSummary.taintWrappers.TaintWrapperFactory;
+import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
+import soot.jimple.infoflow.test.methodSummary.junit.JUnitTests;
+import soot.jimple.infoflow.test.methodSummary.junit.WrapperListTestConfig;
+import soot.options.Options;
+
+/**
+ * Tests for treating summarized library methods as opaque during the callgraph
+ * construction
+ */
+public class OpaqueSummarizedMethodsTests extends JUnitTests {
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		return new Infoflow(null, false, null);
+	}
+
+	private static final String LINKED_LIST_TEST = "<soot.jimple.infoflow.test.ListTestCode: void linkedListWriteReadTest()>";
+
+	/**
+	 * The interprocedural control flow graph of the last data flow analysis
+	 */
+	private IInfoflowCFG lastICFG;
+
+	private IInfoflow runListTest(String entryPoint) throws Exception {
+		lastICFG = null;
+		IInfoflow infoflow = initInfoflow();
+		infoflow.addResultsAvailableHandler((cfg, results) -> lastICFG = cfg);
+		infoflow.setSootConfig(new WrapperListTestConfig());
+		SummaryTaintWrapper wrapper = TaintWrapperFactory.createTaintWrapper();
+		wrapper.setOpaqueSummarizedMethods(true);
+		infoflow.setTaintWrapper(wrapper);
+		infoflow.computeInfoflow(appPath, libPath, Collections.singletonList(entryPoint), sources, sinks);
+		return infoflow;
+	}
+
+	private static void checkNoPhantomMethods(String className) {
+		SootClass sc = Scene.v().getSootClassUnsafe(className, false);
+		if (sc != null && !sc.isPhantom()) {
+			for (SootMethod sm : sc.getMethods())
+				assertFalse(sm.getSignature() + " is still a phantom method", sm.isPhantom());
+		}
+	}
+
+	/**
+	 * Checks that the calls from the given method into the given summarized class
+	 * target methods without an active body, and that these callees are still
+	 * valid callees for the data flow problem, i.e., concrete methods. Otherwise,
+	 * the taints would no longer be passed over the call.
+	 */
+	private void checkOpaqueCallees(String methodSignature, String className) {
+		assertNotNull(lastICFG);
+		boolean foundCallee = false;
+		for (Unit u : Scene.v().getMethod(methodSignature).getActiveBody().getUnits()) {
+			Stmt stmt = (Stmt) u;
+			if (!stmt.containsInvokeExpr())
+				continue;
+			for (SootMethod callee : lastICFG.getCalleesOfCallAt(stmt)) {
+				if (callee.getDeclaringClass().getName().equals(className)) {
+					foundCallee = true;
+					assertFalse(callee.getSignature() + " still has an active body", callee.hasActiveBody());
+					assertTrue(callee.getSignature() + " is no valid callee", callee.isConcrete());
+				}
+			}
+		}
+		assertTrue("No call into " + className + " found", foundCallee);
+	}
+
+	@Test(timeout = 300000)
+	public void linkedListTest() throws Exception {
+		IInfoflow infoflow = runListTest(LINKED_LIST_TEST);
+		checkInfoflow(infoflow, 1);
+		checkOpaqueCallees(LINKED_LIST_TEST, "java.util.LinkedList");
+
+		// The Soot model and options must be restored after the callgraph has been
+		// built
+		assertFalse(Options.v().allow_phantom_elms());
+		checkNoPhantomMethods("java.util.LinkedList");
+		checkNoPhantomMethods("java.util.AbstractSequentialList");
+		checkNoPhantomMethods("java.util.List");
+	}
+
+	@Test(timeout = 300000)
+	public void linkedListNegativeTest() throws Exception {
+		IInfoflow infoflow = runListTest(
+				"<soot.jimple.infoflow.test.ListTestCode: void linkedListConcreteWriteReadNegativeTest()>");
+		negativeCheckInfoflow(infoflow);
+		assertFalse(Options.v().allow_phantom_elms());
+		checkNoPhantomMethods("java.util.LinkedList");
+	}
+
+}
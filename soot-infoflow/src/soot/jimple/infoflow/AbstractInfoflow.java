@@ -1,6 +1,7 @@
 package soot.jimple.infoflow;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.ArrayList;
@@ -87,6 +88,8 @@ import soot.jimple.infoflow.entryPointCreators.IEntryPointCreator;
 import soot.jimple.infoflow.entryPointCreators.SimulatedCodeElementTag;
 import soot.jimple.infoflow.entryPointCreators.SimulatedDynamicInvokeTag;
 import soot.jimple.infoflow.globalTaints.GlobalTaintManager;
+import soot.jimple.infoflow.globalTaints.StaticFieldReadIndex;
+import soot.jimple.infoflow.handlers.MethodProfiler;
 import soot.jimple.infoflow.handlers.PostAnalysisHandler;
 import soot.jimple.infoflow.handlers.PreAnalysisHandler;
 import soot.jimple.infoflow.handlers.ResultsAvailableHandler;
@@ -98,6 +101,7 @@ import soot.jimple.infoflow.ipc.IIPCManager;
 import soot.jimple.infoflow.memory.FlowDroidMemoryWatcher;
 import soot.jimple.infoflow.memory.FlowDroidTimeoutWatcher;
 import soot.jimple.infoflow.memory.IMemoryBoundedSolver;
+import soot.jimple.infoflow.memory.IMemoryDegradationHandler;
 import soot.jimple.infoflow.memory.ISolverTerminationReason;
 import soot.jimple.infoflow.memory.reasons.AbortRequestedReason;
 import soot.jimple.infoflow.memory.reasons.OutOfMemoryReason;
@@ -126,6 +130,7 @@ import soot.jimple.infoflow.solver.IInfoflowSolver;
 import soot.jimple.infoflow.solver.ISolverPeerGroup;
 import soot.jimple.infoflow.solver.PredecessorShorteningMode;
 import soot.jimple.infoflow.solver.cfg.BackwardsInfoflowCFG;
+import soot.jimple.infoflow.solver.checkpoint.SolverCheckpointer;
 import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
 import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
 import soot.jimple.infoflow.solver.fastSolver.InfoflowSolver;
@@ -187,6 +192,7 @@ public abstract class AbstractInfoflow implements IInfoflow {
 
 	protected Set<Stmt> collectedSources;
 	protected Set<Stmt> collectedSinks;
+	protected StaticFieldReadIndex staticFieldReadIndex = null;
 
 	protected SootMethod dummyMainMethod;
 	protected Collection<SootMethod> additionalEntryPointMethods;
@@ -838,6 +844,13 @@ public abstract class AbstractInfoflow implements IInfoflow {
 				memoryWatcher = null;
 			}
 			memoryWatcher = new FlowDroidMemoryWatcher(results, config.getMemoryThreshold());
+			double degradationThreshold = config.getMemoryDegradationThreshold();
+			if (degradationThreshold > 0) {
+				if (degradationThreshold < config.getMemoryThreshold())
+					memoryWatcher.enableDegradation(degradationThreshold);
+				else
+					logger.warn("Memory degradation threshold is not below the memory threshold, degradation disabled");
+			}
 
 			// Initialize the abstraction configuration
 			Abstraction.initialize(config);
@@ -874,8 +887,14 @@ public abstract class AbstractInfoflow implements IInfoflow {
 			if (config.getCallgraphAlgorithm() != CallgraphAlgorithm.OnDemand)
 				logger.info("Callgraph has {} edges", Scene.v().getCallGraph().size());
 
-			IInfoflowCFG iCfg = icfgFactory.buildBiDirICFG(config.getCallgraphAlgorithm(),
-					config.getEnableExceptionTracking());
+			// Global taints on static fields are injected at the statements that read the
+			// respective field. We index these statements while the ICFG is being built.
+			staticFieldReadIndex = new StaticFieldReadIndex();
+			if (config.isTaintAnalysisEnabled()
+					&& config.getStaticFieldTrackingMode() == StaticFieldTrackingMode.ContextFlowInsensitive)
+				staticFieldReadIndex.buildAsync();
+
+			IInfoflowCFG iCfg = buildICFG();
 
 			if (config.isTaintAnalysisEnabled())
 				runTaintAnalysis(sourcesSinks, additionalSeeds, iCfg, performanceData);
@@ -905,6 +924,26 @@ public abstract class AbstractInfoflow implements IInfoflow {
 		}
 	}
 
+	/**
+	 * Adds the given handler to the taint propagation handlers of the given
+	 * problem. If the problem already has a handler, both handlers are combined.
+	 * 
+	 * @param problem The problem to which to add the handler
+	 * @param handler The handler to add
+	 */
+	private void addTaintPropagationHandler(AbstractInfoflowProblem problem, TaintPropagationHandler handler) {
+		TaintPropagationHandler existingHandler = problem.getTaintPropagationHandler();
+		if (existingHandler == null)
+			problem.setTaintPropagationHandler(handler);
+		else {
+			// Do not modify the handler, it may have been provided by the user
+			SequentialTaintPropagationHandler seqTpg = new SequentialTaintPropagationHandler();
+			seqTpg.addHandler(existingHandler);
+			seqTpg.addHandler(handler);
+			problem.setTaintPropagationHandler(seqTpg);
+		}
+	}
+
 	/**
 	 * Since these simulations are not perfect, we should remove them afterwards
 	 */
@@ -968,11 +1007,18 @@ public abstract class AbstractInfoflow implements IInfoflow {
 
 			// Initialize our infrastructure for global taints
 			final Set<IInfoflowSolver> solvers = new HashSet<>();
-			GlobalTaintManager globalTaintManager = new GlobalTaintManager(solvers);
+			GlobalTaintManager globalTaintManager = new GlobalTaintManager(solvers, staticFieldReadIndex);
 
 			// Initialize the data flow manager
 			manager = initializeInfoflowManager(sourcesSinks, iCfg, globalTaintManager);
 
+			// Give the data flow infrastructure a chance to save memory before we abort
+			if (memoryManager instanceof IMemoryDegradationHandler)
+				memoryWatcher.addDegradationHandler((IMemoryDegradationHandler) memoryManager);
+			memoryWatcher.addDegradationHandler(manager.getAccessPathFactory());
+			if (iCfg instanceof IMemoryDegradationHandler)
+				memoryWatcher.addDegradationHandler((IMemoryDegradationHandler) iCfg);
+
 			// Create the solver peer group
 			switch (manager.getConfig().getSolverConfiguration().getDataFlowSolver()) {
 			case FineGrainedGC:
@@ -1021,6 +1067,18 @@ public abstract class AbstractInfoflow implements IInfoflow {
 
 			forwardProblem.setTaintPropagationHandler(taintPropagationHandler);
 			forwardProblem.setTaintWrapper(taintWrapper);
+
+			// Attribute the work of the solvers to the methods of the program
+			MethodProfiler profiler = null;
+			if (config.getMethodProfilingInterval() > 0) {
+				profiler = new MethodProfiler(config.getMethodProfilingInterval());
+				manager.setProfiler(profiler);
+				addTaintPropagationHandler(forwardProblem, profiler.getTaintPropagationHandler());
+				if (backwardSolver != null)
+					addTaintPropagationHandler(backwardSolver.getTabulationProblem(),
+							profiler.getAliasPropagationHandler());
+			}
+
 			if (nativeCallHandler != null)
 				forwardProblem.setNativeCallHandler(nativeCallHandler);
 
@@ -1200,6 +1258,20 @@ public abstract class AbstractInfoflow implements IInfoflow {
 					performanceData.setTaintPropagationSeconds(0);
 				long beforeTaintPropagation = System.nanoTime();
 
+				// Restore a previous solver state if requested
+				SolverCheckpointer checkpointer = createCheckpointer(forwardSolver, backwardSolver, additionalSolver,
+						oneSourceAtATime != null);
+				if (checkpointer != null) {
+					if (config.getSolverConfiguration().getResumeFromCheckpoint()) {
+						try {
+							checkpointer.resume();
+						} catch (IOException e) {
+							throw new RuntimeException("Could not resume from checkpoint", e);
+						}
+					}
+					checkpointer.start();
+				}
+
 				onBeforeTaintPropagation(forwardSolver, backwardSolver);
 				forwardSolver.solve();
 
@@ -1224,6 +1296,19 @@ public abstract class AbstractInfoflow implements IInfoflow {
 					throw new RuntimeException("An exception has occurred in an executor", executor.getException());
 				}
 
+				// If the solvers did not finish, we save their state so that the analysis can
+				// be continued later
+				if (checkpointer != null) {
+					checkpointer.stop();
+					if (((InfoflowSolver) forwardSolver).getTerminationReason() != null) {
+						try {
+							checkpointer.writeCheckpoint();
+						} catch (IOException e) {
+							logger.error("Could not write checkpoint", e);
+						}
+					}
+				}
+
 				// Update performance statistics
 				performanceData.updateMaxMemoryConsumption(getUsedMemory());
 				int taintPropagationSeconds = (int) Math.round((System.nanoTime() - beforeTaintPropagation) / 1E9);
@@ -1234,6 +1319,8 @@ public abstract class AbstractInfoflow implements IInfoflow {
 					performanceData.setAliasPropagationCount(backwardSolver.getPropagationCount());
 					performanceData.addEdgePropagationCount(backwardSolver.getPropagationCount());
 				}
+				if (profiler != null)
+					profiler.exportTo(performanceData);
 
 				// Print taint wrapper statistics
 				if (taintWrapper != null) {
@@ -1310,6 +1397,11 @@ public abstract class AbstractInfoflow implements IInfoflow {
 					timeoutWatcher.stop();
 				memoryWatcher.removeSolver((IMemoryBoundedSolver) forwardSolver);
 				forwardSolver.cleanup();
+				if (memoryManager instanceof IMemoryDegradationHandler)
+					memoryWatcher.removeDegradationHandler((IMemoryDegradationHandler) memoryManager);
+				memoryWatcher.removeDegradationHandler(manager.getAccessPathFactory());
+				if (iCfg instanceof IMemoryDegradationHandler)
+					memoryWatcher.removeDegradationHandler((IMemoryDegradationHandler) iCfg);
 				forwardSolver = null;
 				forwardProblem = null;
 
@@ -1512,6 +1604,49 @@ public abstract class AbstractInfoflow implements IInfoflow {
 		return null;
 	}
 
+	/**
+	 * Creates the object that saves the state of the data flow solvers into the
+	 * configured checkpoint file
+	 *
+	 * @param forwardSolver    The taint solver
+	 * @param backwardSolver   The alias solver, or <code>null</code> if the alias
+	 *                         analysis does not use a solver
+	 * @param additionalSolver The solver for additional flows, or
+	 *                         <code>null</code> if there is none
+	 * @param oneSourceAtATime True if the sources are processed one at a time
+	 * @return The checkpointer, or <code>null</code> if no checkpoints shall be
+	 *         written or the configuration does not support checkpoints
+	 */
+	protected SolverCheckpointer createCheckpointer(IInfoflowSolver forwardSolver, IInfoflowSolver backwardSolver,
+			IInfoflowSolver additionalSolver, boolean oneSourceAtATime) {
+		String checkpointFile = config.getSolverConfiguration().getCheckpointFile();
+		if (checkpointFile == null || checkpointFile.isEmpty())
+			return null;
+
+		if (!(forwardSolver instanceof InfoflowSolver)
+				|| (backwardSolver != null && !(backwardSolver instanceof InfoflowSolver))) {
+			logger.warn("Checkpoints are only supported for the context- and flow-sensitive solvers");
+			return null;
+		}
+		if (!(solverPeerGroup instanceof DefaultSolverPeerGroup)) {
+			logger.warn("Checkpoints are not supported for the configured solver peer group");
+			return null;
+		}
+		if (additionalSolver != null || oneSourceAtATime) {
+			logger.warn("Checkpoints are not supported with additional flows or one source at a time");
+			return null;
+		}
+		if (config.getStaticFieldTrackingMode() == StaticFieldTrackingMode.ContextFlowInsensitive
+				|| config.getAliasQueryCaching()) {
+			logger.warn("Checkpoints are not supported with global static field taints or alias query caching");
+			return null;
+		}
+
+		return new SolverCheckpointer(manager, new File(checkpointFile),
+				config.getSolverConfiguration().getCheckpointInterval(), (InfoflowSolver) forwardSolver,
+				(InfoflowSolver) backwardSolver, (DefaultSolverPeerGroup) solverPeerGroup);
+	}
+
 	/**
 	 * Creates the instance of the data flow solver
 	 *
@@ -1541,8 +1676,10 @@ public abstract class AbstractInfoflow implements IInfoflow {
 			return new soot.jimple.infoflow.solver.fastSolver.flowInsensitive.InfoflowSolver(problem, executor);
 		case GarbageCollecting:
 			logger.info("Using garbage-collecting solver");
-			IInfoflowSolver solver = new soot.jimple.infoflow.solver.gcSolver.InfoflowSolver(problem, executor,
-					solverConfig.getSleepTime());
+			soot.jimple.infoflow.solver.gcSolver.InfoflowSolver solver = new soot.jimple.infoflow.solver.gcSolver.InfoflowSolver(
+					problem, executor, solverConfig.getSleepTime());
+			if (solverConfig.getSpillDirectory() != null)
+				solver.setSpillDirectory(new File(solverConfig.getSpillDirectory()));
 			solverPeerGroup.addSolver(solver);
 			return solver;
 		case FineGrainedGC:
@@ -1822,6 +1959,16 @@ public abstract class AbstractInfoflow implements IInfoflow {
 		return false;
 	}
 
+	/**
+	 * Builds the interprocedural control flow graph on which the data flow
+	 * analysis runs
+	 * 
+	 * @return The interprocedural control flow graph
+	 */
+	protected IInfoflowCFG buildICFG() {
+		return icfgFactory.buildBiDirICFG(config.getCallgraphAlgorithm(), config.getEnableExceptionTracking());
+	}
+
 	/**
 	 * Runs all code optimizers
 	 * 
@@ -0,0 +1,231 @@
+package soot.jimple.infoflow;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import heros.solver.Pair;
+import soot.SootMethod;
+import soot.Unit;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.InfoflowConfiguration.StaticFieldTrackingMode;
+import soot.jimple.infoflow.cfg.BiDirICFGFactory;
+import soot.jimple.infoflow.solver.IInfoflowSolver;
+import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
+import soot.jimple.infoflow.sourcesSinks.manager.IReversibleSourceSinkManager;
+import soot.jimple.infoflow.sourcesSinks.manager.ISourceSinkManager;
+import soot.jimple.infoflow.sourcesSinks.manager.SinkGroupSourceSinkManager;
+
+/**
+ * Backward data flow analysis that splits the sinks into groups and runs one
+ * bounded backward search per group. All groups share the same interprocedural
+ * control flow graph. The data flow timeout applies to each group separately.
+ * The search for a group stops as soon as every sink of the group has reached
+ * all sources in its backward-reachable region of the program.
+ */
+public class GroupedBackwardsInfoflow extends BackwardsInfoflow {
+
+	/**
+	 * The default number of sink groups
+	 */
+	public static final int DEFAULT_SINK_GROUP_COUNT = 16;
+
+	private int sinkGroupCount = DEFAULT_SINK_GROUP_COUNT;
+
+	/**
+	 * Creates a new instance of the InfoFlow class for analyzing plain Java code
+	 * without any references to APKs or the Android SDK.
+	 */
+	public GroupedBackwardsInfoflow() {
+		super();
+	}
+
+	/**
+	 * Creates a new instance of the Infoflow class for analyzing Android APK files.
+	 *
+	 * @param androidPath     If forceAndroidJar is false, this is the base
+	 *                        directory of the platform files in the Android SDK. If
+	 *                        forceAndroidJar is true, this is the full path of a
+	 *                        single android.jar file.
+	 * @param forceAndroidJar True if a single platform JAR file shall be forced,
+	 *                        false if Soot shall pick the appropriate platform
+	 *                        version
+	 */
+	public GroupedBackwardsInfoflow(File androidPath, boolean forceAndroidJar) {
+		super(androidPath, forceAndroidJar);
+	}
+
+	/**
+	 * Creates a new instance of the Infoflow class for analyzing Android APK files.
+	 *
+	 * @param androidPath     If forceAndroidJar is false, this is the base
+	 *                        directory of the platform files in the Android SDK. If
+	 *                        forceAndroidJar is true, this is the full path of a
+	 *                        single android.jar file.
+	 * @param forceAndroidJar True if a single platform JAR file shall be forced,
+	 *                        false if Soot shall pick the appropriate platform
+	 *                        version
+	 * @param icfgFactory     The interprocedural CFG to be used by the
+	 *                        InfoFlowProblem
+	 */
+	public GroupedBackwardsInfoflow(File androidPath, boolean forceAndroidJar, BiDirICFGFactory icfgFactory) {
+		super(androidPath, forceAndroidJar, icfgFactory);
+	}
+
+	/**
+	 * Sets the number of groups into which the sinks shall be split. If there are
+	 * fewer sinks than groups, every sink forms a group of its own. The default is
+	 * {@link #DEFAULT_SINK_GROUP_COUNT}.
+	 *
+	 * @param sinkGroupCount The number of sink groups
+	 */
+	public void setSinkGroupCount(int sinkGroupCount) {
+		this.sinkGroupCount = Math.max(1, sinkGroupCount);
+	}
+
+	/**
+	 * Gets the number of groups into which the sinks are split
+	 *
+	 * @return The number of sink groups
+	 */
+	public int getSinkGroupCount() {
+		return sinkGroupCount;
+	}
+
+	@Override
+	protected void runAnalysis(final ISourceSinkManager sourcesSinks, final Set<String> additionalSeeds) {
+		if (!(sourcesSinks instanceof IReversibleSourceSinkManager)) {
+			super.runAnalysis(sourcesSinks, additionalSeeds);
+			return;
+		}
+
+		// We use the loop for processing one source at a time to iterate over the
+		// sink groups
+		SinkGroupSourceSinkManager groupManager = new SinkGroupSourceSinkManager(
+				(IReversibleSourceSinkManager) sourcesSinks, sinkGroupCount);
+		boolean oldOneSourceAtATime = config.getOneSourceAtATime();
+		config.setOneSourceAtATime(true);
+		try {
+			super.runAnalysis(groupManager, additionalSeeds);
+		} finally {
+			config.setOneSourceAtATime(oldOneSourceAtATime);
+		}
+	}
+
+	@Override
+	protected void onBeforeTaintPropagation(IInfoflowSolver forwardSolver, IInfoflowSolver backwardSolver) {
+		super.onBeforeTaintPropagation(forwardSolver, backwardSolver);
+		if (!(manager.getSourceSinkManager() instanceof SinkGroupSourceSinkManager))
+			return;
+
+		SinkGroupSourceSinkManager groupManager = (SinkGroupSourceSinkManager) manager.getSourceSinkManager();
+		Set<Stmt> sinks = groupManager.getCurrentGroupSinks();
+		Set<Stmt> sources = groupManager.getSourceStatements();
+
+		// Static fields connect methods that do not call each other, so we cannot
+		// restrict the sources in that case
+		if (config.getStaticFieldTrackingMode() == StaticFieldTrackingMode.ContextFlowInsensitive) {
+			logger.info("Sink group {} of {} contains {} sinks", groupManager.getCurrentGroup() + 1,
+					groupManager.getGroupCount(), sinks.size());
+			return;
+		}
+
+		// Collect the pairs of sinks and sources that we can find. In the backward
+		// analysis, the sink is the statement from which the taint originates.
+		final Set<Pair<Stmt, Stmt>> remainingPairs = ConcurrentHashMap.newKeySet();
+		final Set<Stmt> reachableSources = new HashSet<>();
+		for (Stmt sink : sinks) {
+			for (Stmt source : getReachableSources(sink, sources)) {
+				remainingPairs.add(new Pair<>(sink, source));
+				reachableSources.add(source);
+			}
+		}
+		logger.info("Sink group {} of {} contains {} sinks that can reach {} of {} sources",
+				groupManager.getCurrentGroup() + 1, groupManager.getGroupCount(), sinks.size(),
+				reachableSources.size(), sources.size());
+		if (remainingPairs.isEmpty())
+			return;
+
+		// Stop the search once we have found all pairs of sinks and sources
+		forwardSolver.getTabulationProblem().getResults().addResultAvailableHandler(abs -> {
+			remainingPairs.remove(new Pair<>(abs.getAbstraction().getSourceContext().getStmt(), abs.getSinkStmt()));
+			return !remainingPairs.isEmpty();
+		});
+	}
+
+	/**
+	 * Gets the sources that a backward search from the given sink can reach. The
+	 * search starts with the statements that precede the sink in its method. When
+	 * it reaches the start of a method, it can return into all callers of the
+	 * method, where it continues with the statements that precede the call site.
+	 * At every call site that it passes, it can descend into the complete callee
+	 * and its transitive callees.
+	 *
+	 * @param sink    The sink statement from which to start
+	 * @param sources The candidate source statements
+	 * @return The source statements that are contained in the backward-reachable
+	 *         region of the program
+	 */
+	protected Set<Stmt> getReachableSources(Stmt sink, Set<Stmt> sources) {
+		IInfoflowCFG icfg = manager.getICFG();
+
+		// Collect the statements that precede the sink, or the call sites in the
+		// transitive callers
+		Set<Unit> precedingUnits = new HashSet<>();
+		Set<Unit> returnSites = new HashSet<>();
+		Set<SootMethod> callees = new HashSet<>();
+		List<Unit> unitWorkList = new ArrayList<>();
+		List<SootMethod> calleeWorkList = new ArrayList<>();
+		unitWorkList.add(sink);
+		while (!unitWorkList.isEmpty()) {
+			Unit u = unitWorkList.remove(unitWorkList.size() - 1);
+			List<Unit> preds = icfg.getPredsOf(u);
+			for (Unit pred : preds) {
+				if (precedingUnits.add(pred)) {
+					unitWorkList.add(pred);
+
+					// We can descend into the callees
+					if (icfg.isCallStmt(pred)) {
+						for (SootMethod callee : icfg.getCalleesOfCallAt(pred))
+							if (callees.add(callee))
+								calleeWorkList.add(callee);
+					}
+				}
+			}
+
+			// At the start of the method, we can return into the callers
+			if (preds.isEmpty() || icfg.isStartPoint(u)) {
+				SootMethod sm = icfg.getMethodOf(u);
+				if (sm != null) {
+					for (Unit callSite : icfg.getCallersOf(sm))
+						if (returnSites.add(callSite))
+							unitWorkList.add(callSite);
+				}
+			}
+		}
+
+		// Add the transitive callees
+		while (!calleeWorkList.isEmpty()) {
+			SootMethod sm = calleeWorkList.remove(calleeWorkList.size() - 1);
+			if (!sm.hasActiveBody())
+				continue;
+			for (Unit callSite : icfg.getCallsFromWithin(sm)) {
+				for (SootMethod callee : icfg.getCalleesOfCallAt(callSite)) {
+					if (callees.add(callee))
+						calleeWorkList.add(callee);
+				}
+			}
+		}
+
+		Set<Stmt> reachableSources = new HashSet<>();
+		for (Stmt source : sources) {
+			if (precedingUnits.contains(source) || callees.contains(icfg.getMethodOf(source)))
+				reachableSources.add(source);
+		}
+		return reachableSources;
+	}
+
+}
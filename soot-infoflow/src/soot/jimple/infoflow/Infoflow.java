@@ -14,6 +14,7 @@ import java.io.File;
 import soot.Unit;
 import soot.jimple.Stmt;
 import soot.jimple.infoflow.InfoflowConfiguration.SolverConfiguration;
+import soot.jimple.infoflow.aliasing.AliasQueryCache;
 import soot.jimple.infoflow.aliasing.FlowSensitiveAliasStrategy;
 import soot.jimple.infoflow.aliasing.IAliasingStrategy;
 import soot.jimple.infoflow.aliasing.LazyAliasingStrategy;
@@ -125,7 +126,12 @@ public class Infoflow extends AbstractInfoflow {
 
 			memoryWatcher.addSolver((IMemoryBoundedSolver) backSolver);
 
-			aliasingStrategy = new FlowSensitiveAliasStrategy(manager, backSolver);
+			AliasQueryCache aliasQueryCache = null;
+			if (config.getAliasQueryCaching()) {
+				aliasQueryCache = new AliasQueryCache(manager, backSolver);
+				backProblem.setAliasQueryCache(aliasQueryCache);
+			}
+			aliasingStrategy = new FlowSensitiveAliasStrategy(manager, backSolver, aliasQueryCache);
 			break;
 		case PtsBased:
 			backProblem = null;
@@ -1024,6 +1024,11 @@ public class InfoflowConfiguration {
 		private int maxAbstractionPathLength = 100;
 		private int sleepTime = 1;
 		private boolean followReturnsPastSources = true;
+		private String checkpointFile = null;
+		private int checkpointInterval = 0;
+		private boolean resumeFromCheckpoint = false;
+		private String spillDirectory = null;
+		private boolean memoizeNormalFlowFunctions = false;
 
 		/**
 		 * Copies the settings of the given configuration into this configuration object
@@ -1036,6 +1041,11 @@ public class InfoflowConfiguration {
 			this.maxJoinPointAbstractions = solverConfig.maxJoinPointAbstractions;
 			this.maxCalleesPerCallSite = solverConfig.maxCalleesPerCallSite;
 			this.maxAbstractionPathLength = solverConfig.maxAbstractionPathLength;
+			this.checkpointFile = solverConfig.checkpointFile;
+			this.checkpointInterval = solverConfig.checkpointInterval;
+			this.resumeFromCheckpoint = solverConfig.resumeFromCheckpoint;
+			this.spillDirectory = solverConfig.spillDirectory;
+			this.memoizeNormalFlowFunctions = solverConfig.memoizeNormalFlowFunctions;
 		}
 
 		/**
@@ -1186,6 +1196,11 @@ public class InfoflowConfiguration {
 			result = prime * result + maxJoinPointAbstractions;
 			result = prime * result + maxAbstractionPathLength;
 			result = prime * result + (followReturnsPastSources ? 31 : 17);
+			result = prime * result + ((checkpointFile == null) ? 0 : checkpointFile.hashCode());
+			result = prime * result + checkpointInterval;
+			result = prime * result + (resumeFromCheckpoint ? 1231 : 1237);
+			result = prime * result + ((spillDirectory == null) ? 0 : spillDirectory.hashCode());
+			result = prime * result + (memoizeNormalFlowFunctions ? 1231 : 1237);
 			return result;
 		}
 
@@ -1211,6 +1226,22 @@ public class InfoflowConfiguration {
 				return false;
 			if (followReturnsPastSources != other.followReturnsPastSources)
 				return false;
+			if (checkpointFile == null) {
+				if (other.checkpointFile != null)
+					return false;
+			} else if (!checkpointFile.equals(other.checkpointFile))
+				return false;
+			if (checkpointInterval != other.checkpointInterval)
+				return false;
+			if (resumeFromCheckpoint != other.resumeFromCheckpoint)
+				return false;
+			if (spillDirectory == null) {
+				if (other.spillDirectory != null)
+					return false;
+			} else if (!spillDirectory.equals(other.spillDirectory))
+				return false;
+			if (memoizeNormalFlowFunctions != other.memoizeNormalFlowFunctions)
+				return false;
 			return true;
 		}
 
@@ -1232,6 +1263,129 @@ public class InfoflowConfiguration {
 			this.followReturnsPastSources = followreturns;
 		}
 
+		/**
+		 * Gets the file into which the state of the data flow solvers is saved, so
+		 * that an interrupted analysis can be continued later
+		 *
+		 * @return The checkpoint file, or <code>null</code> if no checkpoints shall be
+		 *         written
+		 */
+		public String getCheckpointFile() {
+			return checkpointFile;
+		}
+
+		/**
+		 * Sets the file into which the state of the data flow solvers is saved, so
+		 * that an interrupted analysis can be continued later. Checkpoints are only
+		 * supported for the context- and flow-sensitive solver.
+		 *
+		 * @param checkpointFile The checkpoint file, or <code>null</code> to not
+		 *                       write any checkpoints
+		 */
+		public void setCheckpointFile(String checkpointFile) {
+			this.checkpointFile = checkpointFile;
+		}
+
+		/**
+		 * Gets the interval in seconds in which checkpoints are written during the
+		 * taint propagation
+		 *
+		 * @return The checkpoint interval in seconds. If this value is zero, a
+		 *         checkpoint is only written when the solvers are terminated before
+		 *         they have finished, e.g., due to a timeout.
+		 */
+		public int getCheckpointInterval() {
+			return checkpointInterval;
+		}
+
+		/**
+		 * Sets the interval in seconds in which checkpoints are written during the
+		 * taint propagation
+		 *
+		 * @param checkpointInterval The checkpoint interval in seconds. If this value
+		 *                           is zero, a checkpoint is only written when the
+		 *                           solvers are terminated before they have
+		 *                           finished, e.g., due to a timeout.
+		 */
+		public void setCheckpointInterval(int checkpointInterval) {
+			this.checkpointInterval = checkpointInterval;
+		}
+
+		/**
+		 * Gets whether the data flow analysis shall continue from the state saved in
+		 * the checkpoint file
+		 *
+		 * @return True to continue from the checkpoint file, false to start from the
+		 *         initial seeds
+		 */
+		public boolean getResumeFromCheckpoint() {
+			return resumeFromCheckpoint;
+		}
+
+		/**
+		 * Sets whether the data flow analysis shall continue from the state saved in
+		 * the checkpoint file. If the checkpoint file does not exist, the analysis
+		 * starts from the initial seeds.
+		 *
+		 * @param resumeFromCheckpoint True to continue from the checkpoint file, false
+		 *                             to start from the initial seeds
+		 */
+		public void setResumeFromCheckpoint(boolean resumeFromCheckpoint) {
+			this.resumeFromCheckpoint = resumeFromCheckpoint;
+		}
+
+		/**
+		 * Gets the directory into which the garbage-collecting solver moves the path
+		 * edges of methods that are no longer processed, but that cannot be
+		 * collected yet
+		 *
+		 * @return The spill directory, or <code>null</code> if all path edges shall
+		 *         be kept on the heap
+		 */
+		public String getSpillDirectory() {
+			return spillDirectory;
+		}
+
+		/**
+		 * Sets the directory into which the garbage-collecting solver moves the path
+		 * edges of methods that are no longer processed, but that cannot be
+		 * collected yet. Edges are only moved when memory runs low, and are loaded
+		 * again when new edges arrive for the respective method.
+		 *
+		 * @param spillDirectory The spill directory, or <code>null</code> to keep all
+		 *                       path edges on the heap
+		 */
+		public void setSpillDirectory(String spillDirectory) {
+			this.spillDirectory = spillDirectory;
+		}
+
+		/**
+		 * Gets whether the results of normal flow functions shall be reused for
+		 * abstractions that only differ in their propagation path
+		 *
+		 * @return True if the results of normal flow functions shall be memoized,
+		 *         otherwise false
+		 */
+		public boolean getMemoizeNormalFlowFunctions() {
+			return memoizeNormalFlowFunctions;
+		}
+
+		/**
+		 * Sets whether the results of normal flow functions shall be reused for
+		 * abstractions that only differ in their propagation path. If this option is
+		 * enabled, the forward taint analysis records the results for every
+		 * abstraction shape at a statement, and attaches copies of them to the paths
+		 * of later abstractions of the same shape. Flow functions that report leaks,
+		 * start alias searches, or create global taints are always evaluated anew.
+		 *
+		 * @param memoizeNormalFlowFunctions True if the results of normal flow
+		 *                                   functions shall be memoized, otherwise
+		 *                                   false
+		 */
+		public void setMemoizeNormalFlowFunctions(boolean memoizeNormalFlowFunctions) {
+			this.memoizeNormalFlowFunctions = memoizeNormalFlowFunctions;
+		}
+
 	}
 
 	/**
@@ -1246,6 +1400,7 @@ public class InfoflowConfiguration {
 		private boolean useRecursiveAccessPaths = true;
 		private boolean useThisChainReduction = true;
 		private boolean useSameFieldReduction = true;
+		private boolean numberAccessPaths = true;
 
 		/**
 		 * Merges the given configuration options into this configuration object
@@ -1257,6 +1412,7 @@ public class InfoflowConfiguration {
 			this.useRecursiveAccessPaths = config.useRecursiveAccessPaths;
 			this.useThisChainReduction = config.useThisChainReduction;
 			this.useSameFieldReduction = config.useSameFieldReduction;
+			this.numberAccessPaths = config.numberAccessPaths;
 		}
 
 		/**
@@ -1347,6 +1503,30 @@ public class InfoflowConfiguration {
 			this.useSameFieldReduction = useSameFieldReduction;
 		}
 
+		/**
+		 * Gets whether access paths shall be numbered when they are created, so that
+		 * equal access paths can be compared by their numbers
+		 *
+		 * @return True if access paths shall be numbered, otherwise false
+		 */
+		public boolean getNumberAccessPaths() {
+			return numberAccessPaths;
+		}
+
+		/**
+		 * Sets whether access paths shall be numbered when they are created, so that
+		 * equal access paths can be compared by their numbers. Numbering costs one
+		 * lookup in a weak table per created access path, one table entry per distinct
+		 * access path that is alive, and one reference per access path. Without
+		 * numbering, access paths are compared field by field.
+		 *
+		 * @param numberAccessPaths True if access paths shall be numbered, otherwise
+		 *                          false
+		 */
+		public void setNumberAccessPaths(boolean numberAccessPaths) {
+			this.numberAccessPaths = numberAccessPaths;
+		}
+
 		@Override
 		public int hashCode() {
 			final int prime = 31;
@@ -1355,6 +1535,7 @@ public class InfoflowConfiguration {
 			result = prime * result + (useRecursiveAccessPaths ? 1231 : 1237);
 			result = prime * result + (useSameFieldReduction ? 1231 : 1237);
 			result = prime * result + (useThisChainReduction ? 1231 : 1237);
+			result = prime * result + (numberAccessPaths ? 1231 : 1237);
 			return result;
 		}
 
@@ -1375,6 +1556,8 @@ public class InfoflowConfiguration {
 				return false;
 			if (useThisChainReduction != other.useThisChainReduction)
 				return false;
+			if (numberAccessPaths != other.numberAccessPaths)
+				return false;
 			return true;
 		}
 
@@ -1389,6 +1572,7 @@ public class InfoflowConfiguration {
 	private boolean enableArraySizeTainting = true;
 	private boolean enableInstanceOfTainting = true;
 	private boolean flowSensitiveAliasing = true;
+	private boolean aliasQueryCaching = false;
 	private boolean enableTypeChecking = true;
 	private boolean ignoreFlowsInSystemPackages = false;
 	private boolean excludeSootLibraryClasses = false;
@@ -1419,6 +1603,8 @@ public class InfoflowConfiguration {
 	private boolean incrementalResultReporting = false;
 	private long dataFlowTimeout = 0;
 	private double memoryThreshold = 0.9d;
+	private double memoryDegradationThreshold = 0.0d;
+	private int methodProfilingInterval = 0;
 	private boolean oneSourceAtATime = false;
 	private int maxAliasingBases = Integer.MAX_VALUE;
 	private boolean additionalFlowsEnabled = false;
@@ -1440,6 +1626,7 @@ public class InfoflowConfiguration {
 		this.enableArraySizeTainting = config.enableArraySizeTainting;
 		this.enableInstanceOfTainting = config.enableInstanceOfTainting;
 		this.flowSensitiveAliasing = config.flowSensitiveAliasing;
+		this.aliasQueryCaching = config.aliasQueryCaching;
 		this.enableTypeChecking = config.enableTypeChecking;
 		this.ignoreFlowsInSystemPackages = config.ignoreFlowsInSystemPackages;
 		this.excludeSootLibraryClasses = config.excludeSootLibraryClasses;
@@ -1472,6 +1659,8 @@ public class InfoflowConfiguration {
 		this.incrementalResultReporting = config.incrementalResultReporting;
 		this.dataFlowTimeout = config.dataFlowTimeout;
 		this.memoryThreshold = config.memoryThreshold;
+		this.memoryDegradationThreshold = config.memoryDegradationThreshold;
+		this.methodProfilingInterval = config.methodProfilingInterval;
 		this.oneSourceAtATime = config.oneSourceAtATime;
 	}
 
@@ -1685,6 +1874,32 @@ public class InfoflowConfiguration {
 		return flowSensitiveAliasing;
 	}
 
+	/**
+	 * Sets whether the flow-sensitive alias analysis shall reuse the results of
+	 * earlier alias searches. If this option is enabled, an alias query for a
+	 * statement and an access path that was already answered in another calling
+	 * context replays the aliases found in the current method instead of starting
+	 * a new backward search. Queries whose search leaves the current method are
+	 * always answered by the backward solver.
+	 *
+	 * @param aliasQueryCaching True if the results of alias searches shall be
+	 *                          reused, otherwise false
+	 */
+	public void setAliasQueryCaching(boolean aliasQueryCaching) {
+		this.aliasQueryCaching = aliasQueryCaching;
+	}
+
+	/**
+	 * Gets whether the flow-sensitive alias analysis shall reuse the results of
+	 * earlier alias searches
+	 *
+	 * @return True if the results of alias searches shall be reused, otherwise
+	 *         false
+	 */
+	public boolean getAliasQueryCaching() {
+		return aliasQueryCaching;
+	}
+
 	/**
 	 * Sets whether the solver shall track taints of thrown exception objects
 	 *
@@ -2183,6 +2398,61 @@ public class InfoflowConfiguration {
 		this.memoryThreshold = memoryThreshold;
 	}
 
+	/**
+	 * Gets the threshold at which the data flow analysis starts to degrade its
+	 * precision to save memory. If the JVM consumes more than this fraction of the
+	 * heap, path data is erased, the precision for new facts is reduced, garbage
+	 * collection is forced, and caches are dropped, in this order, before the
+	 * analysis is aborted at the memory threshold.
+	 *
+	 * @return The threshold at which to start degrading the analysis, or zero if
+	 *         the analysis shall not be degraded
+	 */
+	public double getMemoryDegradationThreshold() {
+		return memoryDegradationThreshold;
+	}
+
+	/**
+	 * Sets the threshold at which the data flow analysis starts to degrade its
+	 * precision to save memory. If the JVM consumes more than this fraction of the
+	 * heap, path data is erased, the precision for new facts is reduced, garbage
+	 * collection is forced, and caches are dropped, in this order, before the
+	 * analysis is aborted at the memory threshold.
+	 *
+	 * @param memoryDegradationThreshold The threshold at which to start degrading
+	 *                                   the analysis, or zero if the analysis
+	 *                                   shall not be degraded
+	 */
+	public void setMemoryDegradationThreshold(double memoryDegradationThreshold) {
+		this.memoryDegradationThreshold = memoryDegradationThreshold;
+	}
+
+	/**
+	 * Gets the sampling interval of the method profiler. If profiling is enabled,
+	 * the edges, alias queries, and taint wrapper calls are attributed to the
+	 * methods of the program and recorded in the performance data. The time of
+	 * every n-th flow function is measured.
+	 *
+	 * @return The sampling interval of the method profiler, or zero if profiling
+	 *         is disabled
+	 */
+	public int getMethodProfilingInterval() {
+		return methodProfilingInterval;
+	}
+
+	/**
+	 * Sets the sampling interval of the method profiler. If profiling is enabled,
+	 * the edges, alias queries, and taint wrapper calls are attributed to the
+	 * methods of the program and recorded in the performance data. The time of
+	 * every n-th flow function is measured.
+	 *
+	 * @param methodProfilingInterval The sampling interval of the method profiler,
+	 *                                or zero to disable profiling
+	 */
+	public void setMethodProfilingInterval(int methodProfilingInterval) {
+		this.methodProfilingInterval = methodProfilingInterval;
+	}
+
 	/**
 	 * Gets whether one source shall be analyzed at a time instead of all sources
 	 * together
@@ -2303,12 +2573,13 @@ public class InfoflowConfiguration {
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(accessPathConfiguration, additionalFlowsEnabled, aliasingAlgorithm, callgraphAlgorithm,
-				codeEliminationMode, dataFlowDirection, dataFlowTimeout, enableArraySizeTainting, enableArrays,
-				enableExceptions, enableInstanceOfTainting, enableLineNumbers, enableOriginalNames, enableReflection,
-				enableTypeChecking, excludeSootLibraryClasses, filterConditionalSinks, flowSensitiveAliasing,
-				ignoreFlowsInSystemPackages, implicitFlowMode, incrementalResultReporting, inspectSinks, inspectSources,
-				logSourcesAndSinks, maxAliasingBases, maxThreadNum, memoryThreshold, oneSourceAtATime,
+		return Objects.hash(accessPathConfiguration, additionalFlowsEnabled, aliasQueryCaching, aliasingAlgorithm,
+				callgraphAlgorithm, codeEliminationMode, dataFlowDirection, dataFlowTimeout, enableArraySizeTainting,
+				enableArrays, enableExceptions, enableInstanceOfTainting, enableLineNumbers, enableOriginalNames,
+				enableReflection, enableTypeChecking, excludeSootLibraryClasses, filterConditionalSinks,
+				flowSensitiveAliasing, ignoreFlowsInSystemPackages, implicitFlowMode, incrementalResultReporting,
+				inspectSinks, inspectSources, logSourcesAndSinks, maxAliasingBases, maxThreadNum,
+				memoryDegradationThreshold, memoryThreshold, methodProfilingInterval, oneSourceAtATime,
 				outputConfiguration, patchInvokeDynamicInstructions, pathAgnosticResults, pathConfiguration,
 				preciseCollectionTracking, solverConfiguration, sootIntegrationMode, sourceSinkConfig,
 				staticFieldTrackingMode, stopAfterFirstKFlows, taintAnalysisEnabled, writeOutputFiles);
@@ -2324,7 +2595,7 @@ public class InfoflowConfiguration {
 			return false;
 		InfoflowConfiguration other = (InfoflowConfiguration) obj;
 		return Objects.equals(accessPathConfiguration, other.accessPathConfiguration)
-				&& additionalFlowsEnabled == other.additionalFlowsEnabled
+				&& additionalFlowsEnabled == other.additionalFlowsEnabled && aliasQueryCaching == other.aliasQueryCaching
 				&& aliasingAlgorithm == other.aliasingAlgorithm && callgraphAlgorithm == other.callgraphAlgorithm
 				&& codeEliminationMode == other.codeEliminationMode && dataFlowDirection == other.dataFlowDirection
 				&& dataFlowTimeout == other.dataFlowTimeout && enableArraySizeTainting == other.enableArraySizeTainting
@@ -2340,6 +2611,9 @@ public class InfoflowConfiguration {
 				&& incrementalResultReporting == other.incrementalResultReporting && inspectSinks == other.inspectSinks
 				&& inspectSources == other.inspectSources && logSourcesAndSinks == other.logSourcesAndSinks
 				&& maxAliasingBases == other.maxAliasingBases && maxThreadNum == other.maxThreadNum
+				&& Double.doubleToLongBits(memoryDegradationThreshold) == Double
+						.doubleToLongBits(other.memoryDegradationThreshold)
+				&& methodProfilingInterval == other.methodProfilingInterval
 				&& Double.doubleToLongBits(memoryThreshold) == Double.doubleToLongBits(other.memoryThreshold)
 				&& oneSourceAtATime == other.oneSourceAtATime
 				&& Objects.equals(outputConfiguration, other.outputConfiguration)
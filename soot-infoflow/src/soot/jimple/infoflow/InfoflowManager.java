@@ -5,6 +5,7 @@ import soot.Scene;
 import soot.jimple.infoflow.aliasing.Aliasing;
 import soot.jimple.infoflow.data.AccessPathFactory;
 import soot.jimple.infoflow.globalTaints.GlobalTaintManager;
+import soot.jimple.infoflow.handlers.MethodProfiler;
 import soot.jimple.infoflow.memory.IMemoryBoundedSolver;
 import soot.jimple.infoflow.river.IUsageContextProvider;
 import soot.jimple.infoflow.solver.IInfoflowSolver;
@@ -40,6 +41,7 @@ public class InfoflowManager {
 	public InfoflowManager additionalManager;
 
 	private IUsageContextProvider usageContextProvider;
+	private MethodProfiler profiler;
 
 	public InfoflowManager(InfoflowConfiguration config) {
 		this.config = config;
@@ -269,6 +271,24 @@ public class InfoflowManager {
 		return this.usageContextProvider;
 	}
 
+	/**
+	 * Sets the profiler that records the work of the data flow analysis per method
+	 * 
+	 * @param profiler The profiler, or null to disable profiling
+	 */
+	public void setProfiler(MethodProfiler profiler) {
+		this.profiler = profiler;
+	}
+
+	/**
+	 * Gets the profiler that records the work of the data flow analysis per method
+	 * 
+	 * @return The profiler, or null if profiling is disabled
+	 */
+	public MethodProfiler getProfiler() {
+		return this.profiler;
+	}
+
 	/**
 	 * Returns the virtual edge summaries
 	 * @return the virtual edge summaries
@@ -0,0 +1,200 @@
+package soot.jimple.infoflow;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import soot.Scene;
+import soot.SootMethod;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.InfoflowConfiguration.CodeEliminationMode;
+import soot.jimple.infoflow.InfoflowConfiguration.SootIntegrationMode;
+import soot.jimple.infoflow.cfg.BiDirICFGFactory;
+import soot.jimple.infoflow.results.InfoflowResults;
+import soot.jimple.infoflow.results.ResultSinkInfo;
+import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
+import soot.jimple.infoflow.sourcesSinks.manager.IReversibleSourceSinkManager;
+import soot.jimple.infoflow.sourcesSinks.manager.SelectedSinksSourceSinkManager;
+import soot.jimple.infoflow.sourcesSinks.manager.SinkGroupSourceSinkManager;
+import soot.jimple.toolkits.callgraph.CallGraph;
+
+/**
+ * Answers on demand whether given sink statements can receive tainted data.
+ * Every query runs a backward analysis from the given sinks only. The analysis
+ * of a sink stops at the first source that is found, and the sinks of one query
+ * are analyzed one after another on the same interprocedural control flow
+ * graph.
+ *
+ * Queries run on an existing Soot instance. The caller must have loaded the
+ * program, set the entry points and constructed the callgraph before, e.g., by
+ * calling <code>SetupApplication.constructCallgraph()</code>. Neither the code
+ * nor the callgraph is modified by a query, so the sink statements remain valid
+ * across queries.
+ *
+ * The interprocedural control flow graph is built by the first query and reused
+ * by all later queries as long as the callgraph in the Scene stays the same.
+ * Likewise, a source/sink manager is only initialized by the first query that
+ * uses it. If the caller changes the callgraph, the next query rebuilds both.
+ */
+public class SinkReachabilityInfoflow extends BackwardsInfoflow {
+
+	private Set<Stmt> querySinks = null;
+
+	private CallGraph queryCallgraph = null;
+	private IInfoflowCFG queryICFG = null;
+	private IReversibleSourceSinkManager initializedSourcesSinks = null;
+
+	/**
+	 * Creates a new instance of the InfoFlow class for analyzing plain Java code
+	 * without any references to APKs or the Android SDK.
+	 */
+	public SinkReachabilityInfoflow() {
+		super();
+	}
+
+	/**
+	 * Creates a new instance of the Infoflow class for analyzing Android APK files.
+	 *
+	 * @param androidPath     If forceAndroidJar is false, this is the base
+	 *                        directory of the platform files in the Android SDK. If
+	 *                        forceAndroidJar is true, this is the full path of a
+	 *                        single android.jar file.
+	 * @param forceAndroidJar True if a single platform JAR file shall be forced,
+	 *                        false if Soot shall pick the appropriate platform
+	 *                        version
+	 * @param icfgFactory     The interprocedural CFG to be used by the
+	 *                        InfoFlowProblem
+	 */
+	public SinkReachabilityInfoflow(File androidPath, boolean forceAndroidJar, BiDirICFGFactory icfgFactory) {
+		super(androidPath, forceAndroidJar, icfgFactory);
+	}
+
+	/**
+	 * Checks whether the given sink statement can receive tainted data from any
+	 * source
+	 *
+	 * @param sourcesSinks The source/sink manager that defines the sources and
+	 *                     sinks
+	 * @param sink         The sink statement to check
+	 * @return True if a data flow from a source to the given sink was found,
+	 *         otherwise false
+	 */
+	public boolean isSinkReachable(IReversibleSourceSinkManager sourcesSinks, Stmt sink) {
+		InfoflowResults res = querySinks(sourcesSinks, Collections.singleton(sink));
+		return res != null && !res.isEmpty();
+	}
+
+	/**
+	 * Gets the sink statements from the given collection that can receive tainted
+	 * data from any source
+	 *
+	 * @param sourcesSinks The source/sink manager that defines the sources and
+	 *                     sinks
+	 * @param sinks        The sink statements to check
+	 * @return The sink statements for which a data flow from a source was found
+	 */
+	public Set<Stmt> getReachableSinks(IReversibleSourceSinkManager sourcesSinks, Collection<Stmt> sinks) {
+		InfoflowResults res = querySinks(sourcesSinks, sinks);
+		Set<Stmt> reachableSinks = new HashSet<>();
+		if (res != null && !res.isEmpty()) {
+			for (ResultSinkInfo sinkInfo : res.getResults().keySet())
+				reachableSinks.add(sinkInfo.getStmt());
+		}
+		return reachableSinks;
+	}
+
+	/**
+	 * Runs a backward analysis from the given sink statements. For every sink, the
+	 * analysis stops at the first data flow that it finds.
+	 *
+	 * @param sourcesSinks The source/sink manager that defines the sources and
+	 *                     sinks. Statements that are not sinks according to this
+	 *                     manager are ignored.
+	 * @param sinks        The sink statements from which to start
+	 * @return The data flows that were found, at most one per sink
+	 */
+	public InfoflowResults querySinks(IReversibleSourceSinkManager sourcesSinks, Collection<Stmt> sinks) {
+		if (!Scene.v().hasCallGraph())
+			throw new RuntimeException("Sink queries require an existing callgraph");
+		if (sinks == null || sinks.isEmpty())
+			return createResultsObject();
+
+		// Everything we have derived from an older callgraph is stale
+		CallGraph callgraph = Scene.v().getCallGraph();
+		if (callgraph != queryCallgraph) {
+			queryCallgraph = callgraph;
+			queryICFG = null;
+			initializedSourcesSinks = null;
+		}
+
+		// The source/sink manager only needs to be initialized once per callgraph
+		final boolean initializeSourcesSinks = sourcesSinks != initializedSourcesSinks;
+
+		// Every sink forms a group of its own, so that we get one witness per sink
+		querySinks = new LinkedHashSet<>(sinks);
+		SinkGroupSourceSinkManager groupManager = new SinkGroupSourceSinkManager(
+				new SelectedSinksSourceSinkManager(sourcesSinks, querySinks) {
+
+					@Override
+					public void initialize() {
+						if (initializeSourcesSinks)
+							super.initialize();
+					}
+
+				}, querySinks.size());
+
+		final boolean oldOneSourceAtATime = config.getOneSourceAtATime();
+		final int oldStopAfterFirstKFlows = config.getStopAfterFirstKFlows();
+		final CodeEliminationMode oldCodeEliminationMode = config.getCodeEliminationMode();
+		final SootIntegrationMode oldSootIntegrationMode = config.getSootIntegrationMode();
+		final boolean oldEnableReflection = config.getEnableReflection();
+		try {
+			config.setOneSourceAtATime(true);
+			config.setStopAfterFirstKFlows(1);
+			config.setCodeEliminationMode(CodeEliminationMode.NoCodeElimination);
+			config.setSootIntegrationMode(SootIntegrationMode.UseExistingCallgraph);
+
+			// Reflection handling would rebuild the callgraph of the caller
+			config.setEnableReflection(false);
+			runAnalysis(groupManager);
+			initializedSourcesSinks = sourcesSinks;
+			return results;
+		} finally {
+			config.setOneSourceAtATime(oldOneSourceAtATime);
+			config.setStopAfterFirstKFlows(oldStopAfterFirstKFlows);
+			config.setCodeEliminationMode(oldCodeEliminationMode);
+			config.setSootIntegrationMode(oldSootIntegrationMode);
+			config.setEnableReflection(oldEnableReflection);
+			querySinks = null;
+		}
+	}
+
+	@Override
+	protected IInfoflowCFG buildICFG() {
+		if (querySinks == null)
+			return super.buildICFG();
+		if (queryICFG == null)
+			queryICFG = super.buildICFG();
+		return queryICFG;
+	}
+
+	@Override
+	protected Collection<SootMethod> getMethodsForSeeds(IInfoflowCFG icfg) {
+		if (querySinks == null)
+			return super.getMethodsForSeeds(icfg);
+
+		// Only the methods that contain the queried sinks can contain seeds
+		Set<SootMethod> seedMethods = new LinkedHashSet<>();
+		for (Stmt sink : querySinks) {
+			SootMethod sm = icfg.getMethodOf(sink);
+			if (sm != null)
+				seedMethods.add(sm);
+		}
+		logger.info("Running sink query on {} sinks in {} methods", querySinks.size(), seedMethods.size());
+		return seedMethods;
+	}
+
+}
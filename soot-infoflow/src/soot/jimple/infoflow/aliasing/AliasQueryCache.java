@@ -0,0 +1,305 @@
+package soot.jimple.infoflow.aliasing;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import heros.solver.Pair;
+import heros.solver.PathEdge;
+import soot.Unit;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.InfoflowManager;
+import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.solver.IInfoflowSolver;
+
+/**
+ * Cache for the flow-sensitive alias analysis that reuses the answers of
+ * backward searches. An alias query is identified by the statement at which a
+ * new taint was created and the inactive abstraction with which the backward
+ * search starts. The first query of this shape is answered by the backward
+ * solver. All aliases that this search injects into the forward solver are
+ * recorded. Later queries of the same shape in other calling contexts receive
+ * the recorded aliases, and all aliases that are found afterwards. The
+ * derivation of every alias from the start of the search is copied onto the
+ * abstraction of the later query, so that the reconstructed paths contain the
+ * same statements as if the backward solver had answered the query.
+ *
+ * Only aliases that are found in the method of the query are independent of the
+ * calling context. As soon as a search descends into a callee or returns to a
+ * caller, the query is no longer cached and all queries that have been
+ * answered from the cache are handed to the backward solver. The same happens
+ * if two searches in the same context are started at the same statement, since
+ * their aliases can then no longer be told apart, and if the derivation of an
+ * alias does not lead back to the start of the search, e.g., because path data
+ * has been erased.
+ */
+public class AliasQueryCache {
+
+	/**
+	 * Marker for a context and an activation unit under which more than one search
+	 * runs
+	 */
+	private final AliasQuery conflictMarker = new AliasQuery(null, null, null);
+
+	private final InfoflowManager manager;
+	private final IInfoflowSolver bSolver;
+
+	private final ConcurrentMap<Pair<Unit, Abstraction>, AliasQuery> queries = new ConcurrentHashMap<>();
+	private final ConcurrentMap<Pair<Abstraction, Unit>, AliasQuery> searches = new ConcurrentHashMap<>();
+
+	private final AtomicLong reusedQueries = new AtomicLong();
+
+	/**
+	 * A single alias query together with the answers found so far and the
+	 * contexts that have been answered from the cache
+	 */
+	private class AliasQuery {
+
+		private final Stmt src;
+		private final Abstraction ownerContext;
+		private final Abstraction root;
+
+		private List<Pair<Unit, Abstraction>> answers = new ArrayList<>();
+		private List<Pair<Abstraction, Abstraction>> subscribers = new ArrayList<>();
+
+		public AliasQuery(Stmt src, Abstraction ownerContext, Abstraction root) {
+			this.src = src;
+			this.ownerContext = ownerContext;
+			this.root = root;
+			if (src == null) {
+				answers = null;
+				subscribers = null;
+			}
+		}
+
+		/**
+		 * Answers the query in the given context from the cache
+		 *
+		 * @param d1    The context in which the query is made
+		 * @param bwAbs The abstraction with which the search would start
+		 * @return True if the query was answered from the cache, false if it needs to
+		 *         be handed to the backward solver
+		 */
+		public boolean subscribe(Abstraction d1, Abstraction bwAbs) {
+			List<Pair<Unit, Abstraction>> replay;
+			synchronized (this) {
+				if (subscribers == null)
+					return false;
+				subscribers.add(new Pair<>(d1, bwAbs));
+				replay = new ArrayList<>(answers);
+			}
+			for (Pair<Unit, Abstraction> answer : replay) {
+				if (!injectAlias(root, d1, bwAbs, answer.getO1(), answer.getO2())) {
+					invalidate();
+					break;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Records an alias that the search for this query has found, and passes it on
+		 * to all contexts that have been answered from the cache
+		 *
+		 * @param u     The statement at which the alias is injected
+		 * @param alias The alias
+		 */
+		public void addAnswer(Unit u, Abstraction alias) {
+			List<Pair<Abstraction, Abstraction>> receivers;
+			synchronized (this) {
+				if (answers == null)
+					return;
+				answers.add(new Pair<>(u, alias));
+				if (subscribers.isEmpty())
+					return;
+				receivers = new ArrayList<>(subscribers);
+			}
+			for (Pair<Abstraction, Abstraction> receiver : receivers) {
+				if (!injectAlias(root, receiver.getO1(), receiver.getO2(), u, alias)) {
+					invalidate();
+					break;
+				}
+			}
+		}
+
+		/**
+		 * Stops caching this query, and hands all contexts that have been answered
+		 * from the cache to the backward solver
+		 */
+		public void invalidate() {
+			List<Pair<Abstraction, Abstraction>> receivers;
+			synchronized (this) {
+				if (subscribers == null)
+					return;
+				receivers = subscribers;
+				subscribers = null;
+				answers = null;
+			}
+			for (Pair<Abstraction, Abstraction> receiver : receivers)
+				startSearch(receiver.getO1(), src, receiver.getO2());
+		}
+
+	}
+
+	public AliasQueryCache(InfoflowManager manager, IInfoflowSolver backwardsSolver) {
+		this.manager = manager;
+		this.bSolver = backwardsSolver;
+	}
+
+	/**
+	 * Computes the aliases of a taint that was created at the given statement,
+	 * either from the cache or with the backward solver
+	 *
+	 * @param d1    The context in which the taint was created
+	 * @param src   The statement at which the taint was created
+	 * @param bwAbs The inactive abstraction with which to start the backward
+	 *              search
+	 */
+	public void computeAliases(Abstraction d1, Stmt src, Abstraction bwAbs) {
+		// Abstractions that were already inactive before keep their old activation
+		// unit, so we cannot attribute the aliases to this query
+		if (bwAbs.getActivationUnit() != src) {
+			startSearch(d1, src, bwAbs);
+			return;
+		}
+
+		Pair<Unit, Abstraction> key = new Pair<>(src, bwAbs);
+		AliasQuery query = queries.get(key);
+		if (query == null) {
+			AliasQuery newQuery = new AliasQuery(src, d1, bwAbs);
+			query = queries.putIfAbsent(key, newQuery);
+			if (query == null) {
+				registerSearch(d1, src, newQuery);
+				propagate(d1, src, bwAbs);
+				return;
+			}
+		}
+
+		// The backward solver already merges queries from the same context
+		if (d1.equals(query.ownerContext))
+			propagate(d1, src, bwAbs);
+		else if (query.subscribe(d1, bwAbs))
+			reusedQueries.incrementAndGet();
+		else
+			startSearch(d1, src, bwAbs);
+	}
+
+	/**
+	 * Starts a backward search that is not cached
+	 *
+	 * @param d1    The context in which the taint was created
+	 * @param src   The statement at which the taint was created
+	 * @param bwAbs The inactive abstraction with which to start the backward
+	 *              search
+	 */
+	private void startSearch(Abstraction d1, Stmt src, Abstraction bwAbs) {
+		registerSearch(d1, bwAbs.getActivationUnit(), null);
+		propagate(d1, src, bwAbs);
+	}
+
+	private void propagate(Abstraction d1, Stmt src, Abstraction bwAbs) {
+		for (Unit predUnit : manager.getICFG().getPredsOf(src))
+			bSolver.processEdge(new PathEdge<Unit, Abstraction>(d1, predUnit, bwAbs));
+	}
+
+	/**
+	 * Registers a backward search in the given context. If another search is
+	 * already running in the same context for the same activation unit, neither
+	 * search can be cached anymore.
+	 *
+	 * @param d1             The context of the search
+	 * @param activationUnit The activation unit of the search
+	 * @param query          The cached query that is answered by the search, or
+	 *                       null if the search is not cached
+	 */
+	private void registerSearch(Abstraction d1, Unit activationUnit, AliasQuery query) {
+		Pair<Abstraction, Unit> key = new Pair<>(d1, activationUnit);
+		AliasQuery old = searches.putIfAbsent(key, query == null ? conflictMarker : query);
+		if (old != null && old != query) {
+			searches.put(key, conflictMarker);
+			old.invalidate();
+			if (query != null)
+				query.invalidate();
+		}
+	}
+
+	/**
+	 * Injects a cached alias into the forward solver for a query that has been
+	 * answered from the cache
+	 *
+	 * @param root  The abstraction with which the cached search was started
+	 * @param d1    The context of the query
+	 * @param bwAbs The abstraction with which the search for the query would have
+	 *              started
+	 * @param u     The statement at which to inject the alias
+	 * @param alias The alias that the cached search has found
+	 * @return True if the alias was injected, false if its derivation could not be
+	 *         copied onto the abstraction of the query
+	 */
+	private boolean injectAlias(Abstraction root, Abstraction d1, Abstraction bwAbs, Unit u, Abstraction alias) {
+		final Abstraction newAlias;
+		if (manager.getConfig().getPathConfiguration().getPathReconstructionMode().reconstructPaths()) {
+			// Replay the derivation of the alias from the start of the cached search
+			Map<Abstraction, Abstraction> copies = new IdentityHashMap<>();
+			copies.put(root, bwAbs);
+			newAlias = alias.rebindPath(copies, -1);
+			if (newAlias == null)
+				return false;
+		} else
+			newAlias = alias.injectPredecessor(bwAbs);
+		manager.getMainSolver().processEdge(new PathEdge<Unit, Abstraction>(d1, u, newAlias));
+		return true;
+	}
+
+	/**
+	 * Notifies the cache that the backward search has found an alias inside the
+	 * method of the search
+	 *
+	 * @param d1     The context of the backward search
+	 * @param source The abstraction of the backward search from which the alias
+	 *               was derived
+	 * @param u      The statement at which the alias is injected into the forward
+	 *               solver
+	 * @param alias  The alias
+	 */
+	public void onAliasFound(Abstraction d1, Abstraction source, Unit u, Abstraction alias) {
+		AliasQuery query = searches.get(new Pair<>(d1, source.getActivationUnit()));
+		if (query != null)
+			query.addAnswer(u, alias);
+	}
+
+	/**
+	 * Notifies the cache that the backward search leaves the method in which it
+	 * was started, so its aliases depend on the calling context
+	 *
+	 * @param d1     The context of the backward search
+	 * @param source The abstraction that leaves the method
+	 */
+	public void onSearchEscaped(Abstraction d1, Abstraction source) {
+		AliasQuery query = searches.get(new Pair<>(d1, source.getActivationUnit()));
+		if (query != null)
+			query.invalidate();
+	}
+
+	/**
+	 * Gets the number of alias queries that were answered from the cache
+	 *
+	 * @return The number of alias queries that were answered from the cache
+	 */
+	public long getReusedQueryCount() {
+		return reusedQueries.get();
+	}
+
+	/**
+	 * Removes all cached queries
+	 */
+	public void clear() {
+		queries.clear();
+		searches.clear();
+	}
+
+}
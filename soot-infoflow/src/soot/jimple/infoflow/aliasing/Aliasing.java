@@ -32,6 +32,8 @@ import soot.jimple.infoflow.data.Abstraction;
 import soot.jimple.infoflow.data.AccessPath;
 import soot.jimple.infoflow.data.AccessPathFactory;
 import soot.jimple.infoflow.data.AccessPathFragment;
+import soot.jimple.infoflow.handlers.MethodProfiler;
+import soot.jimple.infoflow.problems.NormalFlowFunctionMemo;
 import soot.jimple.infoflow.typing.TypeUtils;
 import soot.jimple.toolkits.pointer.LocalMustAliasAnalysis;
 import soot.jimple.toolkits.pointer.StrongLocalMustAliasAnalysis;
@@ -99,10 +101,16 @@ public class Aliasing {
 		if (!force && !canHaveAliases(newAbs.getAccessPath()) && !isStringConstructorCall(src))
 			return;
 
+		// The new aliases are not only returned in the taint set
+		NormalFlowFunctionMemo.markSideEffect();
+
 		// If we are not in a conditionally-called method, we run the
 		// full alias analysis algorithm. Otherwise, we use a global
 		// non-flow-sensitive approximation.
 		if (!d1.getAccessPath().isEmpty()) {
+			MethodProfiler profiler = manager.getProfiler();
+			if (profiler != null)
+				profiler.recordAliasQuery(method);
 			aliasingStrategy.computeAliasTaints(d1, src, targetValue, taintSet, method, newAbs);
 		} else if (targetValue instanceof InstanceFieldRef) {
 			implicitFlowAliasingStrategy.computeAliasTaints(d1, src, targetValue, taintSet, method, newAbs);
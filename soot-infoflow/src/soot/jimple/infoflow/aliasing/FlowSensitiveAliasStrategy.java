@@ -19,10 +19,25 @@ import soot.jimple.infoflow.solver.IInfoflowSolver;
 public class FlowSensitiveAliasStrategy extends AbstractBulkAliasStrategy {
 
 	private final IInfoflowSolver bSolver;
+	private final AliasQueryCache queryCache;
 
 	public FlowSensitiveAliasStrategy(InfoflowManager manager, IInfoflowSolver backwardsSolver) {
+		this(manager, backwardsSolver, null);
+	}
+
+	/**
+	 * Creates a new instance of the {@link FlowSensitiveAliasStrategy} class
+	 *
+	 * @param manager         The data flow manager
+	 * @param backwardsSolver The solver for the backward alias search
+	 * @param queryCache      The cache for reusing the answers of alias queries, or
+	 *                        null to always start a new backward search
+	 */
+	public FlowSensitiveAliasStrategy(InfoflowManager manager, IInfoflowSolver backwardsSolver,
+			AliasQueryCache queryCache) {
 		super(manager);
 		this.bSolver = backwardsSolver;
+		this.queryCache = queryCache;
 	}
 
 	@Override
@@ -30,6 +45,10 @@ public class FlowSensitiveAliasStrategy extends AbstractBulkAliasStrategy {
 			Set<Abstraction> taintSet, SootMethod method, Abstraction newAbs) {
 		// Start the backwards solver
 		Abstraction bwAbs = newAbs.deriveInactiveAbstraction(src);
+		if (queryCache != null) {
+			queryCache.computeAliases(d1, src, bwAbs);
+			return;
+		}
 		for (Unit predUnit : manager.getICFG().getPredsOf(src))
 			bSolver.processEdge(new PathEdge<Unit, Abstraction>(d1, predUnit, bwAbs));
 	}
@@ -58,6 +77,8 @@ public class FlowSensitiveAliasStrategy extends AbstractBulkAliasStrategy {
 	@Override
 	public void cleanup() {
 		bSolver.cleanup();
+		if (queryCache != null)
+			queryCache.clear();
 	}
 
 }
@@ -16,7 +16,7 @@ import soot.toolkits.scalar.ForwardFlowAnalysis;
  *
  * @author Tim Lange
  */
-public class ListSizeAnalysis extends ForwardFlowAnalysis<Unit, Map<Local, ListSizeAnalysis.ListSize>> {
+public class ListSizeAnalysis extends ForwardFlowAnalysis<Unit, ListSizeAnalysis.ListSizes> {
 
     /**
      *  NOT YET INITIALIZED OR NO LIST -> implicitly null
@@ -84,7 +84,70 @@ public class ListSizeAnalysis extends ForwardFlowAnalysis<Unit, Map<Local, ListS
         }
     }
 
+    // Encodings of the two lattice elements that are no constant sizes
+    private static final int NO_LIST = Integer.MIN_VALUE;
+    private static final int BOTTOM = Integer.MIN_VALUE + 1;
+
+    /**
+     * Flow value that stores the list sizes of all list locals in the body in a single array, indexed by the number of
+     * the local inside the body. Keeping a map per unit is too expensive for methods with many locals.
+     */
+    public final class ListSizes {
+        private final int[] sizes;
+
+        private ListSizes() {
+            sizes = new int[localIndices.size()];
+            Arrays.fill(sizes, NO_LIST);
+        }
+
+        /**
+         * Gets the size of the list in the given local
+         *
+         * @param local local
+         * @return the list size or null if the local is not known to hold a list
+         */
+        public ListSize get(Object local) {
+            int size = getSize(local);
+            if (size == NO_LIST)
+                return null;
+            return size == BOTTOM ? ListSize.bottom() : new ListSize(size);
+        }
+
+        private int getSize(Object value) {
+            Integer idx = localIndices.get(value);
+            return idx == null ? NO_LIST : sizes[idx];
+        }
+
+        private void setSize(Object value, int size) {
+            Integer idx = localIndices.get(value);
+            if (idx != null)
+                sizes[idx] = size;
+        }
+
+        /**
+         * Copies all known list sizes from the given flow value into this one
+         */
+        private void putAll(ListSizes other) {
+            for (int i = 0; i < sizes.length; i++)
+                if (other.sizes[i] != NO_LIST)
+                    sizes[i] = other.sizes[i];
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            return Arrays.equals(sizes, ((ListSizes) o).sizes);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(sizes);
+        }
+    }
+
     private final Set<SootClass> classes;
+    private final Map<Local, Integer> localIndices;
 
     private static final Set<String> increments = new HashSet<>();
     static {
@@ -126,11 +189,24 @@ public class ListSizeAnalysis extends ForwardFlowAnalysis<Unit, Map<Local, ListS
         classes.addAll(Scene.v().getFastHierarchy().getAllSubinterfaces(queueClass));
         classes.addAll(Scene.v().getFastHierarchy().getAllImplementersOfInterface(queueClass));
         classes.add(queueClass);
+
+        // Only locals to which a new list is assigned can ever have a size, so we only need to number these
+        localIndices = new HashMap<>();
+        for (Unit u : graph) {
+            if (u instanceof AssignStmt) {
+                Value leftOp = ((AssignStmt) u).getLeftOp();
+                Value rightOp = ((AssignStmt) u).getRightOp();
+                if (leftOp instanceof Local && rightOp instanceof NewExpr && !localIndices.containsKey(leftOp)
+                        && classes.contains(((NewExpr) rightOp).getBaseType().getSootClass()))
+                    localIndices.put((Local) leftOp, localIndices.size());
+            }
+        }
+
         doAnalysis();
     }
 
     @Override
-    protected void flowThrough(Map<Local, ListSize> in, Unit unit, Map<Local, ListSize> out) {
+    protected void flowThrough(ListSizes in, Unit unit, ListSizes out) {
         out.putAll(in);
         Stmt stmt = (Stmt) unit;
         if (stmt instanceof AssignStmt) {
@@ -141,15 +217,15 @@ public class ListSizeAnalysis extends ForwardFlowAnalysis<Unit, Map<Local, ListS
                 SootClass sc = ((NewExpr) rightOp).getBaseType().getSootClass();
                 if (classes.contains(sc)) {
                     // Init new list
-                    out.put((Local) leftOp, new ListSize(0));
+                    out.setSize(leftOp, 0);
                 }
             } else {
                 // Overwritten
-                out.remove(leftOp);
+                out.setSize(leftOp, NO_LIST);
             }
 
             // Invalidate list size if an alias is created
-            out.remove(rightOp);
+            out.setSize(rightOp, NO_LIST);
         }
 
         if (!stmt.containsInvokeExpr())
@@ -157,8 +233,8 @@ public class ListSizeAnalysis extends ForwardFlowAnalysis<Unit, Map<Local, ListS
 
         // Also invalidate list size if it flows into a callee
         for (Value v : stmt.getInvokeExpr().getArgs())
-            if (out.containsKey(v))
-                out.put((Local) v, ListSize.bottom());
+            if (out.getSize(v) != NO_LIST)
+                out.setSize(v, BOTTOM);
 
         SootMethod sm = stmt.getInvokeExpr().getMethod();
         if (!classes.contains(sm.getDeclaringClass()))
@@ -167,49 +243,47 @@ public class ListSizeAnalysis extends ForwardFlowAnalysis<Unit, Map<Local, ListS
         String subsig = sm.getSubSignature();
         if (increments.contains(subsig)) {
             Local base = (Local) ((InstanceInvokeExpr) stmt.getInvokeExpr()).getBase();
-            ListSize size = out.get(base);
-            if (size != null)
-                out.put(base, size.plusOne());
+            int size = out.getSize(base);
+            if (size != NO_LIST && size != BOTTOM)
+                out.setSize(base, size + 1);
         } else if (decrements.contains(subsig)) {
             Local base = (Local) ((InstanceInvokeExpr) stmt.getInvokeExpr()).getBase();
-            ListSize size = out.get(base);
-            if (size != null)
-                out.put(base, size.minusOne());
+            int size = out.getSize(base);
+            if (size != NO_LIST && size != BOTTOM)
+                out.setSize(base, size - 1);
         } else if (invalidates.contains(subsig)) {
             Local base = (Local) ((InstanceInvokeExpr) stmt.getInvokeExpr()).getBase();
-            ListSize size = out.get(base);
-            if (size != null)
-                out.put(base, ListSize.bottom());
+            if (out.getSize(base) != NO_LIST)
+                out.setSize(base, BOTTOM);
         } else if (resets.contains(subsig)) {
             Local base = (Local) ((InstanceInvokeExpr) stmt.getInvokeExpr()).getBase();
-            ListSize size = out.get(base);
-            if (size != null)
-                out.put(base, new ListSize(0));
+            if (out.getSize(base) != NO_LIST)
+                out.setSize(base, 0);
         }
     }
 
     @Override
-    protected Map<Local, ListSize> newInitialFlow() {
-        return new HashMap<>();
+    protected ListSizes newInitialFlow() {
+        return new ListSizes();
     }
 
     @Override
-    protected void merge(Map<Local, ListSize> in1, Map<Local, ListSize> in2, Map<Local, ListSize> out) {
+    protected void merge(ListSizes in1, ListSizes in2, ListSizes out) {
         // Must
-        for (Local local : in1.keySet()) {
-            ListSize in1Const = in1.get(local);
-            ListSize in2Const = in2.get(local);
-            if (in1Const == null)
-                out.put(local, in2Const);
-            else if (in2Const == null || in1Const.equals(in2Const))
-                out.put(local, in1Const);
+        for (int i = 0; i < out.sizes.length; i++) {
+            int in1Size = in1.sizes[i];
+            int in2Size = in2.sizes[i];
+            if (in1Size == NO_LIST)
+                continue;
+            if (in2Size == NO_LIST || in1Size == in2Size)
+                out.sizes[i] = in1Size;
             else
-                out.put(local, ListSize.bottom());
+                out.sizes[i] = BOTTOM;
         }
     }
 
     @Override
-    protected void copy(Map<Local, ListSize> source, Map<Local, ListSize> dest) {
+    protected void copy(ListSizes source, ListSizes dest) {
         if (source == dest) {
             return;
         }
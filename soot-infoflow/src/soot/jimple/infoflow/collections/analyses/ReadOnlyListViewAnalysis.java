@@ -1,6 +1,12 @@
 package soot.jimple.infoflow.collections.analyses;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import com.google.common.cache.CacheLoader;
@@ -16,14 +22,11 @@ import soot.SootMethod;
 import soot.Type;
 import soot.Unit;
 import soot.Value;
+import soot.ValueBox;
 import soot.jimple.AssignStmt;
 import soot.jimple.ReturnStmt;
 import soot.jimple.Stmt;
 import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
-import soot.toolkits.graph.UnitGraph;
-import soot.toolkits.scalar.SimpleLocalDefs;
-import soot.toolkits.scalar.SimpleLocalUses;
-import soot.toolkits.scalar.UnitValueBoxPair;
 
 /**
  * Intraprocedural analysis that reasons whether a list view (i.e. iterator or
@@ -32,11 +35,31 @@ import soot.toolkits.scalar.UnitValueBoxPair;
  * @author Tim Lange
  */
 public final class ReadOnlyListViewAnalysis {
-	private final LoadingCache<UnitGraph, SimpleLocalUses> graphToUses = IDESolver.DEFAULT_CACHE_BUILDER
-			.build(new CacheLoader<UnitGraph, SimpleLocalUses>() {
+	/**
+	 * Result of the analysis for a single method. The reference-typed locals of the
+	 * method are numbered, and the bit of a local is set if its value may be used
+	 * to mutate the underlying list.
+	 */
+	private static class MethodResult {
+		private final Map<Local, Integer> localIndices;
+		private final BitSet mutating;
+
+		private MethodResult(Map<Local, Integer> localIndices, BitSet mutating) {
+			this.localIndices = localIndices;
+			this.mutating = mutating;
+		}
+
+		private boolean isMutating(Local local) {
+			Integer idx = localIndices.get(local);
+			return idx != null && mutating.get(idx);
+		}
+	}
+
+	private final LoadingCache<SootMethod, MethodResult> methodResults = IDESolver.DEFAULT_CACHE_BUILDER
+			.build(new CacheLoader<SootMethod, MethodResult>() {
 				@Override
-				public SimpleLocalUses load(UnitGraph ug) throws Exception {
-					return new SimpleLocalUses(ug, new SimpleLocalDefs(ug));
+				public MethodResult load(SootMethod sm) throws Exception {
+					return computeMethodResult(sm);
 				}
 			});
 
@@ -103,6 +126,28 @@ public final class ReadOnlyListViewAnalysis {
 				&& !listReadOperations.contains(sm.getSubSignature());
 	}
 
+	/**
+	 * Analyzes all given methods that operate on lists or iterators in parallel,
+	 * so that later queries can be answered from the cache
+	 *
+	 * @param methods The methods to analyze
+	 */
+	public void precompute(Collection<SootMethod> methods) {
+		methods.parallelStream().filter(this::touchesCollections).forEach(methodResults::getUnchecked);
+	}
+
+	private boolean touchesCollections(SootMethod sm) {
+		if (!sm.isConcrete() || !sm.hasActiveBody())
+			return false;
+		for (Unit u : sm.getActiveBody().getUnits()) {
+			Stmt stmt = (Stmt) u;
+			if (stmt.containsInvokeExpr()
+					&& isSupportedClass(stmt.getInvokeExpr().getMethod().getDeclaringClass().getType()))
+				return true;
+		}
+		return false;
+	}
+
 	/**
 	 * Checks whether this assignment creates an iterator that is only used to read
 	 * values but never mutates the underlying collection
@@ -116,8 +161,12 @@ public final class ReadOnlyListViewAnalysis {
 		if (!(unit instanceof AssignStmt))
 			return true;
 
-		UnitGraph ug = (UnitGraph) icfg.getOrCreateUnitGraph(icfg.getMethodOf(unit));
-		return isReadOnlyIteratorInternal(graphToUses.getUnchecked(ug), (AssignStmt) unit);
+		// If the value is not assigned to a local, there are no uses in this method
+		Value lhs = ((AssignStmt) unit).getLeftOp();
+		if (!(lhs instanceof Local))
+			return true;
+
+		return !methodResults.getUnchecked(icfg.getMethodOf(unit)).isMutating((Local) lhs);
 	}
 
 	private boolean isSupportedClass(Type type) {
@@ -129,52 +178,87 @@ public final class ReadOnlyListViewAnalysis {
 		return false;
 	}
 
-	private boolean isReadOnlyIteratorInternal(SimpleLocalUses du, AssignStmt assign) {
-		for (UnitValueBoxPair uv : du.getUsesOf(assign)) {
-			Stmt stmt = (Stmt) uv.getUnit();
-			Value use = uv.getValueBox().getValue();
-			// We assume an iterator also mutates the collection if
-			// 1. a method is called on it that is unknown
-			// 2. it is leaving the method as an argument
-			// 3. the iterator leaves the method through a return statement
-			// 4. is assigned to a field
-			if (stmt.containsInvokeExpr()) {
-				if (isHarmfulIteratorOperation(stmt.getInvokeExpr().getMethod())
-						|| isHarmfulListOperation(stmt.getInvokeExpr().getMethod()))
-					return false;
-				if (stmt.getInvokeExpr().getArgs().contains(use))
-					return false;
-			} else if (stmt instanceof ReturnStmt) {
-				// If the return is a use, the iterator leaves the method
-				return false;
-			}
+	private MethodResult computeMethodResult(SootMethod sm) {
+		Map<Local, Integer> localIndices = new HashMap<>();
+		for (Local local : sm.getActiveBody().getLocals()) {
+			if (local.getType() instanceof RefType)
+				localIndices.put(local, localIndices.size());
+		}
 
-			if (stmt instanceof AssignStmt) {
-				Value lhs = ((AssignStmt) stmt).getLeftOp();
-				boolean isLocal = lhs instanceof Local;
-				boolean isSupportedClass = isSupportedClass(lhs.getType());
-
-				// Fields are not supported, so we will bail out if a list or iterator is
-				// assigned
-				// to a field. For other types, we don't care because they can't change the
-				// list.
-				if (!isLocal)
-					if (isSupportedClass)
-						return false;
-					else
+		// We assume an iterator also mutates the collection if
+		// 1. a method is called on it that is unknown
+		// 2. it is leaving the method as an argument
+		// 3. the iterator leaves the method through a return statement
+		// 4. is assigned to a field
+		// 5. it is assigned to another local that mutates the collection
+		BitSet mutating = new BitSet(localIndices.size());
+		List<List<Integer>> flowsFrom = new ArrayList<>(localIndices.size());
+		for (int i = 0; i < localIndices.size(); i++)
+			flowsFrom.add(null);
+		for (Unit u : sm.getActiveBody().getUnits()) {
+			Stmt stmt = (Stmt) u;
+			for (ValueBox vb : stmt.getUseBoxes()) {
+				Integer useIdx = localIndices.get(vb.getValue());
+				if (useIdx == null)
+					continue;
+				Value use = vb.getValue();
+
+				if (stmt.containsInvokeExpr()) {
+					if (isHarmfulIteratorOperation(stmt.getInvokeExpr().getMethod())
+							|| isHarmfulListOperation(stmt.getInvokeExpr().getMethod())
+							|| stmt.getInvokeExpr().getArgs().contains(use)) {
+						mutating.set(useIdx);
 						continue;
-				// If the lhs can't mutate the list, we can stop here
-				if (!isSupportedClass)
+					}
+				} else if (stmt instanceof ReturnStmt) {
+					// If the return is a use, the iterator leaves the method
+					mutating.set(useIdx);
 					continue;
+				}
 
-				// All e = it.next() will be caught by the previous case s.t.
-				// here we should only see assignments or casts
-				if (!isReadOnlyIteratorInternal(du, (AssignStmt) stmt))
-					return false;
+				if (stmt instanceof AssignStmt) {
+					Value lhs = ((AssignStmt) stmt).getLeftOp();
+
+					// If the lhs can't mutate the list, we don't care about it
+					if (!isSupportedClass(lhs.getType()))
+						continue;
+
+					// Fields are not supported, so we will bail out if a list or iterator is
+					// assigned to a field
+					Integer lhsIdx = lhs instanceof Local ? localIndices.get(lhs) : null;
+					if (lhsIdx == null) {
+						mutating.set(useIdx);
+						continue;
+					}
+
+					// All e = it.next() will be caught by the previous case s.t.
+					// here we should only see assignments or casts
+					List<Integer> sources = flowsFrom.get(lhsIdx);
+					if (sources == null) {
+						sources = new ArrayList<>(2);
+						flowsFrom.set(lhsIdx, sources);
+					}
+					sources.add(useIdx);
+				}
+			}
+		}
+
+		// Every local that flows into a mutating local is mutating as well
+		List<Integer> worklist = new ArrayList<>();
+		for (int i = mutating.nextSetBit(0); i >= 0; i = mutating.nextSetBit(i + 1))
+			worklist.add(i);
+		while (!worklist.isEmpty()) {
+			List<Integer> sources = flowsFrom.get(worklist.remove(worklist.size() - 1));
+			if (sources != null) {
+				for (int source : sources) {
+					if (!mutating.get(source)) {
+						mutating.set(source);
+						worklist.add(source);
+					}
+				}
 			}
 		}
 
-		// If we have seen all statements, we can assume the iterator is read-only
-		return true;
+		return new MethodResult(localIndices, mutating);
 	}
 }
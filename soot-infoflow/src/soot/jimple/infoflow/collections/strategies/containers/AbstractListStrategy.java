@@ -1,5 +1,7 @@
 package soot.jimple.infoflow.collections.strategies.containers;
 
+import java.util.concurrent.atomic.LongAdder;
+
 import soot.Value;
 import soot.jimple.IntConstant;
 import soot.jimple.Stmt;
@@ -18,9 +20,9 @@ import soot.jimple.infoflow.data.ContainerContext;
  * @author Tim Lange
  */
 public abstract class AbstractListStrategy extends ConstantMapStrategy {
-    // Benign race on the counters because they are on the critical path within the data flow analysis
-    private long resolvedIndices;
-    private long unresolvedIndices;
+    // Striped counters, because they are updated concurrently on the critical path within the data flow analysis
+    private final LongAdder resolvedIndices = new LongAdder();
+    private final LongAdder unresolvedIndices = new LongAdder();
 
     private final IShiftOperation shiftOp;
 
@@ -35,11 +37,11 @@ public abstract class AbstractListStrategy extends ConstantMapStrategy {
     }
 
     public long getResolvedIndices() {
-        return resolvedIndices;
+        return resolvedIndices.sum();
     }
 
     public long getUnresolvedIndices() {
-        return unresolvedIndices;
+        return unresolvedIndices.sum();
     }
 
     @Override
@@ -58,11 +60,11 @@ public abstract class AbstractListStrategy extends ConstantMapStrategy {
     @Override
     public ContainerContext getIndexContext(Value value, Stmt stmt) {
         if (value instanceof IntConstant) {
-            resolvedIndices++;
+            resolvedIndices.increment();
             return new IntervalContext(((IntConstant) value).value);
         }
 
-        unresolvedIndices++;
+        unresolvedIndices.increment();
         return UnknownContext.v();
     }
 
@@ -71,7 +73,7 @@ public abstract class AbstractListStrategy extends ConstantMapStrategy {
 
     @Override
     public ContainerContext getFirstPosition(Value value, Stmt stmt) {
-        resolvedIndices++;
+        resolvedIndices.increment();
         return new IntervalContext(0);
     }
 
@@ -9,8 +9,11 @@ import soot.jimple.infoflow.collections.context.KeySetContext;
 import soot.jimple.infoflow.collections.context.UnknownContext;
 import soot.jimple.infoflow.collections.util.Tristate;
 import soot.jimple.infoflow.data.ContainerContext;
+import soot.util.queue.QueueReader;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Strategy that only reasons about maps with constant keys
@@ -18,31 +21,45 @@ import java.util.*;
  * @author Tim Lange
  */
 public class ConstantMapStrategy implements IContainerStrategy {
-    // Benign race on the counters because they are on the critical path within the data flow analysis
-    private volatile long resolvedKeys;
-    private volatile long unresolvedKeys;
+    // Striped counters, because they are updated concurrently on the critical path within the data flow analysis
+    private final LongAdder resolvedKeys = new LongAdder();
+    private final LongAdder unresolvedKeys = new LongAdder();
 
     protected final InfoflowManager manager;
 
     protected final ReadOnlyListViewAnalysis itAnalysis;
 
-    protected final List<RefType> indexTypes;
+    // Container types in the order of the CONTAINER_KIND_* bits
+    private final RefType[] containerTypes;
+    // Points-to queries are expensive, so we classify every local only once
+    private final Map<Local, Integer> containerKinds = new ConcurrentHashMap<>();
 
     public ConstantMapStrategy(InfoflowManager manager) {
         this.manager = manager;
         itAnalysis = new ReadOnlyListViewAnalysis(manager.getICFG());
+        itAnalysis.precompute(getReachableMethods());
 
-        indexTypes = new ArrayList<>(2);
-        indexTypes.add(RefType.v("java.util.List"));
-        indexTypes.add(RefType.v("java.util.Queue"));
+        containerTypes = new RefType[] { RefType.v("java.util.List"), RefType.v("java.util.Queue"),
+                RefType.v("java.util.Map"), RefType.v("java.util.Set") };
+    }
+
+    private static List<SootMethod> getReachableMethods() {
+        List<SootMethod> methods = new ArrayList<>();
+        QueueReader<MethodOrMethodContext> methodListener = Scene.v().getReachableMethods().listener();
+        while (methodListener.hasNext()) {
+            SootMethod sm = methodListener.next().method();
+            if (sm != null)
+                methods.add(sm);
+        }
+        return methods;
     }
 
     public long getResolvedKeys() {
-        return resolvedKeys;
+        return resolvedKeys.sum();
     }
 
     public long getUnresolvedKeys() {
-        return unresolvedKeys;
+        return unresolvedKeys.sum();
     }
 
     @Override
@@ -66,11 +83,11 @@ public class ConstantMapStrategy implements IContainerStrategy {
     @Override
     public ContainerContext getKeyContext(Value value, Stmt stmt) {
         if (value instanceof Constant) {
-            resolvedKeys++;
+            resolvedKeys.increment();
             return new KeySetContext<>((Constant) value);
         }
 
-        unresolvedKeys++;
+        unresolvedKeys.increment();
         return UnknownContext.v();
     }
 
@@ -91,15 +108,35 @@ public class ConstantMapStrategy implements IContainerStrategy {
             return true;
 
         // Ask SPARK whether this could be a list or a queue
-        Set<Type> types = Scene.v().getPointsToAnalysis().reachingObjects((Local) base).possibleTypes();
+        return (getContainerKinds(base) & (CONTAINER_KIND_LIST | CONTAINER_KIND_QUEUE)) != 0;
+    }
+
+    @Override
+    public int getContainerKinds(Value value) {
+        if (!(value instanceof Local))
+            return CONTAINER_KIND_ALL;
+        return containerKinds.computeIfAbsent((Local) value, this::computeContainerKinds);
+    }
+
+    /**
+     * Classifies the objects the given local may point to according to SPARK
+     *
+     * @param local container local
+     * @return bitmask of the CONTAINER_KIND_* constants
+     */
+    private int computeContainerKinds(Local local) {
+        Set<Type> types = Scene.v().getPointsToAnalysis().reachingObjects(local).possibleTypes();
         FastHierarchy fh = Scene.v().getFastHierarchy();
+        int kinds = 0;
         for (Type t : types) {
-            for (RefType idxType : indexTypes)
-                if (fh.canStoreType(t, idxType))
-                    return true;
+            for (int i = 0; i < containerTypes.length; i++) {
+                if ((kinds & (1 << i)) == 0 && fh.canStoreType(t, containerTypes[i]))
+                    kinds |= 1 << i;
+            }
+            if (kinds == CONTAINER_KIND_ALL)
+                break;
         }
-
-        return false;
+        return kinds;
     }
 
     @Override
@@ -12,6 +12,31 @@ import soot.jimple.infoflow.data.ContainerContext;
  * @author Tim Lange
  */
 public interface IContainerStrategy {
+    /**
+     * Container kind for values that may point to a list
+     */
+    int CONTAINER_KIND_LIST = 1;
+
+    /**
+     * Container kind for values that may point to a queue
+     */
+    int CONTAINER_KIND_QUEUE = 1 << 1;
+
+    /**
+     * Container kind for values that may point to a map
+     */
+    int CONTAINER_KIND_MAP = 1 << 2;
+
+    /**
+     * Container kind for values that may point to a set
+     */
+    int CONTAINER_KIND_SET = 1 << 3;
+
+    /**
+     * All container kinds, used if nothing is known about a value
+     */
+    int CONTAINER_KIND_ALL = CONTAINER_KIND_LIST | CONTAINER_KIND_QUEUE | CONTAINER_KIND_MAP | CONTAINER_KIND_SET;
+
     /**
      * Checks whether the two arguments intersect
      *
@@ -111,4 +136,14 @@ public interface IContainerStrategy {
      * @return true if is read-only
      */
     boolean isReadOnly(Unit unit);
+
+    /**
+     * Returns the kinds of containers the given value may point to
+     *
+     * @param value container value
+     * @return bitmask of the CONTAINER_KIND_* constants
+     */
+    default int getContainerKinds(Value value) {
+        return CONTAINER_KIND_ALL;
+    }
 }
@@ -14,6 +14,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import com.google.common.collect.Sets;
@@ -684,6 +685,79 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 		return abs;
 	}
 
+	/**
+	 * Creates a copy of this abstraction that is attached to the propagation path
+	 * of the given predecessor. The copy is equal to this abstraction, but the
+	 * paths reconstructed from it lead to the sources of the new predecessor.
+	 *
+	 * @param predecessor The new predecessor
+	 * @return The copy of this abstraction with the new predecessor
+	 */
+	public Abstraction injectPredecessor(Abstraction predecessor) {
+		if (this.predecessor == predecessor)
+			return this;
+
+		Abstraction abs = clone();
+		abs.predecessor = predecessor;
+		abs.currentStmt = this.currentStmt;
+		abs.correspondingCallSite = this.correspondingCallSite;
+		abs.propagationPathLength = predecessor.propagationPathLength + 1;
+		return abs;
+	}
+
+	/**
+	 * Copies the propagation path of this abstraction up to the first abstraction
+	 * that has a replacement in the given map, and attaches the copied path to this
+	 * replacement. Every copy is equal to its original.
+	 *
+	 * @param copies   Maps abstractions to their replacements. All copies that are
+	 *                 created are added to this map, so that abstractions that
+	 *                 share parts of their paths also share the copies. The map
+	 *                 must compare its keys by identity.
+	 * @param maxDepth The maximum number of abstractions to copy, or -1 for no
+	 *                 limit
+	 * @return The copy of this abstraction, or <code>null</code> if no abstraction
+	 *         with a replacement was found on the propagation path within the
+	 *         given number of steps
+	 */
+	public Abstraction rebindPath(Map<Abstraction, Abstraction> copies, int maxDepth) {
+		List<Abstraction> chain = new ArrayList<>();
+		Abstraction cur = this;
+		Abstraction copy = copies.get(cur);
+		while (copy == null) {
+			if ((maxDepth >= 0 && chain.size() >= maxDepth) || cur.predecessor == null)
+				return null;
+			chain.add(cur);
+			cur = cur.predecessor;
+			copy = copies.get(cur);
+		}
+
+		// Rebuild the path from the replacement towards this abstraction
+		for (int i = chain.size() - 1; i >= 0; i--) {
+			Abstraction abs = chain.get(i);
+			copy = abs.injectPredecessor(copy);
+			copies.put(abs, copy);
+		}
+		return copy;
+	}
+
+	/**
+	 * Creates a copy of this abstraction that is not attached to any propagation
+	 * path. The copy is equal to this abstraction and can serve as the root for
+	 * abstractions that are later moved to another path using
+	 * {@link #injectPredecessor(Abstraction)}.
+	 *
+	 * @return The detached copy of this abstraction
+	 */
+	public Abstraction detachFromPath() {
+		Abstraction abs = clone();
+		abs.predecessor = null;
+		abs.currentStmt = this.currentStmt;
+		abs.correspondingCallSite = this.correspondingCallSite;
+		abs.propagationPathLength = 0;
+		return abs;
+	}
+
 	/**
 	 * For internal use by memory manager only
 	 */
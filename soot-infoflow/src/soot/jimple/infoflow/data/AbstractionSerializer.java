@@ -0,0 +1,332 @@
+package soot.jimple.infoflow.data;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import soot.Local;
+import soot.Type;
+import soot.Unit;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.InfoflowManager;
+import soot.jimple.infoflow.collections.context.IntervalContext;
+import soot.jimple.infoflow.collections.context.UnknownContext;
+import soot.jimple.infoflow.data.AccessPath.ArrayTaintType;
+import soot.jimple.infoflow.solver.cfg.IInfoflowCFG.UnitContainer;
+import soot.jimple.infoflow.solver.checkpoint.CheckpointInput;
+import soot.jimple.infoflow.solver.checkpoint.CheckpointOutput;
+import soot.jimple.infoflow.sourcesSinks.definitions.ISourceSinkDefinition;
+import soot.jimple.infoflow.sourcesSinks.manager.SourceInfo;
+
+/**
+ * Class for writing abstractions and access paths into solver checkpoints and
+ * for reading them back. The predecessors and neighbors of an abstraction are
+ * not written, since the abstraction graph may contain cycles. They must be
+ * restored by the caller once all abstractions have been read.
+ *
+ * Source contexts are written as their statement and access path. When they
+ * are read back, their definitions are obtained from the source/sink manager
+ * again. A serializer keeps track of the source contexts it has seen, so a
+ * separate instance is required for each checkpoint.
+ */
+public class AbstractionSerializer {
+
+	private static final int AP_NULL = 0;
+	private static final int AP_EMPTY = 1;
+	private static final int AP_ZERO = 2;
+	private static final int AP_REGULAR = 3;
+
+	private static final int CONTEXT_UNKNOWN = 0;
+	private static final int CONTEXT_INTERVAL = 1;
+
+	private static final int FLAG_EXCEPTION_THROWN = 1;
+	private static final int FLAG_IMPLICIT = 2;
+	private static final int FLAG_DEPENDS_ON_CUT_AP = 4;
+
+	private static final int FLAG_TAINT_SUB_FIELDS = 1;
+	private static final int FLAG_CUT_OFF_APPROXIMATION = 2;
+	private static final int FLAG_IMMUTABLE_ALIASES = 4;
+
+	private final InfoflowManager manager;
+
+	private final Map<SourceContext, Integer> writtenContexts = new IdentityHashMap<>();
+	private final List<SourceContext> readContexts = new ArrayList<>();
+	private final Map<Stmt, SourceInfo> sourceInfos = new HashMap<>();
+
+	/**
+	 * Creates a new instance of the {@link AbstractionSerializer} class
+	 *
+	 * @param manager The data flow manager from which to take the source/sink
+	 *                manager for restoring source contexts
+	 */
+	public AbstractionSerializer(InfoflowManager manager) {
+		this.manager = manager;
+	}
+
+	/**
+	 * Writes the given abstraction without its predecessor and neighbors
+	 *
+	 * @param abs The abstraction to write
+	 * @param out The checkpoint to write to
+	 * @throws IOException Thrown if the abstraction could not be written
+	 */
+	public void writeAbstraction(Abstraction abs, CheckpointOutput out) throws IOException {
+		writeAccessPath(abs.accessPath, out);
+		writeSourceContext(abs.sourceContext, out);
+		out.writeUnit(abs.currentStmt);
+		out.writeUnit(abs.correspondingCallSite);
+		out.writeUnit(abs.activationUnit);
+		out.writeUnit(abs.turnUnit);
+		out.writeUnit(abs.dominator);
+
+		List<UnitContainer> postdominators = abs.postdominators;
+		out.writeVarInt(postdominators == null ? 0 : postdominators.size() + 1);
+		if (postdominators != null) {
+			for (UnitContainer container : postdominators) {
+				out.writeBoolean(container.getMethod() != null);
+				if (container.getMethod() != null)
+					out.writeMethod(container.getMethod());
+				else
+					out.writeUnit(container.getUnit());
+			}
+		}
+
+		int flags = 0;
+		if (abs.exceptionThrown)
+			flags |= FLAG_EXCEPTION_THROWN;
+		if (abs.isImplicit)
+			flags |= FLAG_IMPLICIT;
+		if (abs.dependsOnCutAP)
+			flags |= FLAG_DEPENDS_ON_CUT_AP;
+		out.writeByte(flags);
+		out.writeVarInt(abs.propagationPathLength);
+	}
+
+	/**
+	 * Reads an abstraction that has been written with
+	 * {@link #writeAbstraction(Abstraction, CheckpointOutput)}
+	 *
+	 * @param in The checkpoint to read from
+	 * @return The abstraction without predecessor and neighbors
+	 * @throws IOException Thrown if the abstraction could not be read
+	 */
+	public Abstraction readAbstraction(CheckpointInput in) throws IOException {
+		AccessPath ap = readAccessPath(in);
+		SourceContext sourceContext = readSourceContext(in);
+		Stmt currentStmt = (Stmt) in.readUnit();
+		Stmt correspondingCallSite = (Stmt) in.readUnit();
+		Unit activationUnit = in.readUnit();
+		Unit turnUnit = in.readUnit();
+		Unit dominator = in.readUnit();
+
+		List<UnitContainer> postdominators = null;
+		int postdominatorCount = in.readVarInt();
+		if (postdominatorCount > 0) {
+			postdominators = new ArrayList<>(postdominatorCount - 1);
+			for (int i = 0; i < postdominatorCount - 1; i++) {
+				if (in.readBoolean())
+					postdominators.add(new UnitContainer(in.readMethod()));
+				else
+					postdominators.add(new UnitContainer(in.readUnit()));
+			}
+		}
+
+		int flags = in.readByte();
+		Abstraction abs = new Abstraction(ap, sourceContext, (flags & FLAG_EXCEPTION_THROWN) != 0,
+				(flags & FLAG_IMPLICIT) != 0);
+		abs.currentStmt = currentStmt;
+		abs.correspondingCallSite = correspondingCallSite;
+		abs.activationUnit = activationUnit;
+		abs.turnUnit = turnUnit;
+		abs.dominator = dominator;
+		abs.postdominators = postdominators;
+		abs.dependsOnCutAP = (flags & FLAG_DEPENDS_ON_CUT_AP) != 0;
+		abs.propagationPathLength = in.readVarInt();
+		return abs;
+	}
+
+	/**
+	 * Writes the given access path
+	 *
+	 * @param ap  The access path to write, may be <code>null</code>
+	 * @param out The checkpoint to write to
+	 * @throws IOException Thrown if the access path could not be written
+	 */
+	public void writeAccessPath(AccessPath ap, CheckpointOutput out) throws IOException {
+		if (ap == null) {
+			out.writeByte(AP_NULL);
+			return;
+		}
+		if (ap == AccessPath.getEmptyAccessPath()) {
+			out.writeByte(AP_EMPTY);
+			return;
+		}
+		if (ap == AccessPath.getZeroAccessPath()) {
+			out.writeByte(AP_ZERO);
+			return;
+		}
+
+		out.writeByte(AP_REGULAR);
+		out.writeLocal(ap.getPlainValue());
+		out.writeType(ap.getBaseType());
+		writeContext(ap.getBaseContext(), out);
+
+		AccessPathFragment[] fragments = ap.getFragments();
+		out.writeVarInt(fragments == null ? 0 : fragments.length + 1);
+		if (fragments != null) {
+			for (AccessPathFragment fragment : fragments) {
+				out.writeField(fragment.getField());
+				out.writeType(fragment.getFieldType());
+				writeContext(fragment.getContext(), out);
+			}
+		}
+
+		int flags = 0;
+		if (ap.getTaintSubFields())
+			flags |= FLAG_TAINT_SUB_FIELDS;
+		if (ap.isCutOffApproximation())
+			flags |= FLAG_CUT_OFF_APPROXIMATION;
+		if (ap.getCanHaveImmutableAliases())
+			flags |= FLAG_IMMUTABLE_ALIASES;
+		out.writeByte(flags);
+		out.writeByte(ap.getArrayTaintType().ordinal());
+	}
+
+	/**
+	 * Reads an access path that has been written with
+	 * {@link #writeAccessPath(AccessPath, CheckpointOutput)}
+	 *
+	 * @param in The checkpoint to read from
+	 * @return The access path
+	 * @throws IOException Thrown if the access path could not be read
+	 */
+	public AccessPath readAccessPath(CheckpointInput in) throws IOException {
+		switch (in.readByte()) {
+		case AP_NULL:
+			return null;
+		case AP_EMPTY:
+			return AccessPath.getEmptyAccessPath();
+		case AP_ZERO:
+			return AccessPath.getZeroAccessPath();
+		case AP_REGULAR:
+			break;
+		default:
+			throw new IOException("Malformed access path in checkpoint");
+		}
+
+		Local value = in.readLocal();
+		Type baseType = in.readType();
+		ContainerContext[] baseContext = readContext(in);
+
+		AccessPathFragment[] fragments = null;
+		int fragmentCount = in.readVarInt();
+		if (fragmentCount > 0) {
+			fragments = new AccessPathFragment[fragmentCount - 1];
+			for (int i = 0; i < fragments.length; i++)
+				fragments[i] = new AccessPathFragment(in.readField(), in.readType(), readContext(in));
+		}
+
+		int flags = in.readByte();
+		int arrayTaintType = in.readByte();
+		if (arrayTaintType >= ArrayTaintType.values().length)
+			throw new IOException("Malformed access path in checkpoint");
+		return new AccessPath(value, baseType, baseContext, fragments, (flags & FLAG_TAINT_SUB_FIELDS) != 0,
+				(flags & FLAG_CUT_OFF_APPROXIMATION) != 0, ArrayTaintType.values()[arrayTaintType],
+				(flags & FLAG_IMMUTABLE_ALIASES) != 0);
+	}
+
+	private void writeContext(ContainerContext[] context, CheckpointOutput out) throws IOException {
+		out.writeVarInt(context == null ? 0 : context.length + 1);
+		if (context == null)
+			return;
+		for (ContainerContext c : context) {
+			if (c instanceof UnknownContext)
+				out.writeByte(CONTEXT_UNKNOWN);
+			else if (c instanceof IntervalContext) {
+				IntervalContext interval = (IntervalContext) c;
+				out.writeByte(CONTEXT_INTERVAL);
+				out.writeInt(interval.getMin());
+				out.writeInt(interval.getMax());
+				out.writeBoolean(interval.isImprecise());
+			} else
+				throw new IOException(String.format("Container context %s cannot be written to a checkpoint", c));
+		}
+	}
+
+	private ContainerContext[] readContext(CheckpointInput in) throws IOException {
+		int length = in.readVarInt();
+		if (length == 0)
+			return null;
+		ContainerContext[] context = new ContainerContext[length - 1];
+		for (int i = 0; i < context.length; i++) {
+			switch (in.readByte()) {
+			case CONTEXT_UNKNOWN:
+				context[i] = UnknownContext.v();
+				break;
+			case CONTEXT_INTERVAL:
+				context[i] = new IntervalContext(in.readInt(), in.readInt(), in.readBoolean());
+				break;
+			default:
+				throw new IOException("Malformed container context in checkpoint");
+			}
+		}
+		return context;
+	}
+
+	private void writeSourceContext(SourceContext sourceContext, CheckpointOutput out) throws IOException {
+		if (sourceContext == null) {
+			out.writeVarInt(0);
+			return;
+		}
+		Integer id = writtenContexts.get(sourceContext);
+		if (id != null) {
+			out.writeVarInt(id + 2);
+			return;
+		}
+		writtenContexts.put(sourceContext, writtenContexts.size());
+		out.writeVarInt(1);
+		out.writeUnit(sourceContext.getStmt());
+		writeAccessPath(sourceContext.getAccessPath(), out);
+	}
+
+	private SourceContext readSourceContext(CheckpointInput in) throws IOException {
+		int id = in.readVarInt();
+		if (id == 0)
+			return null;
+		if (id > 1) {
+			if (id - 2 >= readContexts.size())
+				throw new IOException("Malformed source context reference in checkpoint");
+			return readContexts.get(id - 2);
+		}
+
+		Stmt stmt = (Stmt) in.readUnit();
+		AccessPath ap = readAccessPath(in);
+
+		// The definitions and the user data are not part of the checkpoint, we ask the
+		// source/sink manager for them again
+		SourceInfo sourceInfo = null;
+		if (stmt != null) {
+			if (sourceInfos.containsKey(stmt))
+				sourceInfo = sourceInfos.get(stmt);
+			else {
+				sourceInfo = manager.getSourceSinkManager() == null ? null
+						: manager.getSourceSinkManager().getSourceInfo(stmt, manager);
+				sourceInfos.put(stmt, sourceInfo);
+			}
+		}
+		Collection<ISourceSinkDefinition> definitions = sourceInfo == null ? null
+				: sourceInfo.getDefinitionsForAccessPath(ap);
+		if (definitions == null)
+			definitions = Collections.emptySet();
+		SourceContext sourceContext = new SourceContext(definitions, ap, stmt,
+				sourceInfo == null ? null : sourceInfo.getUserData());
+		readContexts.add(sourceContext);
+		return sourceContext;
+	}
+
+}
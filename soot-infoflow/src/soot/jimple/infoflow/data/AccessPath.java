@@ -45,6 +45,22 @@ public class AccessPath implements Cloneable {
 
 	private int hashCode = 0;
 
+	/**
+	 * The numeric identifier of this access path, or zero if this access path has
+	 * not been registered. Access paths from the same registry are equal if and
+	 * only if their identifiers are equal.
+	 */
+	private int id = 0;
+	private volatile AccessPathIdRegistry idRegistry = null;
+
+	/**
+	 * The registered access path that owns the identifier of this access path, or
+	 * null if this access path owns its identifier itself or has not been
+	 * registered. The reference keeps the owner alive in the weak table of the
+	 * registry.
+	 */
+	private AccessPath canonical = null;
+
 	/**
 	 * The empty access path denotes a code region depending on a tainted
 	 * conditional. If a function is called inside the region, there is no tainted
@@ -265,6 +281,30 @@ public class AccessPath implements Cloneable {
 		return hashCode;
 	}
 
+	/**
+	 * Gets the numeric identifier of this access path. Access paths that have been
+	 * created by the same {@link AccessPathFactory} and have the same identifier
+	 * are equal. Until the factory drops its caches to save memory, equal access
+	 * paths also have the same identifier. Afterwards, access paths that are
+	 * created anew receive new identifiers, which are never reused.
+	 * 
+	 * @return The identifier of this access path, or zero if this access path has
+	 *         no identifier
+	 */
+	public int getId() {
+		return id;
+	}
+
+	AccessPathIdRegistry getIdRegistry() {
+		return idRegistry;
+	}
+
+	void setId(AccessPathIdRegistry idRegistry, int id, AccessPath canonical) {
+		this.id = id;
+		this.canonical = canonical;
+		this.idRegistry = idRegistry;
+	}
+
 	@Override
 	public boolean equals(Object obj) {
 		if (obj == this || super.equals(obj))
@@ -274,6 +314,18 @@ public class AccessPath implements Cloneable {
 
 		AccessPath other = (AccessPath) obj;
 
+		// The identifier is written before the registry, so a registry that is
+		// visible implies a valid identifier
+		AccessPathIdRegistry registry = this.idRegistry;
+		AccessPathIdRegistry otherRegistry = other.idRegistry;
+		if (registry != null && registry == otherRegistry)
+			return this.id == other.id;
+
+		// Registries of the same factory never issue the same identifier twice
+		if (registry != null && otherRegistry != null && this.id == other.id
+				&& registry.sharesCounterWith(otherRegistry))
+			return true;
+
 		if (this.hashCode != 0 && other.hashCode != 0 && this.hashCode != other.hashCode)
 			return false;
 
@@ -387,6 +439,8 @@ public class AccessPath implements Cloneable {
 
 		AccessPath a = new AccessPath(value, baseType, fragments, taintSubFields, cutOffApproximation, arrayTaintType,
 				canHaveImmutableAliases);
+		if (idRegistry != null)
+			a.setId(idRegistry, id, canonical == null ? this : canonical);
 		assert a.equals(this);
 		return a;
 	}
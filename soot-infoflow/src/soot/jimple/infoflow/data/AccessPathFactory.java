@@ -4,6 +4,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,18 +30,39 @@ import soot.jimple.infoflow.collect.MyConcurrentHashMap;
 import soot.jimple.infoflow.data.AccessPath.ArrayTaintType;
 import soot.jimple.infoflow.data.accessPaths.SameFieldReductionStrategy;
 import soot.jimple.infoflow.data.accessPaths.This0ReductionStrategy;
+import soot.jimple.infoflow.memory.IMemoryDegradationHandler;
+import soot.jimple.infoflow.memory.MemoryDegradationLevel;
 import soot.jimple.infoflow.typing.TypeUtils;
 
-public class AccessPathFactory {
+public class AccessPathFactory implements IMemoryDegradationHandler {
 
 	protected final static Logger logger = LoggerFactory.getLogger(AccessPathFactory.class);
 
 	private final InfoflowConfiguration config;
 	private final TypeUtils typeUtils;
 
+	/**
+	 * Limit for the access path length that is applied on top of the configured
+	 * length when the analysis runs out of memory, or -1 for no additional limit
+	 */
+	private volatile int accessPathLengthLimit = -1;
+
+	/**
+	 * Registry that assigns numeric identifiers to all access paths created by this
+	 * factory
+	 */
+	private final AtomicInteger nextAccessPathId = new AtomicInteger(1);
+	private volatile AccessPathIdRegistry idRegistry = new AccessPathIdRegistry(nextAccessPathId);
+
 	private final static SameFieldReductionStrategy SAME_FIELD_REDUCTION = new SameFieldReductionStrategy();
 	private final static This0ReductionStrategy THIS0_REDUCTION = new This0ReductionStrategy();
 
+	/**
+	 * Access path length to fall back to when the length was not limited before
+	 * and the analysis runs out of memory
+	 */
+	private final static int UNLIMITED_DEGRADED_ACCESS_PATH_LENGTH = 5;
+
 	/**
 	 * Specialized pair class for field bases
 	 * 
@@ -210,7 +232,8 @@ public class AccessPathFactory {
 
 		// If we don't want to track fields at all, we can cut the field
 		// processing short
-		if (accessPathConfig.getAccessPathLength() == 0)
+		final int maxAccessPathLength = getMaxAccessPathLength();
+		if (maxAccessPathLength == 0)
 			fragments = null;
 
 		// Cut the first field if requested
@@ -325,7 +348,6 @@ public class AccessPathFactory {
 		// Cut the fields at the maximum access path length. If this happens,
 		// we must always add a star
 		if (fragments != null) {
-			final int maxAccessPathLength = accessPathConfig.getAccessPathLength();
 			if (maxAccessPathLength >= 0) {
 				int fieldNum = Math.min(maxAccessPathLength, fragments.length);
 				if (fragments.length > fieldNum) {
@@ -375,8 +397,9 @@ public class AccessPathFactory {
 			}
 		}
 
-		return new AccessPath(value, baseType, ctxt, fragments, taintSubFields, cutOffApproximation, arrayTaintType,
-				canHaveImmutableAliases);
+		AccessPath ap = new AccessPath(value, baseType, ctxt, fragments, taintSubFields, cutOffApproximation,
+				arrayTaintType, canHaveImmutableAliases);
+		return accessPathConfig.getNumberAccessPaths() ? idRegistry.register(ap) : ap;
 	}
 
 	private void registerBase(Type eiType, AccessPathFragment[] base) {
@@ -498,6 +521,41 @@ public class AccessPathFactory {
 		return appendFields(ap1, ap2.getFragments(), ap2.getTaintSubFields());
 	}
 
+	/**
+	 * Gets the maximum length of newly created access paths. This is the configured
+	 * length unless it has been reduced to save memory.
+	 * 
+	 * @return The maximum access path length, or a negative value if the length is
+	 *         not limited
+	 */
+	public int getMaxAccessPathLength() {
+		int configured = config.getAccessPathConfiguration().getAccessPathLength();
+		int limit = accessPathLengthLimit;
+		if (limit < 0 || (configured >= 0 && configured <= limit))
+			return configured;
+		return limit;
+	}
+
+	@Override
+	public void onMemoryDegradation(MemoryDegradationLevel level) {
+		if (level == MemoryDegradationLevel.ReducePrecision) {
+			// Existing access paths remain valid, we only create shorter ones from now on
+			int curLength = getMaxAccessPathLength();
+			int newLength = curLength < 0 ? UNLIMITED_DEGRADED_ACCESS_PATH_LENGTH : Math.max(1, curLength / 2);
+			if (curLength < 0 || newLength < curLength) {
+				logger.info("Reducing the maximum access path length to {} to save memory", newLength);
+				accessPathLengthLimit = newLength;
+			}
+		} else if (level == MemoryDegradationLevel.SpillCaches) {
+			// Existing identifiers remain valid within their registry, new access paths
+			// are numbered in a fresh one. The registries share the counter, so that no
+			// identifier is issued twice.
+			logger.info("Dropping the table of {} access path identifiers to save memory",
+					idRegistry.getIssuedIdCount());
+			idRegistry = new AccessPathIdRegistry(nextAccessPathId);
+		}
+	}
+
 	/**
 	 * Appends additional fields to the given access path
 	 * 
@@ -0,0 +1,88 @@
+package soot.jimple.infoflow.data;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+/**
+ * Assigns numeric identifiers to access paths. Two access paths that have been
+ * registered with the same registry are equal if and only if they have the same
+ * identifier. Registries that share the same counter never issue the same
+ * identifier twice, so equal identifiers from such registries still imply equal
+ * access paths. Different identifiers from different registries, however, do
+ * not imply that the access paths differ.
+ *
+ * The first access path that is registered for a given value becomes the
+ * canonical one and receives a new identifier. Equal access paths that are
+ * registered later take over its identifier and keep a reference to it. The
+ * canonical access paths are interned weakly, so the registry does not keep
+ * access paths alive that are no longer referenced anywhere else. As long as an
+ * access path with a given identifier is alive, so is its canonical access path,
+ * and no other access path receives a different identifier for the same value.
+ */
+class AccessPathIdRegistry {
+
+	private final Interner<AccessPath> canonicalPaths = Interners.newWeakInterner();
+	private final AtomicInteger nextId;
+	private final AtomicInteger issuedIds = new AtomicInteger();
+
+	/**
+	 * Creates a new instance of the {@link AccessPathIdRegistry} class
+	 *
+	 * @param nextId The counter from which to take the identifiers. It must start
+	 *               at one or more.
+	 */
+	AccessPathIdRegistry(AtomicInteger nextId) {
+		this.nextId = nextId;
+	}
+
+	/**
+	 * Assigns an identifier to the given access path. If an equal access path has
+	 * already been registered and is still alive, the given access path receives
+	 * the same identifier.
+	 *
+	 * @param ap The access path to register
+	 * @return The given access path
+	 */
+	AccessPath register(AccessPath ap) {
+		if (ap == null || ap.getIdRegistry() != null)
+			return ap;
+
+		AccessPath canonical = canonicalPaths.intern(ap);
+		if (canonical.getIdRegistry() != this) {
+			// Another thread may have interned the same access path, but not yet
+			// numbered it
+			synchronized (canonical) {
+				if (canonical.getIdRegistry() != this) {
+					canonical.setId(this, nextId.getAndIncrement(), null);
+					issuedIds.incrementAndGet();
+				}
+			}
+		}
+		if (canonical != ap)
+			ap.setId(this, canonical.getId(), canonical);
+		return ap;
+	}
+
+	/**
+	 * Checks whether this registry takes its identifiers from the same counter as
+	 * the given one
+	 *
+	 * @param other The registry to compare with
+	 * @return True if both registries share the same counter, otherwise false
+	 */
+	boolean sharesCounterWith(AccessPathIdRegistry other) {
+		return other != null && other.nextId == this.nextId;
+	}
+
+	/**
+	 * Gets the number of identifiers that this registry has issued
+	 *
+	 * @return The number of identifiers that this registry has issued
+	 */
+	int getIssuedIdCount() {
+		return issuedIds.get();
+	}
+
+}
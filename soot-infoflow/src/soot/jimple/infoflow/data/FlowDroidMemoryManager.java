@@ -10,6 +10,8 @@ import org.slf4j.LoggerFactory;
 import soot.Unit;
 import soot.jimple.ReturnStmt;
 import soot.jimple.ReturnVoidStmt;
+import soot.jimple.infoflow.memory.IMemoryDegradationHandler;
+import soot.jimple.infoflow.memory.MemoryDegradationLevel;
 import soot.jimple.infoflow.solver.memory.IMemoryManager;
 
 /**
@@ -18,7 +20,7 @@ import soot.jimple.infoflow.solver.memory.IMemoryManager;
  * @author Steven Arzt
  *
  */
-public class FlowDroidMemoryManager implements IMemoryManager<Abstraction, Unit> {
+public class FlowDroidMemoryManager implements IMemoryManager<Abstraction, Unit>, IMemoryDegradationHandler {
 
 	private final Logger logger = LoggerFactory.getLogger(getClass());
 
@@ -78,7 +80,7 @@ public class FlowDroidMemoryManager implements IMemoryManager<Abstraction, Unit>
 	private AtomicInteger reuseCounter = new AtomicInteger();
 
 	private final boolean tracingEnabled;
-	private final PathDataErasureMode erasePathData;
+	private volatile PathDataErasureMode erasePathData;
 	private boolean useAbstractionCache = false;
 
 	/**
@@ -266,6 +268,26 @@ public class FlowDroidMemoryManager implements IMemoryManager<Abstraction, Unit>
 		this.useAbstractionCache = useAbstractionCache;
 	}
 
+	@Override
+	public void onMemoryDegradation(MemoryDegradationLevel level) {
+		switch (level) {
+		case ErasePathData:
+			// We keep enough data for context-sensitive path reconstruction
+			if (erasePathData == PathDataErasureMode.EraseNothing) {
+				logger.info("FDMM: Enabling path data erasure to save memory");
+				erasePathData = PathDataErasureMode.KeepOnlyContextData;
+			}
+			break;
+		case SpillCaches:
+			// The caches only serve to share equal objects, so we can rebuild them
+			apCache.clear();
+			absCache.clear();
+			break;
+		default:
+			break;
+		}
+	}
+
 	@Override
 	public boolean isEssentialJoinPoint(Abstraction abs, Unit relatedCallSite) {
 		return relatedCallSite != null && erasePathData != PathDataErasureMode.EraseAll;
@@ -5,25 +5,26 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Stack;
 
 import heros.solver.Pair;
 import soot.jimple.Stmt;
 import soot.jimple.infoflow.InfoflowConfiguration;
 import soot.jimple.infoflow.InfoflowConfiguration.PathConfiguration;
 import soot.jimple.infoflow.sourcesSinks.definitions.ISourceSinkDefinition;
-import soot.jimple.infoflow.util.extensiblelist.ExtensibleList;
+import soot.jimple.infoflow.util.extensiblelist.HashConsedList;
 
 /**
  * Extension of {@link SourceContext} that also allows a paths from the source
- * to the current statement to be stored
+ * to the current statement to be stored. Paths and call stacks are
+ * {@link HashConsedList}s, so extending a path never copies it and two objects
+ * that were built along the same abstractions share the same path node.
  * 
  * @author Steven Arzt
  */
 public class SourceContextAndPath extends SourceContext implements Cloneable {
 
-	protected ExtensibleList<Abstraction> path = null;
-	protected ExtensibleList<Stmt> callStack = null;
+	protected HashConsedList<Abstraction> path = null;
+	protected HashConsedList<Stmt> callStack = null;
 	protected int neighborCounter = 0;
 	protected InfoflowConfiguration config;
 
@@ -80,9 +81,7 @@ public class SourceContextAndPath extends SourceContext implements Cloneable {
 	}
 
 	private int getCallStackSize() {
-		if (isCallStackEmpty())
-			return 0;
-		return callStack.size();
+		return HashConsedList.size(callStack);
 	}
 
 	/**
@@ -96,59 +95,68 @@ public class SourceContextAndPath extends SourceContext implements Cloneable {
 		if (this.path == null || other.path == null || other.path.size() <= this.path.size())
 			return null;
 
-		Stack<Abstraction> pathStack = new Stack<>();
+		// Find the common abstraction on the cached path
 		Abstraction lastAbs = this.getLastAbstraction();
-		boolean foundCommonAbs = false;
-
-		// Collect all additional abstractions on the cached path
-		Iterator<Abstraction> pathIt = other.path.reverseIterator();
-		while (pathIt.hasNext()) {
-			Abstraction next = pathIt.next();
-			if (next == lastAbs || (next.neighbors != null && next.neighbors.contains(lastAbs))) {
-				foundCommonAbs = true;
+		HashConsedList<Abstraction> commonNode = other.path;
+		while (commonNode != null) {
+			Abstraction next = commonNode.getLast();
+			if (next == lastAbs || (next.neighbors != null && next.neighbors.contains(lastAbs)))
 				break;
-			}
-			pathStack.push(next);
+			commonNode = commonNode.getParent();
 		}
 
 		// If the paths do not have a common abstraction, there's probably something wrong...
-		if (!foundCommonAbs)
+		if (commonNode == null)
 			return null;
 
-		// Append the additional abstractions to the new taint propagation path
-		SourceContextAndPath extendedScap = clone();
-		while (!pathStack.isEmpty())
-			extendedScap.path.add(pathStack.pop());
-
 		int newCallStackCapacity = other.getCallStackSize() - this.getCallStackSize();
 		// Sanity Check: The callStack of other should always be larger than the one of this
 		if (newCallStackCapacity < 0)
 			return null;
-		if (newCallStackCapacity > 0) {
-			Stack<Stmt> callStackBuf = new Stack<>();
-			Stmt topStmt = this.callStack == null ? null : this.callStack.getLast();
 
-			// Collect all additional statements on the call stack...
-			Iterator<Stmt> callStackIt = other.callStack.reverseIterator();
-			while (callStackIt.hasNext()) {
-				Stmt next = callStackIt.next();
-				if (next == topStmt)
-					break;
-				callStackBuf.push(next);
-			}
+		// Append the additional abstractions to the new taint propagation path. If
+		// both paths share the prefix up to the common abstraction, we can directly
+		// reuse the cached path.
+		SourceContextAndPath extendedScap = clone();
+		extendedScap.path = commonNode == this.path ? other.path
+				: appendSuffix(this.path, other.path, commonNode);
 
-			if (callStackBuf.size() > 0) {
-				if (extendedScap.callStack == null)
-					extendedScap.callStack = new ExtensibleList<>();
-				// ...and append them.
-				while (!callStackBuf.isEmpty())
-					extendedScap.callStack.add(callStackBuf.pop());
+		if (newCallStackCapacity > 0) {
+			// Collect all additional statements on the call stack...
+			Stmt topStmt = this.callStack == null ? null : this.callStack.getLast();
+			HashConsedList<Stmt> commonStmt = other.callStack;
+			while (commonStmt != null && commonStmt.getLast() != topStmt)
+				commonStmt = commonStmt.getParent();
+
+			// ...and append them.
+			if (commonStmt != other.callStack) {
+				extendedScap.callStack = commonStmt != null && commonStmt == this.callStack ? other.callStack
+						: appendSuffix(this.callStack, other.callStack, commonStmt);
 			}
 		}
 
 		return extendedScap;
 	}
 
+	/**
+	 * Appends the elements of the given source list that come after the given
+	 * stop node to the given target list
+	 * 
+	 * @param target The list to extend
+	 * @param source The list from which to take the elements
+	 * @param stop   The node in the source list after which to start copying, or
+	 *               null to copy the whole source list
+	 * @return The extended target list
+	 */
+	private static <T> HashConsedList<T> appendSuffix(HashConsedList<T> target, HashConsedList<T> source,
+			HashConsedList<T> stop) {
+		List<T> suffix = new ArrayList<>(source.size() - HashConsedList.size(stop));
+		for (HashConsedList<T> cur = source; cur != stop; cur = cur.getParent())
+			suffix.add(cur.getLast());
+		Collections.reverse(suffix);
+		return HashConsedList.appendAll(target, suffix);
+	}
+
 	/**
 	 * Extends the taint propagation path with the given abstraction
 	 * 
@@ -208,9 +216,7 @@ public class SourceContextAndPath extends SourceContext implements Cloneable {
 			scap = clone();
 
 			// Extend the propagation path
-			if (scap.path == null)
-				scap.path = new ExtensibleList<Abstraction>();
-			scap.path.add(abs);
+			scap.path = HashConsedList.append(scap.path, abs);
 
 			if (pathConfig != null && pathConfig.getMaxPathLength() > 0
 					&& scap.path.size() > pathConfig.getMaxPathLength()) {
@@ -222,12 +228,10 @@ public class SourceContextAndPath extends SourceContext implements Cloneable {
 		if (abs.getCorrespondingCallSite() != null && abs.getCorrespondingCallSite() != abs.getCurrentStmt()) {
 			if (scap == null)
 				scap = this.clone();
-			if (scap.callStack == null)
-				scap.callStack = new ExtensibleList<Stmt>();
-			else if (pathConfig != null && pathConfig.getMaxCallStackSize() > 0
+			if (scap.callStack != null && pathConfig != null && pathConfig.getMaxCallStackSize() > 0
 					&& scap.callStack.size() >= pathConfig.getMaxCallStackSize())
 				return null;
-			scap.callStack.add(abs.getCorrespondingCallSite());
+			scap.callStack = HashConsedList.append(scap.callStack, abs.getCorrespondingCallSite());
 		}
 
 		this.neighborCounter = abs.getNeighbors() == null ? 0 : abs.getNeighbors().size();
@@ -242,20 +246,12 @@ public class SourceContextAndPath extends SourceContext implements Cloneable {
 	 *         element. If there is no call stack, null is returned.
 	 */
 	public Pair<SourceContextAndPath, Stmt> popTopCallStackItem() {
-		if (callStack == null || callStack.isEmpty())
+		if (callStack == null)
 			return null;
 
 		SourceContextAndPath scap = clone();
-		Stmt lastStmt = null;
-		Object c = scap.callStack.removeLast();
-		if (c instanceof ExtensibleList) {
-			lastStmt = scap.callStack.getLast();
-			scap.callStack = (ExtensibleList<Stmt>) c;
-		} else
-			lastStmt = (Stmt) c;
-
-		if (scap.callStack.isEmpty())
-			scap.callStack = null;
+		Stmt lastStmt = callStack.getLast();
+		scap.callStack = callStack.getParent();
 		return new Pair<>(scap, lastStmt);
 	}
 
@@ -266,7 +262,7 @@ public class SourceContextAndPath extends SourceContext implements Cloneable {
 	 * @return True if the call stack is empty, otherwise false
 	 */
 	public boolean isCallStackEmpty() {
-		return this.callStack == null || this.callStack.isEmpty();
+		return this.callStack == null;
 	}
 
 	public void setNeighborCounter(int counter) {
@@ -288,29 +284,15 @@ public class SourceContextAndPath extends SourceContext implements Cloneable {
 		if (this.hashCode != 0 && scap.hashCode != 0 && this.hashCode != scap.hashCode)
 			return false;
 
-		boolean mergeDifferentPaths = !config.getPathAgnosticResults() && path != null && scap.path != null;
-		if (mergeDifferentPaths) {
-			if (path.size() != scap.path.size()) {
-				// Quick check: they cannot be equal
-				return false;
-			}
-		}
-
-		if (this.callStack == null || this.callStack.isEmpty()) {
-			if (scap.callStack != null && !scap.callStack.isEmpty())
-				return false;
-		} else {
-			if (scap.callStack == null || scap.callStack.isEmpty())
-				return false;
-
-			if (callStack.size() != scap.callStack.size() || !this.callStack.equals(scap.callStack))
-				return false;
-		}
+		// Hash-consed lists that were built from the same abstractions are the same
+		// object. We only need to compare the elements if the lists differ.
+		if (this.callStack != scap.callStack && !HashConsedList.structurallyEquals(this.callStack, scap.callStack))
+			return false;
 
-		if (mergeDifferentPaths) {
-			if (!this.path.equals(scap.path))
-				return false;
-		}
+		boolean mergeDifferentPaths = !config.getPathAgnosticResults() && path != null && scap.path != null;
+		if (mergeDifferentPaths && this.path != scap.path
+				&& !HashConsedList.structurallyEquals(this.path, scap.path))
+			return false;
 
 		return super.equals(other);
 	}
@@ -323,19 +305,18 @@ public class SourceContextAndPath extends SourceContext implements Cloneable {
 		final int prime = 31;
 		int result = super.hashCode();
 		if (!config.getPathAgnosticResults())
-			result = prime * result + ((path == null) ? 0 : path.hashCode());
-		result = prime * result + ((callStack == null) ? 0 : callStack.hashCode());
+			result = prime * result + HashConsedList.structuralHashCode(path);
+		result = prime * result + HashConsedList.structuralHashCode(callStack);
 		this.hashCode = result;
 		return hashCode;
 	}
 
 	@Override
 	public SourceContextAndPath clone() {
+		// Hash-consed lists are immutable, so we can share them
 		final SourceContextAndPath scap = new SourceContextAndPath(config, definitions, accessPath, stmt, userData);
-		if (path != null)
-			scap.path = new ExtensibleList<Abstraction>(this.path);
-		if (callStack != null)
-			scap.callStack = new ExtensibleList<Stmt>(callStack);
+		scap.path = this.path;
+		scap.callStack = this.callStack;
 		return scap;
 	}
 
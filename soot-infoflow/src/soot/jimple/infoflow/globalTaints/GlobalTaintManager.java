@@ -1,19 +1,14 @@
 package soot.jimple.infoflow.globalTaints;
 
-import java.util.HashSet;
 import java.util.Set;
 
 import heros.solver.PathEdge;
-import soot.MethodOrMethodContext;
-import soot.Scene;
-import soot.SootMethod;
-import soot.Unit;
-import soot.ValueBox;
-import soot.jimple.StaticFieldRef;
+import soot.SootField;
 import soot.jimple.Stmt;
+import soot.jimple.infoflow.collect.ConcurrentHashSet;
 import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.problems.NormalFlowFunctionMemo;
 import soot.jimple.infoflow.solver.IInfoflowSolver;
-import soot.util.queue.QueueReader;
 
 /**
  * Manager class for storing and processing global taints, i.e., taints that
@@ -25,11 +20,26 @@ import soot.util.queue.QueueReader;
  */
 public class GlobalTaintManager {
 
-	private final Set<Abstraction> globalTaintState = new HashSet<>();
+	private final Set<Abstraction> globalTaintState = new ConcurrentHashSet<>();
 	private final Set<IInfoflowSolver> solvers;
+	private final StaticFieldReadIndex staticFieldReads;
 
 	public GlobalTaintManager(Set<IInfoflowSolver> solvers) {
+		this(solvers, new StaticFieldReadIndex());
+	}
+
+	/**
+	 * Creates a new instance of the {@link GlobalTaintManager} class
+	 * 
+	 * @param solvers          The solvers that shall be notified of new global
+	 *                         taints
+	 * @param staticFieldReads The index of the statements that read static fields.
+	 *                         The index can be shared between multiple runs of the
+	 *                         data flow analysis.
+	 */
+	public GlobalTaintManager(Set<IInfoflowSolver> solvers, StaticFieldReadIndex staticFieldReads) {
 		this.solvers = solvers;
+		this.staticFieldReads = staticFieldReads;
 	}
 
 	/**
@@ -43,36 +53,20 @@ public class GlobalTaintManager {
 	 *         been recorded before
 	 */
 	public boolean addToGlobalTaintState(Abstraction abs) {
+		NormalFlowFunctionMemo.markSideEffect();
 		if (globalTaintState.add(abs) && solvers != null && !solvers.isEmpty()) {
 			// Find statements that read the given taint. At the moment, we only support
 			// taints on static field here.
-			Set<Stmt> injectionPoints = new HashSet<>();
-			QueueReader<MethodOrMethodContext> methodListener = Scene.v().getReachableMethods().listener();
-			MethodOrMethodContext mmoc;
-			while (methodListener.hasNext() && (mmoc = methodListener.next()) != null) {
-				SootMethod sm = mmoc.method();
-				if (sm != null && sm.isConcrete()) {
-					for (Unit u : sm.getActiveBody().getUnits()) {
-						if (u instanceof Stmt) {
-							Stmt stmt = (Stmt) u;
-							for (ValueBox vb : stmt.getUseBoxes()) {
-								if (vb.getValue() instanceof StaticFieldRef) {
-									StaticFieldRef fieldRef = (StaticFieldRef) vb.getValue();
-									if (abs.getAccessPath().firstFieldMatches(fieldRef.getField())) {
-										injectionPoints.add(stmt);
-									}
-								}
-							}
-						}
-					}
-				}
-			}
+			SootField field = abs.getAccessPath().getFirstField();
+			if (field != null) {
+				Set<Stmt> injectionPoints = staticFieldReads.getReadingStatements(field);
 
-			// Notify the solvers of the new taint abstraction
-			if (!injectionPoints.isEmpty()) {
-				for (IInfoflowSolver solver : solvers) {
-					for (Stmt stmt : injectionPoints)
-						solver.processEdge(new PathEdge<>(solver.getTabulationProblem().zeroValue(), stmt, abs));
+				// Notify the solvers of the new taint abstraction
+				if (!injectionPoints.isEmpty()) {
+					for (IInfoflowSolver solver : solvers) {
+						for (Stmt stmt : injectionPoints)
+							solver.processEdge(new PathEdge<>(solver.getTabulationProblem().zeroValue(), stmt, abs));
+					}
 				}
 			}
 
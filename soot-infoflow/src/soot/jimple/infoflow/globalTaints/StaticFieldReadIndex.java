@@ -0,0 +1,103 @@
+package soot.jimple.infoflow.globalTaints;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import soot.MethodOrMethodContext;
+import soot.Scene;
+import soot.SootField;
+import soot.SootMethod;
+import soot.Unit;
+import soot.ValueBox;
+import soot.jimple.StaticFieldRef;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.collect.ConcurrentHashSet;
+import soot.util.queue.QueueReader;
+
+/**
+ * Index that maps static fields to the reachable statements that read them.
+ * The index is built only once over all reachable methods. It can be built in
+ * the background, e.g., while the interprocedural control flow graph is being
+ * constructed.
+ */
+public class StaticFieldReadIndex {
+
+	private volatile Map<SootField, Set<Stmt>> reads = null;
+	private CompletableFuture<Map<SootField, Set<Stmt>>> pendingReads = null;
+
+	/**
+	 * Starts building the index in the background. If the index is requested
+	 * before the build has finished, the request waits for the build.
+	 */
+	public synchronized void buildAsync() {
+		if (reads != null || pendingReads != null)
+			return;
+
+		// Obtain the reachable methods on the calling thread, since Soot creates them
+		// lazily
+		final List<SootMethod> methods = getReachableMethods();
+		pendingReads = CompletableFuture.supplyAsync(() -> buildIndex(methods));
+	}
+
+	/**
+	 * Gets all reachable statements that read the given static field
+	 *
+	 * @param field The static field
+	 * @return The statements that read the given static field
+	 */
+	public Set<Stmt> getReadingStatements(SootField field) {
+		Set<Stmt> stmts = getIndex().get(field);
+		return stmts == null ? Collections.emptySet() : stmts;
+	}
+
+	private Map<SootField, Set<Stmt>> getIndex() {
+		Map<SootField, Set<Stmt>> index = reads;
+		if (index == null) {
+			synchronized (this) {
+				index = reads;
+				if (index == null) {
+					index = pendingReads != null ? pendingReads.join() : buildIndex(getReachableMethods());
+					reads = index;
+					pendingReads = null;
+				}
+			}
+		}
+		return index;
+	}
+
+	private static List<SootMethod> getReachableMethods() {
+		List<SootMethod> methods = new ArrayList<>();
+		QueueReader<MethodOrMethodContext> methodListener = Scene.v().getReachableMethods().listener();
+		MethodOrMethodContext mmoc;
+		while (methodListener.hasNext() && (mmoc = methodListener.next()) != null) {
+			SootMethod sm = mmoc.method();
+			if (sm != null && sm.isConcrete())
+				methods.add(sm);
+		}
+		return methods;
+	}
+
+	private static Map<SootField, Set<Stmt>> buildIndex(List<SootMethod> methods) {
+		Map<SootField, Set<Stmt>> index = new ConcurrentHashMap<>();
+		methods.parallelStream().forEach(sm -> {
+			for (Unit u : sm.retrieveActiveBody().getUnits()) {
+				if (u instanceof Stmt) {
+					Stmt stmt = (Stmt) u;
+					for (ValueBox vb : stmt.getUseBoxes()) {
+						if (vb.getValue() instanceof StaticFieldRef) {
+							SootField field = ((StaticFieldRef) vb.getValue()).getField();
+							index.computeIfAbsent(field, f -> new ConcurrentHashSet<>()).add(stmt);
+						}
+					}
+				}
+			}
+		});
+		return index;
+	}
+
+}
@@ -0,0 +1,197 @@
+package soot.jimple.infoflow.handlers;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import soot.SootMethod;
+import soot.Unit;
+import soot.jimple.infoflow.InfoflowManager;
+import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.results.InfoflowPerformanceData;
+import soot.jimple.infoflow.results.MethodPerformanceData;
+
+/**
+ * Low-overhead profiler that attributes the work of the data flow analysis to
+ * the methods of the program. The profiler counts the edges that the taint and
+ * alias analyses propagate out of the statements of each method, the alias
+ * queries for taints created in each method, and the calls to the taint wrapper
+ * for each callee. The time spent in flow functions is only measured for every
+ * n-th flow function on each thread and extrapolated.
+ *
+ * All counters are thread-local and are only merged when the data is exported.
+ * The profiler must therefore only be exported once the solvers have finished.
+ */
+public class MethodProfiler {
+
+	private static final int EDGES = 0;
+	private static final int ALIAS_EDGES = 1;
+	private static final int FLOW_FUNCTION_TIME = 2;
+	private static final int ALIAS_FLOW_FUNCTION_TIME = 3;
+	private static final int TAINT_WRAPPER_CALLS = 4;
+	private static final int TAINT_WRAPPER_TIME = 5;
+	private static final int ALIAS_QUERIES = 6;
+	private static final int COUNTER_COUNT = 7;
+
+	private final int samplingInterval;
+
+	private final Queue<ThreadCounters> allCounters = new ConcurrentLinkedQueue<>();
+	private final ThreadLocal<ThreadCounters> threadCounters = ThreadLocal.withInitial(() -> {
+		ThreadCounters counters = new ThreadCounters();
+		allCounters.add(counters);
+		return counters;
+	});
+
+	private final TaintPropagationHandler taintPropagationHandler = new ProfilingHandler(EDGES, FLOW_FUNCTION_TIME);
+	private final TaintPropagationHandler aliasPropagationHandler = new ProfilingHandler(ALIAS_EDGES,
+			ALIAS_FLOW_FUNCTION_TIME);
+
+	/**
+	 * The counters of a single thread
+	 */
+	private static class ThreadCounters {
+
+		private final Map<SootMethod, long[]> counters = new HashMap<>();
+
+		private int tick = 0;
+		private Abstraction sampledTaint = null;
+		private long sampleStart = 0;
+
+		private long[] getCounters(SootMethod method) {
+			long[] methodCounters = counters.get(method);
+			if (methodCounters == null) {
+				methodCounters = new long[COUNTER_COUNT];
+				counters.put(method, methodCounters);
+			}
+			return methodCounters;
+		}
+
+	}
+
+	/**
+	 * Taint propagation handler that records the edges and flow function times of
+	 * a single solver
+	 */
+	private class ProfilingHandler implements TaintPropagationHandler {
+
+		private final int edgeCounter;
+		private final int timeCounter;
+
+		public ProfilingHandler(int edgeCounter, int timeCounter) {
+			this.edgeCounter = edgeCounter;
+			this.timeCounter = timeCounter;
+		}
+
+		@Override
+		public void notifyFlowIn(Unit stmt, Abstraction taint, InfoflowManager manager, FlowFunctionType type) {
+			ThreadCounters counters = threadCounters.get();
+			if (++counters.tick >= samplingInterval) {
+				counters.tick = 0;
+				counters.sampledTaint = taint;
+				counters.sampleStart = System.nanoTime();
+			}
+		}
+
+		@Override
+		public Set<Abstraction> notifyFlowOut(Unit stmt, Abstraction d1, Abstraction incoming,
+				Set<Abstraction> outgoing, InfoflowManager manager, FlowFunctionType type) {
+			SootMethod method = manager.getICFG().getMethodOf(stmt);
+			if (method != null) {
+				ThreadCounters counters = threadCounters.get();
+				long[] methodCounters = counters.getCounters(method);
+				if (outgoing != null)
+					methodCounters[edgeCounter] += outgoing.size();
+
+				// Flow functions that return early do not notify us, so we need to check that
+				// this is indeed the end of the sampled flow function
+				if (counters.sampledTaint == incoming) {
+					methodCounters[timeCounter] += (System.nanoTime() - counters.sampleStart) * samplingInterval;
+					counters.sampledTaint = null;
+				}
+			}
+			return outgoing;
+		}
+
+	}
+
+	/**
+	 * Creates a new method profiler
+	 *
+	 * @param samplingInterval The profiler measures the time of every n-th flow
+	 *                         function on each thread
+	 */
+	public MethodProfiler(int samplingInterval) {
+		if (samplingInterval < 1)
+			throw new IllegalArgumentException("The sampling interval must be positive");
+		this.samplingInterval = samplingInterval;
+	}
+
+	/**
+	 * Gets the taint propagation handler that profiles the taint analysis
+	 *
+	 * @return The taint propagation handler for the taint analysis
+	 */
+	public TaintPropagationHandler getTaintPropagationHandler() {
+		return taintPropagationHandler;
+	}
+
+	/**
+	 * Gets the taint propagation handler that profiles the alias analysis
+	 *
+	 * @return The taint propagation handler for the alias analysis
+	 */
+	public TaintPropagationHandler getAliasPropagationHandler() {
+		return aliasPropagationHandler;
+	}
+
+	/**
+	 * Records a call to the taint wrapper
+	 *
+	 * @param callee The method for which the taint wrapper was asked
+	 * @param time   The time that the taint wrapper took in nanoseconds
+	 */
+	public void recordTaintWrapperCall(SootMethod callee, long time) {
+		long[] methodCounters = threadCounters.get().getCounters(callee);
+		methodCounters[TAINT_WRAPPER_CALLS]++;
+		methodCounters[TAINT_WRAPPER_TIME] += time;
+	}
+
+	/**
+	 * Records an alias query for a taint that was created in the given method
+	 *
+	 * @param method The method in which the taint was created
+	 */
+	public void recordAliasQuery(SootMethod method) {
+		threadCounters.get().getCounters(method)[ALIAS_QUERIES]++;
+	}
+
+	/**
+	 * Merges the counters of all threads and adds them to the given performance
+	 * data object. This method must only be called once the solvers have finished.
+	 *
+	 * @param performanceData The performance data object to which to add the data
+	 *                        of this profiler
+	 */
+	public void exportTo(InfoflowPerformanceData performanceData) {
+		Map<SootMethod, long[]> merged = new HashMap<>();
+		for (ThreadCounters counters : allCounters) {
+			for (Map.Entry<SootMethod, long[]> entry : counters.counters.entrySet()) {
+				long[] target = merged.computeIfAbsent(entry.getKey(), k -> new long[COUNTER_COUNT]);
+				long[] source = entry.getValue();
+				for (int i = 0; i < COUNTER_COUNT; i++)
+					target[i] += source[i];
+			}
+		}
+
+		for (Map.Entry<SootMethod, long[]> entry : merged.entrySet()) {
+			long[] c = entry.getValue();
+			performanceData.addMethodPerformanceData(entry.getKey().getSignature(),
+					new MethodPerformanceData(c[EDGES], c[ALIAS_EDGES], c[FLOW_FUNCTION_TIME],
+							c[ALIAS_FLOW_FUNCTION_TIME], c[TAINT_WRAPPER_CALLS], c[TAINT_WRAPPER_TIME],
+							c[ALIAS_QUERIES]));
+		}
+	}
+
+}
@@ -1,5 +1,7 @@
 package soot.jimple.infoflow.memory;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 import org.slf4j.Logger;
@@ -8,6 +10,7 @@ import org.slf4j.LoggerFactory;
 import soot.jimple.infoflow.collect.ConcurrentHashSet;
 import soot.jimple.infoflow.memory.MemoryWarningSystem.OnMemoryThresholdReached;
 import soot.jimple.infoflow.memory.reasons.OutOfMemoryReason;
+import soot.jimple.infoflow.results.InfoflowPerformanceData;
 import soot.jimple.infoflow.results.InfoflowResults;
 
 /**
@@ -23,8 +26,13 @@ public class FlowDroidMemoryWatcher {
 
 	private final Set<IMemoryBoundedSolver> solvers = new ConcurrentHashSet<>();
 	private final InfoflowResults results;
+	private final double threshold;
 	private ISolversTerminatedCallback terminationCallback = null;
 
+	private final Set<IMemoryDegradationHandler> degradationHandlers = new ConcurrentHashSet<>();
+	private final List<MemoryWarningSystem> degradationWarningSystems = new ArrayList<>();
+	private MemoryDegradationLevel degradationLevel = null;
+
 	/**
 	 * Creates a new instance of the {@link FlowDroidMemoryWatcher} class
 	 */
@@ -76,6 +84,92 @@ public class FlowDroidMemoryWatcher {
 		});
 		warningSystem.setWarningThreshold(threshold);
 		this.results = res;
+		this.threshold = threshold;
+	}
+
+	/**
+	 * Enables adaptive degradation. Before the solvers are terminated, the
+	 * registered degradation handlers are asked to reduce their memory footprint
+	 * in several steps. The thresholds for the {@link MemoryDegradationLevel}s are
+	 * evenly distributed between the given start threshold and the threshold at
+	 * which the solvers are terminated.
+	 * 
+	 * @param startThreshold The fraction of the heap at which the first
+	 *                       degradation level shall be applied
+	 */
+	public void enableDegradation(double startThreshold) {
+		if (startThreshold <= 0.0 || startThreshold >= threshold)
+			throw new IllegalArgumentException("Degradation threshold must be between zero and the abort threshold");
+
+		MemoryDegradationLevel[] levels = MemoryDegradationLevel.values();
+		double step = (threshold - startThreshold) / levels.length;
+		for (int i = 0; i < levels.length; i++) {
+			final MemoryDegradationLevel level = levels[i];
+			MemoryWarningSystem ws = new MemoryWarningSystem();
+			ws.addListener((usedMemory, maxMemory) -> onDegradationLevelReached(level, usedMemory));
+			ws.setWarningThreshold(startThreshold + i * step);
+			degradationWarningSystems.add(ws);
+		}
+	}
+
+	/**
+	 * Applies the given degradation level to all registered handlers
+	 * 
+	 * @param level      The degradation level that has been reached
+	 * @param usedMemory The amount of memory currently in use
+	 */
+	private synchronized void onDegradationLevelReached(MemoryDegradationLevel level, long usedMemory) {
+		if (degradationLevel != null && degradationLevel.compareTo(level) >= 0)
+			return;
+		degradationLevel = level;
+		logger.warn("Running out of memory, applying degradation level {}", level);
+
+		// Record the transition
+		if (results != null) {
+			InfoflowPerformanceData performanceData = results.getPerformanceData();
+			if (performanceData != null)
+				performanceData.addMemoryDegradation(level, (int) Math.round(usedMemory / 1E6));
+		}
+
+		for (IMemoryDegradationHandler handler : degradationHandlers)
+			handler.onMemoryDegradation(level);
+	}
+
+	/**
+	 * Adds a handler that shall reduce its memory footprint when the heap runs
+	 * full. If degradation levels have already been reached, they are immediately
+	 * applied to the new handler.
+	 * 
+	 * @param handler The handler to add
+	 */
+	public synchronized void addDegradationHandler(IMemoryDegradationHandler handler) {
+		if (!degradationHandlers.add(handler) || degradationLevel == null)
+			return;
+		for (MemoryDegradationLevel level : MemoryDegradationLevel.values()) {
+			if (level.compareTo(degradationLevel) > 0)
+				break;
+			handler.onMemoryDegradation(level);
+		}
+	}
+
+	/**
+	 * Removes the given degradation handler
+	 * 
+	 * @param handler The handler to remove
+	 * @return True if the given handler was registered, otherwise false
+	 */
+	public boolean removeDegradationHandler(IMemoryDegradationHandler handler) {
+		return degradationHandlers.remove(handler);
+	}
+
+	/**
+	 * Gets the degradation level that has been reached so far
+	 * 
+	 * @return The current degradation level, or null if no degradation has been
+	 *         applied yet
+	 */
+	public synchronized MemoryDegradationLevel getDegradationLevel() {
+		return degradationLevel;
 	}
 
 	/**
@@ -86,6 +180,8 @@ public class FlowDroidMemoryWatcher {
 	 */
 	public void addSolver(IMemoryBoundedSolver solver) {
 		this.solvers.add(solver);
+		if (solver instanceof IMemoryDegradationHandler)
+			addDegradationHandler((IMemoryDegradationHandler) solver);
 	}
 
 	/**
@@ -96,6 +192,8 @@ public class FlowDroidMemoryWatcher {
 	 * @return True if the given solver was found in the watch list, otherwise false
 	 */
 	public boolean removeSolver(IMemoryBoundedSolver solver) {
+		if (solver instanceof IMemoryDegradationHandler)
+			removeDegradationHandler((IMemoryDegradationHandler) solver);
 		return this.solvers.remove(solver);
 	}
 
@@ -103,6 +201,10 @@ public class FlowDroidMemoryWatcher {
 	 * Clears the list of solvers registered with this memory watcher
 	 */
 	public void clearSolvers() {
+		for (IMemoryBoundedSolver solver : solvers) {
+			if (solver instanceof IMemoryDegradationHandler)
+				removeDegradationHandler((IMemoryDegradationHandler) solver);
+		}
 		this.solvers.clear();
 	}
 
@@ -111,7 +213,11 @@ public class FlowDroidMemoryWatcher {
 	 */
 	public void close() {
 		clearSolvers();
+		degradationHandlers.clear();
 		warningSystem.close();
+		for (MemoryWarningSystem ws : degradationWarningSystems)
+			ws.close();
+		degradationWarningSystems.clear();
 	}
 
 	/**
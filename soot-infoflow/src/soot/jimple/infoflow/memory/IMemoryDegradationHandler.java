@@ -0,0 +1,17 @@
+package soot.jimple.infoflow.memory;
+
+/**
+ * Interface for all components that can reduce their memory footprint when the
+ * {@link FlowDroidMemoryWatcher} detects that the heap is running full
+ */
+public interface IMemoryDegradationHandler {
+
+	/**
+	 * Method that is called when a new degradation level has been reached. Every
+	 * level is reported exactly once and in the order of increasing severity.
+	 * 
+	 * @param level The degradation level that has been reached
+	 */
+	public void onMemoryDegradation(MemoryDegradationLevel level);
+
+}
@@ -0,0 +1,27 @@
+package soot.jimple.infoflow.memory;
+
+/**
+ * Levels of adaptive degradation that FlowDroid applies when the heap runs
+ * full. The levels are ordered by severity. When a level is reached, all
+ * milder levels have already been applied.
+ */
+public enum MemoryDegradationLevel {
+	/**
+	 * Erase path tracking data that is not required for context-sensitive path
+	 * reconstruction
+	 */
+	ErasePathData,
+	/**
+	 * Reduce the precision for newly created facts, i.e., shorten the maximum
+	 * access path length and merge more abstractions at join points
+	 */
+	ReducePrecision,
+	/**
+	 * Immediately run the garbage collector of the data flow solvers
+	 */
+	CollectGarbage,
+	/**
+	 * Drop cached data that can be recomputed on demand
+	 */
+	SpillCaches
+}
@@ -223,6 +223,32 @@ public abstract class AbstractInfoflowProblem
 		this.activationUnitsToCallSites = other.activationUnitsToCallSites;
 	}
 
+	/**
+	 * Gets the call sites that have been registered for the activation units of
+	 * inactive taints
+	 *
+	 * @return A mapping from activation units to the call sites that activate the
+	 *         respective taints
+	 */
+	public Map<Unit, Set<Unit>> getActivationCallSites() {
+		Map<Unit, Set<Unit>> callSites = new HashMap<>();
+		for (Map.Entry<Unit, CallSite> entry : activationUnitsToCallSites.entrySet())
+			callSites.put(entry.getKey(), new HashSet<>(entry.getValue().callsites));
+		return callSites;
+	}
+
+	/**
+	 * Registers a call site that activates the taints with the given activation
+	 * unit, e.g., when restoring the solver state from a checkpoint
+	 *
+	 * @param activationUnit The activation unit
+	 * @param callSite       The call site that activates the taints
+	 */
+	public void addActivationCallSite(Unit activationUnit, Unit callSite) {
+		activationUnitsToCallSites.computeIfAbsent(activationUnit, createNewCallSite).addCallsite(callSite,
+				interproceduralCFG());
+	}
+
 	@Override
 	public IInfoflowCFG interproceduralCFG() {
 		return (IInfoflowCFG) super.interproceduralCFG();
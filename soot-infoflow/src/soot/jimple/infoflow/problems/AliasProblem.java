@@ -48,6 +48,7 @@ import soot.jimple.Stmt;
 import soot.jimple.UnopExpr;
 import soot.jimple.infoflow.InfoflowConfiguration.StaticFieldTrackingMode;
 import soot.jimple.infoflow.InfoflowManager;
+import soot.jimple.infoflow.aliasing.AliasQueryCache;
 import soot.jimple.infoflow.aliasing.Aliasing;
 import soot.jimple.infoflow.callmappers.CallerCalleeManager;
 import soot.jimple.infoflow.callmappers.ICallerCalleeArgumentMapper;
@@ -74,11 +75,23 @@ import soot.jimple.infoflow.util.BaseSelector;
  */
 public class AliasProblem extends AbstractInfoflowProblem {
 
+	protected AliasQueryCache aliasQueryCache = null;
+
 	@Override
 	public void setTaintWrapper(ITaintPropagationWrapper wrapper) {
 		taintWrapper = wrapper;
 	}
 
+	/**
+	 * Sets the cache that records the aliases found by this problem so that they
+	 * can be reused for equal alias queries in other contexts
+	 *
+	 * @param aliasQueryCache The cache to notify, or null to not record any aliases
+	 */
+	public void setAliasQueryCache(AliasQueryCache aliasQueryCache) {
+		this.aliasQueryCache = aliasQueryCache;
+	}
+
 	public AliasProblem(InfoflowManager manager) {
 		super(manager, null, EmptyPropagationRuleManagerFactory.INSTANCE);
 	}
@@ -251,8 +264,11 @@ public class AliasProblem extends AbstractInfoflowProblem {
 						// Only inject the new alias into the forward solver but never propagate it
 						// upwards
 						// because the alias was created at this program point and won't be valid above.
-						for (Unit u : interproceduralCFG().getPredsOf(defStmt))
+						for (Unit u : interproceduralCFG().getPredsOf(defStmt)) {
 							manager.getMainSolver().processEdge(new PathEdge<Unit, Abstraction>(d1, u, newLeftAbs));
+							if (aliasQueryCache != null)
+								aliasQueryCache.onAliasFound(d1, source, u, newLeftAbs);
+						}
 					}
 				}
 
@@ -375,9 +391,12 @@ public class AliasProblem extends AbstractInfoflowProblem {
 									res.add(newAbs);
 
 									// Inject the new alias into the forward solver
-									for (Unit u : interproceduralCFG().getPredsOf(defStmt))
+									for (Unit u : interproceduralCFG().getPredsOf(defStmt)) {
 										manager.getMainSolver()
 												.processEdge(new PathEdge<Unit, Abstraction>(d1, u, newAbs));
+										if (aliasQueryCache != null)
+											aliasQueryCache.onAliasFound(d1, source, u, newAbs);
+									}
 								}
 							}
 						}
@@ -598,10 +617,15 @@ public class AliasProblem extends AbstractInfoflowProblem {
 						}
 
 						// Inject our calling context into the other solver
-						if (res != null && !res.isEmpty())
+						if (res != null && !res.isEmpty()) {
 							for (Abstraction d3 : res)
 								manager.getMainSolver().injectContext(solver, dest, d3, src, source, d1);
 
+							// The aliases found in the callee depend on the calling context
+							if (aliasQueryCache != null)
+								aliasQueryCache.onSearchEscaped(d1, source);
+						}
+
 						return notifyOutFlowHandlers(src, d1, source, res, FlowFunctionType.CallFlowFunction);
 					}
 				};
@@ -641,6 +665,10 @@ public class AliasProblem extends AbstractInfoflowProblem {
 						if (callSite == null)
 							return null;
 
+						// The aliases found in the callers depend on the calling context
+						if (aliasQueryCache != null)
+							aliasQueryCache.onSearchEscaped(d1, source);
+
 						// Notify the handler if we have one
 						if (taintPropagationHandler != null)
 							taintPropagationHandler.notifyFlowIn(stmt, source, manager,
@@ -827,9 +855,12 @@ public class AliasProblem extends AbstractInfoflowProblem {
 
 									// Trigger the forward analysis only on new aliases
 									if (!source.equals(abs))
-										for (Unit u : interproceduralCFG().getPredsOf(call))
+										for (Unit u : interproceduralCFG().getPredsOf(call)) {
 											manager.getMainSolver()
 													.processEdge(new PathEdge<Unit, Abstraction>(d1, u, abs));
+											if (aliasQueryCache != null)
+												aliasQueryCache.onAliasFound(d1, source, u, abs);
+										}
 								}
 								return notifyOutFlowHandlers(call, d1, source, passOnSet,
 										FlowFunctionType.CallToReturnFlowFunction);
@@ -76,6 +76,11 @@ public class InfoflowProblem extends AbstractInfoflowProblem {
 
 	@Override
 	public FlowFunctions<Unit, Abstraction, SootMethod> createFlowFunctionsFactory() {
+		// Results can only be reused if they do not depend on the number of flows
+		// found so far
+		final boolean memoizeNormalFlows = manager.getConfig().getSolverConfiguration()
+				.getMemoizeNormalFlowFunctions() && manager.getConfig().getStopAfterFirstKFlows() <= 0;
+
 		return new FlowFunctions<Unit, Abstraction, SootMethod>() {
 
 			/**
@@ -362,8 +367,18 @@ public class InfoflowProblem extends AbstractInfoflowProblem {
 
 				return new NotifyingNormalFlowFunction((Stmt) src) {
 
+					private final NormalFlowFunctionMemo memo = memoizeNormalFlows ? new NormalFlowFunctionMemo(stmt)
+							: null;
+
 					@Override
 					public Set<Abstraction> computeTargetsInternal(Abstraction d1, Abstraction source) {
+						// Reuse the results for abstractions of the same shape
+						if (memo != null && source != getZeroValue())
+							return memo.computeTargets(d1, source, this::computeTargetsUnmemoized);
+						return computeTargetsUnmemoized(d1, source);
+					}
+
+					private Set<Abstraction> computeTargetsUnmemoized(Abstraction d1, Abstraction source) {
 						// Check whether we must activate a taint
 						final Abstraction newSource;
 						if (!source.isAbstractionActive() && src == source.getActivationUnit())
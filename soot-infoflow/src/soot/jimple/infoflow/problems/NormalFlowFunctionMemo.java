@@ -0,0 +1,211 @@
+package soot.jimple.infoflow.problems;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiFunction;
+
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.util.ByReferenceBoolean;
+
+/**
+ * Memo table for the results of a single normal flow function. Abstractions
+ * that only differ in their predecessor lead to the same results at the same
+ * statement. The results for the first abstraction of a given shape are
+ * recorded as templates, and later abstractions of the same shape receive
+ * copies of these templates that are attached to their own propagation path.
+ *
+ * Only computations without side effects are recorded. Code that records data
+ * flow results, starts alias searches, or changes other global state while a
+ * flow function is being evaluated must call {@link #markSideEffect()}. The
+ * results of such computations are never reused.
+ */
+public class NormalFlowFunctionMemo {
+
+	/**
+	 * The maximum number of abstraction shapes that are recorded per flow function
+	 */
+	private static final int MAX_ENTRIES = 256;
+
+	/**
+	 * The maximum number of derivation steps from the incoming abstraction to a
+	 * result
+	 */
+	private static final int MAX_DERIVATION_DEPTH = 8;
+
+	private static final ThreadLocal<ByReferenceBoolean> sideEffects = ThreadLocal
+			.withInitial(ByReferenceBoolean::new);
+
+	private final Stmt stmt;
+	private final ConcurrentMap<MemoKey, MemoEntry> entries = new ConcurrentHashMap<>();
+
+	/**
+	 * The shape of an incoming abstraction. Besides the abstraction itself, the
+	 * key contains the properties of the predecessor and the context on which the
+	 * normal flow functions depend.
+	 */
+	private static class MemoKey {
+
+		private final Abstraction abs;
+		private final int currentStmtState;
+		private final boolean justActivated;
+		private final boolean emptyContext;
+
+		public MemoKey(Abstraction abs, int currentStmtState, boolean justActivated, boolean emptyContext) {
+			this.abs = abs;
+			this.currentStmtState = currentStmtState;
+			this.justActivated = justActivated;
+			this.emptyContext = emptyContext;
+		}
+
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = abs.hashCode();
+			result = prime * result + currentStmtState;
+			result = prime * result + (justActivated ? 1231 : 1237);
+			result = prime * result + (emptyContext ? 1231 : 1237);
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null || getClass() != obj.getClass())
+				return false;
+			MemoKey other = (MemoKey) obj;
+			return currentStmtState == other.currentStmtState && justActivated == other.justActivated
+					&& emptyContext == other.emptyContext && abs.equalsWithoutContext(other.abs);
+		}
+
+	}
+
+	/**
+	 * The recorded results for one abstraction shape. All templates are derived
+	 * from a detached copy of the abstraction that was used to compute them.
+	 */
+	private static class MemoEntry {
+
+		private final Abstraction root;
+		private final Set<Abstraction> templates;
+
+		public MemoEntry(Abstraction root, Set<Abstraction> templates) {
+			this.root = root;
+			this.templates = templates;
+		}
+
+	}
+
+	/**
+	 * Creates a new memo table for the normal flow function of the given statement
+	 *
+	 * @param stmt The statement whose flow function is memoized
+	 */
+	public NormalFlowFunctionMemo(Stmt stmt) {
+		this.stmt = stmt;
+	}
+
+	/**
+	 * Notifies all memo tables that the flow function that is currently evaluated
+	 * on this thread has side effects, and that its results must not be reused
+	 */
+	public static void markSideEffect() {
+		sideEffects.get().value = true;
+	}
+
+	/**
+	 * Computes the results of the flow function for the given abstraction, or
+	 * takes them from the memo table if an abstraction of the same shape has been
+	 * processed before
+	 *
+	 * @param d1           The context abstraction
+	 * @param source       The incoming abstraction
+	 * @param flowFunction The function that computes the results if they are not
+	 *                     yet known
+	 * @return The results of the flow function
+	 */
+	public Set<Abstraction> computeTargets(Abstraction d1, Abstraction source,
+			BiFunction<Abstraction, Abstraction, Set<Abstraction>> flowFunction) {
+		MemoKey key = createKey(d1, source, source);
+		MemoEntry entry = entries.get(key);
+		if (entry != null) {
+			Set<Abstraction> res = rebind(entry.templates, entry.root, source);
+			if (res != null)
+				return res;
+		}
+
+		// Compute the results and check whether this had any side effects
+		ByReferenceBoolean sideEffect = sideEffects.get();
+		boolean outerSideEffect = sideEffect.value;
+		sideEffect.value = false;
+		Set<Abstraction> res;
+		boolean hasSideEffect;
+		try {
+			res = flowFunction.apply(d1, source);
+		} finally {
+			hasSideEffect = sideEffect.value;
+			sideEffect.value = outerSideEffect || hasSideEffect;
+		}
+
+		// Record the results as templates
+		if (!hasSideEffect && entry == null && res != null && entries.size() < MAX_ENTRIES) {
+			Abstraction root = source.detachFromPath();
+			Set<Abstraction> templates = rebind(res, source, root);
+			if (templates != null)
+				entries.putIfAbsent(createKey(d1, source, root), new MemoEntry(root, templates));
+		}
+		return res;
+	}
+
+	private MemoKey createKey(Abstraction d1, Abstraction source, Abstraction keyAbs) {
+		final int currentStmtState;
+		if (source.getCurrentStmt() == stmt)
+			currentStmtState = 0;
+		else if (source.getCurrentStmt() == null)
+			currentStmtState = 1;
+		else
+			currentStmtState = 2;
+
+		final Abstraction pred = source.getPredecessor();
+		final boolean justActivated = pred != null && !pred.isAbstractionActive() && source.isAbstractionActive()
+				&& pred.getActivationUnit() == stmt && source.getAccessPath().equals(pred.getAccessPath());
+		final boolean emptyContext = d1 == null || d1.getAccessPath().isEmpty();
+		return new MemoKey(keyAbs, currentStmtState, justActivated, emptyContext);
+	}
+
+	/**
+	 * Moves the given abstractions from the propagation path that ends in the old
+	 * predecessor to the path that ends in the new predecessor. All intermediate
+	 * abstractions between the old predecessor and the given abstractions are
+	 * copied as well.
+	 *
+	 * @param abstractions The abstractions to move
+	 * @param oldPred      The abstraction from which the given abstractions have
+	 *                     been derived
+	 * @param newPred      The abstraction to which the copies shall be attached
+	 * @return The copies of the given abstractions, or <code>null</code> if one of
+	 *         the abstractions has not been derived from the old predecessor
+	 */
+	private static Set<Abstraction> rebind(Set<Abstraction> abstractions, Abstraction oldPred, Abstraction newPred) {
+		if (abstractions.isEmpty())
+			return Collections.emptySet();
+
+		Map<Abstraction, Abstraction> copies = new IdentityHashMap<>();
+		copies.put(oldPred, newPred);
+		Set<Abstraction> res = new HashSet<>();
+		for (Abstraction abs : abstractions) {
+			Abstraction copy = abs.rebindPath(copies, MAX_DERIVATION_DEPTH);
+			if (copy == null)
+				return null;
+			res.add(copy);
+		}
+		return res;
+	}
+
+}
@@ -58,6 +58,8 @@ public class TaintPropagationResults {
 	 * @return True if the data flow analysis shall continue, otherwise false
 	 */
 	public boolean addResult(AbstractionAtSink resultAbs) {
+		NormalFlowFunctionMemo.markSideEffect();
+
 		// Check whether we need to filter a result in a system package
 		if (manager.getConfig().getIgnoreFlowsInSystemPackages()) {
 			SootMethod sm = manager.getICFG().getMethodOf(resultAbs.getSinkStmt());
@@ -93,6 +95,23 @@ public class TaintPropagationResults {
 		return continueAnalysis;
 	}
 
+	/**
+	 * Adds a result that has already been recorded in an earlier run, e.g., in a
+	 * checkpoint of the solver state. In contrast to
+	 * {@link #addResult(AbstractionAtSink)}, the abstraction is taken as it is.
+	 * 
+	 * @param resultAbs The abstraction at the sink instruction
+	 */
+	public void restoreResult(AbstractionAtSink resultAbs) {
+		Abstraction newAbs = this.results.putIfAbsentElseGet(resultAbs, resultAbs.getAbstraction());
+		if (newAbs != resultAbs.getAbstraction())
+			newAbs.addNeighbor(resultAbs.getAbstraction());
+
+		// Notify the handlers
+		for (OnTaintPropagationResultAdded handler : resultAddedHandlers)
+			handler.onResultAvailable(resultAbs);
+	}
+
 	/**
 	 * Checks whether this result object is empty
 	 * 
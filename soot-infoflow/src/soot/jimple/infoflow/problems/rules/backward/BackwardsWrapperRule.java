@@ -26,6 +26,7 @@ import soot.jimple.infoflow.InfoflowManager;
 import soot.jimple.infoflow.aliasing.Aliasing;
 import soot.jimple.infoflow.data.Abstraction;
 import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.handlers.MethodProfiler;
 import soot.jimple.infoflow.problems.TaintPropagationResults;
 import soot.jimple.infoflow.problems.rules.AbstractTaintPropagationRule;
 import soot.jimple.infoflow.sourcesSinks.manager.IReversibleSourceSinkManager;
@@ -120,7 +121,11 @@ public class BackwardsWrapperRule extends AbstractTaintPropagationRule {
 				return null;
 		}
 
+		MethodProfiler profiler = manager.getProfiler();
+		long beforeWrapper = profiler == null ? 0 : System.nanoTime();
 		Set<Abstraction> res = wrapper.getInverseTaintsForMethod(stmt, d1, source);
+		if (profiler != null)
+			profiler.recordTaintWrapperCall(stmt.getInvokeExpr().getMethod(), System.nanoTime() - beforeWrapper);
 		if (res != null) {
 			Set<Abstraction> resWAliases = new HashSet<>();
 
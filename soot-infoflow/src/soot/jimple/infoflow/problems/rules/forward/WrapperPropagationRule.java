@@ -15,6 +15,7 @@ import soot.jimple.infoflow.aliasing.Aliasing;
 import soot.jimple.infoflow.cfg.FlowDroidSourceStatement;
 import soot.jimple.infoflow.data.Abstraction;
 import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.handlers.MethodProfiler;
 import soot.jimple.infoflow.problems.TaintPropagationResults;
 import soot.jimple.infoflow.problems.rules.AbstractTaintPropagationRule;
 import soot.jimple.infoflow.taintWrappers.ITaintPropagationWrapper;
@@ -90,7 +91,11 @@ public class WrapperPropagationRule extends AbstractTaintPropagationRule {
 				return null;
 		}
 
+		MethodProfiler profiler = getManager().getProfiler();
+		long beforeWrapper = profiler == null ? 0 : System.nanoTime();
 		Set<Abstraction> res = getManager().getTaintWrapper().getTaintsForMethod(iStmt, d1, source);
+		if (profiler != null)
+			profiler.recordTaintWrapperCall(iStmt.getInvokeExpr().getMethod(), System.nanoTime() - beforeWrapper);
 		if (res != null) {
 			Set<Abstraction> resWithAliases = new HashSet<>(res);
 			for (Abstraction abs : res) {
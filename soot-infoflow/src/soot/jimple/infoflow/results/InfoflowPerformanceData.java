@@ -1,7 +1,13 @@
 package soot.jimple.infoflow.results;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
 
+import soot.jimple.infoflow.memory.MemoryDegradationLevel;
+
 /**
  * Class that records performance data on a FlowDroid run
  * 
@@ -23,6 +29,9 @@ public class InfoflowPerformanceData {
 	private long infoflowPropagationCount = -1;
 	private long aliasPropagationCount = -1;
 
+	private Map<MemoryDegradationLevel, Integer> memoryDegradations = null;
+	private Map<String, MethodPerformanceData> methodPerformanceData = null;
+
 	public InfoflowPerformanceData() {
 		//
 	}
@@ -190,6 +199,14 @@ public class InfoflowPerformanceData {
 			else
 				this.sinkCount += performanceData.sinkCount;
 		}
+		if (performanceData.memoryDegradations != null) {
+			for (Map.Entry<MemoryDegradationLevel, Integer> entry : performanceData.memoryDegradations.entrySet())
+				addMemoryDegradation(entry.getKey(), entry.getValue());
+		}
+		if (performanceData.methodPerformanceData != null) {
+			for (Map.Entry<String, MethodPerformanceData> entry : performanceData.methodPerformanceData.entrySet())
+				addMethodPerformanceData(entry.getKey(), entry.getValue());
+		}
 	}
 
 	/**
@@ -310,6 +327,103 @@ public class InfoflowPerformanceData {
 		return this.aliasPropagationCount;
 	}
 
+	/**
+	 * Records that the data flow analysis had to apply the given degradation level
+	 * to keep within its memory budget. If the level has already been recorded,
+	 * the lower memory consumption is kept.
+	 * 
+	 * @param level      The degradation level that has been applied
+	 * @param usedMemory The memory consumption in megabytes at which the
+	 *                   degradation level has been applied
+	 */
+	public synchronized void addMemoryDegradation(MemoryDegradationLevel level, int usedMemory) {
+		if (memoryDegradations == null)
+			memoryDegradations = new EnumMap<>(MemoryDegradationLevel.class);
+		memoryDegradations.merge(level, usedMemory, Math::min);
+	}
+
+	/**
+	 * Gets the degradation levels that the data flow analysis had to apply to keep
+	 * within its memory budget
+	 * 
+	 * @return A mapping from the degradation levels that have been applied to the
+	 *         memory consumption in megabytes at which they were applied
+	 */
+	public synchronized Map<MemoryDegradationLevel, Integer> getMemoryDegradations() {
+		if (memoryDegradations == null)
+			return Collections.emptyMap();
+		return Collections.unmodifiableMap(new EnumMap<>(memoryDegradations));
+	}
+
+	/**
+	 * Adds the profiling data for the given method. If data for this method has
+	 * already been recorded, the new data is added to the existing data.
+	 * 
+	 * @param methodSignature The signature of the method
+	 * @param data            The profiling data for the method
+	 */
+	public synchronized void addMethodPerformanceData(String methodSignature, MethodPerformanceData data) {
+		if (methodPerformanceData == null)
+			methodPerformanceData = new HashMap<>();
+		MethodPerformanceData existing = methodPerformanceData.get(methodSignature);
+		if (existing == null) {
+			existing = new MethodPerformanceData();
+			methodPerformanceData.put(methodSignature, existing);
+		}
+		existing.add(data);
+	}
+
+	/**
+	 * Gets the data that the method profiler has recorded for the individual
+	 * methods
+	 * 
+	 * @return A mapping from method signatures to the profiling data of the
+	 *         respective methods
+	 */
+	public synchronized Map<String, MethodPerformanceData> getMethodPerformanceData() {
+		if (methodPerformanceData == null)
+			return Collections.emptyMap();
+		return Collections.unmodifiableMap(new HashMap<>(methodPerformanceData));
+	}
+
+	/**
+	 * Gets the data that the method profiler has recorded, summed up per class
+	 * 
+	 * @return A mapping from class names to the profiling data of all methods in
+	 *         the respective classes
+	 */
+	public Map<String, MethodPerformanceData> getClassPerformanceData() {
+		Map<String, MethodPerformanceData> classData = new HashMap<>();
+		for (Map.Entry<String, MethodPerformanceData> entry : getMethodPerformanceData().entrySet())
+			classData.computeIfAbsent(getClassName(entry.getKey()), k -> new MethodPerformanceData())
+					.add(entry.getValue());
+		return classData;
+	}
+
+	/**
+	 * Gets the data that the method profiler has recorded, summed up per package
+	 * 
+	 * @return A mapping from package names to the profiling data of all methods in
+	 *         the respective packages
+	 */
+	public Map<String, MethodPerformanceData> getPackagePerformanceData() {
+		Map<String, MethodPerformanceData> packageData = new HashMap<>();
+		for (Map.Entry<String, MethodPerformanceData> entry : getClassPerformanceData().entrySet()) {
+			String className = entry.getKey();
+			int idx = className.lastIndexOf('.');
+			packageData.computeIfAbsent(idx < 0 ? "" : className.substring(0, idx), k -> new MethodPerformanceData())
+					.add(entry.getValue());
+		}
+		return packageData;
+	}
+
+	private static String getClassName(String methodSignature) {
+		int idx = methodSignature.indexOf(':');
+		if (methodSignature.startsWith("<") && idx > 0)
+			return methodSignature.substring(1, idx);
+		return methodSignature;
+	}
+
 	@Override
 	public String toString() {
 		StringBuilder sb = new StringBuilder();
@@ -326,6 +440,16 @@ public class InfoflowPerformanceData {
 			sb.append(String.format("Max Memory Consumption: %d MB\n", maxMemoryConsumption));
 		if (edgePropagationCount > 0)
 			sb.append(String.format("Edge Propagation Count: %d\n", edgePropagationCount));
+		if (memoryDegradations != null) {
+			for (Map.Entry<MemoryDegradationLevel, Integer> entry : memoryDegradations.entrySet())
+				sb.append(String.format("Memory Degradation: %s at %d MB\n", entry.getKey(), entry.getValue()));
+		}
+		if (methodPerformanceData != null) {
+			getPackagePerformanceData().entrySet().stream()
+					.sorted((e1, e2) -> Long.compare(e2.getValue().getTotalEdgeCount(),
+							e1.getValue().getTotalEdgeCount()))
+					.limit(10).forEach(e -> sb.append(String.format("Package %s: %s\n", e.getKey(), e.getValue())));
+		}
 
 		return sb.toString();
 	}
@@ -333,8 +457,8 @@ public class InfoflowPerformanceData {
 	@Override
 	public int hashCode() {
 		return Objects.hash(aliasPropagationCount, callgraphConstructionSeconds, edgePropagationCount,
-				infoflowPropagationCount, maxMemoryConsumption, pathReconstructionSeconds, sinkCount, sourceCount,
-				taintPropagationSeconds, totalRuntimeSeconds);
+				infoflowPropagationCount, maxMemoryConsumption, memoryDegradations, methodPerformanceData,
+				pathReconstructionSeconds, sinkCount, sourceCount, taintPropagationSeconds, totalRuntimeSeconds);
 	}
 
 	@Override
@@ -351,6 +475,8 @@ public class InfoflowPerformanceData {
 				&& edgePropagationCount == other.edgePropagationCount
 				&& infoflowPropagationCount == other.infoflowPropagationCount
 				&& maxMemoryConsumption == other.maxMemoryConsumption
+				&& Objects.equals(memoryDegradations, other.memoryDegradations)
+				&& Objects.equals(methodPerformanceData, other.methodPerformanceData)
 				&& pathReconstructionSeconds == other.pathReconstructionSeconds && sinkCount == other.sinkCount
 				&& sourceCount == other.sourceCount && taintPropagationSeconds == other.taintPropagationSeconds
 				&& totalRuntimeSeconds == other.totalRuntimeSeconds;
@@ -0,0 +1,163 @@
+package soot.jimple.infoflow.results;
+
+import java.util.Objects;
+
+/**
+ * Performance data that the method profiler has attributed to a single method,
+ * class, or package. Edge counts are exact. Times are in nanoseconds and are
+ * extrapolated from the sampled flow functions.
+ */
+public class MethodPerformanceData {
+
+	private long edgeCount = 0;
+	private long aliasEdgeCount = 0;
+	private long flowFunctionTime = 0;
+	private long aliasFlowFunctionTime = 0;
+	private long taintWrapperCallCount = 0;
+	private long taintWrapperTime = 0;
+	private long aliasQueryCount = 0;
+
+	public MethodPerformanceData() {
+		//
+	}
+
+	public MethodPerformanceData(long edgeCount, long aliasEdgeCount, long flowFunctionTime,
+			long aliasFlowFunctionTime, long taintWrapperCallCount, long taintWrapperTime, long aliasQueryCount) {
+		this.edgeCount = edgeCount;
+		this.aliasEdgeCount = aliasEdgeCount;
+		this.flowFunctionTime = flowFunctionTime;
+		this.aliasFlowFunctionTime = aliasFlowFunctionTime;
+		this.taintWrapperCallCount = taintWrapperCallCount;
+		this.taintWrapperTime = taintWrapperTime;
+		this.aliasQueryCount = aliasQueryCount;
+	}
+
+	/**
+	 * Adds the data of the given object to this one
+	 *
+	 * @param data The performance data to add to this object
+	 */
+	public void add(MethodPerformanceData data) {
+		this.edgeCount += data.edgeCount;
+		this.aliasEdgeCount += data.aliasEdgeCount;
+		this.flowFunctionTime += data.flowFunctionTime;
+		this.aliasFlowFunctionTime += data.aliasFlowFunctionTime;
+		this.taintWrapperCallCount += data.taintWrapperCallCount;
+		this.taintWrapperTime += data.taintWrapperTime;
+		this.aliasQueryCount += data.aliasQueryCount;
+	}
+
+	/**
+	 * Gets the number of edges that the taint analysis has propagated out of the
+	 * statements of this method
+	 *
+	 * @return The number of edges propagated by the taint analysis
+	 */
+	public long getEdgeCount() {
+		return edgeCount;
+	}
+
+	/**
+	 * Gets the number of edges that the alias analysis has propagated out of the
+	 * statements of this method
+	 *
+	 * @return The number of edges propagated by the alias analysis
+	 */
+	public long getAliasEdgeCount() {
+		return aliasEdgeCount;
+	}
+
+	/**
+	 * Gets the estimated time that the taint analysis has spent in flow functions
+	 * for the statements of this method
+	 *
+	 * @return The estimated flow function time in nanoseconds
+	 */
+	public long getFlowFunctionTime() {
+		return flowFunctionTime;
+	}
+
+	/**
+	 * Gets the estimated time that the alias analysis has spent in flow functions
+	 * for the statements of this method
+	 *
+	 * @return The estimated flow function time in nanoseconds
+	 */
+	public long getAliasFlowFunctionTime() {
+		return aliasFlowFunctionTime;
+	}
+
+	/**
+	 * Gets the number of times the taint wrapper has been asked for a call to this
+	 * method
+	 *
+	 * @return The number of taint wrapper calls for this method
+	 */
+	public long getTaintWrapperCallCount() {
+		return taintWrapperCallCount;
+	}
+
+	/**
+	 * Gets the time that the taint wrapper has spent on calls to this method
+	 *
+	 * @return The taint wrapper time in nanoseconds
+	 */
+	public long getTaintWrapperTime() {
+		return taintWrapperTime;
+	}
+
+	/**
+	 * Gets the number of alias queries for taints that were created in this method
+	 *
+	 * @return The number of alias queries
+	 */
+	public long getAliasQueryCount() {
+		return aliasQueryCount;
+	}
+
+	/**
+	 * Gets the total number of edges propagated by the taint and alias analyses
+	 *
+	 * @return The total number of edges
+	 */
+	public long getTotalEdgeCount() {
+		return edgeCount + aliasEdgeCount;
+	}
+
+	/**
+	 * Gets the total estimated time spent in flow functions and the taint wrapper
+	 *
+	 * @return The total time in nanoseconds
+	 */
+	public long getTotalTime() {
+		return flowFunctionTime + aliasFlowFunctionTime + taintWrapperTime;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d edges, %d alias edges, %d alias queries, %d taint wrapper calls, %.3f seconds",
+				edgeCount, aliasEdgeCount, aliasQueryCount, taintWrapperCallCount, getTotalTime() / 1E9);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(aliasEdgeCount, aliasFlowFunctionTime, aliasQueryCount, edgeCount, flowFunctionTime,
+				taintWrapperCallCount, taintWrapperTime);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		MethodPerformanceData other = (MethodPerformanceData) obj;
+		return aliasEdgeCount == other.aliasEdgeCount && aliasFlowFunctionTime == other.aliasFlowFunctionTime
+				&& aliasQueryCount == other.aliasQueryCount && edgeCount == other.edgeCount
+				&& flowFunctionTime == other.flowFunctionTime && taintWrapperCallCount == other.taintWrapperCallCount
+				&& taintWrapperTime == other.taintWrapperTime;
+	}
+
+}
@@ -0,0 +1,107 @@
+package soot.jimple.infoflow.results;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class for writing the performance data of a FlowDroid run, including the
+ * data of the method profiler, as a JSON report. The methods, classes, and
+ * packages in the report are sorted by the number of edges propagated in them.
+ */
+public class PerformanceDataJsonWriter {
+
+	/**
+	 * Writes the given performance data into the given file
+	 *
+	 * @param performanceData The performance data to write
+	 * @param file            The file to write
+	 * @throws IOException Thrown if the file could not be written
+	 */
+	public void write(InfoflowPerformanceData performanceData, Path file) throws IOException {
+		try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			write(performanceData, writer);
+		}
+	}
+
+	/**
+	 * Writes the given performance data into the given writer
+	 *
+	 * @param performanceData The performance data to write
+	 * @param writer          The writer to which to write the data
+	 * @throws IOException Thrown if the data could not be written
+	 */
+	public void write(InfoflowPerformanceData performanceData, Writer writer) throws IOException {
+		writer.write("{\n");
+		writer.write("  \"callgraphConstructionSeconds\": " + performanceData.getCallgraphConstructionSeconds()
+				+ ",\n");
+		writer.write("  \"taintPropagationSeconds\": " + performanceData.getTaintPropagationSeconds() + ",\n");
+		writer.write("  \"pathReconstructionSeconds\": " + performanceData.getPathReconstructionSeconds() + ",\n");
+		writer.write("  \"totalRuntimeSeconds\": " + performanceData.getTotalRuntimeSeconds() + ",\n");
+		writer.write("  \"maxMemoryConsumption\": " + performanceData.getMaxMemoryConsumption() + ",\n");
+		writer.write("  \"edgePropagationCount\": " + performanceData.getEdgePropagationCount() + ",\n");
+		writer.write("  \"infoflowPropagationCount\": " + performanceData.getInfoflowPropagationCount() + ",\n");
+		writer.write("  \"aliasPropagationCount\": " + performanceData.getAliasPropagationCount() + ",\n");
+		writeEntries("packages", performanceData.getPackagePerformanceData(), writer);
+		writer.write(",\n");
+		writeEntries("classes", performanceData.getClassPerformanceData(), writer);
+		writer.write(",\n");
+		writeEntries("methods", performanceData.getMethodPerformanceData(), writer);
+		writer.write("\n}\n");
+	}
+
+	private void writeEntries(String name, Map<String, MethodPerformanceData> data, Writer writer)
+			throws IOException {
+		List<Map.Entry<String, MethodPerformanceData>> entries = new ArrayList<>(data.entrySet());
+		entries.sort((e1, e2) -> {
+			int r = Long.compare(e2.getValue().getTotalEdgeCount(), e1.getValue().getTotalEdgeCount());
+			return r != 0 ? r : e1.getKey().compareTo(e2.getKey());
+		});
+
+		writer.write("  \"" + name + "\": [");
+		boolean first = true;
+		for (Map.Entry<String, MethodPerformanceData> entry : entries) {
+			MethodPerformanceData d = entry.getValue();
+			writer.write(first ? "\n" : ",\n");
+			first = false;
+			writer.write("    {\"name\": \"" + escape(entry.getKey()) + "\"");
+			writer.write(", \"edges\": " + d.getEdgeCount());
+			writer.write(", \"aliasEdges\": " + d.getAliasEdgeCount());
+			writer.write(", \"aliasQueries\": " + d.getAliasQueryCount());
+			writer.write(", \"flowFunctionNanos\": " + d.getFlowFunctionTime());
+			writer.write(", \"aliasFlowFunctionNanos\": " + d.getAliasFlowFunctionTime());
+			writer.write(", \"taintWrapperCalls\": " + d.getTaintWrapperCallCount());
+			writer.write(", \"taintWrapperNanos\": " + d.getTaintWrapperTime());
+			writer.write("}");
+		}
+		writer.write(first ? "]" : "\n  ]");
+	}
+
+	private static String escape(String str) {
+		StringBuilder sb = new StringBuilder(str.length());
+		for (int i = 0; i < str.length(); i++) {
+			char c = str.charAt(i);
+			switch (c) {
+			case '"':
+				sb.append("\\\"");
+				break;
+			case '\\':
+				sb.append("\\\\");
+				break;
+			default:
+				if (c < 0x20)
+					sb.append(String.format("\\u%04x", (int) c));
+				else
+					sb.append(c);
+			}
+		}
+		return sb.toString();
+	}
+
+}
@@ -3,6 +3,9 @@ package soot.jimple.infoflow.results.xml;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 
 import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamException;
@@ -30,6 +33,9 @@ public class InfoflowResultsSerializer {
 
 	public static final int FILE_FORMAT_VERSION = 102;
 
+	private static final Comparator<AbstractSerializedSourceSink> SERIALIZED_ORDER = Comparator
+			.comparing(InfoflowResultsSerializer::getSortKey);
+
 	protected boolean serializeTaintPath = true;
 	protected IInfoflowCFG icfg;
 	protected InfoflowConfiguration config;
@@ -97,6 +103,47 @@ public class InfoflowResultsSerializer {
 		}
 	}
 
+	/**
+	 * Serializes data flow results that have been read from an external storage,
+	 * e.g., the merged results of several partial analyses, into the given file.
+	 * Sinks and sources are written in a fixed order, such that the same results
+	 * always lead to the same file, regardless of the order in which they have
+	 * been collected.
+	 * 
+	 * @param results  The result object to serialize
+	 * @param fileName The target file name
+	 * @throws XMLStreamException Thrown if the XML data cannot be written
+	 * @throws IOException        Thrown if the target file could not be written
+	 */
+	public void serialize(SerializedInfoflowResults results, String fileName) throws XMLStreamException, IOException {
+		try (OutputStream out = new FileOutputStream(fileName)) {
+			XMLOutputFactory factory = XMLOutputFactory.newInstance();
+			XMLStreamWriter writer = factory.createXMLStreamWriter(out, "UTF-8");
+
+			writer.writeStartDocument("UTF-8", "1.0");
+			writer.writeStartElement(XmlConstants.Tags.root);
+			writer.writeAttribute(XmlConstants.Attributes.fileFormatVersion, FILE_FORMAT_VERSION + "");
+
+			// Write out the data flow results
+			if (!results.isEmpty()) {
+				writer.writeStartElement(XmlConstants.Tags.results);
+				writeSerializedDataFlows(results, writer);
+				writer.writeEndElement();
+			}
+
+			// Write out performance data
+			InfoflowPerformanceData performanceData = results.getPerformanceData();
+			if (performanceData != null && !performanceData.isEmpty()) {
+				writer.writeStartElement(XmlConstants.Tags.performanceData);
+				writePerformanceData(performanceData, writer);
+				writer.writeEndElement();
+			}
+
+			writer.writeEndDocument();
+			writer.close();
+		}
+	}
+
 	/**
 	 * Converts the termination state from the enumeration to a human-readable
 	 * string
@@ -329,6 +376,152 @@ public class InfoflowResultsSerializer {
 		writer.writeEndElement();
 	}
 
+	/**
+	 * Writes the given serialized data flow results into the given XML stream
+	 * writer
+	 * 
+	 * @param results The results to write out
+	 * @param writer  The stream writer into which to write the results
+	 * @throws XMLStreamException Thrown if the XML data cannot be written
+	 */
+	private void writeSerializedDataFlows(SerializedInfoflowResults results, XMLStreamWriter writer)
+			throws XMLStreamException {
+		List<SerializedSinkInfo> sinks = new ArrayList<>(results.getResults().keySet());
+		sinks.sort(SERIALIZED_ORDER);
+		for (SerializedSinkInfo sink : sinks) {
+			writer.writeStartElement(XmlConstants.Tags.result);
+			writeSerializedSourceSink(XmlConstants.Tags.sink, sink, sink.getMethodSourceSinkDefinition(), writer);
+
+			// Write out the sources
+			List<SerializedSourceInfo> sources = new ArrayList<>(results.getResults().get(sink));
+			sources.sort(SERIALIZED_ORDER);
+			writer.writeStartElement(XmlConstants.Tags.sources);
+			for (SerializedSourceInfo source : sources)
+				writeSerializedSourceInfo(source, writer);
+			writer.writeEndElement();
+
+			writer.writeEndElement();
+		}
+	}
+
+	/**
+	 * Writes the given serialized source information into the given XML stream
+	 * writer
+	 * 
+	 * @param source The source information to write out
+	 * @param writer The stream writer into which to write the results
+	 * @throws XMLStreamException Thrown if the XML data cannot be written
+	 */
+	private void writeSerializedSourceInfo(SerializedSourceInfo source, XMLStreamWriter writer)
+			throws XMLStreamException {
+		writer.writeStartElement(XmlConstants.Tags.source);
+		writeSerializedAttributes(source, source.getMethodSourceSinkDefinition(), writer);
+		writeSerializedAccessPath(source.getAccessPath(), writer);
+
+		List<SerializedPathElement> path = source.getPropagationPath();
+		if (serializeTaintPath && path != null && !path.isEmpty()) {
+			writer.writeStartElement(XmlConstants.Tags.taintPath);
+			for (SerializedPathElement element : path)
+				writeSerializedSourceSink(XmlConstants.Tags.pathElement, element, null, writer);
+			writer.writeEndElement();
+		}
+
+		writer.writeEndElement();
+	}
+
+	/**
+	 * Writes a serialized sink or an element on a taint propagation path into the
+	 * given XML stream writer
+	 * 
+	 * @param tag        The XML tag to write
+	 * @param sourceSink The sink or path element to write out
+	 * @param definition The signature of the method that has been defined as a
+	 *                   sink, or <code>null</code> if there is no such method
+	 * @param writer     The stream writer into which to write the data
+	 * @throws XMLStreamException Thrown if the XML data cannot be written
+	 */
+	private void writeSerializedSourceSink(String tag, AbstractSerializedSourceSink sourceSink, String definition,
+			XMLStreamWriter writer) throws XMLStreamException {
+		writer.writeStartElement(tag);
+		writeSerializedAttributes(sourceSink, definition, writer);
+		writeSerializedAccessPath(sourceSink.getAccessPath(), writer);
+		writer.writeEndElement();
+	}
+
+	private void writeSerializedAttributes(AbstractSerializedSourceSink sourceSink, String definition,
+			XMLStreamWriter writer) throws XMLStreamException {
+		writer.writeAttribute(XmlConstants.Attributes.statement, sourceSink.getStatement());
+		if (sourceSink.getMethod() != null && !sourceSink.getMethod().isEmpty())
+			writer.writeAttribute(XmlConstants.Attributes.method, sourceSink.getMethod());
+		if (definition != null && !definition.isEmpty())
+			writer.writeAttribute(XmlConstants.Attributes.methodSourceSinkDefinition, definition);
+	}
+
+	/**
+	 * Writes the given serialized access path into the given XML stream writer
+	 * 
+	 * @param accessPath The access path to write out
+	 * @param writer     The stream writer into which to write the data
+	 * @throws XMLStreamException Thrown if the XML data cannot be written
+	 */
+	private void writeSerializedAccessPath(SerializedAccessPath accessPath, XMLStreamWriter writer)
+			throws XMLStreamException {
+		if (accessPath == null)
+			return;
+
+		writer.writeStartElement(XmlConstants.Tags.accessPath);
+		if (accessPath.getBase() != null && !accessPath.getBase().isEmpty())
+			writer.writeAttribute(XmlConstants.Attributes.value, accessPath.getBase());
+		if (accessPath.getBaseType() != null && !accessPath.getBaseType().isEmpty())
+			writer.writeAttribute(XmlConstants.Attributes.type, accessPath.getBaseType());
+		writer.writeAttribute(XmlConstants.Attributes.taintSubFields,
+				accessPath.getTaintSubFields() ? XmlConstants.Values.TRUE : XmlConstants.Values.FALSE);
+
+		// Write out the fields
+		String[] fields = accessPath.getFields();
+		String[] types = accessPath.getTypes();
+		if (fields != null && fields.length > 0) {
+			writer.writeStartElement(XmlConstants.Tags.fields);
+			for (int i = 0; i < fields.length; i++) {
+				writer.writeStartElement(XmlConstants.Tags.field);
+				writer.writeAttribute(XmlConstants.Attributes.value, fields[i]);
+				writer.writeAttribute(XmlConstants.Attributes.type, types[i]);
+				writer.writeEndElement();
+			}
+			writer.writeEndElement();
+		}
+
+		writer.writeEndElement();
+	}
+
+	/**
+	 * Gets a key by which serialized sinks and sources are ordered in the output
+	 * file
+	 * 
+	 * @param sourceSink The sink or source
+	 * @return The key by which to order the given sink or source
+	 */
+	private static String getSortKey(AbstractSerializedSourceSink sourceSink) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(sourceSink.getMethod()).append('\0');
+		sb.append(sourceSink.getStatement()).append('\0');
+		SerializedAccessPath ap = sourceSink.getAccessPath();
+		if (ap != null) {
+			sb.append(ap.getBase()).append('\0');
+			if (ap.getFields() != null)
+				for (String field : ap.getFields())
+					sb.append(field).append('\0');
+			sb.append(ap.getTaintSubFields());
+		}
+		if (sourceSink instanceof SerializedSourceInfo) {
+			List<SerializedPathElement> path = ((SerializedSourceInfo) sourceSink).getPropagationPath();
+			if (path != null)
+				for (SerializedPathElement element : path)
+					sb.append('\0').append(element.getStatement());
+		}
+		return sb.toString();
+	}
+
 	/**
 	 * Sets whether the taint propagation path shall be serialized along with the
 	 * respective data flow result
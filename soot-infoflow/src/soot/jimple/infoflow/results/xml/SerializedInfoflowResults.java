@@ -22,7 +22,7 @@ public class SerializedInfoflowResults {
 	/**
 	 * Creates a new instance of the SerializedInfoflowResults class
 	 */
-	SerializedInfoflowResults() {
+	public SerializedInfoflowResults() {
 
 	}
 
@@ -46,6 +46,23 @@ public class SerializedInfoflowResults {
 		this.results.put(sink, source);
 	}
 
+	/**
+	 * Adds all data flows and performance statistics from the given result object
+	 * to this one. This is used for merging the results of analysis runs that
+	 * have been conducted on different parts of the same app.
+	 * 
+	 * @param other The result object whose data to add to this one
+	 */
+	public void addAll(SerializedInfoflowResults other) {
+		if (other == null)
+			return;
+		this.results.putAll(other.results);
+		if (other.performanceData != null)
+			getOrCreatePerformanceData().add(other.performanceData);
+		if (this.fileFormatVersion < 0)
+			this.fileFormatVersion = other.fileFormatVersion;
+	}
+
 	/**
 	 * Gets the number of data flow results in this object
 	 * 
@@ -6,6 +6,7 @@ import soot.SootMethod;
 import soot.Unit;
 import soot.jimple.infoflow.data.Abstraction;
 import soot.util.ConcurrentHashMultiMap;
+import soot.util.MultiMap;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -49,4 +50,14 @@ public class DefaultSolverPeerGroup implements ISolverPeerGroup {
 		// Thus, no need to call the same method again in the IFDS solver.
 		return rec == null;
 	}
+
+	/**
+	 * Gets the incoming edges that are shared between the solvers in this group
+	 *
+	 * @return The incoming edges, indexed by the callee and the fact at its start
+	 *         point
+	 */
+	public MultiMap<Pair<SootMethod, Abstraction>, IncomingRecord<Unit, Abstraction>> getIncoming() {
+		return incoming;
+	}
 }
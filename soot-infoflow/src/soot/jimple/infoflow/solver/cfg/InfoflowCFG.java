@@ -21,8 +21,10 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
+import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.cache.Weigher;
 
 import heros.solver.IDESolver;
 import soot.*;
@@ -32,6 +34,8 @@ import soot.jimple.InvokeExpr;
 import soot.jimple.StaticFieldRef;
 import soot.jimple.Stmt;
 import soot.jimple.VirtualInvokeExpr;
+import soot.jimple.infoflow.memory.IMemoryDegradationHandler;
+import soot.jimple.infoflow.memory.MemoryDegradationLevel;
 import soot.jimple.toolkits.callgraph.Edge;
 import soot.jimple.toolkits.ide.icfg.BiDiInterproceduralCFG;
 import soot.jimple.toolkits.ide.icfg.JimpleBasedInterproceduralCFG;
@@ -39,8 +43,6 @@ import soot.toolkits.exceptions.ThrowableSet;
 import soot.toolkits.graph.DirectedGraph;
 import soot.toolkits.graph.ExceptionalUnitGraph;
 import soot.toolkits.graph.ExceptionalUnitGraph.ExceptionDest;
-import soot.toolkits.graph.MHGDominatorsFinder;
-import soot.toolkits.graph.MHGPostDominatorsFinder;
 
 /**
  * Interprocedural control-flow graph for the infoflow solver
@@ -48,11 +50,17 @@ import soot.toolkits.graph.MHGPostDominatorsFinder;
  * @author Steven Arzt
  * @author Eric Bodden
  */
-public class InfoflowCFG implements IInfoflowCFG {
+public class InfoflowCFG implements IInfoflowCFG, IMemoryDegradationHandler {
 
 	protected final static int MAX_SIDE_EFFECT_ANALYSIS_DEPTH = 25;
 	protected final static int MAX_STATIC_USE_ANALYSIS_DEPTH = 50;
 
+	/**
+	 * Maximum number of units for which dominator and postdominator trees are
+	 * kept in the cache at the same time
+	 */
+	protected final static long MAX_DOMINATOR_CACHE_WEIGHT = 5_000_000;
+
 	public static enum StaticFieldUse {
 		Unknown, Unused, Read, Write, ReadWrite;
 
@@ -76,45 +84,18 @@ public class InfoflowCFG implements IInfoflowCFG {
 
 	protected final BiDiInterproceduralCFG<Unit, SootMethod> delegate;
 
-	protected final LoadingCache<Unit, MHGDominatorsFinder<Unit>> unitsToDominatorFinder = IDESolver.DEFAULT_CACHE_BUILDER
-			.build(new CacheLoader<Unit, MHGDominatorsFinder<Unit>>() {
+	protected final LoadingCache<SootMethod, MethodDominators<Unit>> methodToDominators = CacheBuilder.newBuilder()
+			.concurrencyLevel(Runtime.getRuntime().availableProcessors()).maximumWeight(MAX_DOMINATOR_CACHE_WEIGHT)
+			.weigher(new Weigher<SootMethod, MethodDominators<Unit>>() {
 				@Override
-				public MHGDominatorsFinder<Unit> load(Unit unit) throws Exception {
-					SootMethod method = getMethodOf(unit);
-					DirectedGraph<Unit> graph = delegate.getOrCreateUnitGraph(method);
-					return new MHGDominatorsFinder<>(graph);
+				public int weigh(SootMethod key, MethodDominators<Unit> value) {
+					return value.size();
 				}
-			});
-
-	protected final LoadingCache<Unit, UnitContainer> unitsToDominator = IDESolver.DEFAULT_CACHE_BUILDER
-			.build(new CacheLoader<Unit, UnitContainer>() {
+			}).build(new CacheLoader<SootMethod, MethodDominators<Unit>>() {
 				@Override
-				public UnitContainer load(Unit unit) throws Exception {
-					SootMethod method = getMethodOf(unit);
+				public MethodDominators<Unit> load(SootMethod method) throws Exception {
 					DirectedGraph<Unit> graph = delegate.getOrCreateUnitGraph(method);
-
-					MHGDominatorsFinder<Unit> dominatorFinder = new MHGDominatorsFinder<Unit>(graph);
-					Unit dom = dominatorFinder.getImmediateDominator(unit);
-					if (dom == null)
-						return new UnitContainer(method);
-					else
-						return new UnitContainer(dom);
-				}
-			});
-
-	protected final LoadingCache<Unit, UnitContainer> unitToPostdominator = IDESolver.DEFAULT_CACHE_BUILDER
-			.build(new CacheLoader<Unit, UnitContainer>() {
-				@Override
-				public UnitContainer load(Unit unit) throws Exception {
-					SootMethod method = getMethodOf(unit);
-					DirectedGraph<Unit> graph = delegate.getOrCreateUnitGraph(method);
-
-					MHGPostDominatorsFinder<Unit> postdominatorFinder = new MHGPostDominatorsFinder<Unit>(graph);
-					Unit postdom = postdominatorFinder.getImmediateDominator(unit);
-					if (postdom == null)
-						return new UnitContainer(method);
-					else
-						return new UnitContainer(postdom);
+					return new MethodDominators<>(graph);
 				}
 			});
 
@@ -176,17 +157,21 @@ public class InfoflowCFG implements IInfoflowCFG {
 
 	@Override
 	public UnitContainer getPostdominatorOf(Unit u) {
-		return unitToPostdominator.getUnchecked(u);
+		SootMethod method = getMethodOf(u);
+		Unit postdom = methodToDominators.getUnchecked(method).getImmediatePostdominator(u);
+		return postdom == null ? new UnitContainer(method) : new UnitContainer(postdom);
 	}
 
 	@Override
 	public UnitContainer getDominatorOf(Unit u) {
-		return unitsToDominator.getUnchecked(u);
+		SootMethod method = getMethodOf(u);
+		Unit dom = methodToDominators.getUnchecked(method).getImmediateDominator(u);
+		return dom == null ? new UnitContainer(method) : new UnitContainer(dom);
 	}
 
 	@Override
 	public List<Unit> getAllDominators(Unit u) {
-		return unitsToDominatorFinder.getUnchecked(u).getDominators(u);
+		return methodToDominators.getUnchecked(getMethodOf(u)).getDominators(u);
 	}
 
 	// delegate methods follow
@@ -503,12 +488,14 @@ public class InfoflowCFG implements IInfoflowCFG {
 
 	@Override
 	public void notifyMethodChanged(SootMethod m) {
+		methodToDominators.invalidate(m);
 		if (delegate instanceof JimpleBasedInterproceduralCFG)
 			((JimpleBasedInterproceduralCFG) delegate).initializeUnitToOwner(m);
 	}
 
 	@Override
 	public void notifyNewBody(Body b) {
+		methodToDominators.invalidate(b.getMethod());
 		if (delegate instanceof JimpleBasedInterproceduralCFG)
 			((JimpleBasedInterproceduralCFG) delegate).initializeUnitToOwner(b);
 	}
@@ -664,11 +651,15 @@ public class InfoflowCFG implements IInfoflowCFG {
 		methodToWrittenLocals.invalidateAll();
 		methodToWrittenLocals.cleanUp();
 
-		unitToPostdominator.invalidateAll();
-		unitToPostdominator.cleanUp();
+		methodToDominators.invalidateAll();
+		methodToDominators.cleanUp();
+	}
 
-		unitsToDominator.invalidateAll();
-		unitsToDominator.cleanUp();
+	@Override
+	public void onMemoryDegradation(MemoryDegradationLevel level) {
+		// All of our caches are recomputed on demand
+		if (level == MemoryDegradationLevel.SpillCaches)
+			purge();
 	}
 
 }
@@ -0,0 +1,260 @@
+package soot.jimple.infoflow.solver.cfg;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import soot.toolkits.graph.DirectedGraph;
+
+/**
+ * Dominator and postdominator trees of a single method. Both trees are computed
+ * once for the whole unit graph using the iterative algorithm by Cooper,
+ * Harvey, and Kennedy and are stored as arrays of immediate dominators indexed
+ * by the position of the unit in the graph.
+ *
+ * Graphs with multiple heads (or tails for the postdominator tree) are handled
+ * by means of a virtual root node. A node that is only dominated by this
+ * virtual root has no immediate dominator.
+ *
+ * @param <N> The type of nodes in the unit graph
+ */
+public class MethodDominators<N> {
+
+	/**
+	 * Marker for nodes without an immediate dominator
+	 */
+	private static final int NONE = -1;
+
+	private final Map<N, Integer> nodeToIndex;
+	private final List<N> nodes;
+
+	private final int[] immediateDominators;
+	private final int[] immediatePostdominators;
+
+	/**
+	 * Computes the dominator and postdominator trees for the given graph
+	 *
+	 * @param graph The unit graph of the method
+	 */
+	public MethodDominators(DirectedGraph<N> graph) {
+		final int size = graph.size();
+		this.nodes = new ArrayList<>(size);
+		this.nodeToIndex = new HashMap<>(size * 2);
+		for (N n : graph) {
+			nodeToIndex.put(n, nodes.size());
+			nodes.add(n);
+		}
+
+		this.immediateDominators = computeImmediateDominators(graph, false);
+		this.immediatePostdominators = computeImmediateDominators(graph, true);
+	}
+
+	/**
+	 * Computes the immediate dominators of all nodes in the given graph
+	 *
+	 * @param graph   The graph for which to compute the dominators
+	 * @param reverse True to compute postdominators, i.e., to walk the graph from
+	 *                its tails towards its heads, otherwise false
+	 * @return An array that contains the index of the immediate dominator for
+	 *         every node index, or {@link #NONE} if the node has no immediate
+	 *         dominator
+	 */
+	private int[] computeImmediateDominators(DirectedGraph<N> graph, boolean reverse) {
+		final int size = nodes.size();
+		final int root = size;
+
+		// Build the adjacency lists in the direction of the walk. The virtual root
+		// connects to all heads (or tails, respectively).
+		final int[][] succs = new int[size + 1][];
+		final int[][] preds = new int[size + 1][];
+		final List<N> roots = reverse ? graph.getTails() : graph.getHeads();
+		succs[root] = toIndices(roots);
+		preds[root] = new int[0];
+		final boolean[] isRoot = new boolean[size];
+		for (int r : succs[root])
+			isRoot[r] = true;
+		for (int i = 0; i < size; i++) {
+			N n = nodes.get(i);
+			List<N> s = reverse ? graph.getPredsOf(n) : graph.getSuccsOf(n);
+			List<N> p = reverse ? graph.getSuccsOf(n) : graph.getPredsOf(n);
+			succs[i] = toIndices(s);
+			int[] pIdx = toIndices(p);
+			if (isRoot[i]) {
+				int[] withRoot = new int[pIdx.length + 1];
+				System.arraycopy(pIdx, 0, withRoot, 0, pIdx.length);
+				withRoot[pIdx.length] = root;
+				pIdx = withRoot;
+			}
+			preds[i] = pIdx;
+		}
+
+		// Compute the reverse postorder using an iterative depth-first search
+		final int[] rpoNumber = new int[size + 1];
+		final int[] order = new int[size + 1];
+		int orderCount = computeReversePostorder(succs, root, rpoNumber, order);
+
+		// Iterate until we reach the fixpoint
+		final int[] idom = new int[size + 1];
+		Arrays.fill(idom, NONE);
+		idom[root] = root;
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (int i = 1; i < orderCount; i++) {
+				int b = order[i];
+				int newIdom = NONE;
+				for (int p : preds[b]) {
+					if (idom[p] == NONE)
+						continue;
+					newIdom = newIdom == NONE ? p : intersect(idom, rpoNumber, p, newIdom);
+				}
+				if (newIdom != NONE && idom[b] != newIdom) {
+					idom[b] = newIdom;
+					changed = true;
+				}
+			}
+		}
+
+		// Nodes that are only dominated by the virtual root do not have a real
+		// immediate dominator
+		int[] result = new int[size];
+		for (int i = 0; i < size; i++)
+			result[i] = idom[i] == root ? NONE : idom[i];
+		return result;
+	}
+
+	/**
+	 * Computes the reverse postorder of all nodes reachable from the given root
+	 *
+	 * @param succs     The successor lists of all nodes
+	 * @param root      The index of the root node
+	 * @param rpoNumber Array that receives the reverse postorder number of every
+	 *                  node. Unreachable nodes receive {@link #NONE}.
+	 * @param order     Array that receives the nodes in reverse postorder
+	 * @return The number of reachable nodes
+	 */
+	private static int computeReversePostorder(int[][] succs, int root, int[] rpoNumber, int[] order) {
+		final int total = succs.length;
+		final boolean[] visited = new boolean[total];
+		final int[] postorder = new int[total];
+		int postCount = 0;
+
+		// Explicit stack of (node, next successor position) pairs
+		final int[] stackNode = new int[total];
+		final int[] stackPos = new int[total];
+		int sp = 0;
+		stackNode[sp] = root;
+		stackPos[sp] = 0;
+		sp++;
+		visited[root] = true;
+		while (sp > 0) {
+			int n = stackNode[sp - 1];
+			int pos = stackPos[sp - 1];
+			if (pos < succs[n].length) {
+				stackPos[sp - 1]++;
+				int s = succs[n][pos];
+				if (!visited[s]) {
+					visited[s] = true;
+					stackNode[sp] = s;
+					stackPos[sp] = 0;
+					sp++;
+				}
+			} else {
+				postorder[postCount++] = n;
+				sp--;
+			}
+		}
+
+		Arrays.fill(rpoNumber, NONE);
+		for (int i = 0; i < postCount; i++) {
+			int n = postorder[postCount - 1 - i];
+			order[i] = n;
+			rpoNumber[n] = i;
+		}
+		return postCount;
+	}
+
+	private static int intersect(int[] idom, int[] rpoNumber, int b1, int b2) {
+		int finger1 = b1;
+		int finger2 = b2;
+		while (finger1 != finger2) {
+			while (rpoNumber[finger1] > rpoNumber[finger2])
+				finger1 = idom[finger1];
+			while (rpoNumber[finger2] > rpoNumber[finger1])
+				finger2 = idom[finger2];
+		}
+		return finger1;
+	}
+
+	private int[] toIndices(List<N> list) {
+		int[] indices = new int[list.size()];
+		int i = 0;
+		for (N n : list) {
+			Integer idx = nodeToIndex.get(n);
+			if (idx != null)
+				indices[i++] = idx;
+		}
+		return i == indices.length ? indices : Arrays.copyOf(indices, i);
+	}
+
+	/**
+	 * Gets the immediate dominator of the given node
+	 *
+	 * @param n The node for which to get the immediate dominator
+	 * @return The immediate dominator of the given node, or null if the node has
+	 *         no immediate dominator or is not part of this method
+	 */
+	public N getImmediateDominator(N n) {
+		return lookup(immediateDominators, n);
+	}
+
+	/**
+	 * Gets the immediate postdominator of the given node
+	 *
+	 * @param n The node for which to get the immediate postdominator
+	 * @return The immediate postdominator of the given node, or null if the node
+	 *         has no immediate postdominator or is not part of this method
+	 */
+	public N getImmediatePostdominator(N n) {
+		return lookup(immediatePostdominators, n);
+	}
+
+	private N lookup(int[] tree, N n) {
+		Integer idx = nodeToIndex.get(n);
+		if (idx == null)
+			return null;
+		int dom = tree[idx];
+		return dom == NONE ? null : nodes.get(dom);
+	}
+
+	/**
+	 * Gets all dominators of the given node, starting with the node itself and
+	 * walking up the dominator tree
+	 *
+	 * @param n The node for which to get the dominators
+	 * @return The dominators of the given node
+	 */
+	public List<N> getDominators(N n) {
+		Integer idx = nodeToIndex.get(n);
+		if (idx == null)
+			return Collections.emptyList();
+
+		List<N> doms = new ArrayList<>();
+		for (int cur = idx; cur != NONE; cur = immediateDominators[cur])
+			doms.add(nodes.get(cur));
+		return doms;
+	}
+
+	/**
+	 * Gets the number of nodes in the method
+	 *
+	 * @return The number of nodes in the method
+	 */
+	public int size() {
+		return nodes.size();
+	}
+
+}
@@ -0,0 +1,148 @@
+package soot.jimple.infoflow.solver.checkpoint;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import soot.Local;
+import soot.NullType;
+import soot.RefType;
+import soot.Scene;
+import soot.SootField;
+import soot.SootMethod;
+import soot.Type;
+import soot.Unit;
+import soot.jimple.infoflow.typing.TypeUtils;
+
+/**
+ * Input stream for solver checkpoints that have been written with a
+ * {@link CheckpointOutput}. The elements of the Soot scene are resolved
+ * against the current scene. If an element cannot be found, the checkpoint
+ * belongs to a different program and an {@link IOException} is thrown.
+ */
+public class CheckpointInput implements Closeable {
+
+	private final DataInputStream in;
+	private final SceneIndex index;
+
+	private final List<String> strings = new ArrayList<>();
+
+	CheckpointInput(InputStream stream, SceneIndex index) throws IOException {
+		this.in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(stream), 1 << 16));
+		this.index = index;
+	}
+
+	public int readInt() throws IOException {
+		return in.readInt();
+	}
+
+	public boolean readBoolean() throws IOException {
+		return in.readBoolean();
+	}
+
+	public int readByte() throws IOException {
+		return in.readUnsignedByte();
+	}
+
+	/**
+	 * Reads a number that has been written with
+	 * {@link CheckpointOutput#writeVarInt(int)}
+	 *
+	 * @return The number
+	 * @throws IOException Thrown if the number could not be read
+	 */
+	public int readVarInt() throws IOException {
+		int value = 0;
+		int shift = 0;
+		int b;
+		do {
+			if (shift > 28)
+				throw new IOException("Malformed number in checkpoint");
+			b = in.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+		return value;
+	}
+
+	public String readString() throws IOException {
+		int id = readVarInt();
+		if (id == 0)
+			return null;
+		if (id == 1) {
+			String str = in.readUTF();
+			strings.add(str);
+			return str;
+		}
+		if (id - 2 >= strings.size())
+			throw new IOException("Malformed string reference in checkpoint");
+		return strings.get(id - 2);
+	}
+
+	public SootMethod readMethod() throws IOException {
+		String signature = readString();
+		if (signature == null)
+			return null;
+		SootMethod m = Scene.v().grabMethod(signature);
+		if (m == null)
+			throw new IOException(String.format("Method %s from checkpoint not found in scene", signature));
+		return m;
+	}
+
+	public SootField readField() throws IOException {
+		String signature = readString();
+		if (signature == null)
+			return null;
+		SootField f = Scene.v().grabField(signature);
+		if (f == null)
+			throw new IOException(String.format("Field %s from checkpoint not found in scene", signature));
+		return f;
+	}
+
+	public Type readType() throws IOException {
+		String name = readString();
+		if (name == null)
+			return null;
+		Type t = TypeUtils.getTypeFromString(name);
+		if (t != null)
+			return t;
+		if (name.equals(NullType.v().toString()))
+			return NullType.v();
+		return RefType.v(name);
+	}
+
+	public Unit readUnit() throws IOException {
+		SootMethod m = readMethod();
+		if (m == null)
+			return null;
+		int unitIndex = readVarInt();
+		Unit u = index.getUnit(m, unitIndex);
+		if (u == null)
+			throw new IOException(String.format("Unit %d of method %s from checkpoint not found in scene", unitIndex,
+					m.getSignature()));
+		return u;
+	}
+
+	public Local readLocal() throws IOException {
+		SootMethod m = readMethod();
+		if (m == null)
+			return null;
+		String name = readString();
+		Local l = index.getLocal(m, name);
+		if (l == null)
+			throw new IOException(String.format("Local %s of method %s from checkpoint not found in scene", name,
+					m.getSignature()));
+		return l;
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+
+}
@@ -0,0 +1,148 @@
+package soot.jimple.infoflow.solver.checkpoint;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import soot.Local;
+import soot.SootField;
+import soot.SootMethod;
+import soot.Type;
+import soot.Unit;
+import soot.jimple.toolkits.ide.icfg.BiDiInterproceduralCFG;
+
+/**
+ * Compressed output stream for solver checkpoints. Next to primitive values,
+ * the stream encodes the elements of the Soot scene in a way that does not
+ * depend on object identities. Methods, fields, and types are written as their
+ * signatures, units as their position inside the body of their method, and
+ * locals as their names. Each string is only written once, later occurrences
+ * refer to the first one by number.
+ */
+public class CheckpointOutput implements Closeable {
+
+	private final DataOutputStream out;
+	private final BiDiInterproceduralCFG<Unit, SootMethod> icfg;
+	private final SceneIndex index;
+
+	private final Map<String, Integer> strings = new HashMap<>();
+
+	CheckpointOutput(OutputStream stream, BiDiInterproceduralCFG<Unit, SootMethod> icfg, SceneIndex index)
+			throws IOException {
+		this.out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(stream), 1 << 16));
+		this.icfg = icfg;
+		this.index = index;
+	}
+
+	public void writeInt(int value) throws IOException {
+		out.writeInt(value);
+	}
+
+	public void writeBoolean(boolean value) throws IOException {
+		out.writeBoolean(value);
+	}
+
+	public void writeByte(int value) throws IOException {
+		out.writeByte(value);
+	}
+
+	/**
+	 * Writes a non-negative number in a variable-length encoding that uses a
+	 * single byte for values below 128
+	 *
+	 * @param value The value to write
+	 * @throws IOException Thrown if the value could not be written
+	 */
+	public void writeVarInt(int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	/**
+	 * Writes a string. Strings that have been written before are replaced by a
+	 * reference to their first occurrence.
+	 *
+	 * @param str The string to write, may be <code>null</code>
+	 * @throws IOException Thrown if the string could not be written
+	 */
+	public void writeString(String str) throws IOException {
+		if (str == null) {
+			writeVarInt(0);
+			return;
+		}
+		Integer id = strings.get(str);
+		if (id != null)
+			writeVarInt(id + 2);
+		else {
+			strings.put(str, strings.size());
+			writeVarInt(1);
+			out.writeUTF(str);
+		}
+	}
+
+	public void writeMethod(SootMethod m) throws IOException {
+		writeString(m == null ? null : m.getSignature());
+	}
+
+	public void writeField(SootField f) throws IOException {
+		writeString(f == null ? null : f.getSignature());
+	}
+
+	public void writeType(Type t) throws IOException {
+		writeString(t == null ? null : t.toString());
+	}
+
+	/**
+	 * Writes a unit as the method that contains it and its position inside the
+	 * body of this method
+	 *
+	 * @param u The unit to write, may be <code>null</code>
+	 * @throws IOException Thrown if the unit could not be written or is not part
+	 *                     of any method body
+	 */
+	public void writeUnit(Unit u) throws IOException {
+		if (u == null) {
+			writeMethod(null);
+			return;
+		}
+		SootMethod m = icfg.getMethodOf(u);
+		int unitIndex = m == null ? -1 : index.getUnitIndex(m, u);
+		if (unitIndex < 0)
+			throw new IOException(String.format("Unit %s is not part of any method body", u));
+		writeMethod(m);
+		writeVarInt(unitIndex);
+	}
+
+	/**
+	 * Writes a local as the method that declares it and its name
+	 *
+	 * @param l The local to write, may be <code>null</code>
+	 * @throws IOException Thrown if the local could not be written or is not
+	 *                     declared in any method body
+	 */
+	public void writeLocal(Local l) throws IOException {
+		if (l == null) {
+			writeMethod(null);
+			return;
+		}
+		SootMethod m = index.getOwner(l);
+		if (m == null)
+			throw new IOException(String.format("Local %s is not declared in any method body", l));
+		writeMethod(m);
+		writeString(l.getName());
+	}
+
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+
+}
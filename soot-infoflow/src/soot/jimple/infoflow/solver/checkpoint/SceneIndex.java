@@ -0,0 +1,109 @@
+package soot.jimple.infoflow.solver.checkpoint;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import soot.Local;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootMethod;
+import soot.Unit;
+
+/**
+ * Index over the method bodies in the Soot scene that maps units and locals to
+ * positions and names that remain stable across runs on the same program.
+ * Building the index is expensive, so the same index should be reused for all
+ * checkpoints of an analysis.
+ */
+class SceneIndex {
+
+	private Map<Local, SootMethod> localOwners = null;
+	private final Map<SootMethod, Map<Unit, Integer>> unitIndices = new HashMap<>();
+	private final Map<SootMethod, Unit[]> units = new HashMap<>();
+	private final Map<SootMethod, Map<String, Local>> locals = new HashMap<>();
+
+	/**
+	 * Gets the position of the given unit inside the body of the given method
+	 *
+	 * @param m The method that contains the unit
+	 * @param u The unit
+	 * @return The position of the unit, or -1 if the body of the given method does
+	 *         not contain the unit
+	 */
+	public int getUnitIndex(SootMethod m, Unit u) {
+		Map<Unit, Integer> indices = unitIndices.get(m);
+		if (indices == null) {
+			indices = new IdentityHashMap<>();
+			if (m.hasActiveBody()) {
+				int index = 0;
+				for (Unit unit : m.getActiveBody().getUnits())
+					indices.put(unit, index++);
+			}
+			unitIndices.put(m, indices);
+		}
+		Integer index = indices.get(u);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * Gets the unit at the given position inside the body of the given method
+	 *
+	 * @param m     The method
+	 * @param index The position of the unit
+	 * @return The unit at the given position, or <code>null</code> if there is no
+	 *         such unit
+	 */
+	public Unit getUnit(SootMethod m, int index) {
+		Unit[] body = units.get(m);
+		if (body == null) {
+			body = m.hasActiveBody() ? m.getActiveBody().getUnits().toArray(new Unit[0]) : new Unit[0];
+			units.put(m, body);
+		}
+		return index >= 0 && index < body.length ? body[index] : null;
+	}
+
+	/**
+	 * Gets the method in whose body the given local is declared
+	 *
+	 * @param l The local
+	 * @return The method that declares the local, or <code>null</code> if no body
+	 *         in the scene declares the local
+	 */
+	public SootMethod getOwner(Local l) {
+		if (localOwners == null) {
+			localOwners = new IdentityHashMap<>();
+			for (SootClass sc : Scene.v().getClasses()) {
+				for (SootMethod sm : sc.getMethods()) {
+					if (sm.hasActiveBody()) {
+						for (Local local : sm.getActiveBody().getLocals())
+							localOwners.put(local, sm);
+					}
+				}
+			}
+		}
+		return localOwners.get(l);
+	}
+
+	/**
+	 * Gets the local with the given name from the body of the given method
+	 *
+	 * @param m    The method
+	 * @param name The name of the local
+	 * @return The local with the given name, or <code>null</code> if there is no
+	 *         such local
+	 */
+	public Local getLocal(SootMethod m, String name) {
+		Map<String, Local> bodyLocals = locals.get(m);
+		if (bodyLocals == null) {
+			bodyLocals = new HashMap<>();
+			if (m.hasActiveBody()) {
+				for (Local local : m.getActiveBody().getLocals())
+					bodyLocals.put(local.getName(), local);
+			}
+			locals.put(m, bodyLocals);
+		}
+		return bodyLocals.get(name);
+	}
+
+}
@@ -0,0 +1,516 @@
+package soot.jimple.infoflow.solver.checkpoint;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import heros.solver.Pair;
+import heros.solver.PathEdge;
+import soot.SootMethod;
+import soot.Unit;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.InfoflowManager;
+import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.data.AbstractionAtSink;
+import soot.jimple.infoflow.data.AbstractionSerializer;
+import soot.jimple.infoflow.problems.AbstractInfoflowProblem;
+import soot.jimple.infoflow.problems.TaintPropagationResults;
+import soot.jimple.infoflow.solver.DefaultSolverPeerGroup;
+import soot.jimple.infoflow.solver.EndSummary;
+import soot.jimple.infoflow.solver.IncomingRecord;
+import soot.jimple.infoflow.solver.fastSolver.InfoflowSolver;
+import soot.jimple.infoflow.sourcesSinks.manager.SinkInfo;
+import soot.jimple.infoflow.util.ThreadUtils;
+import soot.util.HashMultiMap;
+import soot.util.MultiMap;
+
+/**
+ * Class for saving the state of the data flow solvers into a checkpoint file
+ * and for continuing an analysis from such a file. A checkpoint contains the
+ * jump functions, end summaries, incoming edges, and pending edges of the taint
+ * solver and the alias solver, the abstractions referenced by them including
+ * their predecessors and neighbors, and the results found so far. It can only
+ * be loaded against the same program with the same sources and sinks.
+ *
+ * To obtain a consistent snapshot, the solvers are paused while a checkpoint is
+ * written. Checkpoints are written periodically if an interval is configured,
+ * and can be written explicitly, e.g., after the solvers have been terminated
+ * due to a timeout.
+ */
+public class SolverCheckpointer {
+
+	private static final int MAGIC = 0x46444350;
+	private static final int VERSION = 1;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	private final InfoflowManager manager;
+	private final File checkpointFile;
+	private final int interval;
+
+	private final InfoflowSolver forwardSolver;
+	private final InfoflowSolver aliasSolver;
+	private final DefaultSolverPeerGroup peerGroup;
+	private final AbstractInfoflowProblem forwardProblem;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final SceneIndex sceneIndex = new SceneIndex();
+
+	private volatile boolean stopped = false;
+
+	/**
+	 * Creates a new instance of the {@link SolverCheckpointer} class and enables
+	 * checkpoints in the given solvers. This must happen before the solvers are
+	 * started.
+	 *
+	 * @param manager        The data flow manager
+	 * @param checkpointFile The file into which to write the checkpoints
+	 * @param interval       The interval in seconds in which to write
+	 *                       checkpoints, or 0 to only write checkpoints on request
+	 * @param forwardSolver  The taint solver
+	 * @param aliasSolver    The alias solver, or <code>null</code> if the alias
+	 *                       analysis does not use a solver
+	 * @param peerGroup      The peer group that holds the incoming edges of the
+	 *                       solvers
+	 */
+	public SolverCheckpointer(InfoflowManager manager, File checkpointFile, int interval,
+			InfoflowSolver forwardSolver, InfoflowSolver aliasSolver, DefaultSolverPeerGroup peerGroup) {
+		this.manager = manager;
+		this.checkpointFile = checkpointFile;
+		this.interval = interval;
+		this.forwardSolver = forwardSolver;
+		this.aliasSolver = aliasSolver;
+		this.peerGroup = peerGroup;
+		this.forwardProblem = forwardSolver.getTabulationProblem();
+
+		forwardSolver.enableCheckpointing(lock);
+		if (aliasSolver != null)
+			aliasSolver.enableCheckpointing(lock);
+	}
+
+	/**
+	 * Starts writing checkpoints in the configured interval
+	 */
+	public void start() {
+		if (interval <= 0)
+			return;
+		this.stopped = false;
+
+		ThreadUtils.createGenericThread(new Runnable() {
+
+			@Override
+			public void run() {
+				long intervalNano = TimeUnit.SECONDS.toNanos(interval);
+				long lastCheckpoint = System.nanoTime();
+				while (!stopped) {
+					try {
+						Thread.sleep(1000);
+					} catch (InterruptedException e) {
+						// There's little we can do here
+					}
+					if (!stopped && System.nanoTime() - lastCheckpoint >= intervalNano) {
+						try {
+							writeCheckpoint();
+						} catch (IOException | RuntimeException e) {
+							logger.error("Could not write checkpoint", e);
+						}
+						lastCheckpoint = System.nanoTime();
+					}
+				}
+			}
+
+		}, "FlowDroid Checkpoint Writer", true).start();
+	}
+
+	/**
+	 * Stops writing checkpoints periodically
+	 */
+	public void stop() {
+		this.stopped = true;
+	}
+
+	/**
+	 * Pauses the solvers and writes their current state into the checkpoint file.
+	 * The file is only replaced once the new checkpoint is complete.
+	 *
+	 * @throws IOException Thrown if the checkpoint could not be written
+	 */
+	public void writeCheckpoint() throws IOException {
+		lock.writeLock().lock();
+		try {
+			long beforeCheckpoint = System.nanoTime();
+			File tempFile = new File(checkpointFile.getPath() + ".tmp");
+			try (CheckpointOutput out = new CheckpointOutput(new FileOutputStream(tempFile), manager.getICFG(),
+					sceneIndex)) {
+				write(out);
+			}
+			Files.move(tempFile.toPath(), checkpointFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+			logger.info("Checkpoint written to {} in {} seconds", checkpointFile,
+					TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - beforeCheckpoint));
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Restores the state of the solvers from the checkpoint file and schedules the
+	 * edges that were pending when the checkpoint was taken. This method must be
+	 * called after the initial seeds have been computed and before the taint
+	 * solver is started. If the checkpoint file does not exist or belongs to an
+	 * analysis with different seeds, the solvers are left untouched.
+	 *
+	 * @return True if the solver state has been restored, false if the analysis
+	 *         needs to start from its initial seeds
+	 * @throws IOException Thrown if the checkpoint could not be read
+	 */
+	public boolean resume() throws IOException {
+		if (!checkpointFile.exists()) {
+			logger.warn("Checkpoint file {} does not exist, starting from the initial seeds", checkpointFile);
+			return false;
+		}
+
+		try (CheckpointInput in = new CheckpointInput(new FileInputStream(checkpointFile), sceneIndex)) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION)
+				throw new IOException(String.format("%s is not a supported checkpoint file", checkpointFile));
+
+			Set<Unit> seeds = new HashSet<>();
+			int seedCount = in.readVarInt();
+			for (int i = 0; i < seedCount; i++)
+				seeds.add(in.readUnit());
+			if (!seeds.equals(forwardProblem.initialSeeds().keySet())) {
+				logger.warn("Checkpoint {} belongs to an analysis with different seeds, starting from the initial seeds",
+						checkpointFile);
+				return false;
+			}
+			if (in.readBoolean() != (aliasSolver != null))
+				throw new IOException("Checkpoint was written with a different alias analysis");
+
+			// Read everything before we modify the solvers
+			List<Abstraction> abstractions = readAbstractions(in);
+			SolverState forwardState = new SolverState(in, abstractions);
+			SolverState aliasState = aliasSolver == null ? null : new SolverState(in, abstractions);
+
+			MultiMap<Pair<SootMethod, Abstraction>, IncomingRecord<Unit, Abstraction>> incoming = new HashMultiMap<>();
+			int incomingCount = in.readVarInt();
+			for (int i = 0; i < incomingCount; i++) {
+				SootMethod m = in.readMethod();
+				Abstraction d3 = readReference(in, abstractions);
+				Unit n = in.readUnit();
+				Abstraction d1 = readReference(in, abstractions);
+				Abstraction d2 = readReference(in, abstractions);
+				incoming.put(new Pair<>(m, d3), new IncomingRecord<>(n, d1, d2, d3));
+			}
+
+			List<Pair<Unit, Unit>> activationCallSites = new ArrayList<>();
+			int activationCount = in.readVarInt();
+			for (int i = 0; i < activationCount; i++) {
+				Unit activationUnit = in.readUnit();
+				int callSiteCount = in.readVarInt();
+				for (int j = 0; j < callSiteCount; j++)
+					activationCallSites.add(new Pair<>(activationUnit, in.readUnit()));
+			}
+
+			List<Pair<Stmt, Abstraction>> results = new ArrayList<>();
+			int resultCount = in.readVarInt();
+			for (int i = 0; i < resultCount; i++)
+				results.add(new Pair<>((Stmt) in.readUnit(), readReference(in, abstractions)));
+
+			// Restore the solver state
+			forwardState.restore(forwardSolver);
+			if (aliasState != null)
+				aliasState.restore(aliasSolver);
+			for (Pair<SootMethod, Abstraction> key : incoming.keySet())
+				for (IncomingRecord<Unit, Abstraction> record : incoming.get(key))
+					peerGroup.getIncoming().put(key, record);
+			for (Pair<Unit, Unit> callSite : activationCallSites)
+				forwardProblem.addActivationCallSite(callSite.getO1(), callSite.getO2());
+
+			TaintPropagationResults propagationResults = forwardProblem.getResults();
+			for (Pair<Stmt, Abstraction> result : results) {
+				SinkInfo sinkInfo = manager.getSourceSinkManager() == null ? null
+						: manager.getSourceSinkManager().getSinkInfo(result.getO1(), manager,
+								result.getO2().getAccessPath());
+				propagationResults.restoreResult(new AbstractionAtSink(
+						sinkInfo == null ? null : sinkInfo.getDefinitions(), result.getO2(), result.getO1()));
+			}
+
+			logger.info("Resuming from checkpoint {} with {} abstractions, {} jump functions, and {} pending edges",
+					checkpointFile, abstractions.size(),
+					forwardState.jumpFunctions.size() + (aliasState == null ? 0 : aliasState.jumpFunctions.size()),
+					forwardState.pendingEdges.size() + (aliasState == null ? 0 : aliasState.pendingEdges.size()));
+
+			// Continue with the edges that were pending
+			forwardSolver.resumeEdges(forwardState.pendingEdges);
+			if (aliasState != null)
+				aliasSolver.resumeEdges(aliasState.pendingEdges);
+			return true;
+		}
+	}
+
+	/**
+	 * The jump functions, end summaries, and pending edges of a single solver
+	 * that have been read from a checkpoint
+	 */
+	private class SolverState {
+
+		private final List<PathEdge<Unit, Abstraction>> jumpFunctions = new ArrayList<>();
+		private final List<Abstraction> jumpFunctionValues = new ArrayList<>();
+		private final List<EndSummary<Unit, Abstraction>> endSummaries = new ArrayList<>();
+		private final List<SootMethod> endSummaryMethods = new ArrayList<>();
+		private final List<PathEdge<Unit, Abstraction>> pendingEdges = new ArrayList<>();
+
+		public SolverState(CheckpointInput in, List<Abstraction> abstractions) throws IOException {
+			int jumpFunctionCount = in.readVarInt();
+			for (int i = 0; i < jumpFunctionCount; i++) {
+				PathEdge<Unit, Abstraction> edge = readEdge(in, abstractions);
+				Abstraction value = readReference(in, abstractions);
+				jumpFunctions.add(edge);
+				jumpFunctionValues.add(value == null ? edge.factAtTarget() : value);
+			}
+
+			int endSummaryCount = in.readVarInt();
+			for (int i = 0; i < endSummaryCount; i++) {
+				endSummaryMethods.add(in.readMethod());
+				Abstraction d1 = readReference(in, abstractions);
+				Unit eP = in.readUnit();
+				Abstraction d2 = readReference(in, abstractions);
+				endSummaries.add(new EndSummary<>(eP, d2, d1));
+			}
+
+			int pendingCount = in.readVarInt();
+			for (int i = 0; i < pendingCount; i++)
+				pendingEdges.add(readEdge(in, abstractions));
+		}
+
+		public void restore(InfoflowSolver solver) {
+			for (int i = 0; i < jumpFunctions.size(); i++)
+				solver.restoreJumpFunction(jumpFunctions.get(i), jumpFunctionValues.get(i));
+			for (int i = 0; i < endSummaries.size(); i++) {
+				EndSummary<Unit, Abstraction> summary = endSummaries.get(i);
+				solver.restoreEndSummary(endSummaryMethods.get(i), summary.calleeD1, summary.eP, summary.d4);
+			}
+		}
+
+	}
+
+	/**
+	 * Writes the complete checkpoint. The solvers must be paused.
+	 */
+	private void write(CheckpointOutput out) throws IOException {
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+
+		Set<Unit> seeds = forwardProblem.initialSeeds().keySet();
+		out.writeVarInt(seeds.size());
+		for (Unit seed : seeds)
+			out.writeUnit(seed);
+		out.writeBoolean(aliasSolver != null);
+
+		// Collect all abstractions that are referenced from the solver state
+		Map<Abstraction, Integer> ids = new IdentityHashMap<>();
+		List<Abstraction> abstractions = new ArrayList<>();
+		addAbstraction(forwardProblem.zeroValue(), ids, abstractions);
+		collectAbstractions(forwardSolver, ids, abstractions);
+		if (aliasSolver != null)
+			collectAbstractions(aliasSolver, ids, abstractions);
+		MultiMap<Pair<SootMethod, Abstraction>, IncomingRecord<Unit, Abstraction>> incoming = peerGroup.getIncoming();
+		for (Pair<SootMethod, Abstraction> key : incoming.keySet()) {
+			for (IncomingRecord<Unit, Abstraction> record : incoming.get(key)) {
+				addAbstraction(record.d1, ids, abstractions);
+				addAbstraction(record.d2, ids, abstractions);
+				addAbstraction(record.d3, ids, abstractions);
+			}
+		}
+		Set<AbstractionAtSink> results = forwardProblem.getResults().getResults();
+		for (AbstractionAtSink result : results)
+			addAbstraction(result.getAbstraction(), ids, abstractions);
+
+		// The predecessors and neighbors are part of the propagation paths
+		for (int i = 0; i < abstractions.size(); i++) {
+			Abstraction abs = abstractions.get(i);
+			addAbstraction(abs.getPredecessor(), ids, abstractions);
+			Set<Abstraction> neighbors = abs.getNeighbors();
+			if (neighbors != null)
+				for (Abstraction neighbor : neighbors)
+					addAbstraction(neighbor, ids, abstractions);
+		}
+
+		// Write the abstractions. The zero value is not written, it always has the
+		// first number.
+		AbstractionSerializer serializer = new AbstractionSerializer(manager);
+		out.writeVarInt(abstractions.size() - 1);
+		for (int i = 1; i < abstractions.size(); i++)
+			serializer.writeAbstraction(abstractions.get(i), out);
+		for (int i = 1; i < abstractions.size(); i++) {
+			Abstraction abs = abstractions.get(i);
+			writeReference(abs.getPredecessor(), ids, out);
+			Set<Abstraction> neighbors = abs.getNeighbors();
+			out.writeVarInt(neighbors == null ? 0 : neighbors.size());
+			if (neighbors != null)
+				for (Abstraction neighbor : neighbors)
+					writeReference(neighbor, ids, out);
+		}
+
+		writeSolverState(forwardSolver, ids, out);
+		if (aliasSolver != null)
+			writeSolverState(aliasSolver, ids, out);
+
+		int incomingCount = 0;
+		for (Pair<SootMethod, Abstraction> key : incoming.keySet())
+			incomingCount += incoming.get(key).size();
+		out.writeVarInt(incomingCount);
+		for (Pair<SootMethod, Abstraction> key : incoming.keySet()) {
+			for (IncomingRecord<Unit, Abstraction> record : incoming.get(key)) {
+				out.writeMethod(key.getO1());
+				writeReference(record.d3, ids, out);
+				out.writeUnit(record.n);
+				writeReference(record.d1, ids, out);
+				writeReference(record.d2, ids, out);
+			}
+		}
+
+		Map<Unit, Set<Unit>> activationCallSites = forwardProblem.getActivationCallSites();
+		out.writeVarInt(activationCallSites.size());
+		for (Map.Entry<Unit, Set<Unit>> entry : activationCallSites.entrySet()) {
+			out.writeUnit(entry.getKey());
+			out.writeVarInt(entry.getValue().size());
+			for (Unit callSite : entry.getValue())
+				out.writeUnit(callSite);
+		}
+
+		out.writeVarInt(results.size());
+		for (AbstractionAtSink result : results) {
+			out.writeUnit(result.getSinkStmt());
+			writeReference(result.getAbstraction(), ids, out);
+		}
+	}
+
+	private void collectAbstractions(InfoflowSolver solver, Map<Abstraction, Integer> ids,
+			List<Abstraction> abstractions) {
+		for (Map.Entry<PathEdge<Unit, Abstraction>, Abstraction> entry : solver.getJumpFunctions().entrySet()) {
+			addAbstraction(entry.getKey().factAtSource(), ids, abstractions);
+			addAbstraction(entry.getKey().factAtTarget(), ids, abstractions);
+			addAbstraction(entry.getValue(), ids, abstractions);
+		}
+		for (Map<EndSummary<Unit, Abstraction>, EndSummary<Unit, Abstraction>> summaries : solver.getEndSummaries()
+				.values()) {
+			for (EndSummary<Unit, Abstraction> summary : summaries.keySet()) {
+				addAbstraction(summary.calleeD1, ids, abstractions);
+				addAbstraction(summary.d4, ids, abstractions);
+			}
+		}
+		for (PathEdge<Unit, Abstraction> edge : solver.getPendingEdges()) {
+			addAbstraction(edge.factAtSource(), ids, abstractions);
+			addAbstraction(edge.factAtTarget(), ids, abstractions);
+		}
+	}
+
+	private void writeSolverState(InfoflowSolver solver, Map<Abstraction, Integer> ids, CheckpointOutput out)
+			throws IOException {
+		Map<PathEdge<Unit, Abstraction>, Abstraction> jumpFunctions = solver.getJumpFunctions();
+		out.writeVarInt(jumpFunctions.size());
+		for (Map.Entry<PathEdge<Unit, Abstraction>, Abstraction> entry : jumpFunctions.entrySet()) {
+			PathEdge<Unit, Abstraction> edge = entry.getKey();
+			writeEdge(edge, ids, out);
+
+			// In most cases, the value is the target fact of the edge
+			writeReference(entry.getValue() == edge.factAtTarget() ? null : entry.getValue(), ids, out);
+		}
+
+		Collection<Map<EndSummary<Unit, Abstraction>, EndSummary<Unit, Abstraction>>> endSummaries = solver
+				.getEndSummaries().values();
+		int endSummaryCount = 0;
+		for (Map<EndSummary<Unit, Abstraction>, EndSummary<Unit, Abstraction>> summaries : endSummaries)
+			endSummaryCount += summaries.size();
+		out.writeVarInt(endSummaryCount);
+		for (Map.Entry<Pair<SootMethod, Abstraction>, Map<EndSummary<Unit, Abstraction>, EndSummary<Unit, Abstraction>>> entry : solver
+				.getEndSummaries().entrySet()) {
+			for (EndSummary<Unit, Abstraction> summary : entry.getValue().keySet()) {
+				out.writeMethod(entry.getKey().getO1());
+				writeReference(summary.calleeD1, ids, out);
+				out.writeUnit(summary.eP);
+				writeReference(summary.d4, ids, out);
+			}
+		}
+
+		Set<PathEdge<Unit, Abstraction>> pendingEdges = solver.getPendingEdges();
+		out.writeVarInt(pendingEdges.size());
+		for (PathEdge<Unit, Abstraction> edge : pendingEdges)
+			writeEdge(edge, ids, out);
+	}
+
+	private List<Abstraction> readAbstractions(CheckpointInput in) throws IOException {
+		AbstractionSerializer serializer = new AbstractionSerializer(manager);
+		int count = in.readVarInt();
+		List<Abstraction> abstractions = new ArrayList<>(count + 1);
+		abstractions.add(forwardProblem.zeroValue());
+		for (int i = 0; i < count; i++)
+			abstractions.add(serializer.readAbstraction(in));
+		for (int i = 1; i <= count; i++) {
+			Abstraction abs = abstractions.get(i);
+			Abstraction predecessor = readReference(in, abstractions);
+			if (predecessor != null)
+				abs.setPredecessor(predecessor);
+			int neighborCount = in.readVarInt();
+			for (int j = 0; j < neighborCount; j++)
+				abs.addNeighbor(readReference(in, abstractions));
+		}
+		return abstractions;
+	}
+
+	private static void addAbstraction(Abstraction abs, Map<Abstraction, Integer> ids,
+			List<Abstraction> abstractions) {
+		if (abs != null && !ids.containsKey(abs)) {
+			ids.put(abs, abstractions.size());
+			abstractions.add(abs);
+		}
+	}
+
+	private static void writeReference(Abstraction abs, Map<Abstraction, Integer> ids, CheckpointOutput out)
+			throws IOException {
+		out.writeVarInt(abs == null ? 0 : ids.get(abs) + 1);
+	}
+
+	private static Abstraction readReference(CheckpointInput in, List<Abstraction> abstractions)
+			throws IOException {
+		int id = in.readVarInt();
+		if (id == 0)
+			return null;
+		if (id > abstractions.size())
+			throw new IOException("Malformed abstraction reference in checkpoint");
+		return abstractions.get(id - 1);
+	}
+
+	private static void writeEdge(PathEdge<Unit, Abstraction> edge, Map<Abstraction, Integer> ids,
+			CheckpointOutput out) throws IOException {
+		writeReference(edge.factAtSource(), ids, out);
+		out.writeUnit(edge.getTarget());
+		writeReference(edge.factAtTarget(), ids, out);
+	}
+
+	private static PathEdge<Unit, Abstraction> readEdge(CheckpointInput in, List<Abstraction> abstractions)
+			throws IOException {
+		Abstraction d1 = readReference(in, abstractions);
+		Unit target = in.readUnit();
+		Abstraction d2 = readReference(in, abstractions);
+		return new PathEdge<>(d1, target, d2);
+	}
+
+}
@@ -20,9 +20,11 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
 import java.util.function.Consumer;
 
 import org.slf4j.Logger;
@@ -43,7 +45,9 @@ import soot.SootMethod;
 import soot.Unit;
 import soot.jimple.infoflow.collect.MyConcurrentHashMap;
 import soot.jimple.infoflow.memory.IMemoryBoundedSolver;
+import soot.jimple.infoflow.memory.IMemoryDegradationHandler;
 import soot.jimple.infoflow.memory.ISolverTerminationReason;
+import soot.jimple.infoflow.memory.MemoryDegradationLevel;
 import soot.jimple.infoflow.solver.AbstractIFDSSolver;
 import soot.jimple.infoflow.solver.EndSummary;
 import soot.jimple.infoflow.solver.IStrategyBasedParallelSolver;
@@ -66,7 +70,8 @@ import soot.util.ConcurrentHashMultiMap;
  * @see IFDSTabulationProblem
  */
 public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiInterproceduralCFG<N, SootMethod>>
-		extends AbstractIFDSSolver<N, D> implements IMemoryBoundedSolver, IStrategyBasedParallelSolver<N, D> {
+		extends AbstractIFDSSolver<N, D>
+		implements IMemoryBoundedSolver, IMemoryDegradationHandler, IStrategyBasedParallelSolver<N, D> {
 
 	public enum ScheduleTarget {
 		/**
@@ -127,8 +132,8 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 	@DontSynchronize("readOnly")
 	protected final boolean followReturnsPastSeeds;
 
-	@DontSynchronize("readOnly")
-	protected int maxJoinPointAbstractions = -1;
+	@SynchronizedBy("volatile, lowered on memory degradation")
+	protected volatile int maxJoinPointAbstractions = -1;
 
 	@DontSynchronize("readOnly")
 	protected IMemoryManager<D, N> memoryManager = null;
@@ -144,6 +149,24 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 	protected ISchedulingStrategy<N, D> schedulingStrategy = new DefaultSchedulingStrategy<N, D, I>(
 			this).EACH_EDGE_INDIVIDUALLY;
 
+	// edges that have been scheduled, but not yet processed, together with the
+	// number of times they have been scheduled. Only recorded if checkpoints are
+	// enabled.
+	@SynchronizedBy("thread safe data structure")
+	protected ConcurrentMap<PathEdge<N, D>, Integer> pendingEdges = null;
+
+	// edge processing holds the read lock, checkpoints take the write lock
+	@DontSynchronize("readOnly")
+	protected ReadWriteLock checkpointLock = null;
+
+	@DontSynchronize("only used by single thread")
+	protected boolean resumed = false;
+
+	// processes edges that are scheduled on the local work list of the current
+	// worker thread without wrapping them into tasks
+	@DontSynchronize("stateless")
+	private final LocalWorklistTask.ItemProcessor<PathEdge<N, D>> localEdgeProcessor = this::processPathEdge;
+
 	/**
 	 * Creates a solver for the given problem, which caches flow functions and edge
 	 * functions. The solver must then be started by calling {@link #solve()}.
@@ -198,7 +221,17 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		for (IMemoryBoundedSolverStatusNotification listener : notificationListeners)
 			listener.notifySolverStarted(this);
 
-		submitInitialSeeds();
+		// If we resume from a checkpoint, the edges have already been scheduled
+		if (!resumed) {
+			if (checkpointLock != null)
+				checkpointLock.readLock().lock();
+			try {
+				submitInitialSeeds();
+			} finally {
+				if (checkpointLock != null)
+					checkpointLock.readLock().unlock();
+			}
+		}
 		awaitCompletionComputeValuesAndShutdown();
 
 		// Notify the listeners that the solver has been terminated
@@ -272,20 +305,63 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 	 * @param scheduleTarget
 	 */
 	protected void scheduleEdgeProcessing(PathEdge<N, D> edge, ScheduleTarget scheduleTarget) {
+		// Edges that we do not process anymore must remain in the checkpoint
+		if (pendingEdges != null)
+			pendingEdges.merge(edge, 1, Integer::sum);
+
 		// If the executor has been killed, there is little point
 		// in submitting new tasks
 		if (killFlag != null || executor.isTerminating() || executor.isTerminated())
 			return;
 
-		IFDSSolver<N, D, I>.PathEdgeProcessingTask task = new PathEdgeProcessingTask(edge, solverId);
+		// Edges that stay on the current thread are put into the thread's work list
+		// directly
 		if (scheduleTarget == ScheduleTarget.EXECUTOR)
-			executor.execute(task);
-		else {
-			LocalWorklistTask.scheduleLocal(task);
-		}
+			executor.execute(new PathEdgeProcessingTask(edge, solverId));
+		else
+			LocalWorklistTask.scheduleLocal(localEdgeProcessor, edge);
 		propagationCount++;
 	}
 
+	/**
+	 * Processes the given edge on the current thread
+	 *
+	 * @param edge The edge to process
+	 */
+	protected void processPathEdge(PathEdge<N, D> edge) {
+		if (checkpointLock == null) {
+			processPathEdgeInternal(edge);
+			return;
+		}
+
+		checkpointLock.readLock().lock();
+		try {
+			processPathEdgeInternal(edge);
+
+			// If the solver has been killed, the edge might not have been processed
+			// completely. The same edge can be scheduled again while it is processed,
+			// so it only stops being pending once all of its schedules are done.
+			if (killFlag == null)
+				pendingEdges.computeIfPresent(edge, (e, count) -> count > 1 ? count - 1 : null);
+		} finally {
+			checkpointLock.readLock().unlock();
+		}
+	}
+
+	private void processPathEdgeInternal(PathEdge<N, D> edge) {
+		final N target = edge.getTarget();
+		if (icfg.isCallStmt(target)) {
+			processCall(edge);
+		} else {
+			// note that some statements, such as "throw" may be
+			// both an exit statement and a "normal" statement
+			if (icfg.isExitStmt(target))
+				processExit(edge);
+			if (!icfg.getSuccsOf(target).isEmpty())
+				processNormalFlow(edge);
+		}
+	}
+
 	/**
 	 * Lines 13-20 of the algorithm; processing a call site in the caller's context.
 	 *
@@ -741,17 +817,7 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		}
 
 		public void runInternal() {
-			final N target = edge.getTarget();
-			if (icfg.isCallStmt(target)) {
-				processCall(edge);
-			} else {
-				// note that some statements, such as "throw" may be
-				// both an exit statement and a "normal" statement
-				if (icfg.isExitStmt(target))
-					processExit(edge);
-				if (!icfg.getSuccsOf(target).isEmpty())
-					processNormalFlow(edge);
-			}
+			processPathEdge(edge);
 		}
 
 		@Override
@@ -797,6 +863,14 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		this.maxJoinPointAbstractions = maxJoinPointAbstractions;
 	}
 
+	@Override
+	public void onMemoryDegradation(MemoryDegradationLevel level) {
+		// Only keep a single neighbor at join points from now on
+		if (level == MemoryDegradationLevel.ReducePrecision
+				&& (maxJoinPointAbstractions < 0 || maxJoinPointAbstractions > 1))
+			maxJoinPointAbstractions = 1;
+	}
+
 	/**
 	 * Sets the memory manager that shall be used to manage the abstractions
 	 *
@@ -861,4 +935,84 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		this.schedulingStrategy = strategy;
 	}
 
+	/**
+	 * Enables checkpoints of the solver state. Once checkpoints are enabled, the
+	 * solver records the edges that have been scheduled, but not yet processed.
+	 * Edges are processed under the read lock of the given lock, so that holders of
+	 * the write lock see a consistent solver state. This method must be called
+	 * before the solver is started.
+	 *
+	 * @param lock The lock that coordinates the edge processing with the
+	 *             checkpoints
+	 */
+	public void enableCheckpointing(ReadWriteLock lock) {
+		this.checkpointLock = lock;
+		this.pendingEdges = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Gets the edges that have been scheduled, but not yet processed
+	 *
+	 * @return The pending edges, or <code>null</code> if checkpoints are not
+	 *         enabled
+	 */
+	public Set<PathEdge<N, D>> getPendingEdges() {
+		return pendingEdges == null ? null : pendingEdges.keySet();
+	}
+
+	/**
+	 * Gets the jump functions computed by this solver
+	 *
+	 * @return The jump functions computed by this solver
+	 */
+	public Map<PathEdge<N, D>, D> getJumpFunctions() {
+		return jumpFunctions;
+	}
+
+	/**
+	 * Gets the end summaries computed by this solver
+	 *
+	 * @return The end summaries, indexed by the callee and the fact at its start
+	 *         point
+	 */
+	public Map<Pair<SootMethod, D>, Map<EndSummary<N, D>, EndSummary<N, D>>> getEndSummaries() {
+		return endSummary;
+	}
+
+	/**
+	 * Restores a jump function from a checkpoint
+	 *
+	 * @param edge  The edge of the jump function
+	 * @param value The fact that has been recorded for the edge
+	 */
+	public void restoreJumpFunction(PathEdge<N, D> edge, D value) {
+		jumpFunctions.put(edge, value);
+	}
+
+	/**
+	 * Restores an end summary from a checkpoint
+	 *
+	 * @param m  The callee
+	 * @param d1 The fact at the start point of the callee
+	 * @param eP The exit point of the callee
+	 * @param d2 The fact at the exit point
+	 */
+	public void restoreEndSummary(SootMethod m, D d1, N eP, D d2) {
+		addEndSummary(m, d1, eP, d2);
+	}
+
+	/**
+	 * Continues the analysis from the given edges, which have been restored from a
+	 * checkpoint together with the remaining solver state. The edges are scheduled
+	 * immediately. If this solver is started afterwards, it does not submit its
+	 * initial seeds again.
+	 *
+	 * @param edges The edges that were pending when the checkpoint was taken
+	 */
+	public void resumeEdges(Collection<PathEdge<N, D>> edges) {
+		this.resumed = true;
+		for (PathEdge<N, D> edge : edges)
+			scheduleEdgeProcessing(edge, ScheduleTarget.EXECUTOR);
+	}
+
 }
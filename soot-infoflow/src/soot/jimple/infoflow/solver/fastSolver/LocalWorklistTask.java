@@ -4,33 +4,93 @@ import java.util.ArrayDeque;
 
 /**
  * This special task may run multiple tasks on the same thread if they are
- * scheduled using {@link #scheduleLocal(Runnable)}
- * 
+ * scheduled using {@link #scheduleLocal(Runnable)} or
+ * {@link #scheduleLocal(ItemProcessor, Object)}. The local tasks are kept in a
+ * work list that belongs to the worker thread and is reused for all tasks that
+ * run on this thread.
+ *
  * @author Marc Miltenberger
  */
 public abstract class LocalWorklistTask implements Runnable {
-	private ArrayDeque<Runnable> localTaskList = new ArrayDeque<>();
-	private static final ThreadLocal<LocalWorklistTask> TASKS = new ThreadLocal<>();
+
+	/**
+	 * If the work list of a thread has grown beyond this number of entries, it is
+	 * replaced after the current task has finished to release the memory
+	 */
+	private static final int MAX_RETAINED_CAPACITY = 1 << 16;
+
+	private static final ThreadLocal<LocalWorklist> WORKLISTS = ThreadLocal.withInitial(LocalWorklist::new);
+
+	/**
+	 * Processor for items that are scheduled on the local work list without
+	 * wrapping them into a task of their own
+	 *
+	 * @param <T> The type of the items
+	 */
+	public interface ItemProcessor<T> {
+
+		/**
+		 * Processes the given item
+		 *
+		 * @param item The item to process
+		 */
+		public void process(T item);
+
+	}
+
+	/**
+	 * The work list of a single worker thread
+	 */
+	private static class LocalWorklist {
+
+		private ArrayDeque<Object> queue = new ArrayDeque<>();
+		private boolean active = false;
+		private int maxSize = 0;
+
+		private void add(Object entry) {
+			queue.add(entry);
+			if (queue.size() > maxSize)
+				maxSize = queue.size();
+		}
+
+	}
 
 	@Override
 	public final void run() {
+		LocalWorklist worklist = WORKLISTS.get();
+
+		// If we are already running inside another task on this thread, we just
+		// enqueue ourselves
+		if (worklist.active) {
+			worklist.add(this);
+			return;
+		}
+
+		worklist.active = true;
 		try {
-			ArrayDeque<Runnable> list = localTaskList;
-			list.add(this);
-			TASKS.set(this);
+			ArrayDeque<Object> queue = worklist.queue;
+			runInternal();
 			while (true) {
-				Runnable d = list.poll();
+				Object d = queue.poll();
 				if (d == null)
 					break;
-				if (d instanceof LocalWorklistTask) {
+				if (d instanceof ItemProcessor) {
+					@SuppressWarnings("unchecked")
+					ItemProcessor<Object> processor = (ItemProcessor<Object>) d;
+					processor.process(queue.poll());
+				} else if (d instanceof LocalWorklistTask) {
 					LocalWorklistTask l = (LocalWorklistTask) d;
 					l.runInternal();
 				} else
-					d.run();
+					((Runnable) d).run();
 			}
-
 		} finally {
-			TASKS.remove();
+			worklist.active = false;
+			if (worklist.maxSize > MAX_RETAINED_CAPACITY)
+				worklist.queue = new ArrayDeque<>();
+			else
+				worklist.queue.clear();
+			worklist.maxSize = 0;
 		}
 
 	}
@@ -38,9 +98,26 @@ public abstract class LocalWorklistTask implements Runnable {
 	public abstract void runInternal();
 
 	public static void scheduleLocal(Runnable task) {
-		LocalWorklistTask t = TASKS.get();
-		if (t != null)
-			t.localTaskList.add(task);
+		LocalWorklist worklist = WORKLISTS.get();
+		if (worklist.active)
+			worklist.add(task);
+	}
+
+	/**
+	 * Schedules the given item for processing on the current thread. In contrast
+	 * to {@link #scheduleLocal(Runnable)}, this does not allocate a new task
+	 * object. If the current thread is not running a {@link LocalWorklistTask},
+	 * the item is discarded.
+	 *
+	 * @param processor The processor that shall process the item
+	 * @param item      The item to process
+	 */
+	public static <T> void scheduleLocal(ItemProcessor<T> processor, T item) {
+		LocalWorklist worklist = WORKLISTS.get();
+		if (worklist.active) {
+			worklist.add(processor);
+			worklist.add(item);
+		}
 	}
 
 }
@@ -1,8 +1,13 @@
 package soot.jimple.infoflow.solver.gcSolver;
 
+import java.io.IOException;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import heros.solver.PathEdge;
 import soot.SootMethod;
@@ -21,6 +26,8 @@ import soot.util.ConcurrentHashMultiMap;
 public abstract class AbstractReferenceCountingGarbageCollector<N, D, A> extends AbstractGarbageCollector<N, D, A>
 		implements IGarbageCollectorPeer<A> {
 
+	private static final Logger logger = LoggerFactory.getLogger(AbstractReferenceCountingGarbageCollector.class);
+
 	protected ConcurrentCountingMap<A> jumpFnCounter = new ConcurrentCountingMap<>();
 	protected final Set<A> gcScheduleSet = new ConcurrentHashSet<>();
 	protected final AtomicInteger gcedAbstractions = new AtomicInteger();
@@ -29,6 +36,14 @@ public abstract class AbstractReferenceCountingGarbageCollector<N, D, A> extends
 	protected GarbageCollectionTrigger trigger = GarbageCollectionTrigger.Immediate;
 	protected GarbageCollectorPeerGroup<A> peerGroup = null;
 	protected boolean checkChangeCounter = false;
+	protected volatile JumpFunctionSpillStore<N, D, A> spillStore = null;
+	protected final AtomicInteger spilledAbstractions = new AtomicInteger();
+
+	/**
+	 * Only one garbage collection may run at a time. Otherwise, a forced collection
+	 * could spill the edges of a method while another collection discards them.
+	 */
+	private final ReentrantLock gcLock = new ReentrantLock();
 
 	protected boolean validateEdges = false;
 	protected Set<PathEdge<N, D>> oldEdges = new HashSet<>();
@@ -80,47 +95,123 @@ public abstract class AbstractReferenceCountingGarbageCollector<N, D, A> extends
 	 * Immediately performs garbage collection
 	 */
 	protected void gcImmediate() {
-		if (gcScheduleSet != null && !gcScheduleSet.isEmpty()) {
-			// Check our various triggers for garbage collection
-			boolean gc = trigger == GarbageCollectionTrigger.Immediate;
-			gc |= trigger == GarbageCollectionTrigger.MethodThreshold && gcScheduleSet.size() > methodThreshold;
-			gc |= trigger == GarbageCollectionTrigger.EdgeThreshold && edgeCounterForThreshold.get() > edgeThreshold;
-
-			// Perform the garbage collection if required
-			if (gc) {
-				onBeforeRemoveEdges();
-				for (A abst : gcScheduleSet) {
-					// Is it safe to remove this method?
-					if (peerGroup != null) {
-						if (peerGroup.hasActiveDependencies(abst))
+		gcImmediate(false);
+	}
+
+	@Override
+	public void forceGc() {
+		gcImmediate(true);
+	}
+
+	/**
+	 * Immediately performs garbage collection
+	 * 
+	 * @param force True to collect regardless of the configured trigger, false to
+	 *              only collect if the trigger condition is met
+	 */
+	protected void gcImmediate(boolean force) {
+		// A regular collection that finds another one running can skip its turn, the
+		// running collection also processes the methods scheduled in the meantime. A
+		// forced collection must wait, because it shall spill edges as well.
+		if (force)
+			gcLock.lock();
+		else if (!gcLock.tryLock())
+			return;
+		try {
+			if (gcScheduleSet != null && !gcScheduleSet.isEmpty()) {
+				// Check our various triggers for garbage collection
+				boolean gc = force || trigger == GarbageCollectionTrigger.Immediate;
+				gc |= trigger == GarbageCollectionTrigger.MethodThreshold && gcScheduleSet.size() > methodThreshold;
+				gc |= trigger == GarbageCollectionTrigger.EdgeThreshold
+						&& edgeCounterForThreshold.get() > edgeThreshold;
+
+				// Perform the garbage collection if required
+				if (gc) {
+					onBeforeRemoveEdges();
+					for (A abst : gcScheduleSet) {
+						// Is it safe to remove this method?
+						boolean active = peerGroup != null ? peerGroup.hasActiveDependencies(abst)
+								: hasActiveDependencies(abst);
+						if (active) {
+							// If we are running out of memory, we move the edges of methods that are no
+							// longer processed, but still referenced, out of the heap
+							if (force && jumpFnCounter.get(abst) == 0)
+								spillEdges(abst);
 							continue;
-					} else if (hasActiveDependencies(abst))
-						continue;
-
-					// Get stats for the stuff we are about to remove
-					Set<PathEdge<N, D>> oldFunctions = jumpFunctions.get(abst);
-					if (oldFunctions != null) {
-						int gcedSize = oldFunctions.size();
-						gcedEdges.addAndGet(gcedSize);
-						if (trigger == GarbageCollectionTrigger.EdgeThreshold)
-							edgeCounterForThreshold.subtract(gcedSize);
-					}
+						}
+
+						// Get stats for the stuff we are about to remove
+						Set<PathEdge<N, D>> oldFunctions = jumpFunctions.get(abst);
+						if (oldFunctions != null) {
+							int gcedSize = oldFunctions.size();
+							gcedEdges.addAndGet(gcedSize);
+							if (trigger == GarbageCollectionTrigger.EdgeThreshold)
+								edgeCounterForThreshold.subtract(gcedSize);
+						}
 
-					// First unregister the method, then delete the edges. In case some other thread
-					// concurrently schedules a new edge, the method gets back into the GC work list
-					// this way.
-					gcScheduleSet.remove(abst);
-					if (jumpFunctions.remove(abst)) {
-						gcedAbstractions.incrementAndGet();
-						if (validateEdges)
-							oldEdges.addAll(oldFunctions);
+						// First unregister the method, then delete the edges. In case some other thread
+						// concurrently schedules a new edge, the method gets back into the GC work list
+						// this way.
+						gcScheduleSet.remove(abst);
+						boolean removed = jumpFunctions.remove(abst);
+						JumpFunctionSpillStore<N, D, A> store = spillStore;
+						if (store != null) {
+							int discarded = store.discard(abst);
+							if (discarded > 0) {
+								gcedEdges.addAndGet(discarded);
+								removed = true;
+							}
+						}
+						if (removed) {
+							gcedAbstractions.incrementAndGet();
+							if (validateEdges)
+								oldEdges.addAll(oldFunctions);
+						}
 					}
+					onAfterRemoveEdges();
 				}
-				onAfterRemoveEdges();
 			}
+		} finally {
+			gcLock.unlock();
 		}
 	}
 
+	/**
+	 * Moves the jump functions of the given method into the spill store
+	 * 
+	 * @param abst The method whose jump functions shall be spilled
+	 */
+	protected void spillEdges(A abst) {
+		JumpFunctionSpillStore<N, D, A> store = spillStore;
+		if (store == null)
+			return;
+
+		// We first take the edges out of the jump functions. The set remains a view on
+		// the removed edges, while edges that are added concurrently go into a new set
+		// and stay on the heap.
+		Set<PathEdge<N, D>> edges = jumpFunctions.get(abst);
+		if (edges == null || edges.isEmpty() || !jumpFunctions.remove(abst))
+			return;
+
+		try {
+			int spilled = store.spill(abst, edges);
+			spilledAbstractions.incrementAndGet();
+			if (trigger == GarbageCollectionTrigger.EdgeThreshold)
+				edgeCounterForThreshold.subtract(spilled);
+		} catch (IOException e) {
+			logger.error("Could not spill jump functions, disabling the spill store", e);
+			spillStore = null;
+			for (PathEdge<N, D> edge : edges)
+				jumpFunctions.putIfAbsent(abst, edge);
+		}
+	}
+
+	@Override
+	public void notifyEdgesReloaded(int edgeCount) {
+		if (trigger == GarbageCollectionTrigger.EdgeThreshold)
+			edgeCounterForThreshold.addAndGet(edgeCount);
+	}
+
 	/**
 	 * Method that is called before the first edge is removed from the jump
 	 * functions
@@ -179,6 +270,28 @@ public abstract class AbstractReferenceCountingGarbageCollector<N, D, A> extends
 		this.trigger = trigger;
 	}
 
+	/**
+	 * Sets the store into which the jump functions of methods that are no longer
+	 * processed, but still have active dependencies, are moved when garbage
+	 * collection is forced due to low memory
+	 * 
+	 * @param spillStore The spill store, or <code>null</code> to keep all jump
+	 *                   functions on the heap
+	 */
+	public void setSpillStore(JumpFunctionSpillStore<N, D, A> spillStore) {
+		this.spillStore = spillStore;
+	}
+
+	/**
+	 * Gets the number of times that the jump functions of a method have been moved
+	 * into the spill store
+	 * 
+	 * @return The number of spilled methods
+	 */
+	public int getSpilledAbstractions() {
+		return spilledAbstractions.get();
+	}
+
 	/**
 	 * Sets the peer group in which this solver operates. Peer groups are used to
 	 * synchronize active dependencies between multiple solvers.
@@ -13,6 +13,8 @@
  ******************************************************************************/
 package soot.jimple.infoflow.solver.gcSolver;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -43,7 +45,9 @@ import soot.SootMethod;
 import soot.Unit;
 import soot.jimple.infoflow.collect.MyConcurrentHashMap;
 import soot.jimple.infoflow.memory.IMemoryBoundedSolver;
+import soot.jimple.infoflow.memory.IMemoryDegradationHandler;
 import soot.jimple.infoflow.memory.ISolverTerminationReason;
+import soot.jimple.infoflow.memory.MemoryDegradationLevel;
 import soot.jimple.infoflow.solver.*;
 import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
 import soot.jimple.infoflow.solver.executors.SetPoolExecutor;
@@ -64,7 +68,7 @@ import soot.util.ConcurrentHashMultiMap;
  * @see IFDSTabulationProblem
  */
 public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiInterproceduralCFG<N, SootMethod>>
-		extends AbstractIFDSSolver<N, D> implements IMemoryBoundedSolver {
+		extends AbstractIFDSSolver<N, D> implements IMemoryBoundedSolver, IMemoryDegradationHandler {
 
 	public static CacheBuilder<Object, Object> DEFAULT_CACHE_BUILDER = CacheBuilder.newBuilder()
 			.concurrencyLevel(Runtime.getRuntime().availableProcessors()).initialCapacity(10000).softValues();
@@ -116,8 +120,8 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 	@DontSynchronize("readOnly")
 	protected final boolean followReturnsPastSeeds;
 
-	@DontSynchronize("readOnly")
-	private int maxJoinPointAbstractions = -1;
+	@SynchronizedBy("volatile, lowered on memory degradation")
+	private volatile int maxJoinPointAbstractions = -1;
 
 	@DontSynchronize("readOnly")
 	protected IMemoryManager<D, N> memoryManager = null;
@@ -134,6 +138,12 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 
 	protected int sleepTime = 1;
 
+	@DontSynchronize("readOnly")
+	protected File spillDirectory = null;
+
+	@SynchronizedBy("thread safe data structure")
+	protected volatile JumpFunctionSpillStore<N, D, SootMethod> spillStore = null;
+
 	/**
 	 * Creates a solver for the given problem, which caches flow functions and edge
 	 * functions. The solver must then be started by calling {@link #solve()}.
@@ -190,6 +200,14 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		@SuppressWarnings("unchecked")
 		GCSolverPeerGroup<SootMethod> gcSolverGroup = (GCSolverPeerGroup<SootMethod>) solverPeerGroup;
 		gc.setPeerGroup(gcSolverGroup.getGCPeerGroup());
+		if (spillDirectory != null) {
+			try {
+				spillStore = new JumpFunctionSpillStore<>(spillDirectory);
+				gc.setSpillStore(spillStore);
+			} catch (IOException e) {
+				logger.error("Could not create the spill file for jump functions", e);
+			}
+		}
 		return garbageCollector = gc;
 	}
 
@@ -233,6 +251,8 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		@SuppressWarnings("unchecked")
 		GCSolverPeerGroup<SootMethod> gcSolverGroup = (GCSolverPeerGroup<SootMethod>) solverPeerGroup;
 		gcSolverGroup.getGCPeerGroup().notifySolverTerminated();
+
+		closeSpillStore();
 	}
 
 	/**
@@ -676,7 +696,21 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 	 * @see PathEdge
 	 */
 	public D addFunction(PathEdge<N, D> edge) {
-		PathEdge<N, D> oldEdge = jumpFunctions.putIfAbsent(icfg.getMethodOf(edge.getTarget()), edge);
+		SootMethod method = icfg.getMethodOf(edge.getTarget());
+
+		// If the edges of this method have been moved out of the heap, we need them
+		// back before we can decide whether the new edge is redundant
+		JumpFunctionSpillStore<N, D, SootMethod> store = spillStore;
+		if (store != null && store.isSpilled(method)) {
+			int reloaded = 0;
+			for (PathEdge<N, D> spilledEdge : store.reload(method)) {
+				if (jumpFunctions.putIfAbsent(method, spilledEdge) == null)
+					reloaded++;
+			}
+			garbageCollector.notifyEdgesReloaded(reloaded);
+		}
+
+		PathEdge<N, D> oldEdge = jumpFunctions.putIfAbsent(method, edge);
 		return oldEdge == null ? null : oldEdge.factAtTarget();
 	}
 
@@ -815,6 +849,24 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		this.maxJoinPointAbstractions = maxJoinPointAbstractions;
 	}
 
+	@Override
+	public void onMemoryDegradation(MemoryDegradationLevel level) {
+		switch (level) {
+		case ReducePrecision:
+			// Only keep a single neighbor at join points from now on
+			if (maxJoinPointAbstractions < 0 || maxJoinPointAbstractions > 1)
+				maxJoinPointAbstractions = 1;
+			break;
+		case CollectGarbage:
+			IGarbageCollector<N, D> gc = garbageCollector;
+			if (gc != null)
+				gc.forceGc();
+			break;
+		default:
+			break;
+		}
+	}
+
 	/**
 	 * Sets the memory manager that shall be used to manage the abstractions
 	 * 
@@ -884,12 +936,48 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		this.solverPeerGroup = solverPeerGroup;
 	}
 
+	/**
+	 * Sets the directory into which the jump functions of methods that are no
+	 * longer processed, but that cannot be garbage-collected yet, are moved when
+	 * memory runs low. The edges are transparently loaded again if a new edge
+	 * arrives for such a method.
+	 * 
+	 * @param spillDirectory The directory for the spill file, or <code>null</code>
+	 *                       to keep all jump functions on the heap
+	 */
+	public void setSpillDirectory(File spillDirectory) {
+		this.spillDirectory = spillDirectory;
+	}
+
 	/**
 	 * Notifies the solver that no further edges will be scheduled
 	 */
 	public void terminate() {
 		if (garbageCollector != null)
 			garbageCollector.notifySolverTerminated();
+		closeSpillStore();
+	}
+
+	/**
+	 * Releases the spill file for jump functions, if any
+	 */
+	protected synchronized void closeSpillStore() {
+		JumpFunctionSpillStore<N, D, SootMethod> store = spillStore;
+		if (store != null) {
+			spillStore = null;
+			if (garbageCollector instanceof AbstractReferenceCountingGarbageCollector) {
+				@SuppressWarnings("unchecked")
+				AbstractReferenceCountingGarbageCollector<N, D, SootMethod> gc = (AbstractReferenceCountingGarbageCollector<N, D, SootMethod>) garbageCollector;
+				gc.setSpillStore(null);
+			}
+			logger.info(String.format("Spilled %d edges to disk, reloaded %d edges", store.getSpilledEdgeCount(),
+					store.getReloadedEdgeCount()));
+			try {
+				store.close();
+			} catch (IOException e) {
+				logger.error("Could not close the spill file for jump functions", e);
+			}
+		}
 	}
 
 }
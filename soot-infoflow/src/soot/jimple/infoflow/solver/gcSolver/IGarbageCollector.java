@@ -30,6 +30,23 @@ public interface IGarbageCollector<N, D> {
 	 */
 	public void gc();
 
+	/**
+	 * Immediately performs the garbage collection, regardless of the configured
+	 * trigger. This is used when the heap is about to run full.
+	 */
+	public default void forceGc() {
+		gc();
+	}
+
+	/**
+	 * Notifies the garbage collector that edges which had been moved out of the
+	 * heap have been added back to the jump functions
+	 * 
+	 * @param edgeCount The number of edges that have been added back
+	 */
+	public default void notifyEdgesReloaded(int edgeCount) {
+	}
+
 	/**
 	 * Gets the number of methods for which taint abstractions were removed during
 	 * garbage collection
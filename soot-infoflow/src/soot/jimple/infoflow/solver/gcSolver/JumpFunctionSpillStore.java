@@ -0,0 +1,238 @@
+package soot.jimple.infoflow.solver.gcSolver;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import heros.solver.PathEdge;
+
+/**
+ * Secondary storage for the jump functions of methods that are no longer
+ * processed, but that cannot be garbage-collected yet, because other methods
+ * still depend on them. The edges are written into a memory-mapped file as
+ * triples of integers. Each triple refers to a table of the distinct units and
+ * facts of the respective method, which remains on the heap. Since the solver
+ * creates a new path edge object for every statement, but usually shares the
+ * same facts between many statements, these tables are much smaller than the
+ * original edge sets.
+ *
+ * @param <N> The type of nodes in the interprocedural control-flow graph
+ * @param <D> The type of data-flow facts
+ * @param <A> The type of the objects for which jump functions are collected
+ */
+public class JumpFunctionSpillStore<N, D, A> implements Closeable {
+
+	/**
+	 * The number of integers in a single mapped region of the spill file
+	 */
+	private static final int SEGMENT_SIZE = 1 << 24;
+
+	/**
+	 * A contiguous range of edges in the spill file together with the objects to
+	 * which the integers in this range refer
+	 */
+	private static class Extent {
+
+		private final long position;
+		private final int edgeCount;
+		private final Object[] nodes;
+		private final Object[] facts;
+
+		private Extent(long position, int edgeCount, Object[] nodes, Object[] facts) {
+			this.position = position;
+			this.edgeCount = edgeCount;
+			this.nodes = nodes;
+			this.facts = facts;
+		}
+
+	}
+
+	private final File file;
+	private final FileChannel channel;
+	private final List<IntBuffer> segments = new ArrayList<>();
+	private final Map<A, List<Extent>> extents = new ConcurrentHashMap<>();
+
+	private long nextPosition = 0;
+	private int spilledEdges = 0;
+	private int reloadedEdges = 0;
+
+	/**
+	 * Creates a new spill store backed by a temporary file in the given directory
+	 *
+	 * @param directory The directory in which to create the spill file, or
+	 *                  <code>null</code> to use the default temporary directory
+	 * @throws IOException Thrown if the spill file could not be created
+	 */
+	public JumpFunctionSpillStore(File directory) throws IOException {
+		this.file = File.createTempFile("jumpfunctions", ".spill", directory);
+		this.file.deleteOnExit();
+		this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+	}
+
+	/**
+	 * Writes the given edges into the spill file. The caller is responsible for
+	 * removing the edges from the jump functions afterwards.
+	 *
+	 * @param abstraction The object, e.g., the method, to which the edges belong
+	 * @param edges       The edges to spill
+	 * @return The number of edges that were written
+	 * @throws IOException Thrown if the spill file could not be extended
+	 */
+	public synchronized int spill(A abstraction, Set<PathEdge<N, D>> edges) throws IOException {
+		// The edge set may change concurrently, so we work on a snapshot
+		List<PathEdge<N, D>> snapshot = new ArrayList<>(edges);
+		if (snapshot.isEmpty())
+			return 0;
+
+		Map<Object, Integer> nodeIds = new HashMap<>();
+		Map<Object, Integer> factIds = new HashMap<>();
+		long position = nextPosition;
+		ensureCapacity(position + 3L * snapshot.size());
+		for (PathEdge<N, D> edge : snapshot) {
+			putInt(nextPosition++, getId(factIds, edge.factAtSource()));
+			putInt(nextPosition++, getId(nodeIds, edge.getTarget()));
+			putInt(nextPosition++, getId(factIds, edge.factAtTarget()));
+		}
+
+		extents.computeIfAbsent(abstraction, k -> new ArrayList<>()).add(
+				new Extent(position, snapshot.size(), toArray(nodeIds), toArray(factIds)));
+		spilledEdges += snapshot.size();
+		return snapshot.size();
+	}
+
+	/**
+	 * Checks whether edges have been spilled for the given object
+	 *
+	 * @param abstraction The object, e.g., the method, to check
+	 * @return True if there are edges in the spill file for the given object,
+	 *         false otherwise
+	 */
+	public boolean isSpilled(A abstraction) {
+		return extents.containsKey(abstraction);
+	}
+
+	/**
+	 * Reads all edges of the given object back from the spill file and removes
+	 * them from this store
+	 *
+	 * @param abstraction The object, e.g., the method, for which to reload the
+	 *                    edges
+	 * @return The edges that have been spilled for the given object
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized List<PathEdge<N, D>> reload(A abstraction) {
+		List<Extent> spilled = extents.remove(abstraction);
+		if (spilled == null)
+			return Collections.emptyList();
+
+		List<PathEdge<N, D>> edges = new ArrayList<>();
+		for (Extent extent : spilled) {
+			long pos = extent.position;
+			for (int i = 0; i < extent.edgeCount; i++) {
+				D d1 = (D) extent.facts[getInt(pos++)];
+				N target = (N) extent.nodes[getInt(pos++)];
+				D d2 = (D) extent.facts[getInt(pos++)];
+				edges.add(new PathEdge<>(d1, target, d2));
+			}
+		}
+		reloadedEdges += edges.size();
+		compact();
+		return edges;
+	}
+
+	/**
+	 * Discards all edges of the given object without reading them
+	 *
+	 * @param abstraction The object, e.g., the method, for which to discard the
+	 *                    edges
+	 * @return The number of edges that have been discarded
+	 */
+	public synchronized int discard(A abstraction) {
+		List<Extent> spilled = extents.remove(abstraction);
+		if (spilled == null)
+			return 0;
+		int count = 0;
+		for (Extent extent : spilled)
+			count += extent.edgeCount;
+		compact();
+		return count;
+	}
+
+	/**
+	 * Gets the total number of edges that have been written into the spill file
+	 *
+	 * @return The number of spilled edges
+	 */
+	public synchronized int getSpilledEdgeCount() {
+		return spilledEdges;
+	}
+
+	/**
+	 * Gets the total number of edges that have been read back from the spill file
+	 *
+	 * @return The number of reloaded edges
+	 */
+	public synchronized int getReloadedEdgeCount() {
+		return reloadedEdges;
+	}
+
+	/**
+	 * The spill file is only appended to. Once it no longer holds any edges, we
+	 * can start again at the beginning.
+	 */
+	private void compact() {
+		if (extents.isEmpty())
+			nextPosition = 0;
+	}
+
+	private void ensureCapacity(long size) throws IOException {
+		while ((long) segments.size() * SEGMENT_SIZE < size) {
+			long offset = (long) segments.size() * SEGMENT_SIZE * Integer.BYTES;
+			segments.add(channel.map(MapMode.READ_WRITE, offset, (long) SEGMENT_SIZE * Integer.BYTES).asIntBuffer());
+		}
+	}
+
+	private void putInt(long position, int value) {
+		segments.get((int) (position / SEGMENT_SIZE)).put((int) (position % SEGMENT_SIZE), value);
+	}
+
+	private int getInt(long position) {
+		return segments.get((int) (position / SEGMENT_SIZE)).get((int) (position % SEGMENT_SIZE));
+	}
+
+	private static int getId(Map<Object, Integer> ids, Object o) {
+		Integer id = ids.get(o);
+		if (id == null) {
+			id = ids.size();
+			ids.put(o, id);
+		}
+		return id;
+	}
+
+	private static Object[] toArray(Map<Object, Integer> ids) {
+		Object[] objects = new Object[ids.size()];
+		for (Map.Entry<Object, Integer> entry : ids.entrySet())
+			objects[entry.getValue()] = entry.getKey();
+		return objects;
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		extents.clear();
+		segments.clear();
+		channel.close();
+		file.delete();
+	}
+
+}
@@ -44,7 +44,9 @@ import soot.SootMethod;
 import soot.Unit;
 import soot.jimple.infoflow.collect.MyConcurrentHashMap;
 import soot.jimple.infoflow.memory.IMemoryBoundedSolver;
+import soot.jimple.infoflow.memory.IMemoryDegradationHandler;
 import soot.jimple.infoflow.memory.ISolverTerminationReason;
+import soot.jimple.infoflow.memory.MemoryDegradationLevel;
 import soot.jimple.infoflow.solver.AbstractIFDSSolver;
 import soot.jimple.infoflow.solver.EndSummary;
 import soot.jimple.infoflow.solver.ISolverPeerGroup;
@@ -70,7 +72,7 @@ import soot.util.ConcurrentHashMultiMap;
  * @see IFDSTabulationProblem
  */
 public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiInterproceduralCFG<N, SootMethod>>
-		extends AbstractIFDSSolver<N, D> implements IMemoryBoundedSolver {
+		extends AbstractIFDSSolver<N, D> implements IMemoryBoundedSolver, IMemoryDegradationHandler {
 
 	public static CacheBuilder<Object, Object> DEFAULT_CACHE_BUILDER = CacheBuilder.newBuilder()
 			.concurrencyLevel(Runtime.getRuntime().availableProcessors()).initialCapacity(10000).softValues();
@@ -122,8 +124,8 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 	@DontSynchronize("readOnly")
 	protected final boolean followReturnsPastSeeds;
 
-	@DontSynchronize("readOnly")
-	private int maxJoinPointAbstractions = -1;
+	@SynchronizedBy("volatile, lowered on memory degradation")
+	private volatile int maxJoinPointAbstractions = -1;
 
 	@DontSynchronize("readOnly")
 	protected IMemoryManager<D, N> memoryManager = null;
@@ -841,6 +843,24 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		this.maxJoinPointAbstractions = maxJoinPointAbstractions;
 	}
 
+	@Override
+	public void onMemoryDegradation(MemoryDegradationLevel level) {
+		switch (level) {
+		case ReducePrecision:
+			// Only keep a single neighbor at join points from now on
+			if (maxJoinPointAbstractions < 0 || maxJoinPointAbstractions > 1)
+				maxJoinPointAbstractions = 1;
+			break;
+		case CollectGarbage:
+			IGarbageCollector<N, D> gc = garbageCollector;
+			if (gc != null)
+				gc.forceGc();
+			break;
+		default:
+			break;
+		}
+	}
+
 	/**
 	 * Sets the memory manager that shall be used to manage the abstractions
 	 * 
@@ -55,6 +55,20 @@ public abstract class AbstractSparsePropagation implements IPropagationStrategy<
             return isAffectedByInternal(unit);
         }
 
+        /**
+         * Cheap pre-check on the precomputed def-use index. If this method returns
+         * false, {@link #isAffectedBy(Unit)} must also return false for the given
+         * statement unless the statement is required for flow sensitivity or is an
+         * exit statement.
+         *
+         * @param index def-use index of the current method
+         * @param idx   number of the current unit in the index
+         * @return false if the unit can definitely not affect this node
+         */
+        protected boolean mayBeAffectedBy(DefUseIndex.MethodIndex index, int idx) {
+            return true;
+        }
+
         /**
          * Checks whether the unit affects the value. Does not need to handle flow sensitivity and exits.
          *
@@ -133,9 +147,14 @@ public abstract class AbstractSparsePropagation implements IPropagationStrategy<
     // Maps nodes to successors
     private final ConcurrentHashMap<SCFGNode, Collection<Unit>> sparseCfg = new ConcurrentHashMap<>();
 
+    // Precomputed def-use information per method
+    protected final DefUseIndex defUseIndex;
+
     protected AbstractSparsePropagation(AbstractInfoflowProblem problem) {
         this.problem = problem;
         this.iCfg = problem.interproceduralCFG();
+        this.defUseIndex = new DefUseIndex(iCfg);
+        this.defUseIndex.precompute();
     }
 
     /**
@@ -145,6 +164,13 @@ public abstract class AbstractSparsePropagation implements IPropagationStrategy<
      * @return collection of successor statements for node
      */
     private Collection<Unit> computeSuccessors(SCFGNode node) {
+        DefUseIndex.MethodIndex index = defUseIndex.getMethodIndex(iCfg.getMethodOf(node.unit));
+        if (index != null) {
+            int start = index.indexOf(node.unit);
+            if (start >= 0)
+                return computeSuccessors(node, index, start);
+        }
+
         Set<Unit> succs = new HashSet<>();
 
         Deque<Unit> stack = new ArrayDeque<>();
@@ -168,6 +194,49 @@ public abstract class AbstractSparsePropagation implements IPropagationStrategy<
         return succs;
     }
 
+    /**
+     * DFS from node towards the exit of methods on the precomputed def-use index.
+     * Statements that do not mention the values of the node are skipped without
+     * inspecting them.
+     *
+     * @param node  current node
+     * @param index def-use index of the method containing the node
+     * @param start index of the node's unit
+     * @return collection of successor statements for node
+     */
+    private Collection<Unit> computeSuccessors(SCFGNode node, DefUseIndex.MethodIndex index, int start) {
+        Set<Unit> succs = new HashSet<>();
+        final boolean flowSensitive = node.activationUnit != null || node.turnUnit != null;
+
+        int[] stack = new int[index.size()];
+        int sp = 0;
+        BitSet visited = new BitSet(index.size());
+        for (int succ : index.getSuccsOf(start))
+            stack[sp++] = succ;
+        while (sp > 0) {
+            int current = stack[--sp];
+            if (visited.get(current))
+                continue;
+            visited.set(current);
+
+            boolean affected = (flowSensitive || index.isExit(current) || node.mayBeAffectedBy(index, current))
+                    && node.isAffectedBy(index.getUnit(current));
+            if (affected) {
+                succs.add(index.getUnit(current));
+            } else {
+                for (int succ : index.getSuccsOf(current)) {
+                    if (!visited.get(succ)) {
+                        if (sp == stack.length)
+                            stack = Arrays.copyOf(stack, stack.length * 2);
+                        stack[sp++] = succ;
+                    }
+                }
+            }
+        }
+
+        return succs;
+    }
+
     /**
      * Returns the successors of node and caches the result for subsequent calls
      *
@@ -0,0 +1,243 @@
+package soot.jimple.infoflow.solver.sparseSolver.propagation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import soot.Body;
+import soot.Local;
+import soot.MethodOrMethodContext;
+import soot.Scene;
+import soot.SootField;
+import soot.SootMethod;
+import soot.Unit;
+import soot.Value;
+import soot.ValueBox;
+import soot.jimple.DefinitionStmt;
+import soot.jimple.FieldRef;
+import soot.jimple.Stmt;
+import soot.jimple.toolkits.ide.icfg.BiDiInterproceduralCFG;
+import soot.util.queue.QueueReader;
+
+/**
+ * Compact, precomputed def-use information for the methods of a program. Every
+ * method body is indexed once. Statements are numbered per method, the
+ * intraprocedural successors are stored as int arrays, and the statements that
+ * mention a local or field are stored as bitsets over the statement numbers.
+ * The sparse propagation strategies use this index to skip over statements
+ * that cannot affect a given fact without inspecting them again.
+ *
+ * The index of a method belongs to the body from which it was built. If the
+ * method receives a new active body, the index is rebuilt on the next lookup.
+ * Code that changes an existing body in place must call
+ * {@link #invalidate(SootMethod)}.
+ */
+public class DefUseIndex {
+
+    /**
+     * Def-use information for a single method
+     */
+    public static class MethodIndex {
+        private final Body body;
+        private final Unit[] units;
+        private final Map<Unit, Integer> unitToIndex;
+        private final int[][] succs;
+
+        private final BitSet exits;
+        private final BitSet calls;
+        private final BitSet definitions;
+        private final Map<Local, BitSet> localMentions;
+        private final Map<SootField, BitSet> fieldMentions;
+
+        private MethodIndex(Body body, BiDiInterproceduralCFG<Unit, SootMethod> iCfg) {
+            this.body = body;
+            final int size = body.getUnits().size();
+            this.units = new Unit[size];
+            this.unitToIndex = new HashMap<>(size * 2);
+            this.succs = new int[size][];
+            this.exits = new BitSet(size);
+            this.calls = new BitSet(size);
+            this.definitions = new BitSet(size);
+            this.localMentions = new HashMap<>();
+            this.fieldMentions = new HashMap<>();
+
+            int idx = 0;
+            for (Unit u : body.getUnits()) {
+                units[idx] = u;
+                unitToIndex.put(u, idx);
+                idx++;
+            }
+
+            for (int i = 0; i < size; i++) {
+                Unit u = units[i];
+                List<Unit> uSuccs = iCfg.getSuccsOf(u);
+                int[] succIdx = new int[uSuccs.size()];
+                int j = 0;
+                for (Unit succ : uSuccs) {
+                    Integer si = unitToIndex.get(succ);
+                    if (si != null)
+                        succIdx[j++] = si;
+                }
+                succs[i] = j == succIdx.length ? succIdx : Arrays.copyOf(succIdx, j);
+
+                if (iCfg.isExitStmt(u))
+                    exits.set(i);
+
+                Stmt stmt = (Stmt) u;
+                if (stmt.containsInvokeExpr())
+                    calls.set(i);
+                if (stmt instanceof DefinitionStmt)
+                    definitions.set(i);
+                if (stmt.containsFieldRef())
+                    mention(fieldMentions, stmt.getFieldRef().getField(), i, size);
+                for (ValueBox vb : stmt.getUseAndDefBoxes()) {
+                    Value val = vb.getValue();
+                    if (val instanceof Local)
+                        mention(localMentions, (Local) val, i, size);
+                    else if (val instanceof FieldRef)
+                        mention(fieldMentions, ((FieldRef) val).getField(), i, size);
+                }
+            }
+        }
+
+        private static <K> void mention(Map<K, BitSet> map, K key, int idx, int size) {
+            map.computeIfAbsent(key, k -> new BitSet(size)).set(idx);
+        }
+
+        /**
+         * Gets the number of the given statement in this method
+         *
+         * @param u The statement
+         * @return The statement number, or -1 if the statement is not part of the
+         *         indexed body
+         */
+        public int indexOf(Unit u) {
+            Integer idx = unitToIndex.get(u);
+            return idx == null ? -1 : idx;
+        }
+
+        /**
+         * Gets the body from which this index was built
+         *
+         * @return The body from which this index was built
+         */
+        public Body getBody() {
+            return body;
+        }
+
+        public Unit getUnit(int idx) {
+            return units[idx];
+        }
+
+        public int[] getSuccsOf(int idx) {
+            return succs[idx];
+        }
+
+        public boolean isExit(int idx) {
+            return exits.get(idx);
+        }
+
+        public boolean isCall(int idx) {
+            return calls.get(idx);
+        }
+
+        public boolean isDefinition(int idx) {
+            return definitions.get(idx);
+        }
+
+        /**
+         * Checks whether the statement with the given number syntactically mentions
+         * the given local, either as a definition or as a use
+         *
+         * @param local The local
+         * @param idx   The statement number
+         * @return True if the statement mentions the local, false otherwise
+         */
+        public boolean mentions(Local local, int idx) {
+            BitSet bs = localMentions.get(local);
+            return bs != null && bs.get(idx);
+        }
+
+        /**
+         * Checks whether the statement with the given number references the given
+         * field
+         *
+         * @param field The field
+         * @param idx   The statement number
+         * @return True if the statement references the field, false otherwise
+         */
+        public boolean mentions(SootField field, int idx) {
+            BitSet bs = fieldMentions.get(field);
+            return bs != null && bs.get(idx);
+        }
+
+        public int size() {
+            return units.length;
+        }
+    }
+
+    private final BiDiInterproceduralCFG<Unit, SootMethod> iCfg;
+    private final Map<SootMethod, MethodIndex> methodIndices = new ConcurrentHashMap<>();
+
+    public DefUseIndex(BiDiInterproceduralCFG<Unit, SootMethod> iCfg) {
+        this.iCfg = iCfg;
+    }
+
+    /**
+     * Indexes all reachable methods in parallel
+     */
+    public void precompute() {
+        List<SootMethod> methods = new ArrayList<>();
+        QueueReader<MethodOrMethodContext> rdr = Scene.v().getReachableMethods().listener();
+        while (rdr.hasNext()) {
+            SootMethod sm = rdr.next().method();
+            if (sm != null && sm.isConcrete() && sm.hasActiveBody())
+                methods.add(sm);
+        }
+        precompute(methods);
+    }
+
+    /**
+     * Indexes the given methods in parallel
+     *
+     * @param methods The methods to index
+     */
+    public void precompute(Collection<SootMethod> methods) {
+        methods.parallelStream().forEach(this::getMethodIndex);
+    }
+
+    /**
+     * Gets the index for the given method. If the method has not been indexed yet,
+     * or its active body has been replaced since, the index is created on demand.
+     *
+     * @param method The method
+     * @return The index for the given method, or null if the method has no body
+     */
+    public MethodIndex getMethodIndex(SootMethod method) {
+        if (method == null || !method.hasActiveBody())
+            return null;
+
+        final Body body = method.getActiveBody();
+        MethodIndex index = methodIndices.get(method);
+        if (index != null && index.body == body)
+            return index;
+        return methodIndices.compute(method,
+                (m, i) -> i != null && i.body == body ? i : new MethodIndex(body, iCfg));
+    }
+
+    /**
+     * Removes the index of the given method. This is necessary after the active
+     * body of the method has been changed in place.
+     *
+     * @param method The method
+     */
+    public void invalidate(SootMethod method) {
+        methodIndices.remove(method);
+    }
+
+}
@@ -28,6 +28,19 @@ public class PreciseSparsePropagation extends AbstractSparsePropagation {
                     abs.getActivationUnit(), abs.getTurnUnit());
         }
 
+        @Override
+        protected boolean mayBeAffectedBy(DefUseIndex.MethodIndex index, int idx) {
+            // Static fields are only accessed via field references and calls
+            if (local == null)
+                return field == null || index.isCall(idx) || index.mentions(field, idx);
+
+            if (index.mentions(local, idx))
+                return true;
+
+            // Must-alias queries can match definitions of other locals
+            return index.isDefinition(idx) && problem.getManager().getAliasing() != null;
+        }
+
         protected boolean isAffectedByInternal(Unit unit) {
             // Identity statement usually don't affect the flow unless they are exits. Though, if parameters
             // used as sources or to throw exceptions, the backward direction might need them.
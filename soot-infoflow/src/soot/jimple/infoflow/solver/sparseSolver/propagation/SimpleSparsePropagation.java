@@ -28,6 +28,12 @@ public class SimpleSparsePropagation extends AbstractSparsePropagation {
                     abs.getActivationUnit(), abs.getTurnUnit());
         }
 
+        @Override
+        protected boolean mayBeAffectedBy(DefUseIndex.MethodIndex index, int idx) {
+            return index.mentions(local, idx)
+                    || (index.isDefinition(idx) && problem.getManager().getAliasing() != null);
+        }
+
         @Override
         protected boolean isAffectedByInternal(Unit unit) {
             Stmt stmt = (Stmt) unit;
@@ -50,6 +56,11 @@ public class SimpleSparsePropagation extends AbstractSparsePropagation {
             assert abs.getAccessPath().isStaticFieldRef();
         }
 
+        @Override
+        protected boolean mayBeAffectedBy(DefUseIndex.MethodIndex index, int idx) {
+            return index.isCall(idx) || index.mentions(field, idx);
+        }
+
         @Override
         protected boolean isAffectedByInternal(Unit unit) {
             Stmt stmt = (Stmt) unit;
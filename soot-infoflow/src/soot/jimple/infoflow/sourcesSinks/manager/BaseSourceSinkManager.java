@@ -66,6 +66,7 @@ import soot.jimple.infoflow.values.SimpleConstantValueProvider;
 import soot.jimple.toolkits.ide.icfg.BiDiInterproceduralCFG;
 import soot.util.HashMultiMap;
 import soot.util.MultiMap;
+import soot.util.NumberedString;
 
 public abstract class BaseSourceSinkManager
 		implements IReversibleSourceSinkManager, IOneSourceAtATimeManager, IConditionalFlowManager {
@@ -125,6 +126,15 @@ public abstract class BaseSourceSinkManager
 	protected SootMethod currentSource = null;
 	protected IValueProvider valueProvider = new SimpleConstantValueProvider();
 
+	/**
+	 * Maps callees to the methods with source or sink definitions they correspond
+	 * to, either directly or through the class hierarchy. The callee itself comes
+	 * first, followed by the matching methods in the parent classes and interfaces
+	 * in the order of the class hierarchy.
+	 */
+	protected LoadingCache<SootMethod, List<SootMethod>> sourceMethodMatches;
+	protected LoadingCache<SootMethod, List<SootMethod>> sinkMethodMatches;
+
 	protected final LoadingCache<SootClass, Collection<SootClass>> parentClassesAndInterfaces = IDESolver.DEFAULT_CACHE_BUILDER
 			.build(new CacheLoader<SootClass, Collection<SootClass>>() {
 
@@ -285,25 +295,14 @@ public abstract class BaseSourceSinkManager
 			if (!SystemClassHandler.v().isTaintVisible(ap, callee))
 				return Collections.emptySet();
 
-			// Do we have a direct hit?
-			{
-				Collection<ISourceSinkDefinition> def = this.sinkMethods.get(sCallSite.getInvokeExpr().getMethod());
+			// Do we have a direct hit or any of the parent classes or interfaces on the
+			// list?
+			for (SootMethod sinkMethod : sinkMethodMatches.getUnchecked(callee)) {
+				Collection<ISourceSinkDefinition> def = this.sinkMethods.get(sinkMethod);
 				if (def.size() > 0)
 					return def;
 			}
 
-			final String subSig = callee.getSubSignature();
-
-			// Check whether we have any of the interfaces on the list
-			for (SootClass i : parentClassesAndInterfaces
-					.getUnchecked(sCallSite.getInvokeExpr().getMethod().getDeclaringClass())) {
-				if (i.declaresMethod(subSig)) {
-					Collection<ISourceSinkDefinition> def = this.sinkMethods.get(i.getMethod(subSig));
-					if (def.size() > 0)
-						return def;
-				}
-			}
-
 			// Ask the CFG in case we don't know any better
 			for (SootMethod sm : manager.getICFG().getCalleesOfCallAt(sCallSite)) {
 				Collection<ISourceSinkDefinition> def = this.sinkMethods.get(sm);
@@ -344,25 +343,19 @@ public abstract class BaseSourceSinkManager
 			if (!SystemClassHandler.v().isTaintVisible(ap, callee))
 				return Collections.emptySet();
 
-			Collection<ISourceSinkDefinition> defs = getSourceDefinition(callee);
-			if (defs.size() > 0)
-				return defs;
-
-			// Check whether we have any of the interfaces on the list
-			final String subSig = callee.getSubSignature();
-			for (SootClass i : parentClassesAndInterfaces.getUnchecked(callee.getDeclaringClass())) {
-				SootMethod m = i.getMethodUnsafe(subSig);
-				if (m != null) {
-					defs = getSourceDefinition(m);
-					if (defs.size() > 0)
-						return defs;
-				}
+			// Check for a direct hit or any of the parent classes or interfaces on the
+			// list
+			Collection<ISourceSinkDefinition> defs = null;
+			for (SootMethod sourceMethod : sourceMethodMatches.getUnchecked(callee)) {
+				defs = getSourceDefinition(sourceMethod);
+				if (defs != null && defs.size() > 0)
+					return defs;
 			}
 
 			// Ask the CFG in case we don't know any better
 			for (SootMethod sm : manager.getICFG().getCalleesOfCallAt(sCallSite)) {
 				defs = getSourceDefinition(sm);
-				if (defs.size() > 0)
+				if (defs != null && defs.size() > 0)
 					return defs;
 			}
 		}
@@ -610,25 +603,19 @@ public abstract class BaseSourceSinkManager
 		if ((!oneSourceAtATime || osaatType == SourceType.MethodCall) && sCallSite.containsInvokeExpr()) {
 			// This might be a normal source method
 			final SootMethod callee = sCallSite.getInvokeExpr().getMethod();
-			Collection<ISourceSinkDefinition> defs = getSourceDefinition(callee);
-			if (defs.size() > 0)
-				return defs;
-
-			// Check whether we have any of the interfaces on the list
-			final String subSig = callee.getSubSignature();
-			for (SootClass i : parentClassesAndInterfaces.getUnchecked(callee.getDeclaringClass())) {
-				SootMethod m = i.getMethodUnsafe(subSig);
-				if (m != null) {
-					defs = getSourceDefinition(m);
-					if (defs.size() > 0)
-						return defs;
-				}
+			// Check for a direct hit or any of the parent classes or interfaces on the
+			// list
+			Collection<ISourceSinkDefinition> defs = null;
+			for (SootMethod sourceMethod : sourceMethodMatches.getUnchecked(callee)) {
+				defs = getSourceDefinition(sourceMethod);
+				if (defs != null && defs.size() > 0)
+					return defs;
 			}
 
 			// Ask the CFG in case we don't know any better
 			for (SootMethod sm : cfg.getCalleesOfCallAt(sCallSite)) {
 				defs = getSourceDefinition(sm);
-				if (defs.size() > 0)
+				if (defs != null && defs.size() > 0)
 					return defs;
 			}
 		}
@@ -666,22 +653,12 @@ public abstract class BaseSourceSinkManager
 			// Check whether the taint is even visible inside the callee
 			final SootMethod callee = sCallSite.getInvokeExpr().getMethod();
 
-			// Do we have a direct hit?
-			{
-				Collection<ISourceSinkDefinition> defs = this.sinkMethods.get(callee);
-				if (defs.size() > 0)
-					return defs;
-			}
-
-			final String subSig = callee.getSubSignature();
-
-			// Check whether we have any of the interfaces on the list
-			for (SootClass i : parentClassesAndInterfaces.getUnchecked(callee.getDeclaringClass())) {
-				if (i.declaresMethod(subSig)) {
-					Collection<ISourceSinkDefinition> defs = this.sinkMethods.get(i.getMethod(subSig));
-					if (defs.size() > 0)
-						return defs;
-				}
+			// Do we have a direct hit or any of the parent classes or interfaces on the
+			// list?
+			for (SootMethod sinkMethod : sinkMethodMatches.getUnchecked(callee)) {
+				Collection<ISourceSinkDefinition> def = this.sinkMethods.get(sinkMethod);
+				if (def.size() > 0)
+					return def;
 			}
 
 			// Ask the CFG in case we don't know any better
@@ -918,6 +895,55 @@ public abstract class BaseSourceSinkManager
 			}
 			sinkDefs = null;
 		}
+
+		sourceMethodMatches = createMethodMatcher(sourceMethods);
+		sinkMethodMatches = createMethodMatcher(sinkMethods);
+	}
+
+	/**
+	 * Creates a cache that maps callees to the methods with definitions in the
+	 * given map. A callee matches a method if it is the method itself, or if the
+	 * method is declared with the same subsignature in a parent class or interface
+	 * of the callee's class. Since we index the subsignatures of all methods with
+	 * definitions, we only need to walk the class hierarchy for callees that can
+	 * match at all. All matching methods are returned in the order of the class
+	 * hierarchy, since callers may skip a match, e.g., a source that is not active
+	 * in one-source-at-a-time mode.
+	 *
+	 * @param definitions The map from methods to their source or sink definitions
+	 * @return The cache that matches callees against the given definitions
+	 */
+	private LoadingCache<SootMethod, List<SootMethod>> createMethodMatcher(
+			final MultiMap<SootMethod, ISourceSinkDefinition> definitions) {
+		final Set<NumberedString> subSignatures = new HashSet<>();
+		for (SootMethod sm : definitions.keySet())
+			subSignatures.add(sm.getNumberedSubSignature());
+
+		return IDESolver.DEFAULT_CACHE_BUILDER.build(new CacheLoader<SootMethod, List<SootMethod>>() {
+
+			@Override
+			public List<SootMethod> load(SootMethod callee) throws Exception {
+				List<SootMethod> matches = null;
+				if (!definitions.get(callee).isEmpty()) {
+					matches = new ArrayList<>();
+					matches.add(callee);
+				}
+
+				final NumberedString subSig = callee.getNumberedSubSignature();
+				if (subSignatures.contains(subSig)) {
+					for (SootClass i : parentClassesAndInterfaces.getUnchecked(callee.getDeclaringClass())) {
+						SootMethod m = i.getMethodUnsafe(subSig);
+						if (m != null && !definitions.get(m).isEmpty()) {
+							if (matches == null)
+								matches = new ArrayList<>();
+							matches.add(m);
+						}
+					}
+				}
+				return matches == null ? Collections.emptyList() : matches;
+			}
+
+		});
 	}
 
 	/**
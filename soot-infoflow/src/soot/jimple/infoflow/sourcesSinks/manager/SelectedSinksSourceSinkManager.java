@@ -0,0 +1,71 @@
+package soot.jimple.infoflow.sourcesSinks.manager;
+
+import java.util.Set;
+
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.InfoflowManager;
+import soot.jimple.infoflow.data.AccessPath;
+
+/**
+ * Source/sink manager that restricts the sinks of another source/sink manager
+ * to a given set of statements. The sources are not changed.
+ */
+public class SelectedSinksSourceSinkManager implements IReversibleSourceSinkManager {
+
+	private final IReversibleSourceSinkManager innerManager;
+	private final Set<Stmt> selectedSinks;
+
+	/**
+	 * Creates a new instance of the {@link SelectedSinksSourceSinkManager} class
+	 *
+	 * @param innerManager  The source/sink manager that defines the sources and
+	 *                      sinks
+	 * @param selectedSinks The statements that shall be considered as sinks. A
+	 *                      statement that is not a sink according to the inner
+	 *                      manager does not become a sink by being contained in
+	 *                      this set.
+	 */
+	public SelectedSinksSourceSinkManager(IReversibleSourceSinkManager innerManager, Set<Stmt> selectedSinks) {
+		this.innerManager = innerManager;
+		this.selectedSinks = selectedSinks;
+	}
+
+	@Override
+	public void initialize() {
+		innerManager.initialize();
+	}
+
+	@Override
+	public SourceInfo getSourceInfo(Stmt sCallSite, InfoflowManager manager) {
+		return innerManager.getSourceInfo(sCallSite, manager);
+	}
+
+	@Override
+	public SinkInfo getSinkInfo(Stmt sCallSite, InfoflowManager manager, AccessPath ap) {
+		if (!selectedSinks.contains(sCallSite))
+			return null;
+		return innerManager.getSinkInfo(sCallSite, manager, ap);
+	}
+
+	@Override
+	public SinkInfo getInverseSourceInfo(Stmt sCallSite, InfoflowManager manager, AccessPath ap) {
+		return innerManager.getInverseSourceInfo(sCallSite, manager, ap);
+	}
+
+	@Override
+	public SourceInfo getInverseSinkInfo(Stmt sCallSite, InfoflowManager manager) {
+		if (!selectedSinks.contains(sCallSite))
+			return null;
+		return innerManager.getInverseSinkInfo(sCallSite, manager);
+	}
+
+	/**
+	 * Gets the statements that are considered as sinks
+	 *
+	 * @return The selected sink statements
+	 */
+	public Set<Stmt> getSelectedSinks() {
+		return selectedSinks;
+	}
+
+}
@@ -0,0 +1,210 @@
+package soot.jimple.infoflow.sourcesSinks.manager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import soot.SootMethod;
+import soot.Unit;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.InfoflowManager;
+import soot.jimple.infoflow.data.AccessPath;
+
+/**
+ * Source/sink manager for backward data flow analyses that hides all sinks
+ * except for the ones in the current group. The groups are iterated in the same
+ * way as the sources of an {@link IOneSourceAtATimeManager}, so that every run
+ * of the data flow solver starts from the sinks of a single group.
+ *
+ * The first run of the data flow solver only collects the sinks and does not
+ * start from any of them. The sinks are then sorted by the signature of their
+ * method and their position inside the method, and split into groups of
+ * consecutive sinks. The groups therefore do not depend on the order in which
+ * the sinks are found.
+ */
+public class SinkGroupSourceSinkManager implements IReversibleSourceSinkManager, IOneSourceAtATimeManager {
+
+	private final IReversibleSourceSinkManager innerManager;
+	private final int groupCount;
+
+	private final Map<Stmt, SootMethod> collectedSinks = new ConcurrentHashMap<>();
+	private final Set<Stmt> sourceStmts = ConcurrentHashMap.newKeySet();
+	private volatile Map<Stmt, Integer> sinkGroups = null;
+	private int assignedGroupCount = 0;
+
+	private boolean enabled = true;
+	private boolean collected = false;
+	private int currentGroup = -1;
+
+	/**
+	 * Creates a new instance of the {@link SinkGroupSourceSinkManager} class
+	 *
+	 * @param innerManager The source/sink manager that defines the sources and
+	 *                     sinks
+	 * @param groupCount   The maximum number of groups into which to split the
+	 *                     sinks
+	 */
+	public SinkGroupSourceSinkManager(IReversibleSourceSinkManager innerManager, int groupCount) {
+		this.innerManager = innerManager;
+		this.groupCount = Math.max(1, groupCount);
+	}
+
+	@Override
+	public void initialize() {
+		innerManager.initialize();
+	}
+
+	@Override
+	public SourceInfo getSourceInfo(Stmt sCallSite, InfoflowManager manager) {
+		return innerManager.getSourceInfo(sCallSite, manager);
+	}
+
+	@Override
+	public SinkInfo getSinkInfo(Stmt sCallSite, InfoflowManager manager, AccessPath ap) {
+		return innerManager.getSinkInfo(sCallSite, manager, ap);
+	}
+
+	@Override
+	public SinkInfo getInverseSourceInfo(Stmt sCallSite, InfoflowManager manager, AccessPath ap) {
+		SinkInfo sourceInfo = innerManager.getInverseSourceInfo(sCallSite, manager, ap);
+		if (sourceInfo != null)
+			sourceStmts.add(sCallSite);
+		return sourceInfo;
+	}
+
+	@Override
+	public SourceInfo getInverseSinkInfo(Stmt sCallSite, InfoflowManager manager) {
+		SourceInfo sinkInfo = innerManager.getInverseSinkInfo(sCallSite, manager);
+		if (sinkInfo == null || !enabled)
+			return sinkInfo;
+
+		// In the first run, we only collect the sinks
+		Map<Stmt, Integer> groups = sinkGroups;
+		if (groups == null) {
+			SootMethod sm = manager.getICFG().getMethodOf(sCallSite);
+			if (sm != null)
+				collectedSinks.put(sCallSite, sm);
+			return null;
+		}
+
+		Integer group = groups.get(sCallSite);
+		return group != null && group == currentGroup ? sinkInfo : null;
+	}
+
+	/**
+	 * Splits the collected sinks into groups. The sinks are sorted by the
+	 * signature of their method and their position inside the method, and every
+	 * group receives a range of consecutive sinks.
+	 */
+	private void assignGroups() {
+		// Get the positions of the sinks inside their methods
+		final Map<Stmt, Integer> positions = new HashMap<>(collectedSinks.size());
+		for (SootMethod sm : new HashSet<>(collectedSinks.values())) {
+			if (!sm.hasActiveBody())
+				continue;
+			int position = 0;
+			for (Unit u : sm.getActiveBody().getUnits()) {
+				if (collectedSinks.containsKey(u))
+					positions.put((Stmt) u, position);
+				position++;
+			}
+		}
+
+		List<Stmt> sinks = new ArrayList<>(collectedSinks.keySet());
+		sinks.sort(Comparator.comparing((Stmt s) -> collectedSinks.get(s).getSignature())
+				.thenComparingInt(s -> positions.getOrDefault(s, -1)).thenComparing(Stmt::toString));
+
+		assignedGroupCount = Math.min(groupCount, sinks.size());
+		Map<Stmt, Integer> groups = new HashMap<>(sinks.size());
+		for (int i = 0; i < sinks.size(); i++)
+			groups.put(sinks.get(i), (int) ((long) i * assignedGroupCount / sinks.size()));
+		sinkGroups = groups;
+	}
+
+	/**
+	 * Gets the sink statements of the current group
+	 *
+	 * @return The sink statements of the current group
+	 */
+	public Set<Stmt> getCurrentGroupSinks() {
+		Map<Stmt, Integer> groups = sinkGroups;
+		if (groups == null)
+			return Collections.emptySet();
+
+		Set<Stmt> sinks = new HashSet<>();
+		for (Map.Entry<Stmt, Integer> entry : groups.entrySet())
+			if (entry.getValue() == currentGroup)
+				sinks.add(entry.getKey());
+		return sinks;
+	}
+
+	/**
+	 * Gets all source statements that have been seen so far. Since the first run
+	 * scans all statements, this includes all source statements once the sinks
+	 * have been split into groups.
+	 *
+	 * @return The source statements that have been seen so far
+	 */
+	public Set<Stmt> getSourceStatements() {
+		return Collections.unmodifiableSet(sourceStmts);
+	}
+
+	/**
+	 * Gets the index of the group whose sinks are currently visible
+	 *
+	 * @return The index of the current group, or -1 while the sinks are being
+	 *         collected
+	 */
+	public int getCurrentGroup() {
+		return currentGroup;
+	}
+
+	/**
+	 * Gets the number of groups into which the sinks are split
+	 *
+	 * @return The number of sink groups
+	 */
+	public int getGroupCount() {
+		return sinkGroups == null ? groupCount : assignedGroupCount;
+	}
+
+	@Override
+	public void setOneSourceAtATimeEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	@Override
+	public boolean isOneSourceAtATimeEnabled() {
+		return enabled;
+	}
+
+	@Override
+	public void resetCurrentSource() {
+		currentGroup = -1;
+	}
+
+	@Override
+	public void nextSource() {
+		// The first run collects the sinks
+		if (!collected)
+			collected = true;
+		else
+			currentGroup++;
+	}
+
+	@Override
+	public boolean hasNextSource() {
+		if (!collected)
+			return true;
+		if (sinkGroups == null)
+			assignGroups();
+		return currentGroup + 1 < assignedGroupCount;
+	}
+
+}
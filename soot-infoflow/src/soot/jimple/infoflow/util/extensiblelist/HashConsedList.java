@@ -0,0 +1,221 @@
+package soot.jimple.infoflow.util.extensiblelist;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+/**
+ * Immutable, hash-consed list that is built by appending elements at the end.
+ * Every list node is interned, i.e., appending the same element object to the
+ * same list always yields the very same node. Lists that were built from the
+ * same element objects therefore share their node and can be compared by
+ * reference. Each node carries its size and a structural hash code that is
+ * computed incrementally when the node is created.
+ *
+ * The empty list is represented by <code>null</code>.
+ *
+ * Nodes are interned weakly, so the table does not keep lists alive that are no
+ * longer referenced anywhere else.
+ *
+ * @param <T> the type to save in this list
+ */
+public final class HashConsedList<T> {
+
+	@SuppressWarnings("rawtypes")
+	private static final Interner<HashConsedList> interner = Interners.newWeakInterner();
+
+	private final HashConsedList<T> parent;
+	private final T element;
+	private final int size;
+	private final int structuralHashCode;
+	private final int identityHashCode;
+
+	private HashConsedList(HashConsedList<T> parent, T element) {
+		this.parent = parent;
+		this.element = element;
+		this.size = parent == null ? 1 : parent.size + 1;
+		this.structuralHashCode = 31 * (parent == null ? 0 : parent.structuralHashCode)
+				+ (element == null ? 0 : element.hashCode());
+		this.identityHashCode = 31 * (parent == null ? 0 : System.identityHashCode(parent))
+				+ System.identityHashCode(element);
+	}
+
+	/**
+	 * Appends the given element to the given list
+	 *
+	 * @param list    The list to which to append the element, or null for the
+	 *                empty list
+	 * @param element The element to append
+	 * @return The unique list node that represents the extended list
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> HashConsedList<T> append(HashConsedList<T> list, T element) {
+		return interner.intern(new HashConsedList<>(list, element));
+	}
+
+	/**
+	 * Appends all elements from the given iterable in order
+	 *
+	 * @param list     The list to which to append the elements, or null for the
+	 *                 empty list
+	 * @param elements The elements to append
+	 * @return The unique list node that represents the extended list
+	 */
+	public static <T> HashConsedList<T> appendAll(HashConsedList<T> list, Iterable<T> elements) {
+		HashConsedList<T> cur = list;
+		for (T t : elements)
+			cur = append(cur, t);
+		return cur;
+	}
+
+	/**
+	 * Gets the size of the given list
+	 *
+	 * @param list The list, or null for the empty list
+	 * @return The number of elements in the list
+	 */
+	public static int size(HashConsedList<?> list) {
+		return list == null ? 0 : list.size;
+	}
+
+	/**
+	 * Gets the structural hash code of the given list. Lists that are equal in
+	 * terms of {@link #structurallyEquals(HashConsedList, HashConsedList)} have the
+	 * same structural hash code.
+	 *
+	 * @param list The list, or null for the empty list
+	 * @return The structural hash code of the list
+	 */
+	public static int structuralHashCode(HashConsedList<?> list) {
+		return list == null ? 0 : list.structuralHashCode;
+	}
+
+	/**
+	 * Checks whether the two given lists contain equal elements in the same order.
+	 * Lists built from the same element objects are the same node, so this check
+	 * only needs to compare elements if the lists were built from different, but
+	 * equal, objects.
+	 *
+	 * @param l1 The first list, or null for the empty list
+	 * @param l2 The second list, or null for the empty list
+	 * @return True if the two lists are structurally equal, otherwise false
+	 */
+	public static boolean structurallyEquals(HashConsedList<?> l1, HashConsedList<?> l2) {
+		while (l1 != l2) {
+			if (l1 == null || l2 == null)
+				return false;
+			if (l1.size != l2.size || l1.structuralHashCode != l2.structuralHashCode)
+				return false;
+			if (l1.element == null ? l2.element != null : !l1.element.equals(l2.element))
+				return false;
+			l1 = l1.parent;
+			l2 = l2.parent;
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the list without its last element
+	 *
+	 * @return The list without its last element, or null if this list only has one
+	 *         element
+	 */
+	public HashConsedList<T> getParent() {
+		return parent;
+	}
+
+	/**
+	 * Gets the last element of this list
+	 *
+	 * @return The last element of this list
+	 */
+	public T getLast() {
+		return element;
+	}
+
+	/**
+	 * Gets the first element. This requires a walk over the whole list.
+	 *
+	 * @return The first element
+	 */
+	public T getFirstSlow() {
+		HashConsedList<T> cur = this;
+		while (cur.parent != null)
+			cur = cur.parent;
+		return cur.element;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns an iterator that walks the list from its last element to its first
+	 * element
+	 *
+	 * @return The reverse iterator
+	 */
+	public Iterator<T> reverseIterator() {
+		return new Iterator<T>() {
+
+			private HashConsedList<T> cur = HashConsedList.this;
+
+			@Override
+			public boolean hasNext() {
+				return cur != null;
+			}
+
+			@Override
+			public T next() {
+				if (cur == null)
+					throw new NoSuchElementException();
+				T t = cur.element;
+				cur = cur.parent;
+				return t;
+			}
+
+		};
+	}
+
+	/**
+	 * Creates a list that contains the elements of this list from the first to the
+	 * last element
+	 *
+	 * @return The elements of this list in order
+	 */
+	public List<T> toList() {
+		List<T> list = new ArrayList<>(size);
+		for (HashConsedList<T> cur = this; cur != null; cur = cur.parent)
+			list.add(cur.element);
+		Collections.reverse(list);
+		return list;
+	}
+
+	@Override
+	public int hashCode() {
+		return identityHashCode;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		// Only used for interning. Parents are already unique, elements are compared
+		// by identity.
+		if (this == obj)
+			return true;
+		if (!(obj instanceof HashConsedList))
+			return false;
+		HashConsedList<?> other = (HashConsedList<?>) obj;
+		return this.parent == other.parent && this.element == other.element;
+	}
+
+	@Override
+	public String toString() {
+		return toList().toString();
+	}
+
+}
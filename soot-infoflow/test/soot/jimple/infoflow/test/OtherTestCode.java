@@ -706,4 +706,12 @@ public class OtherTestCode {
 		// where the neighbors only differ in their corresponding call site
 		cm.publish(i);
 	}
+
+	public void reachableAndUnreachableSink() {
+		String tainted = TelephonyManager.getDeviceId();
+		String untainted = new String("Hello World");
+		ConnectionManager cm = new ConnectionManager();
+		cm.publish(tainted);
+		cm.publish(untainted);
+	}
 }
@@ -0,0 +1,137 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import soot.Local;
+import soot.RefType;
+import soot.jimple.Jimple;
+import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.data.AccessPathFactory;
+import soot.jimple.infoflow.memory.MemoryDegradationLevel;
+
+public class AccessPathIdTest {
+
+	private Local local;
+
+	@Before
+	public void setUp() {
+		soot.G.reset();
+		local = Jimple.v().newLocal("a", RefType.v("java.lang.String"));
+	}
+
+	private static AccessPathFactory createFactory(boolean numberAccessPaths) {
+		InfoflowConfiguration config = new InfoflowConfiguration();
+		config.setEnableTypeChecking(false);
+		config.getAccessPathConfiguration().setNumberAccessPaths(numberAccessPaths);
+		return new AccessPathFactory(config, null);
+	}
+
+	private static void assertConsistent(AccessPath ap1, AccessPath ap2, boolean equal) {
+		assertNotNull(ap1);
+		assertNotNull(ap2);
+		if (equal) {
+			assertEquals(ap1, ap2);
+			assertEquals(ap2, ap1);
+			assertEquals(ap1.hashCode(), ap2.hashCode());
+		} else {
+			assertNotEquals(ap1, ap2);
+			assertNotEquals(ap2, ap1);
+		}
+	}
+
+	@Test
+	public void sameRegistryTest() {
+		AccessPathFactory factory = createFactory(true);
+		AccessPath ap1 = factory.createAccessPath(local, true);
+		AccessPath ap2 = factory.createAccessPath(local, true);
+		AccessPath ap3 = factory.createAccessPath(local, false);
+
+		assertNotEquals(0, ap1.getId());
+		assertEquals(ap1.getId(), ap2.getId());
+		assertNotEquals(ap1.getId(), ap3.getId());
+		assertConsistent(ap1, ap2, true);
+		assertConsistent(ap1, ap3, false);
+	}
+
+	@Test
+	public void differentRegistriesTest() {
+		AccessPathFactory factory1 = createFactory(true);
+		AccessPathFactory factory2 = createFactory(true);
+
+		// Take a number from the second registry, so that the numbers of equal access
+		// paths differ between the registries
+		factory2.createAccessPath(local, false);
+		AccessPath ap1 = factory1.createAccessPath(local, true);
+		AccessPath ap2 = factory2.createAccessPath(local, true);
+		AccessPath ap3 = factory2.createAccessPath(local, false);
+
+		assertNotEquals(ap1.getId(), ap2.getId());
+		assertConsistent(ap1, ap2, true);
+		assertConsistent(ap1, ap3, false);
+	}
+
+	@Test
+	public void spilledRegistryTest() {
+		AccessPathFactory factory = createFactory(true);
+		AccessPath ap1 = factory.createAccessPath(local, true);
+		AccessPath ap3 = factory.createAccessPath(local, false);
+
+		// The access paths created after the registry has been dropped must not
+		// receive any of the identifiers issued before
+		factory.onMemoryDegradation(MemoryDegradationLevel.SpillCaches);
+		AccessPath ap2 = factory.createAccessPath(local, true);
+		AccessPath ap4 = factory.createAccessPath(local, false);
+
+		assertNotEquals(ap1.getId(), ap2.getId());
+		assertNotEquals(ap3.getId(), ap2.getId());
+		assertNotEquals(ap1.getId(), ap4.getId());
+		assertNotEquals(ap3.getId(), ap4.getId());
+		assertConsistent(ap1, ap2, true);
+		assertConsistent(ap3, ap4, true);
+		assertConsistent(ap1, ap4, false);
+		assertConsistent(ap3, ap2, false);
+		assertConsistent(ap1, ap2.clone(), true);
+	}
+
+	@Test
+	public void cloneTest() {
+		AccessPathFactory factory = createFactory(true);
+		AccessPath ap1 = factory.createAccessPath(local, true);
+		AccessPath ap2 = factory.createAccessPath(local, true);
+		AccessPath ap3 = factory.createAccessPath(local, false);
+
+		AccessPath clone1 = ap1.clone();
+		AccessPath clone2 = ap2.clone();
+		assertEquals(ap1.getId(), clone1.getId());
+		assertConsistent(ap1, clone1, true);
+		assertConsistent(ap2, clone1, true);
+		assertConsistent(clone1, clone2, true);
+		assertConsistent(ap3, clone1, false);
+		assertConsistent(ap3, ap3.clone(), true);
+	}
+
+	@Test
+	public void unregisteredTest() {
+		AccessPathFactory factory = createFactory(true);
+		AccessPath ap1 = factory.createAccessPath(local, true);
+		AccessPath ap3 = factory.createAccessPath(local, false);
+
+		AccessPathFactory plainFactory = createFactory(false);
+		AccessPath plain1 = plainFactory.createAccessPath(local, true);
+		AccessPath plain3 = plainFactory.createAccessPath(local, false);
+
+		assertEquals(0, plain1.getId());
+		assertConsistent(ap1, plain1, true);
+		assertConsistent(ap3, plain3, true);
+		assertConsistent(ap1, plain3, false);
+		assertConsistent(plain1, plain1.clone(), true);
+		assertEquals(0, plain1.clone().getId());
+	}
+
+}
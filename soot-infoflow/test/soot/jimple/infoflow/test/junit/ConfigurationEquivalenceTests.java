@@ -0,0 +1,98 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.InfoflowConfiguration.PathReconstructionMode;
+import soot.jimple.infoflow.results.InfoflowResults;
+import soot.jimple.infoflow.results.ResultSinkInfo;
+import soot.jimple.infoflow.results.ResultSourceInfo;
+
+/**
+ * Base class for tests that check that a configuration option does not change
+ * the results of the data flow analysis, including the reconstructed paths
+ */
+public abstract class ConfigurationEquivalenceTests extends JUnitTests {
+
+	/**
+	 * Runs the data flow analysis on the given entry point
+	 *
+	 * @param entryPoint   The entry point to analyze
+	 * @param configurator Callback that adapts the configuration before the
+	 *                     analysis is started
+	 * @return A textual representation of all data flows including their paths
+	 */
+	protected Set<String> computeFlows(String entryPoint, Consumer<InfoflowConfiguration> configurator) {
+		IInfoflow infoflow = runInfoflow(entryPoint, i -> configurator.accept(i.getConfig()));
+		assertTrue(infoflow.isResultAvailable());
+		return describeFlows(infoflow.getResults());
+	}
+
+	/**
+	 * Runs the data flow analysis on the given entry point in a fresh Soot
+	 * instance. The analysis runs on a single thread and reconstructs all paths,
+	 * so that the results of two runs can be compared.
+	 *
+	 * @param entryPoint The entry point to analyze
+	 * @param setup      Callback that adapts the data flow analysis before it is
+	 *                   started
+	 * @return The data flow analysis after it has finished
+	 */
+	protected IInfoflow runInfoflow(String entryPoint, Consumer<IInfoflow> setup) {
+		soot.G.reset();
+		IInfoflow infoflow = initInfoflow();
+		InfoflowConfiguration config = infoflow.getConfig();
+		config.getPathConfiguration().setPathReconstructionMode(PathReconstructionMode.Precise);
+		config.setPathAgnosticResults(false);
+		config.setMaxThreadNum(1);
+		setup.accept(infoflow);
+
+		infoflow.computeInfoflow(appPath, libPath, Collections.singletonList(entryPoint), sources, sinks);
+		return infoflow;
+	}
+
+	/**
+	 * Creates a textual representation of the given data flows that can be
+	 * compared across Soot instances
+	 *
+	 * @param results The data flows
+	 * @return One string per data flow with its source, sink, and path
+	 */
+	protected static Set<String> describeFlows(InfoflowResults results) {
+		Set<String> flows = new TreeSet<>();
+		if (results == null || results.isEmpty())
+			return flows;
+		for (ResultSinkInfo sinkInfo : results.getResults().keySet()) {
+			for (ResultSourceInfo sourceInfo : results.getResults().get(sinkInfo))
+				flows.add(sourceInfo.getStmt() + " -> " + sinkInfo.getStmt() + " via "
+						+ Arrays.toString(sourceInfo.getPath()));
+		}
+		return flows;
+	}
+
+	/**
+	 * Checks that the given configuration change produces the same data flows and
+	 * paths as the default configuration on all given entry points
+	 *
+	 * @param entryPoints  The entry points to analyze, one at a time
+	 * @param configurator Callback that applies the configuration change
+	 */
+	protected void checkEquivalence(Collection<String> entryPoints, Consumer<InfoflowConfiguration> configurator) {
+		for (String entryPoint : entryPoints) {
+			Set<String> expected = computeFlows(entryPoint, c -> {
+			});
+			Set<String> actual = computeFlows(entryPoint, configurator);
+			assertEquals("Different results for " + entryPoint, expected, actual);
+		}
+	}
+
+}
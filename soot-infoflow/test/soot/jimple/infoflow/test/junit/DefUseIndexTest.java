@@ -0,0 +1,140 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import soot.Body;
+import soot.Local;
+import soot.Scene;
+import soot.SootMethod;
+import soot.Unit;
+import soot.Value;
+import soot.ValueBox;
+import soot.jimple.DefinitionStmt;
+import soot.jimple.FieldRef;
+import soot.jimple.Jimple;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
+import soot.jimple.infoflow.solver.sparseSolver.propagation.DefUseIndex;
+
+/**
+ * Tests for the precomputed def-use information of the sparse propagation
+ */
+public class DefUseIndexTest extends JUnitTests {
+
+	private static final String ENTRY_POINT = "<soot.jimple.infoflow.test.BasicTestCode: void arithmeticLoopTest1()>";
+
+	private IInfoflowCFG lastICFG;
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		return new Infoflow(null, false, null);
+	}
+
+	/**
+	 * Runs the data flow analysis on the test method to obtain the interprocedural
+	 * control flow graph
+	 *
+	 * @return The interprocedural control flow graph
+	 */
+	private IInfoflowCFG buildICFG() {
+		IInfoflow infoflow = initInfoflow();
+		lastICFG = null;
+		infoflow.addResultsAvailableHandler((cfg, results) -> lastICFG = cfg);
+		infoflow.computeInfoflow(appPath, libPath, Collections.singletonList(ENTRY_POINT), sources, sinks);
+		checkInfoflow(infoflow, 1);
+		assertNotNull(lastICFG);
+		return lastICFG;
+	}
+
+	@Test(timeout = 300000)
+	public void lookupTest() {
+		IInfoflowCFG icfg = buildICFG();
+		SootMethod sm = Scene.v().getMethod(ENTRY_POINT);
+		Body body = sm.getActiveBody();
+
+		DefUseIndex index = new DefUseIndex(icfg);
+		DefUseIndex.MethodIndex methodIndex = index.getMethodIndex(sm);
+		assertNotNull(methodIndex);
+		assertSame(methodIndex, index.getMethodIndex(sm));
+		assertSame(body, methodIndex.getBody());
+		assertEquals(body.getUnits().size(), methodIndex.size());
+		assertEquals(-1, methodIndex.indexOf(Jimple.v().newNopStmt()));
+
+		int idx = 0;
+		for (Unit u : body.getUnits()) {
+			assertSame(u, methodIndex.getUnit(idx));
+			assertEquals(idx, methodIndex.indexOf(u));
+
+			// The successors must be the same as in the control flow graph
+			Set<Unit> succs = new HashSet<>();
+			for (int succ : methodIndex.getSuccsOf(idx))
+				succs.add(methodIndex.getUnit(succ));
+			assertEquals(new HashSet<>(icfg.getSuccsOf(u)), succs);
+
+			Stmt stmt = (Stmt) u;
+			assertEquals(icfg.isExitStmt(u), methodIndex.isExit(idx));
+			assertEquals(stmt.containsInvokeExpr(), methodIndex.isCall(idx));
+			assertEquals(stmt instanceof DefinitionStmt, methodIndex.isDefinition(idx));
+
+			// Every local and field in the statement must be recorded, and no other
+			// local
+			Set<Local> mentioned = new HashSet<>();
+			for (ValueBox vb : stmt.getUseAndDefBoxes()) {
+				Value val = vb.getValue();
+				if (val instanceof Local) {
+					mentioned.add((Local) val);
+					assertTrue(methodIndex.mentions((Local) val, idx));
+				} else if (val instanceof FieldRef)
+					assertTrue(methodIndex.mentions(((FieldRef) val).getField(), idx));
+			}
+			for (Local local : body.getLocals()) {
+				if (!mentioned.contains(local))
+					assertFalse(methodIndex.mentions(local, idx));
+			}
+			idx++;
+		}
+	}
+
+	@Test(timeout = 300000)
+	public void invalidationTest() {
+		IInfoflowCFG icfg = buildICFG();
+		SootMethod sm = Scene.v().getMethod(ENTRY_POINT);
+
+		DefUseIndex index = new DefUseIndex(icfg);
+		DefUseIndex.MethodIndex oldIndex = index.getMethodIndex(sm);
+		assertNotNull(oldIndex);
+
+		// Explicit invalidation for bodies that are changed in place
+		index.invalidate(sm);
+		DefUseIndex.MethodIndex newIndex = index.getMethodIndex(sm);
+		assertNotSame(oldIndex, newIndex);
+		assertSame(newIndex, index.getMethodIndex(sm));
+
+		// A new active body must be picked up without explicit invalidation
+		Body newBody = (Body) sm.getActiveBody().clone();
+		sm.setActiveBody(newBody);
+		icfg.notifyNewBody(newBody);
+		DefUseIndex.MethodIndex replacedIndex = index.getMethodIndex(sm);
+		assertNotSame(newIndex, replacedIndex);
+		assertSame(newBody, replacedIndex.getBody());
+		assertEquals(newBody.getUnits().size(), replacedIndex.size());
+		assertSame(newBody.getUnits().getFirst(), replacedIndex.getUnit(0));
+		assertEquals(-1, replacedIndex.indexOf(newIndex.getUnit(0)));
+		assertSame(replacedIndex, index.getMethodIndex(sm));
+	}
+
+}
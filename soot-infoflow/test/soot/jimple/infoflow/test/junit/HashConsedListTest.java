@@ -0,0 +1,62 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.util.extensiblelist.HashConsedList;
+
+public class HashConsedListTest {
+
+	@Test
+	public void testInterning() {
+		Integer one = 1000, two = 2000;
+		HashConsedList<Integer> l1 = HashConsedList.append(HashConsedList.append(null, one), two);
+		HashConsedList<Integer> l2 = HashConsedList.append(HashConsedList.append(null, one), two);
+		assertSame(l1, l2);
+		assertEquals(2, l1.size());
+		assertEquals(Arrays.asList(one, two), l1.toList());
+		assertEquals(one, l1.getFirstSlow());
+		assertEquals(two, l1.getLast());
+		assertSame(HashConsedList.append(null, one), l1.getParent());
+	}
+
+	@Test
+	public void testStructuralEquality() {
+		String a = new String("a");
+		String b = new String("a");
+		HashConsedList<String> l1 = HashConsedList.append(null, a);
+		HashConsedList<String> l2 = HashConsedList.append(null, b);
+
+		// Different objects yield different nodes, but equal contents
+		assertNotSame(l1, l2);
+		assertTrue(HashConsedList.structurallyEquals(l1, l2));
+		assertEquals(HashConsedList.structuralHashCode(l1), HashConsedList.structuralHashCode(l2));
+
+		assertFalse(HashConsedList.structurallyEquals(l1, HashConsedList.append(l1, a)));
+		assertFalse(HashConsedList.structurallyEquals(l1, null));
+		assertTrue(HashConsedList.structurallyEquals(null, null));
+	}
+
+	@Test
+	public void testReverseIterator() {
+		HashConsedList<Integer> l = HashConsedList.appendAll(null, Arrays.asList(1, 2, 3));
+		Iterator<Integer> it = l.reverseIterator();
+		assertEquals(3, (int) it.next());
+		assertEquals(2, (int) it.next());
+		assertEquals(1, (int) it.next());
+		assertFalse(it.hasNext());
+
+		assertNull(l.getParent().getParent().getParent());
+		assertEquals(0, HashConsedList.size(null));
+	}
+
+}
@@ -0,0 +1,78 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import heros.solver.PathEdge;
+import soot.jimple.infoflow.solver.gcSolver.JumpFunctionSpillStore;
+
+public class JumpFunctionSpillStoreTest {
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	private static Set<PathEdge<String, String>> createEdges(String prefix, int count) {
+		Set<PathEdge<String, String>> edges = new HashSet<>();
+		for (int i = 0; i < count; i++)
+			edges.add(new PathEdge<>(prefix + "d1", prefix + "n" + i, prefix + "d" + (i % 3)));
+		return edges;
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		try (JumpFunctionSpillStore<String, String, String> store = new JumpFunctionSpillStore<>(
+				tempFolder.getRoot())) {
+			Set<PathEdge<String, String>> edgesA = createEdges("a", 100);
+			Set<PathEdge<String, String>> edgesB = createEdges("b", 10);
+			assertEquals(100, store.spill("a", edgesA));
+			assertEquals(10, store.spill("b", edgesB));
+			assertTrue(store.isSpilled("a"));
+			assertTrue(store.isSpilled("b"));
+			assertEquals(110, store.getSpilledEdgeCount());
+
+			// Reloading returns the same edges and removes them from the store
+			assertEquals(edgesA, new HashSet<>(store.reload("a")));
+			assertFalse(store.isSpilled("a"));
+			assertTrue(store.reload("a").isEmpty());
+			assertEquals(100, store.getReloadedEdgeCount());
+
+			// Discarding drops the edges without reading them
+			assertEquals(10, store.discard("b"));
+			assertFalse(store.isSpilled("b"));
+			assertEquals(0, store.discard("b"));
+			assertEquals(100, store.getReloadedEdgeCount());
+		}
+	}
+
+	@Test
+	public void testRepeatedSpill() throws IOException {
+		try (JumpFunctionSpillStore<String, String, String> store = new JumpFunctionSpillStore<>(
+				tempFolder.getRoot())) {
+			// Edges that are spilled for the same method in several rounds are all
+			// reloaded together
+			Set<PathEdge<String, String>> first = createEdges("a", 5);
+			Set<PathEdge<String, String>> second = createEdges("c", 7);
+			store.spill("a", first);
+			store.spill("a", second);
+
+			Set<PathEdge<String, String>> expected = new HashSet<>(first);
+			expected.addAll(second);
+			assertEquals(expected, new HashSet<>(store.reload("a")));
+
+			// Once the store is empty, the file is reused from the start
+			Set<PathEdge<String, String>> third = createEdges("e", 3);
+			store.spill("a", third);
+			assertEquals(third, new HashSet<>(store.reload("a")));
+		}
+	}
+
+}
@@ -1,5 +1,7 @@
 package soot.jimple.infoflow.test.junit;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -8,8 +10,12 @@ import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import soot.jimple.infoflow.memory.FlowDroidMemoryWatcher;
+import soot.jimple.infoflow.memory.MemoryDegradationLevel;
 import soot.jimple.infoflow.memory.MemoryWarningSystem;
 import soot.jimple.infoflow.memory.MemoryWarningSystem.OnMemoryThresholdReached;
+import soot.jimple.infoflow.results.InfoflowPerformanceData;
+import soot.jimple.infoflow.results.InfoflowResults;
 
 public class MemoryWatcherTest {
 	private static final Logger logger = LoggerFactory.getLogger(MemoryWatcherTest.class);
@@ -56,6 +62,32 @@ public class MemoryWatcherTest {
 		}
 	}
 
+	@Test
+	public void runDegradationTest() {
+		InfoflowResults results = new InfoflowResults();
+		results.setPerformanceData(new InfoflowPerformanceData());
+		FlowDroidMemoryWatcher watcher = new FlowDroidMemoryWatcher(results, 0.8);
+		List<MemoryDegradationLevel> levels = new ArrayList<>();
+		try {
+			watcher.enableDegradation(0.3);
+			watcher.addDegradationHandler(level -> {
+				synchronized (levels) {
+					levels.add(level);
+				}
+			});
+			while (watcher.getDegradationLevel() != MemoryDegradationLevel.SpillCaches)
+				leakMemory();
+		} finally {
+			memoryLeak.clear();
+			watcher.close();
+		}
+
+		// All levels must have been applied exactly once and in order
+		Assert.assertEquals(Arrays.asList(MemoryDegradationLevel.values()), levels);
+		Assert.assertEquals(MemoryDegradationLevel.values().length,
+				results.getPerformanceData().getMemoryDegradations().size());
+	}
+
 	private void leakMemory() {
 		for (long i = 0; i < MEMORY_STEP_BIG; i += MEMORY_STEP_SMALL)
 			memoryLeak.add(new byte[MEMORY_STEP_SMALL]);
@@ -0,0 +1,74 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.solver.cfg.MethodDominators;
+import soot.toolkits.graph.HashMutableDirectedGraph;
+
+public class MethodDominatorsTest {
+
+	private static HashMutableDirectedGraph<String> createGraph(String... edges) {
+		HashMutableDirectedGraph<String> graph = new HashMutableDirectedGraph<>();
+		for (int i = 0; i < edges.length; i += 2) {
+			if (!graph.containsNode(edges[i]))
+				graph.addNode(edges[i]);
+			if (!graph.containsNode(edges[i + 1]))
+				graph.addNode(edges[i + 1]);
+			graph.addEdge(edges[i], edges[i + 1]);
+		}
+		return graph;
+	}
+
+	@Test
+	public void diamondTest() {
+		MethodDominators<String> doms = new MethodDominators<>(
+				createGraph("entry", "if", "if", "then", "if", "else", "then", "join", "else", "join", "join", "exit"));
+
+		assertNull(doms.getImmediateDominator("entry"));
+		assertEquals("entry", doms.getImmediateDominator("if"));
+		assertEquals("if", doms.getImmediateDominator("then"));
+		assertEquals("if", doms.getImmediateDominator("else"));
+		assertEquals("if", doms.getImmediateDominator("join"));
+		assertEquals("join", doms.getImmediateDominator("exit"));
+
+		assertEquals("join", doms.getImmediatePostdominator("if"));
+		assertEquals("join", doms.getImmediatePostdominator("then"));
+		assertEquals("exit", doms.getImmediatePostdominator("join"));
+		assertNull(doms.getImmediatePostdominator("exit"));
+
+		assertEquals(Arrays.asList("exit", "join", "if", "entry"), doms.getDominators("exit"));
+	}
+
+	@Test
+	public void loopTest() {
+		MethodDominators<String> doms = new MethodDominators<>(createGraph("entry", "head", "head", "body", "body",
+				"latch", "latch", "head", "body", "exit", "head", "exit"));
+
+		assertEquals("entry", doms.getImmediateDominator("head"));
+		assertEquals("head", doms.getImmediateDominator("body"));
+		assertEquals("body", doms.getImmediateDominator("latch"));
+		assertEquals("head", doms.getImmediateDominator("exit"));
+
+		assertEquals("head", doms.getImmediatePostdominator("latch"));
+		assertEquals("exit", doms.getImmediatePostdominator("head"));
+		assertEquals("exit", doms.getImmediatePostdominator("body"));
+	}
+
+	@Test
+	public void multipleExitsTest() {
+		MethodDominators<String> doms = new MethodDominators<>(
+				createGraph("entry", "if", "if", "ret1", "if", "ret2"));
+
+		// The two return statements do not have a common postdominator inside the
+		// method
+		assertNull(doms.getImmediatePostdominator("if"));
+		assertEquals("if", doms.getImmediatePostdominator("entry"));
+		assertEquals("if", doms.getImmediateDominator("ret2"));
+	}
+
+}
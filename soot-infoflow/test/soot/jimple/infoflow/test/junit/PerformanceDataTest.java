@@ -0,0 +1,65 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Map;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.results.InfoflowPerformanceData;
+import soot.jimple.infoflow.results.MethodPerformanceData;
+import soot.jimple.infoflow.results.PerformanceDataJsonWriter;
+
+public class PerformanceDataTest {
+
+	private static InfoflowPerformanceData createData() {
+		InfoflowPerformanceData data = new InfoflowPerformanceData();
+		data.addMethodPerformanceData("<com.example.A: void foo()>", new MethodPerformanceData(10, 5, 100, 50, 0, 0, 2));
+		data.addMethodPerformanceData("<com.example.A: void bar(int)>", new MethodPerformanceData(3, 0, 30, 0, 0, 0, 0));
+		data.addMethodPerformanceData("<com.example.util.B: int baz()>", new MethodPerformanceData(0, 0, 0, 0, 4, 400, 0));
+		data.addMethodPerformanceData("<Main: void main(java.lang.String[])>",
+				new MethodPerformanceData(1, 0, 10, 0, 0, 0, 0));
+		return data;
+	}
+
+	@Test
+	public void testAggregation() {
+		InfoflowPerformanceData data = createData();
+		assertEquals(4, data.getMethodPerformanceData().size());
+
+		Map<String, MethodPerformanceData> classData = data.getClassPerformanceData();
+		assertEquals(3, classData.size());
+		assertEquals(13, classData.get("com.example.A").getEdgeCount());
+		assertEquals(2, classData.get("com.example.A").getAliasQueryCount());
+
+		Map<String, MethodPerformanceData> packageData = data.getPackagePerformanceData();
+		assertEquals(3, packageData.size());
+		assertEquals(18, packageData.get("com.example").getTotalEdgeCount());
+		assertEquals(400, packageData.get("com.example.util").getTaintWrapperTime());
+		assertEquals(1, packageData.get("").getEdgeCount());
+
+		// Adding the same data again sums up the values per method
+		data.add(createData());
+		assertEquals(4, data.getMethodPerformanceData().size());
+		assertEquals(20, data.getMethodPerformanceData().get("<com.example.A: void foo()>").getEdgeCount());
+	}
+
+	@Test
+	public void testJsonReport() throws IOException {
+		StringWriter writer = new StringWriter();
+		new PerformanceDataJsonWriter().write(createData(), writer);
+		String json = writer.toString();
+
+		assertTrue(json.startsWith("{"));
+		assertTrue(json.trim().endsWith("}"));
+		assertTrue(json.contains("{\"name\": \"com.example\", \"edges\": 13, \"aliasEdges\": 5"));
+		assertTrue(json.contains("\"name\": \"<Main: void main(java.lang.String[])>\""));
+
+		// The most expensive package comes first
+		assertTrue(json.indexOf("\"com.example\"") < json.indexOf("\"com.example.util\""));
+	}
+
+}
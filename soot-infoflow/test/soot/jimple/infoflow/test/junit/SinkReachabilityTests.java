@@ -0,0 +1,79 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import soot.Scene;
+import soot.SootMethod;
+import soot.Unit;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.SinkReachabilityInfoflow;
+import soot.jimple.infoflow.sourcesSinks.manager.DefaultSourceSinkManager;
+import soot.jimple.toolkits.callgraph.CallGraph;
+
+/**
+ * Tests for the on-demand queries whether single sinks are reachable from a
+ * source
+ */
+public class SinkReachabilityTests extends JUnitTests {
+
+	private static final String ENTRY_POINT = "<soot.jimple.infoflow.test.OtherTestCode: void reachableAndUnreachableSink()>";
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		return new SinkReachabilityInfoflow();
+	}
+
+	/**
+	 * Gets the calls to the string sink in the given method in the order in which
+	 * they appear in the code
+	 */
+	private static List<Stmt> getSinkCalls(String methodSignature) {
+		SootMethod sm = Scene.v().getMethod(methodSignature);
+		List<Stmt> sinkCalls = new ArrayList<>();
+		for (Unit u : sm.getActiveBody().getUnits()) {
+			Stmt stmt = (Stmt) u;
+			if (stmt.containsInvokeExpr() && stmt.getInvokeExpr().getMethod().getSignature().equals(sink))
+				sinkCalls.add(stmt);
+		}
+		return sinkCalls;
+	}
+
+	@Test(timeout = 300000)
+	public void singleSinkQueryTest() {
+		SinkReachabilityInfoflow infoflow = (SinkReachabilityInfoflow) initInfoflow();
+
+		// Load the program and build the callgraph
+		infoflow.computeInfoflow(appPath, libPath, ENTRY_POINT, sources, sinks);
+		checkInfoflow(infoflow, 1);
+
+		List<Stmt> sinkCalls = getSinkCalls(ENTRY_POINT);
+		assertEquals(2, sinkCalls.size());
+		Stmt reachableSink = sinkCalls.get(0);
+		Stmt unreachableSink = sinkCalls.get(1);
+
+		// The queries must neither replace the callgraph nor change the configuration
+		infoflow.getConfig().setEnableReflection(true);
+		CallGraph callgraph = Scene.v().getCallGraph();
+		DefaultSourceSinkManager sourcesSinks = new DefaultSourceSinkManager(sources, sinks);
+
+		assertTrue(infoflow.isSinkReachable(sourcesSinks, reachableSink));
+		assertFalse(infoflow.isSinkReachable(sourcesSinks, unreachableSink));
+		Set<Stmt> reachableSinks = infoflow.getReachableSinks(sourcesSinks, sinkCalls);
+		assertEquals(Collections.singleton(reachableSink), reachableSinks);
+
+		assertSame(callgraph, Scene.v().getCallGraph());
+		assertTrue(infoflow.getConfig().getEnableReflection());
+	}
+
+}
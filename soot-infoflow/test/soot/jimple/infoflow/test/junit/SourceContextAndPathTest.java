@@ -0,0 +1,55 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import soot.jimple.Jimple;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.data.SourceContextAndPath;
+
+public class SourceContextAndPathTest {
+
+	private static Abstraction createAbstraction(Stmt stmt) {
+		return new Abstraction(Collections.emptySet(), AccessPath.getEmptyAccessPath(), stmt, null, false, false);
+	}
+
+	@Test
+	public void testPathOrder() {
+		Stmt s1 = Jimple.v().newNopStmt();
+		Stmt s2 = Jimple.v().newNopStmt();
+		Stmt s3 = Jimple.v().newNopStmt();
+		Abstraction a1 = createAbstraction(s1);
+		Abstraction a2 = createAbstraction(s2);
+		Abstraction a3 = createAbstraction(s3);
+
+		// The path builders extend the path from the sink towards the source
+		SourceContextAndPath scap = new SourceContextAndPath(new InfoflowConfiguration(), Collections.emptySet(),
+				AccessPath.getEmptyAccessPath(), s1);
+		scap = scap.extendPath(a1);
+		assertNotNull(scap);
+		scap = scap.extendPath(a2);
+		assertNotNull(scap);
+		scap = scap.extendPath(a3);
+		assertNotNull(scap);
+
+		// Both views report the path from the last abstraction to the first one
+		List<Abstraction> absPath = scap.getAbstractionPath();
+		assertEquals(Arrays.asList(a3, a2, a1), absPath);
+		assertEquals(Arrays.asList(s3, s2, s1), scap.getPath());
+		for (int i = 0; i < absPath.size(); i++)
+			assertEquals(absPath.get(i).getCurrentStmt(), scap.getPath().get(i));
+
+		assertEquals(a3, scap.getLastAbstraction());
+		assertEquals(a1, scap.getFirstAbstractionSlow());
+	}
+
+}
@@ -0,0 +1,74 @@
+package soot.jimple.infoflow.test.junit.backward;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.BackwardsInfoflow;
+import soot.jimple.infoflow.GroupedBackwardsInfoflow;
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.test.junit.ConfigurationEquivalenceTests;
+
+/**
+ * Checks that the grouped backward analysis finds the same data flows and paths
+ * as the plain backward analysis
+ */
+public class GroupedBackwardsInfoflowTests extends ConfigurationEquivalenceTests {
+
+	private static final List<String> MULTI_SINK_TARGETS = Arrays.asList(
+			"<soot.jimple.infoflow.test.MultiTestCode: void multiSourceCode()>",
+			"<soot.jimple.infoflow.test.MultiTestCode: void multiSourceCode2()>",
+			"<soot.jimple.infoflow.test.MultiTestCode: void ifPathTestCode1()>",
+			"<soot.jimple.infoflow.test.MultiTestCode: void intMultiTest()>",
+			"<soot.jimple.infoflow.test.MultiTestCode: void multiSinkTest1()>",
+			"<soot.jimple.infoflow.test.MultiTestCode: void multiSinkTest2()>");
+
+	/**
+	 * The number of sink groups for the grouped analysis, or 0 to run the plain
+	 * backward analysis
+	 */
+	private int sinkGroupCount = 0;
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		if (sinkGroupCount <= 0)
+			return new BackwardsInfoflow(null, false, null);
+
+		GroupedBackwardsInfoflow infoflow = new GroupedBackwardsInfoflow(null, false, null);
+		infoflow.setSinkGroupCount(sinkGroupCount);
+		return infoflow;
+	}
+
+	private Set<String> computeFlows(String entryPoint, int sinkGroupCount) {
+		this.sinkGroupCount = sinkGroupCount;
+		IInfoflow infoflow = runInfoflow(entryPoint, i -> {
+		});
+		assertTrue(infoflow.isResultAvailable());
+		return describeFlows(infoflow.getResults());
+	}
+
+	private void checkGroupedEquivalence(int sinkGroupCount) {
+		for (String entryPoint : MULTI_SINK_TARGETS) {
+			Set<String> expected = computeFlows(entryPoint, 0);
+			Set<String> actual = computeFlows(entryPoint, sinkGroupCount);
+			assertEquals("Different results for " + entryPoint, expected, actual);
+		}
+	}
+
+	@Test(timeout = 600000)
+	public void singleGroupTest() {
+		checkGroupedEquivalence(1);
+	}
+
+	@Test(timeout = 600000)
+	public void defaultGroupsTest() {
+		checkGroupedEquivalence(GroupedBackwardsInfoflow.DEFAULT_SINK_GROUP_COUNT);
+	}
+
+}
@@ -0,0 +1,44 @@
+package soot.jimple.infoflow.test.junit.forward;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.test.junit.ConfigurationEquivalenceTests;
+
+/**
+ * Checks that answering alias queries from the cache yields the same results
+ * and paths as running every backward search
+ */
+public class AliasQueryCacheTests extends ConfigurationEquivalenceTests {
+
+	private static final List<String> ALIAS_TARGETS = Arrays.asList(
+			"<soot.jimple.infoflow.test.HeapTestCode: void methodTest0()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void twoLevelTest()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void multiAliasTest()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void overwriteAliasTest()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void arrayAliasTest()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void functionAliasTest()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void functionAliasTest2()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void testAliases()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void doubleAliasTest()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void tripleAliasTest()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void singleAliasTest()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void multiAliasBaseTest()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void aliasFlowTest()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void multiContextTest1()>");
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		return new Infoflow(null, false, null);
+	}
+
+	@Test(timeout = 600000)
+	public void aliasQueryCacheTest() {
+		checkEquivalence(ALIAS_TARGETS, config -> config.setAliasQueryCaching(true));
+	}
+
+}
@@ -0,0 +1,159 @@
+package soot.jimple.infoflow.test.junit.forward;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import soot.Unit;
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.InfoflowManager;
+import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.handlers.TaintPropagationHandler;
+import soot.jimple.infoflow.memory.IMemoryBoundedSolver;
+import soot.jimple.infoflow.memory.reasons.AbortRequestedReason;
+import soot.jimple.infoflow.solver.DefaultSolverPeerGroup;
+import soot.jimple.infoflow.solver.IInfoflowSolver;
+import soot.jimple.infoflow.solver.checkpoint.SolverCheckpointer;
+import soot.jimple.infoflow.solver.fastSolver.InfoflowSolver;
+import soot.jimple.infoflow.test.junit.ConfigurationEquivalenceTests;
+
+/**
+ * Tests for interrupting a data flow analysis, writing its state into a
+ * checkpoint, and continuing it in a fresh Soot instance
+ */
+public class CheckpointTests extends ConfigurationEquivalenceTests {
+
+	private static final String ALIAS_TARGET = "<soot.jimple.infoflow.test.HeapTestCode: void tripleAliasTest()>";
+	private static final String OTHER_TARGET = "<soot.jimple.infoflow.test.HeapTestCode: void functionAliasTest()>";
+
+	/**
+	 * Number of edges after which the first run is interrupted
+	 */
+	private static final int INTERRUPT_AFTER_FLOWS = 5;
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	/**
+	 * Data flow analysis that records whether it could continue from its
+	 * checkpoint
+	 */
+	private static class CheckpointInfoflow extends Infoflow {
+
+		private Boolean resumed = null;
+
+		public CheckpointInfoflow() {
+			super(null, false, null);
+		}
+
+		@Override
+		protected SolverCheckpointer createCheckpointer(IInfoflowSolver forwardSolver, IInfoflowSolver backwardSolver,
+				IInfoflowSolver additionalSolver, boolean oneSourceAtATime) {
+			if (super.createCheckpointer(forwardSolver, backwardSolver, additionalSolver, oneSourceAtATime) == null)
+				return null;
+			return new SolverCheckpointer(manager, new File(config.getSolverConfiguration().getCheckpointFile()), 0,
+					(InfoflowSolver) forwardSolver, (InfoflowSolver) backwardSolver,
+					(DefaultSolverPeerGroup) solverPeerGroup) {
+
+				@Override
+				public boolean resume() throws IOException {
+					resumed = super.resume();
+					return resumed;
+				}
+
+			};
+		}
+
+	}
+
+	/**
+	 * Taint propagation handler that terminates the taint solver after a given
+	 * number of edges
+	 */
+	private static class InterruptingHandler implements TaintPropagationHandler {
+
+		private int flows = 0;
+
+		@Override
+		public void notifyFlowIn(Unit stmt, Abstraction taint, InfoflowManager manager, FlowFunctionType type) {
+			if (++flows == INTERRUPT_AFTER_FLOWS)
+				((IMemoryBoundedSolver) manager.getMainSolver()).forceTerminate(new AbortRequestedReason());
+		}
+
+		@Override
+		public Set<Abstraction> notifyFlowOut(Unit stmt, Abstraction d1, Abstraction incoming,
+				Set<Abstraction> outgoing, InfoflowManager manager, FlowFunctionType type) {
+			return outgoing;
+		}
+
+	}
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		return new CheckpointInfoflow();
+	}
+
+	/**
+	 * Runs the given entry point until it is interrupted and writes a checkpoint
+	 */
+	private File writeInterruptedCheckpoint(String entryPoint) throws IOException {
+		File checkpointFile = new File(tempFolder.getRoot(), "solver.ckpt");
+		runInfoflow(entryPoint, infoflow -> {
+			infoflow.getConfig().getSolverConfiguration().setCheckpointFile(checkpointFile.getPath());
+			infoflow.setTaintPropagationHandler(new InterruptingHandler());
+		});
+		assertTrue("Interrupted run did not write a checkpoint", checkpointFile.exists());
+		return checkpointFile;
+	}
+
+	/**
+	 * Continues the analysis of the given entry point from the given checkpoint
+	 */
+	private CheckpointInfoflow resumeFromCheckpoint(String entryPoint, File checkpointFile) {
+		IInfoflow infoflow = runInfoflow(entryPoint, i -> {
+			i.getConfig().getSolverConfiguration().setCheckpointFile(checkpointFile.getPath());
+			i.getConfig().getSolverConfiguration().setResumeFromCheckpoint(true);
+		});
+		assertTrue(infoflow.isResultAvailable());
+		return (CheckpointInfoflow) infoflow;
+	}
+
+	@Test(timeout = 300000)
+	public void resumeTest() throws IOException {
+		Set<String> expected = computeFlows(ALIAS_TARGET, config -> {
+		});
+		assertFalse(expected.isEmpty());
+
+		File checkpointFile = writeInterruptedCheckpoint(ALIAS_TARGET);
+		CheckpointInfoflow infoflow = resumeFromCheckpoint(ALIAS_TARGET, checkpointFile);
+		assertNotNull(infoflow.resumed);
+		assertTrue(infoflow.resumed);
+		assertEquals(expected, describeFlows(infoflow.getResults()));
+	}
+
+	@Test(timeout = 300000)
+	public void differentSeedsTest() throws IOException {
+		Set<String> expected = computeFlows(OTHER_TARGET, config -> {
+		});
+
+		// A checkpoint of another entry point must not be loaded, the analysis
+		// starts from its own seeds instead
+		File checkpointFile = writeInterruptedCheckpoint(ALIAS_TARGET);
+		CheckpointInfoflow infoflow = resumeFromCheckpoint(OTHER_TARGET, checkpointFile);
+		assertNotNull(infoflow.resumed);
+		assertFalse(infoflow.resumed);
+		assertEquals(expected, describeFlows(infoflow.getResults()));
+	}
+
+}
@@ -0,0 +1,74 @@
+package soot.jimple.infoflow.test.junit.forward;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.test.junit.ConfigurationEquivalenceTests;
+
+/**
+ * Checks that memoizing the normal flow functions yields the same results and
+ * paths as computing every normal flow function anew
+ */
+public class NormalFlowFunctionMemoTests extends ConfigurationEquivalenceTests {
+
+	private static final List<String> BASIC_TARGETS = Arrays.asList(
+			"<soot.jimple.infoflow.test.BasicTestCode: void simpleTest()>",
+			"<soot.jimple.infoflow.test.BasicTestCode: void basicAliasTest()>",
+			"<soot.jimple.infoflow.test.BasicTestCode: void simpleArithmeticTest1()>",
+			"<soot.jimple.infoflow.test.BasicTestCode: void arithmeticLoopTest1()>",
+			"<soot.jimple.infoflow.test.BasicTestCode: void arithmeticLoopTest2()>",
+			"<soot.jimple.infoflow.test.BasicTestCode: void overwriteBaseObjectTest1()>",
+			"<soot.jimple.infoflow.test.BasicTestCode: void overwriteBaseObjectTest2()>",
+			"<soot.jimple.infoflow.test.BasicTestCode: void overwriteInCalleeTest1()>",
+			"<soot.jimple.infoflow.test.BasicTestCode: void overwriteInCalleeTest2()>",
+			"<soot.jimple.infoflow.test.ContextSensitivityTestCode: void contextSensitivityTest1()>",
+			"<soot.jimple.infoflow.test.ContextSensitivityTestCode: void multipleCallSiteTest1()>",
+			"<soot.jimple.infoflow.test.ContextSensitivityTestCode: void multipleExitTest1()>");
+
+	private static final List<String> HEAP_TARGETS = Arrays.asList(
+			"<soot.jimple.infoflow.test.HeapTestCode: void methodTest0()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void twoLevelTest()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void multiAliasTest()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void overwriteAliasTest()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void functionAliasTest()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void doubleAliasTest()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void tripleAliasTest()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void multiAliasBaseTest()>",
+			"<soot.jimple.infoflow.test.OverwriteTestCode: void fieldOverwrite()>",
+			"<soot.jimple.infoflow.test.OverwriteTestCode: void loopOverwrite()>",
+			"<soot.jimple.infoflow.test.OverwriteTestCode: void overwriteAlias()>",
+			"<soot.jimple.infoflow.test.OverwriteTestCode: void returnOverwrite()>");
+
+	private static final List<String> ARRAY_TARGETS = Arrays.asList(
+			"<soot.jimple.infoflow.test.ArrayTestCode: void concreteWriteReadSamePosTest()>",
+			"<soot.jimple.infoflow.test.ArrayTestCode: void concreteWriteReadDiffPosTest()>",
+			"<soot.jimple.infoflow.test.ArrayTestCode: void arrayAsFieldOfClass()>",
+			"<soot.jimple.infoflow.test.ArrayTestCode: void arrayLengthTest()>",
+			"<soot.jimple.infoflow.test.ArrayTestCode: void arrayOverwriteTest()>",
+			"<soot.jimple.infoflow.test.ArrayTestCode: void copyTest()>");
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		return new Infoflow(null, false, null);
+	}
+
+	@Test(timeout = 600000)
+	public void basicTargetsTest() {
+		checkEquivalence(BASIC_TARGETS, config -> config.getSolverConfiguration().setMemoizeNormalFlowFunctions(true));
+	}
+
+	@Test(timeout = 600000)
+	public void heapTargetsTest() {
+		checkEquivalence(HEAP_TARGETS, config -> config.getSolverConfiguration().setMemoizeNormalFlowFunctions(true));
+	}
+
+	@Test(timeout = 600000)
+	public void arrayTargetsTest() {
+		checkEquivalence(ARRAY_TARGETS, config -> config.getSolverConfiguration().setMemoizeNormalFlowFunctions(true));
+	}
+
+}